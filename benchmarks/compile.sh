@@ -0,0 +1,6 @@
+#!/bin/sh
+# JMH jars are not shipped with EdgeCloudSim, copy them to the lib folder of the benchmarks:
+# jmh-core-1.37.jar, jmh-generator-annprocess-1.37.jar and jopt-simple-5.0.4.jar
+rm -rf bin
+mkdir bin
+javac -classpath "../lib/cloudsim-4.0.jar:../lib/commons-math3-3.6.1.jar:../lib/colt.jar:../lib/weka.jar:../lib/mtj-1.0.4.jar:lib/jmh-core-1.37.jar:lib/jmh-generator-annprocess-1.37.jar:lib/jopt-simple-5.0.4.jar" -processor org.openjdk.jmh.generators.BenchmarkProcessor -sourcepath "../src:src" `find src -name "*.java"` -d bin
@@ -0,0 +1,10 @@
+#!/bin/sh
+# compiles the sample applications and runs the macro benchmark, the arguments are passed to MacroBenchmark
+# e.g. ./macro.sh results sample_app1,sample_app5 100,1000,10000 1
+# weka.jar and jFuzzyLogic_v3.0.jar should be in the main lib folder, as for sample_app4 and sample_app5
+CLASSPATH="../lib/cloudsim-4.0.jar:../lib/commons-math3-3.6.1.jar:../lib/colt.jar:../lib/weka.jar:../lib/mtj-1.0.4.jar:../lib/jFuzzyLogic_v3.0.jar"
+APPS=../src/edu/boun/edgecloudsim/applications
+rm -rf bin_macro
+mkdir bin_macro
+javac -classpath "$CLASSPATH" -sourcepath "../src:src" src/edu/boun/edgecloudsim/benchmarks/MacroBenchmark.java src/edu/boun/edgecloudsim/benchmarks/MacroBenchmarkRun.java $APPS/sample_app1/MainApp.java $APPS/sample_app2/MainApp.java $APPS/sample_app3/MainApp.java $APPS/sample_app4/FuzzyMainApp.java $APPS/sample_app5/VehicularMainApp.java -d bin_macro || exit 1
+java $JAVA_OPTS -Dedgecloudsim.home=.. -classpath "bin_macro:$CLASSPATH" edu.boun.edgecloudsim.benchmarks.MacroBenchmark "$@"
@@ -0,0 +1,4 @@
+#!/bin/sh
+# runs the benchmarks compiled by compile.sh, the JMH options are passed as they are
+# e.g. ./run.sh MobilityBenchmark -p numOfMobileDevices=1000 -rf json -rff result.json
+java -Dedgecloudsim.home=.. -classpath "bin:../lib/cloudsim-4.0.jar:../lib/commons-math3-3.6.1.jar:../lib/colt.jar:../lib/weka.jar:../lib/mtj-1.0.4.jar:lib/jmh-core-1.37.jar:lib/jopt-simple-5.0.4.jar" org.openjdk.jmh.Main "$@"
@@ -0,0 +1,106 @@
+/*
+ * Title:        EdgeCloudSim - Access Point Grid Benchmark
+ *
+ * Description:
+ * AccessPointGridBenchmark measures the nearest access point and the
+ * in range access point queries of AccessPointGrid for increasing number
+ * of access points. The access points are placed randomly in a square
+ * area having a constant density, so the cost of a query should not
+ * depend on the number of access points.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Document;
+import org.w3c.dom.NodeList;
+
+import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.mobility.AccessPointGrid;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AccessPointGridBenchmark {
+	private static final int NUM_OF_QUERIES = 4096;
+
+	//area of each access point (meters x meters)
+	private static final int AREA_PER_ACCESS_POINT = 200 * 200;
+
+	@Param({"14", "140", "1400"})
+	public int numOfDatacenters;
+
+	@Param({"100", "300"})
+	public int wlanRange;
+
+	private AccessPointGrid grid;
+	private double[] xPositions;
+	private double[] yPositions;
+	private int[] result;
+	private int queryIndex;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		BenchmarkScenario.initializeSettings(BenchmarkScenario.NOMADIC_APP, numOfDatacenters, 1);
+
+		//move the generated datacenters to random positions
+		int sideLength = (int)Math.sqrt((double)AREA_PER_ACCESS_POINT * numOfDatacenters);
+		Random rng = new Random(1);
+		Document doc = BenchmarkScenario.createEdgeDevicesDocument(numOfDatacenters, 1);
+		NodeList xNodes = doc.getElementsByTagName("x_pos");
+		NodeList yNodes = doc.getElementsByTagName("y_pos");
+		for(int i=0; i<numOfDatacenters; i++){
+			xNodes.item(i).setTextContent(Integer.toString(rng.nextInt(sideLength)));
+			yNodes.item(i).setTextContent(Integer.toString(rng.nextInt(sideLength)));
+		}
+		SimSettings.getInstance().initialize(
+				SimSettings.loadProperties(BenchmarkScenario.getConfigFile(BenchmarkScenario.NOMADIC_APP, "default_config.properties")),
+				doc,
+				SimSettings.parseXML(BenchmarkScenario.getConfigFile(BenchmarkScenario.NOMADIC_APP, "applications.xml")));
+
+		grid = new AccessPointGrid(SimSettings.getInstance().getEdgeTopology(), wlanRange, 0, 0, sideLength, sideLength);
+		result = new int[numOfDatacenters];
+
+		xPositions = new double[NUM_OF_QUERIES];
+		yPositions = new double[NUM_OF_QUERIES];
+		for(int i=0; i<NUM_OF_QUERIES; i++){
+			xPositions[i] = rng.nextDouble() * sideLength;
+			yPositions[i] = rng.nextDouble() * sideLength;
+		}
+		queryIndex = 0;
+	}
+
+	@Benchmark
+	public int getNearestDatacenter() {
+		int i = queryIndex;
+		queryIndex = (i + 1) & (NUM_OF_QUERIES - 1);
+		return grid.getNearestDatacenter(xPositions[i], yPositions[i]);
+	}
+
+	@Benchmark
+	public int getDatacentersInRange() {
+		int i = queryIndex;
+		queryIndex = (i + 1) & (NUM_OF_QUERIES - 1);
+		return grid.getDatacentersInRange(xPositions[i], yPositions[i], result);
+	}
+}
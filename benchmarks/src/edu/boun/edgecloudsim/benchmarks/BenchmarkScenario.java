@@ -0,0 +1,211 @@
+/*
+ * Title:        EdgeCloudSim - Benchmark Scenario
+ *
+ * Description:
+ * BenchmarkScenario prepares the static state of EdgeCloudSim for the
+ * JMH benchmarks. The settings are loaded from the config file of a
+ * sample application, but the edge topology is generated so that the
+ * number of datacenters and VMs can be given as benchmark parameters.
+ * Each generated datacenter has a single host, its wlan id is equal to
+ * its index and the datacenters are placed along the x axis with the
+ * same distance, so the topology is valid for both nomadic and
+ * vehicular mobility models.
+ *
+ * The sample application folders are searched in the folder given by
+ * the edgecloudsim.home system property (default: ..).
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.benchmarks;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.util.Calendar;
+import java.util.Properties;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.UtilizationModel;
+import org.cloudbus.cloudsim.UtilizationModelFull;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import edu.boun.edgecloudsim.core.SimManager;
+import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.edge_client.CpuUtilizationModel_Custom;
+import edu.boun.edgecloudsim.edge_client.Task;
+import edu.boun.edgecloudsim.utils.RandomStreams;
+import edu.boun.edgecloudsim.utils.SimLogger;
+
+public class BenchmarkScenario {
+	public static final String HOME_PROPERTY = "edgecloudsim.home";
+
+	public static final String NOMADIC_APP = "sample_app1";
+	public static final String VEHICULAR_APP = "sample_app5";
+
+	//half of the distance between two generated datacenters (meters)
+	private static final int HALF_SEGMENT_LENGTH = 100;
+
+	/*
+	 * returns the path of a file in the config folder of the sample application
+	 */
+	public static String getConfigFile(String app, String fileName) {
+		String home = System.getProperty(HOME_PROPERTY, "..");
+		return home + File.separator + "scripts" + File.separator + app +
+				File.separator + "config" + File.separator + fileName;
+	}
+
+	/*
+	 * initializes SimSettings and the random streams; the tasks are
+	 * generated on demand, so the number of devices does not affect
+	 * the setup time, and file logging is disabled
+	 */
+	public static void initializeSettings(String app, int numOfDatacenters, int numOfVmsPerHost) {
+		//console output is kept to see the errors of the simulator
+		Log.disable();
+		SimLogger.enablePrintLog();
+		SimLogger.disableFileLog();
+
+		Properties prop = SimSettings.loadProperties(getConfigFile(app, "default_config.properties"));
+		Document applicationsDoc = SimSettings.parseXML(getConfigFile(app, "applications.xml"));
+		if(prop == null || applicationsDoc == null)
+			throw new IllegalStateException("config files of " + app + " cannot be read, check the " + HOME_PROPERTY + " property");
+
+		prop.setProperty("file_log_enabled", "false");
+		prop.setProperty("deep_file_log_enabled", "false");
+		prop.setProperty("streaming_task_generation", "true");
+		prop.setProperty("decision_trace_level", "OFF");
+		prop.setProperty("event_loop_profiling_enabled", "false");
+		prop.setProperty("random_seed", "1");
+
+		Document edgeDevicesDoc = createEdgeDevicesDocument(numOfDatacenters, numOfVmsPerHost);
+		if(SimSettings.getInstance().initialize(prop, edgeDevicesDoc, applicationsDoc) == false)
+			throw new IllegalStateException("cannot initialize simulation settings");
+
+		RandomStreams.initialize(SimSettings.getInstance().getRandomSeed(), 1);
+	}
+
+	/*
+	 * creates the simulation manager of the nomadic scenario without
+	 * starting the simulation; the datacenters and VMs are created and
+	 * the simulation clock is moved to the middle of the simulation, so
+	 * the devices are located and the models can be queried
+	 */
+	public static SimManager createNomadicSimManager(int numOfMobileDevices, String simScenario, String orchestratorPolicy) throws Exception {
+		SimSettings SS = SimSettings.getInstance();
+		SimLogger.getInstance().simStarted(System.getProperty("java.io.tmpdir"), "BENCHMARK");
+
+		CloudSim.init(2, Calendar.getInstance(), false, 0.01);
+
+		NomadicScenarioFactory factory = new NomadicScenarioFactory(numOfMobileDevices, SS.getSimulationTime(), orchestratorPolicy, simScenario);
+		SimManager manager = new SimManager(factory, numOfMobileDevices, simScenario, orchestratorPolicy);
+
+		manager.getEdgeServerManager().startDatacenters();
+		manager.getEdgeServerManager().createVmList(manager.getMobileDeviceManager().getId());
+		manager.getCloudServerManager().startDatacenters();
+		manager.getCloudServerManager().createVmList(manager.getMobileDeviceManager().getId());
+
+		setClock(SS.getSimulationTime() / 2);
+
+		return manager;
+	}
+
+	/*
+	 * CloudSim does not allow to set the clock without processing events,
+	 * so the private field is set directly
+	 */
+	public static void setClock(double time) throws Exception {
+		Field clock = CloudSim.class.getDeclaredField("clock");
+		clock.setAccessible(true);
+		clock.setDouble(null, time);
+	}
+
+	/*
+	 * creates a task with the average properties of the given task type
+	 */
+	public static Task createTask(int taskId, int deviceId, int taskType, double deadline) {
+		double[] taskProperties = SimSettings.getInstance().getTaskLookUpTable()[taskType];
+		CpuUtilizationModel_Custom utilizationModelCPU = new CpuUtilizationModel_Custom();
+		UtilizationModel utilizationModel = new UtilizationModelFull();
+
+		Task task = new Task(deviceId, taskId,
+				(long)taskProperties[7], (int)taskProperties[8],
+				(long)taskProperties[5], (long)taskProperties[6],
+				utilizationModelCPU, utilizationModel, utilizationModel);
+		task.setTaskType(taskType);
+		task.setDeadline(deadline);
+		task.setCriticality((deadline < 10.0) ? 1 : 0);
+		utilizationModelCPU.setTask(task);
+
+		return task;
+	}
+
+	/*
+	 * creates an edge_devices document with the given number of datacenters;
+	 * each datacenter has one host and the host has the given number of VMs
+	 */
+	public static Document createEdgeDevicesDocument(int numOfDatacenters, int numOfVmsPerHost) {
+		Document doc;
+		try {
+			doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+		} catch (ParserConfigurationException e) {
+			throw new IllegalStateException(e);
+		}
+
+		Element root = doc.createElement("edge_devices");
+		doc.appendChild(root);
+
+		for(int i=0; i<numOfDatacenters; i++){
+			Element datacenter = doc.createElement("datacenter");
+			datacenter.setAttribute("arch", "x86");
+			datacenter.setAttribute("os", "Linux");
+			datacenter.setAttribute("vmm", "Xen");
+			appendValue(doc, datacenter, "costPerBw", "0.1");
+			appendValue(doc, datacenter, "costPerSec", "3.0");
+			appendValue(doc, datacenter, "costPerMem", "0.05");
+			appendValue(doc, datacenter, "costPerStorage", "0.1");
+
+			Element location = doc.createElement("location");
+			appendValue(doc, location, "x_pos", Integer.toString((2 * i + 1) * HALF_SEGMENT_LENGTH));
+			appendValue(doc, location, "y_pos", "0");
+			appendValue(doc, location, "wlan_id", Integer.toString(i));
+			appendValue(doc, location, "attractiveness", Integer.toString(i % 3));
+			datacenter.appendChild(location);
+
+			Element hosts = doc.createElement("hosts");
+			Element host = doc.createElement("host");
+			appendValue(doc, host, "core", Integer.toString(2 * numOfVmsPerHost));
+			appendValue(doc, host, "mips", Integer.toString(2000 * numOfVmsPerHost));
+			appendValue(doc, host, "ram", Integer.toString(4000 * numOfVmsPerHost));
+			appendValue(doc, host, "storage", Integer.toString(100000 * numOfVmsPerHost));
+
+			Element vms = doc.createElement("VMs");
+			for(int j=0; j<numOfVmsPerHost; j++){
+				Element vm = doc.createElement("VM");
+				vm.setAttribute("vmm", "Xen");
+				appendValue(doc, vm, "core", "2");
+				appendValue(doc, vm, "mips", "1000");
+				appendValue(doc, vm, "ram", "2000");
+				appendValue(doc, vm, "storage", "50000");
+				vms.appendChild(vm);
+			}
+			host.appendChild(vms);
+			hosts.appendChild(host);
+			datacenter.appendChild(hosts);
+			root.appendChild(datacenter);
+		}
+
+		return doc;
+	}
+
+	private static void appendValue(Document doc, Element parent, String name, String value) {
+		Element element = doc.createElement(name);
+		element.appendChild(doc.createTextNode(value));
+		parent.appendChild(element);
+	}
+}
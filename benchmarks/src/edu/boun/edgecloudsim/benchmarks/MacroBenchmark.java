@@ -0,0 +1,233 @@
+/*
+ * Title:        EdgeCloudSim - Macro Benchmark
+ *
+ * Description:
+ * MacroBenchmark runs the sample applications end to end with a fixed
+ * random seed for increasing number of mobile devices, so the scaling
+ * of the whole simulator can be tracked. Each simulation is run in a
+ * new JVM by MacroBenchmarkRun, which calls the main method of the
+ * application; the JVM options of MacroBenchmark are also used for
+ * these JVMs.
+ *
+ * The config file of the application is copied with the following
+ * changes: min/max_number_of_mobile_devices are set to the measured
+ * device count, only the first simulation scenario and orchestrator
+ * policy are used, the random seed is fixed and the file logging is
+ * disabled. The folders in the config folder of the application (e.g.
+ * the weka models of sample_app5) are copied next to the new config
+ * file, since the applications may look for them there.
+ *
+ * The results are written to MACRO_BENCHMARK.csv in the output folder,
+ * one line for each application and device count. The console output
+ * of each simulation is saved to its own folder.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.benchmarks;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.utils.SimLogger;
+
+public class MacroBenchmark {
+	private static final String[] APPS = {"sample_app1", "sample_app2", "sample_app3", "sample_app4", "sample_app5"};
+	private static final String[] MAIN_CLASSES = {
+			"edu.boun.edgecloudsim.applications.sample_app1.MainApp",
+			"edu.boun.edgecloudsim.applications.sample_app2.MainApp",
+			"edu.boun.edgecloudsim.applications.sample_app3.MainApp",
+			"edu.boun.edgecloudsim.applications.sample_app4.FuzzyMainApp",
+			"edu.boun.edgecloudsim.applications.sample_app5.VehicularMainApp"
+	};
+	private static final String DEFAULT_DEVICE_COUNTS = "100,200,500,1000,2000,5000,10000";
+	private static final long DEFAULT_SEED = 1;
+
+	/*
+	 * usage: MacroBenchmark <output folder> [apps] [device counts] [seed]
+	 * apps and device counts are comma separated lists, e.g.
+	 * MacroBenchmark results sample_app1,sample_app5 100,1000,10000 7
+	 */
+	public static void main(String[] args) throws Exception {
+		SimLogger.enablePrintLog();
+
+		if(args.length < 1 || args.length > 4){
+			SimLogger.printLine("Usage: MacroBenchmark <output folder> [apps] [device counts] [seed]");
+			System.exit(1);
+		}
+
+		File outputFolder = new File(args[0]);
+		String[] apps = (args.length > 1) ? args[1].split(",") : APPS;
+		String[] deviceCounts = (args.length > 2) ? args[2].split(",") : DEFAULT_DEVICE_COUNTS.split(",");
+		long seed = (args.length > 3) ? Long.parseLong(args[3]) : DEFAULT_SEED;
+
+		outputFolder.mkdirs();
+		File reportFile = new File(outputFolder, "MACRO_BENCHMARK.csv");
+		BufferedWriter report = new BufferedWriter(new FileWriter(reportFile, false));
+		try {
+			report.write("#auto generated file!");
+			report.newLine();
+			report.write("app;devices;scenario;policy;seed;exitCode;wallTimeMs;peakHeapBytes;gcTimeMs;gcCount;" +
+					"events;eventsPerSecond;tasks;tasksPerSecond");
+			report.newLine();
+			report.flush();
+
+			for(String app : apps){
+				String mainClass = getMainClass(app.trim());
+				for(String deviceCount : deviceCounts){
+					String line = run(outputFolder, app.trim(), mainClass, Integer.parseInt(deviceCount.trim()), seed);
+					SimLogger.printLine(line);
+					report.write(line);
+					report.newLine();
+					report.flush();
+				}
+			}
+		}
+		finally {
+			report.close();
+		}
+
+		SimLogger.printLine("Results are saved to " + reportFile.getPath());
+	}
+
+	private static String getMainClass(String app) {
+		for(int i=0; i<APPS.length; i++)
+			if(APPS[i].equals(app))
+				return MAIN_CLASSES[i];
+
+		SimLogger.printLine("Unknown application '" + app + "'! Terminating benchmark...");
+		System.exit(1);
+		return null;
+	}
+
+	/*
+	 * runs a single simulation in a new JVM and returns its line in the report
+	 */
+	private static String run(File outputFolder, String app, String mainClass, int numOfMobileDevices, long seed) throws IOException, InterruptedException {
+		File runFolder = new File(outputFolder, app + File.separator + numOfMobileDevices + "DEVICES");
+		File configFolder = new File(runFolder, "config");
+		File simulationFolder = new File(runFolder, "output");
+		configFolder.mkdirs();
+		simulationFolder.mkdirs();
+
+		Properties prop = SimSettings.loadProperties(BenchmarkScenario.getConfigFile(app, "default_config.properties"));
+		if(prop == null){
+			SimLogger.printLine("Config file of " + app + " cannot be read! Terminating benchmark...");
+			System.exit(1);
+		}
+
+		String scenario = prop.getProperty("simulation_scenarios").split(",")[0].trim();
+		String policy = prop.getProperty("orchestrator_policies").split(",")[0].trim();
+		prop.setProperty("min_number_of_mobile_devices", Integer.toString(numOfMobileDevices));
+		prop.setProperty("max_number_of_mobile_devices", Integer.toString(numOfMobileDevices));
+		prop.setProperty("mobile_device_counter_size", Integer.toString(numOfMobileDevices));
+		prop.setProperty("simulation_scenarios", scenario);
+		prop.setProperty("orchestrator_policies", policy);
+		prop.setProperty("random_seed", Long.toString(seed));
+		prop.setProperty("file_log_enabled", "false");
+		prop.setProperty("deep_file_log_enabled", "false");
+
+		File configFile = new File(configFolder, "default_config.properties");
+		OutputStream out = new FileOutputStream(configFile);
+		try {
+			prop.store(out, "macro benchmark config of " + app);
+		}
+		finally {
+			out.close();
+		}
+		copyConfigFolders(new File(BenchmarkScenario.getConfigFile(app, "")), configFolder);
+
+		File resultFile = new File(runFolder, "result.properties");
+		resultFile.delete();
+
+		List<String> command = new ArrayList<String>();
+		command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+		command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+		command.add("-classpath");
+		command.add(System.getProperty("java.class.path"));
+		command.add(MacroBenchmarkRun.class.getName());
+		command.add(mainClass);
+		command.add(resultFile.getPath());
+		command.add(configFile.getPath());
+		command.add(BenchmarkScenario.getConfigFile(app, "edge_devices.xml"));
+		command.add(BenchmarkScenario.getConfigFile(app, "applications.xml"));
+		command.add(simulationFolder.getPath());
+		command.add("1");
+
+		SimLogger.printLine("Running " + app + " with " + numOfMobileDevices + " devices (" + scenario + " - " + policy + ")...");
+		ProcessBuilder builder = new ProcessBuilder(command);
+		builder.redirectErrorStream(true);
+		builder.redirectOutput(new File(runFolder, "console.log"));
+		int exitCode = builder.start().waitFor();
+
+		String line = app + SimSettings.DELIMITER + numOfMobileDevices + SimSettings.DELIMITER +
+				scenario + SimSettings.DELIMITER + policy + SimSettings.DELIMITER +
+				seed + SimSettings.DELIMITER + exitCode;
+
+		if(exitCode != 0 || !resultFile.exists())
+			return line + ";NaN;NaN;NaN;NaN;NaN;NaN;NaN;NaN";
+
+		Properties result = new Properties();
+		InputStream in = new FileInputStream(resultFile);
+		try {
+			result.load(in);
+		}
+		finally {
+			in.close();
+		}
+
+		long wallTime = Long.parseLong(result.getProperty("wallTimeMs"));
+		long events = Long.parseLong(result.getProperty("events"));
+		long tasks = Long.parseLong(result.getProperty("tasks"));
+		double seconds = Math.max(wallTime, 1) / 1000.0;
+
+		return line + SimSettings.DELIMITER +
+				wallTime + SimSettings.DELIMITER +
+				result.getProperty("peakHeapBytes") + SimSettings.DELIMITER +
+				result.getProperty("gcTimeMs") + SimSettings.DELIMITER +
+				result.getProperty("gcCount") + SimSettings.DELIMITER +
+				events + SimSettings.DELIMITER +
+				(events < 0 ? "NaN" : Double.toString(events / seconds)) + SimSettings.DELIMITER +
+				tasks + SimSettings.DELIMITER +
+				(tasks / seconds);
+	}
+
+	/*
+	 * copies the folders in the source folder; the files of the source
+	 * folder itself are not copied since the config file is generated
+	 */
+	private static void copyConfigFolders(File sourceFolder, File targetFolder) throws IOException {
+		File[] files = sourceFolder.listFiles();
+		if(files == null)
+			return;
+
+		for(File file : files)
+			if(file.isDirectory())
+				copyFolder(file, new File(targetFolder, file.getName()));
+	}
+
+	private static void copyFolder(File sourceFolder, File targetFolder) throws IOException {
+		targetFolder.mkdirs();
+		for(File file : sourceFolder.listFiles()){
+			File target = new File(targetFolder, file.getName());
+			if(file.isDirectory())
+				copyFolder(file, target);
+			else
+				Files.copy(file.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+}
@@ -0,0 +1,153 @@
+/*
+ * Title:        EdgeCloudSim - Macro Benchmark Run
+ *
+ * Description:
+ * MacroBenchmarkRun is started by MacroBenchmark in a new JVM for each
+ * measured simulation. It calls the main method of the application
+ * with the given arguments and saves the following values to the
+ * result file as properties:
+ * wallTimeMs      : time spent in the main method of the application
+ * peakHeapBytes   : sum of the peak usages of the heap memory pools,
+ *                   which is an upper bound of the peak heap usage
+ * gcTimeMs/gcCount: total time and number of the garbage collections
+ * events          : number of events scheduled in CloudSim, including
+ *                   the events which are cancelled or not processed
+ *                   when the simulation is stopped
+ * tasks           : number of tasks completed or failed after the warm
+ *                   up period
+ * CloudSim removes its event queue when the simulation is finished, so
+ * the queue is kept by a watcher thread while the application is
+ * running. The events are read from the last event queue, therefore
+ * the application should run a single simulation.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.benchmarks;
+
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Properties;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+
+import edu.boun.edgecloudsim.utils.SimLogger;
+
+public class MacroBenchmarkRun {
+
+	/*
+	 * usage: MacroBenchmarkRun <main class> <result file> <arguments of the main class>
+	 */
+	public static void main(String[] args) throws Exception {
+		String mainClassName = args[0];
+		String resultFile = args[1];
+		String[] appArgs = Arrays.copyOfRange(args, 2, args.length);
+
+		Method mainMethod = Class.forName(mainClassName).getMethod("main", String[].class);
+
+		EventQueueWatcher watcher = new EventQueueWatcher();
+		watcher.setDaemon(true);
+		watcher.start();
+
+		long startGcTime = getGcTime();
+		long startGcCount = getGcCount();
+		long startTime = System.nanoTime();
+
+		mainMethod.invoke(null, (Object)appArgs);
+
+		long wallTime = System.nanoTime() - startTime;
+		long gcTime = getGcTime() - startGcTime;
+		long gcCount = getGcCount() - startGcCount;
+		watcher.interrupt();
+		watcher.join();
+
+		Properties result = new Properties();
+		result.setProperty("wallTimeMs", Long.toString(wallTime / 1000000));
+		result.setProperty("peakHeapBytes", Long.toString(getPeakHeapUsage()));
+		result.setProperty("gcTimeMs", Long.toString(gcTime));
+		result.setProperty("gcCount", Long.toString(gcCount));
+		result.setProperty("events", Long.toString(watcher.getNumOfScheduledEvents()));
+		result.setProperty("tasks", Integer.toString(SimLogger.getInstance().getNumOfCompletedTasks() +
+				SimLogger.getInstance().getNumOfFailedTasks()));
+
+		OutputStream out = new FileOutputStream(resultFile);
+		try {
+			result.store(out, "macro benchmark result of " + mainClassName);
+		}
+		finally {
+			out.close();
+		}
+	}
+
+	private static long getPeakHeapUsage() {
+		long result = 0;
+		for(MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+			if(pool.getType() == MemoryType.HEAP && pool.getPeakUsage() != null)
+				result += pool.getPeakUsage().getUsed();
+		return result;
+	}
+
+	private static long getGcTime() {
+		long result = 0;
+		for(GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+			result += Math.max(0, gc.getCollectionTime());
+		return result;
+	}
+
+	private static long getGcCount() {
+		long result = 0;
+		for(GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+			result += Math.max(0, gc.getCollectionCount());
+		return result;
+	}
+
+	/*
+	 * CloudSim does not count the processed events, but each event added
+	 * to the future queue gets a serial number from the queue; -1 is
+	 * returned if the queue cannot be accessed
+	 */
+	private static class EventQueueWatcher extends Thread {
+		private static final long POLLING_PERIOD_MS = 5;
+		private volatile Object lastQueue;
+
+		@Override
+		public void run() {
+			try {
+				Field futureField = CloudSim.class.getDeclaredField("future");
+				futureField.setAccessible(true);
+				while(!isInterrupted()){
+					Object queue = futureField.get(null);
+					if(queue != null)
+						lastQueue = queue;
+					Thread.sleep(POLLING_PERIOD_MS);
+				}
+			} catch (InterruptedException e) {
+				//the application is finished
+			} catch (Exception e) {
+				lastQueue = null;
+			}
+		}
+
+		public long getNumOfScheduledEvents() {
+			Object queue = lastQueue;
+			if(queue == null)
+				return -1;
+
+			try {
+				Field serialField = queue.getClass().getDeclaredField("serial");
+				serialField.setAccessible(true);
+				return serialField.getLong(queue);
+			} catch (Exception e) {
+				return -1;
+			}
+		}
+	}
+}
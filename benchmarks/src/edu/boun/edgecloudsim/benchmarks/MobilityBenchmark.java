@@ -0,0 +1,92 @@
+/*
+ * Title:        EdgeCloudSim - Mobility Benchmark
+ *
+ * Description:
+ * MobilityBenchmark measures MobilityModel.getLocation of the nomadic
+ * mobility model (sample_app1) and the vehicular mobility model
+ * (sample_app5). The queried devices and times are drawn before the
+ * measurement, so only the location lookup is measured.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.boun.edgecloudsim.applications.sample_app5.VehicularMobilityModel;
+import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.mobility.MobilityModel;
+import edu.boun.edgecloudsim.mobility.NomadicMobility;
+import edu.boun.edgecloudsim.utils.Location;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MobilityBenchmark {
+	private static final int NUM_OF_QUERIES = 4096;
+
+	@Param({"NOMADIC", "VEHICULAR"})
+	public String mobilityModel;
+
+	@Param({"100", "1000", "10000"})
+	public int numOfMobileDevices;
+
+	@Param({"14", "140"})
+	public int numOfDatacenters;
+
+	private MobilityModel model;
+	private int[] deviceIds;
+	private double[] times;
+	private int queryIndex;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		if(mobilityModel.equals("VEHICULAR")){
+			BenchmarkScenario.initializeSettings(BenchmarkScenario.VEHICULAR_APP, numOfDatacenters, 2);
+			model = new VehicularMobilityModel(numOfMobileDevices, SimSettings.getInstance().getSimulationTime());
+		}
+		else{
+			BenchmarkScenario.initializeSettings(BenchmarkScenario.NOMADIC_APP, numOfDatacenters, 2);
+			model = new NomadicMobility(numOfMobileDevices, SimSettings.getInstance().getSimulationTime());
+		}
+		model.initialize();
+
+		//the queries are sorted by time like the queries of the simulation
+		Random rng = new Random(1);
+		deviceIds = new int[NUM_OF_QUERIES];
+		times = new double[NUM_OF_QUERIES];
+		double startTime = SimSettings.CLIENT_ACTIVITY_START_TIME;
+		double simulationTime = SimSettings.getInstance().getSimulationTime();
+		for(int i=0; i<NUM_OF_QUERIES; i++){
+			deviceIds[i] = rng.nextInt(numOfMobileDevices);
+			times[i] = startTime + (simulationTime - startTime) * i / NUM_OF_QUERIES;
+		}
+		queryIndex = 0;
+	}
+
+	@Benchmark
+	public Location getLocation() {
+		int i = queryIndex;
+		queryIndex = (i + 1) & (NUM_OF_QUERIES - 1);
+		return model.getLocation(deviceIds[i], times[i]);
+	}
+}
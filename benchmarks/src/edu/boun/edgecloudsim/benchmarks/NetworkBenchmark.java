@@ -0,0 +1,129 @@
+/*
+ * Title:        EdgeCloudSim - Network Benchmark
+ *
+ * Description:
+ * NetworkBenchmark measures the delay calculations of the network
+ * models. MM1Queue.getUploadDelay is measured in the sample_app1
+ * scenario; it queries the mobility model to find the access point and
+ * the number of devices connected to it. VehicularNetworkModel has no
+ * public access to its M/M/1 calculation, so calculateMM1 is measured
+ * through estimateWlanUploadDelay, which only adds an array lookup, and
+ * through estimateUploadDelay for the shared MAN, WAN and GSM links.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.boun.edgecloudsim.applications.sample_app5.VehicularNetworkModel;
+import edu.boun.edgecloudsim.core.SimManager;
+import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.core.SimSettings.NETWORK_DELAY_TYPES;
+import edu.boun.edgecloudsim.edge_client.Task;
+import edu.boun.edgecloudsim.network.NetworkModel;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NetworkBenchmark {
+	private static final int NUM_OF_QUERIES = 4096;
+
+	@State(Scope.Benchmark)
+	public static class MM1QueueState {
+		@Param({"100", "1000", "10000"})
+		public int numOfMobileDevices;
+
+		@Param({"14", "140"})
+		public int numOfDatacenters;
+
+		@Param({"EDGE", "CLOUD"})
+		public String destination;
+
+		private NetworkModel networkModel;
+		private int destDeviceId;
+		private int[] deviceIds;
+		private Task task;
+		private int queryIndex;
+
+		@Setup(Level.Trial)
+		public void setup() throws Exception {
+			BenchmarkScenario.initializeSettings(BenchmarkScenario.NOMADIC_APP, numOfDatacenters, 2);
+			SimManager manager = BenchmarkScenario.createNomadicSimManager(numOfMobileDevices, "SINGLE_TIER", "NEXT_FIT");
+			networkModel = manager.getNetworkModel();
+
+			destDeviceId = destination.equals("CLOUD") ? SimSettings.CLOUD_DATACENTER_ID : SimSettings.GENERIC_EDGE_DEVICE_ID;
+			task = BenchmarkScenario.createTask(0, 0, 0, 10);
+
+			Random rng = new Random(1);
+			deviceIds = new int[NUM_OF_QUERIES];
+			for(int i=0; i<NUM_OF_QUERIES; i++)
+				deviceIds[i] = rng.nextInt(numOfMobileDevices);
+			queryIndex = 0;
+		}
+	}
+
+	@State(Scope.Benchmark)
+	public static class VehicularState {
+		@Param({"100", "1000", "10000"})
+		public int numOfMobileDevices;
+
+		@Param({"14", "140"})
+		public int numOfDatacenters;
+
+		@Param({"WLAN_DELAY", "MAN_DELAY", "WAN_DELAY", "GSM_DELAY"})
+		public String delayType;
+
+		private VehicularNetworkModel networkModel;
+		private NETWORK_DELAY_TYPES networkDelayType;
+		private Task task;
+		private int apIndex;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			BenchmarkScenario.initializeSettings(BenchmarkScenario.VEHICULAR_APP, numOfDatacenters, 2);
+			networkModel = new VehicularNetworkModel(numOfMobileDevices, "ITS_SCENARIO", "RANDOM");
+			networkModel.initialize();
+
+			networkDelayType = NETWORK_DELAY_TYPES.valueOf(delayType);
+			task = BenchmarkScenario.createTask(0, 0, 0, 10);
+			apIndex = 0;
+		}
+	}
+
+	@Benchmark
+	public double mm1QueueGetUploadDelay(MM1QueueState state) {
+		int i = state.queryIndex;
+		state.queryIndex = (i + 1) & (NUM_OF_QUERIES - 1);
+		return state.networkModel.getUploadDelay(state.deviceIds[i], state.destDeviceId, state.task);
+	}
+
+	@Benchmark
+	public double vehicularCalculateMM1(VehicularState state) {
+		if(state.networkDelayType == NETWORK_DELAY_TYPES.WLAN_DELAY){
+			//each access point has its own queue model
+			int apId = state.apIndex;
+			state.apIndex = (apId + 1) % state.numOfDatacenters;
+			return state.networkModel.estimateWlanUploadDelay(apId);
+		}
+		return state.networkModel.estimateUploadDelay(state.networkDelayType, state.task);
+	}
+}
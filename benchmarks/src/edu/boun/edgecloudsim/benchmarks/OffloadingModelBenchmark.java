@@ -0,0 +1,129 @@
+/*
+ * Title:        EdgeCloudSim - Offloading Model Benchmark
+ *
+ * Description:
+ * OffloadingModelBenchmark measures the decision helpers of the
+ * vehicular orchestrator (sample_app5): the Weka classifiers used by
+ * the AI_BASED policy and the Nash equilibrium of the GAME_THEORY
+ * policy. The classifiers are loaded from the weka folder of the
+ * sample_app5 config, so weka.jar is needed to run this benchmark.
+ * The cost of GameTheoryHelper.getPi depends on the number of
+ * vehicles, while the classifiers do not depend on the scenario size.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.boun.edgecloudsim.applications.sample_app5.GameTheoryHelper;
+import edu.boun.edgecloudsim.applications.sample_app5.VehicularEdgeOrchestrator;
+import edu.boun.edgecloudsim.applications.sample_app5.WekaWrapper;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OffloadingModelBenchmark {
+	private static final int NUM_OF_QUERIES = 4096;
+
+	@State(Scope.Benchmark)
+	public static class WekaState {
+		@Param({"EDGE", "CLOUD_VIA_RSU", "CLOUD_VIA_GSM"})
+		public String target;
+
+		private WekaWrapper weka;
+		private int targetDatacenter;
+		private double[][] values;
+		private int queryIndex;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			String modelFolder = BenchmarkScenario.getConfigFile(BenchmarkScenario.VEHICULAR_APP, "weka") + "/";
+			weka = WekaWrapper.getInstance();
+			weka.initialize("MultilayerPerceptron", "LinearRegression", modelFolder);
+
+			//the values are drawn around the mean values used by WekaWrapper for normalization
+			Random rng = new Random(1);
+			values = new double[NUM_OF_QUERIES][];
+			for(int i=0; i<NUM_OF_QUERIES; i++){
+				if(target.equals("EDGE"))
+					values[i] = new double[] {130 + 47 * rng.nextGaussian(), 5756 + 4737 * rng.nextDouble(),
+							0.024 * rng.nextDouble(), 0.023 * rng.nextDouble(), 18 + 7 * rng.nextGaussian()};
+				else
+					values[i] = new double[] {100 + 40 * rng.nextGaussian(), 0.2 * rng.nextDouble(), 0.2 * rng.nextDouble()};
+			}
+
+			if(target.equals("EDGE"))
+				targetDatacenter = VehicularEdgeOrchestrator.EDGE_DATACENTER;
+			else if(target.equals("CLOUD_VIA_RSU"))
+				targetDatacenter = VehicularEdgeOrchestrator.CLOUD_DATACENTER_VIA_RSU;
+			else
+				targetDatacenter = VehicularEdgeOrchestrator.CLOUD_DATACENTER_VIA_GSM;
+			queryIndex = 0;
+		}
+	}
+
+	@State(Scope.Benchmark)
+	public static class GameTheoryState {
+		@Param({"100", "1000", "10000"})
+		public int numOfMobileDevices;
+
+		private GameTheoryHelper helper;
+		private int[] vehicleIds;
+		private double[] arrivalRates;
+		private double[] edgeDelays;
+		private double[] cloudDelays;
+		private int queryIndex;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			helper = new GameTheoryHelper(0, 20, numOfMobileDevices);
+
+			Random rng = new Random(1);
+			vehicleIds = new int[NUM_OF_QUERIES];
+			arrivalRates = new double[NUM_OF_QUERIES];
+			edgeDelays = new double[NUM_OF_QUERIES];
+			cloudDelays = new double[NUM_OF_QUERIES];
+			for(int i=0; i<NUM_OF_QUERIES; i++){
+				vehicleIds[i] = rng.nextInt(numOfMobileDevices);
+				arrivalRates[i] = 20 * rng.nextDouble();
+				edgeDelays[i] = 2 * rng.nextDouble();
+				cloudDelays[i] = 2 * rng.nextDouble();
+			}
+			queryIndex = 0;
+		}
+	}
+
+	@Benchmark
+	public boolean wekaHandleClassification(WekaState state) {
+		int i = state.queryIndex;
+		state.queryIndex = (i + 1) & (NUM_OF_QUERIES - 1);
+		return state.weka.handleClassification(state.targetDatacenter, state.values[i]);
+	}
+
+	@Benchmark
+	public double gameTheoryGetPi(GameTheoryState state) {
+		int i = state.queryIndex;
+		state.queryIndex = (i + 1) & (NUM_OF_QUERIES - 1);
+		return state.helper.getPi(state.vehicleIds[i], state.arrivalRates[i],
+				state.edgeDelays[i], state.cloudDelays[i], 2);
+	}
+}
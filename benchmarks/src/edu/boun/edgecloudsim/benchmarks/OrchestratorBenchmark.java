@@ -0,0 +1,89 @@
+/*
+ * Title:        EdgeCloudSim - Orchestrator Benchmark
+ *
+ * Description:
+ * OrchestratorBenchmark measures the VM selection of the fit policies
+ * of BasicEdgeOrchestrator. In the TWO_TIER scenario the VM is searched
+ * on the host of the access point of the device (selectVmOnHost), in
+ * the TWO_TIER_WITH_EO scenario it is searched on all edge hosts
+ * (selectVmOnLoadBalancer), so the number of VMs affects the latter.
+ * The simulation is not started, hence the VMs are idle and the
+ * selected VMs are not loaded by the tasks.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.cloudbus.cloudsim.Vm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.boun.edgecloudsim.core.SimManager;
+import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.edge_client.Task;
+import edu.boun.edgecloudsim.edge_orchestrator.EdgeOrchestrator;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrchestratorBenchmark {
+	private static final int NUM_OF_TASKS = 4096;
+
+	@Param({"RANDOM_FIT", "FIRST_FIT", "NEXT_FIT", "BEST_FIT", "WORST_FIT"})
+	public String policy;
+
+	@Param({"TWO_TIER", "TWO_TIER_WITH_EO"})
+	public String simScenario;
+
+	@Param({"100", "1000"})
+	public int numOfMobileDevices;
+
+	@Param({"14", "140"})
+	public int numOfDatacenters;
+
+	@Param({"2", "8"})
+	public int numOfVmsPerHost;
+
+	private EdgeOrchestrator orchestrator;
+	private Task[] tasks;
+	private int taskIndex;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		BenchmarkScenario.initializeSettings(BenchmarkScenario.NOMADIC_APP, numOfDatacenters, numOfVmsPerHost);
+		SimManager manager = BenchmarkScenario.createNomadicSimManager(numOfMobileDevices, simScenario, policy);
+		orchestrator = manager.getEdgeOrchestrator();
+
+		Random rng = new Random(1);
+		int numOfTaskTypes = SimSettings.getInstance().getTaskLookUpTable().length;
+		tasks = new Task[NUM_OF_TASKS];
+		for(int i=0; i<NUM_OF_TASKS; i++)
+			tasks[i] = BenchmarkScenario.createTask(i, rng.nextInt(numOfMobileDevices), rng.nextInt(numOfTaskTypes), 10);
+		taskIndex = 0;
+	}
+
+	@Benchmark
+	public Vm getVmToOffload() {
+		int i = taskIndex;
+		taskIndex = (i + 1) & (NUM_OF_TASKS - 1);
+		return orchestrator.getVmToOffload(tasks[i], SimSettings.GENERIC_EDGE_DEVICE_ID);
+	}
+}
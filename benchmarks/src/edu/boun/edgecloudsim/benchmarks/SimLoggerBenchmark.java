@@ -0,0 +1,91 @@
+/*
+ * Title:        EdgeCloudSim - SimLogger Benchmark
+ *
+ * Description:
+ * SimLoggerBenchmark measures the bookkeeping of a completed task in
+ * SimLogger. recordLog is private, so it is measured through the calls
+ * made by the mobile device manager for a task which is executed on an
+ * edge VM; taskEnded calls recordLog. The finished task is added again,
+ * so the number of tasks kept by the logger does not change during the
+ * measurement. File logging is disabled.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.core.SimSettings.NETWORK_DELAY_TYPES;
+import edu.boun.edgecloudsim.utils.SimLogger;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SimLoggerBenchmark {
+	//number of tasks which are created but not finished yet
+	@Param({"100", "10000", "1000000"})
+	public int numOfActiveTasks;
+
+	@Param({"100", "1000"})
+	public int numOfMobileDevices;
+
+	@Param({"14", "140"})
+	public int numOfDatacenters;
+
+	private SimLogger logger;
+	private int numOfTaskTypes;
+	private double taskStartTime;
+	private int nextTaskId;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		BenchmarkScenario.initializeSettings(BenchmarkScenario.NOMADIC_APP, numOfDatacenters, 2);
+		logger = SimLogger.getInstance();
+		logger.simStarted(System.getProperty("java.io.tmpdir"), "BENCHMARK");
+
+		numOfTaskTypes = SimSettings.getInstance().getTaskLookUpTable().length;
+		taskStartTime = SimSettings.getInstance().getWarmUpPeriod() + 1;
+		for(int taskId=0; taskId<numOfActiveTasks; taskId++)
+			createTask(taskId);
+		nextTaskId = 0;
+	}
+
+	@Benchmark
+	public void completeTask() {
+		int taskId = nextTaskId;
+		nextTaskId = (taskId + 1) % numOfActiveTasks;
+
+		int hostId = taskId % numOfDatacenters;
+		logger.taskAssigned(taskId, hostId, hostId, 2 * hostId, SimSettings.VM_TYPES.EDGE_VM.ordinal());
+		logger.setUploadDelay(taskId, 0.1, NETWORK_DELAY_TYPES.WLAN_DELAY);
+		logger.taskExecuted(taskId);
+		logger.setDownloadDelay(taskId, 0.1, NETWORK_DELAY_TYPES.WLAN_DELAY);
+		logger.taskEnded(taskId, taskStartTime + 1);
+
+		createTask(taskId);
+	}
+
+	private void createTask(int taskId) {
+		logger.addLog(taskId % numOfMobileDevices, taskId, taskId % numOfTaskTypes, 3000, 1500, 50);
+		logger.taskStarted(taskId, taskStartTime);
+	}
+}
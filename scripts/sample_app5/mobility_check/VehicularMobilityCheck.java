@@ -0,0 +1,155 @@
+/*
+ * Title:        EdgeCloudSim - Vehicular Mobility Check
+ *
+ * Description:
+ * VehicularMobilityCheck compares the locations found by the binary search
+ * of VehicularMobilityModel with the ones found by the linear scan over the
+ * road segments, which is kept here as the reference implementation.
+ * The devices and the query times are selected randomly with a fixed seed,
+ * and each run uses a different iteration number, so the initial positions
+ * of the devices also change between the runs.
+ *
+ * The serving wlan ids should be same; the x positions may differ by 1 m
+ * since the linear scan accumulates the rounding errors of subtractions
+ * before the position is truncated to an integer.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+import java.util.Random;
+
+import edu.boun.edgecloudsim.applications.sample_app5.VehicularMobilityModel;
+import edu.boun.edgecloudsim.core.EdgeTopology;
+import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.utils.RandomStreams;
+import edu.boun.edgecloudsim.utils.SimUtils;
+
+public class VehicularMobilityCheck {
+	private static final long SEED = 42;
+	private static final int NUM_OF_RUNS = 10;
+	private static final int NUM_OF_QUERIES = 200000;
+
+	public static void main(String[] args) {
+		if(args.length != 3){
+			System.out.println("usage: VehicularMobilityCheck <config file> <edge devices file> <applications file>");
+			System.exit(1);
+		}
+
+		SimSettings SS = SimSettings.getInstance();
+		if(SS.initialize(args[0], args[1], args[2]) == false){
+			System.out.println("cannot initialize simulation settings!");
+			System.exit(1);
+		}
+
+		int numOfDevices = SS.getMaxNumOfMobileDev();
+		double simulationTime = SS.getSimulationTime();
+		Random random = new Random(SEED);
+		long numOfWlanMismatches = 0;
+		long numOfPositionMismatches = 0;
+
+		for(int run=1; run<=NUM_OF_RUNS; run++){
+			RandomStreams.initialize(SEED, run);
+			VehicularMobilityModel model = new VehicularMobilityModel(numOfDevices, simulationTime);
+			model.initialize();
+			LinearScanMobility reference = new LinearScanMobility(numOfDevices);
+
+			for(int i=0; i<NUM_OF_QUERIES; i++){
+				int deviceId = random.nextInt(numOfDevices);
+				//the devices loop on the road several times after the simulation time
+				double time = random.nextDouble() * simulationTime * 3;
+
+				int expectedWlanId = reference.findLocationIndex(deviceId, time);
+				int wlanId = model.getServingWlanId(deviceId, time);
+				int xPos = model.getXPos(deviceId, time);
+
+				if(wlanId != expectedWlanId){
+					numOfWlanMismatches++;
+					if(numOfWlanMismatches <= 10)
+						System.out.println("run " + run + ", device " + deviceId + ", time " + time +
+								": wlan id " + wlanId + ", expected " + expectedWlanId);
+				}
+				if(Math.abs(xPos - reference.lastXPos) > 1)
+					numOfPositionMismatches++;
+			}
+		}
+
+		System.out.println(NUM_OF_RUNS * NUM_OF_QUERIES + " queries on " + SS.getEdgeTopology().getNumOfDatacenters() +
+				" road segments, wlan id mismatches: " + numOfWlanMismatches + ", x position mismatches: " + numOfPositionMismatches);
+		System.exit(numOfWlanMismatches == 0 && numOfPositionMismatches == 0 ? 0 : 1);
+	}
+
+	/*
+	 * initial positions and linear scan of the previous VehicularMobilityModel
+	 */
+	private static class LinearScanMobility {
+		private final double SPEED_FOR_PLACES[] = {20, 40, 60}; //km per hour
+
+		private int lengthOfSegment;
+		private double totalTimeForLoop; //seconds
+		private int[] locationTypes;
+
+		private int[] initialLocationIndexArray;
+		private int[] initialPositionArray; //in meters unit
+		private double[] timeToDriveLocationArray;//in seconds unit
+		private double[] timeToReachNextLocationArray; //in seconds unit
+
+		private int lastXPos;
+
+		LinearScanMobility(int numberOfMobileDevices) {
+			EdgeTopology topology = SimSettings.getInstance().getEdgeTopology();
+			int x_pos = topology.getLocation(0).getXPos();
+			lengthOfSegment = x_pos * 2;
+			int totalLengthOfRoad = lengthOfSegment * topology.getNumOfDatacenters();
+
+			locationTypes = new int[topology.getNumOfDatacenters()];
+			timeToDriveLocationArray = new double[topology.getNumOfDatacenters()];
+			for(int i=0; i<topology.getNumOfDatacenters(); i++) {
+				locationTypes[i] = topology.getLocation(i).getPlaceTypeIndex();
+				timeToDriveLocationArray[i] = ((double)3.6 * (double)lengthOfSegment) /
+						(SPEED_FOR_PLACES[locationTypes[i]]);
+				totalTimeForLoop += timeToDriveLocationArray[i];
+			}
+
+			//the streams of the devices return the same positions with the model
+			initialPositionArray = new int[numberOfMobileDevices];
+			initialLocationIndexArray =  new int[numberOfMobileDevices];
+			timeToReachNextLocationArray =  new double[numberOfMobileDevices];
+			for(int i=0; i<numberOfMobileDevices; i++) {
+				initialPositionArray[i] = SimUtils.getRandomNumber(RandomStreams.getStream(RandomStreams.MOBILITY, i), 0, totalLengthOfRoad-1);
+				initialLocationIndexArray[i] = initialPositionArray[i] / lengthOfSegment;
+				timeToReachNextLocationArray[i] = ((double)3.6 *
+						(double)(lengthOfSegment - (initialPositionArray[i] % lengthOfSegment))) /
+						(SPEED_FOR_PLACES[locationTypes[initialLocationIndexArray[i]]]);
+			}
+		}
+
+		int findLocationIndex(int deviceId, double time) {
+			int ofset = 0;
+			double remainingTime = 0;
+
+			int locationIndex = initialLocationIndexArray[deviceId];
+			double timeToReachNextLocation = timeToReachNextLocationArray[deviceId];
+
+			if(time < timeToReachNextLocation){
+				ofset = initialPositionArray[deviceId];
+				remainingTime = time;
+			}
+			else{
+				remainingTime = (time - timeToReachNextLocation) % totalTimeForLoop;
+				locationIndex = (locationIndex+1) % locationTypes.length;
+
+				while(remainingTime > timeToDriveLocationArray[locationIndex]) {
+					remainingTime -= timeToDriveLocationArray[locationIndex];
+					locationIndex =  (locationIndex+1) % locationTypes.length;
+				}
+
+				ofset = locationIndex * lengthOfSegment;
+			}
+
+			lastXPos = (int) (ofset + ( (SPEED_FOR_PLACES[locationTypes[locationIndex]] * remainingTime) / (double)3.6));
+
+			return locationIndex;
+		}
+	}
+}
@@ -0,0 +1,9 @@
+#!/bin/sh
+
+rm -rf ./bin
+mkdir ./bin
+javac -classpath "../../../lib/cloudsim-4.0.jar:../../../lib/commons-math3-3.6.1.jar" -sourcepath ../../../src -d ./bin VehicularMobilityCheck.java || exit 1
+java -classpath "./bin:../../../lib/cloudsim-4.0.jar:../../../lib/commons-math3-3.6.1.jar" VehicularMobilityCheck ../config/default_config.properties ../config/edge_devices.xml ../config/applications.xml
+result=$?
+rm -rf ./bin
+exit $result
@@ -17,9 +17,11 @@ import java.util.Date;
 import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.core.CloudSim;
 
+import edu.boun.edgecloudsim.core.ExperimentRunner;
 import edu.boun.edgecloudsim.core.ScenarioFactory;
 import edu.boun.edgecloudsim.core.SimManager;
 import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.utils.RandomStreams;
 import edu.boun.edgecloudsim.utils.SimLogger;
 import edu.boun.edgecloudsim.utils.SimUtils;
 
@@ -36,16 +38,19 @@ public class MainApp {
 		SimLogger.enablePrintLog();
 		
 		int iterationNumber = 1;
+		int numOfParallelRuns = 1;
 		String configFile = "";
 		String outputFolder = "";
 		String edgeDevicesFile = "";
 		String applicationsFile = "";
-		if (args.length == 5){
+		if (args.length == 5 || args.length == 6){
 			configFile = args[0];
 			edgeDevicesFile = args[1];
 			applicationsFile = args[2];
 			outputFolder = args[3];
 			iterationNumber = Integer.parseInt(args[4]);
+			if (args.length == 6)
+				numOfParallelRuns = Integer.parseInt(args[5]);
 		}
 		else{
 			SimLogger.printLine("Simulation setting file, output folder and iteration number are not provided! Using default ones...");
@@ -73,59 +78,65 @@ public class MainApp {
 		SimLogger.printLine("Simulation started at " + now);
 		SimLogger.printLine("----------------------------------------------------------------------");
 
-		for(int j=SS.getMinNumOfMobileDev(); j<=SS.getMaxNumOfMobileDev(); j+=SS.getMobileDevCounterSize())
-		{
-			for(int k=0; k<SS.getSimulationScenarios().length; k++)
-			{
-				for(int i=0; i<SS.getOrchestratorPolicies().length; i++)
-				{
-					String simScenario = SS.getSimulationScenarios()[k];
-					String orchestratorPolicy = SS.getOrchestratorPolicies()[i];
-					Date ScenarioStartDate = Calendar.getInstance().getTime();
-					now = df.format(ScenarioStartDate);
-					
-					SimLogger.printLine("Scenario started at " + now);
-					SimLogger.printLine("Scenario: " + simScenario + " - Policy: " + orchestratorPolicy + " - #iteration: " + iterationNumber);
-					SimLogger.printLine("Duration: " + SS.getSimulationTime()/3600 + " hour(s) - Poisson: " + SS.getTaskLookUpTable()[0][2] + " - #devices: " + j);
-					SimLogger.getInstance().simStarted(outputFolder,"SIMRESULT_" + simScenario + "_"  + orchestratorPolicy + "_" + j + "DEVICES");
-					
-					try
-					{
-						// First step: Initialize the CloudSim package. It should be called
-						// before creating any entities.
-						int num_user = 2;   // number of grid users
-						Calendar calendar = Calendar.getInstance();
-						boolean trace_flag = false;  // mean trace events
-				
-						// Initialize the CloudSim library
-						CloudSim.init(num_user, calendar, trace_flag, 0.01);
-						
-						// Generate EdgeCloudsim Scenario Factory
-						ScenarioFactory sampleFactory = new SampleScenarioFactory(j,SS.getSimulationTime(), orchestratorPolicy, simScenario);
-						
-						// Generate EdgeCloudSim Simulation Manager
-						SimManager manager = new SimManager(sampleFactory, j, simScenario, orchestratorPolicy);
-						
-						// Start simulation
-						manager.startSimulation();
-					}
-					catch (Exception e)
-					{
-						SimLogger.printLine("The simulation has been terminated due to an unexpected error");
-						e.printStackTrace();
-						System.exit(0);
-					}
-					
-					Date ScenarioEndDate = Calendar.getInstance().getTime();
-					now = df.format(ScenarioEndDate);
-					SimLogger.printLine("Scenario finished at " + now +  ". It took " + SimUtils.getTimeDifference(ScenarioStartDate,ScenarioEndDate));
-					SimLogger.printLine("----------------------------------------------------------------------");
-				}//End of orchestrators loop
-			}//End of scenarios loop
-		}//End of mobile devices loop
+		if(numOfParallelRuns > 1){
+			//run the simulations concurrently, each one in its own context
+			ExperimentRunner runner = new ExperimentRunner(MainApp.class, configFile, edgeDevicesFile, applicationsFile, outputFolder, iterationNumber);
+			runner.run(numOfParallelRuns);
+		}
+		else{
+			for(int j=SS.getMinNumOfMobileDev(); j<=SS.getMaxNumOfMobileDev(); j+=SS.getMobileDevCounterSize())
+				for(int k=0; k<SS.getSimulationScenarios().length; k++)
+					for(int i=0; i<SS.getOrchestratorPolicies().length; i++)
+						mainHelper(outputFolder, SS.getSimulationScenarios()[k], SS.getOrchestratorPolicies()[i], iterationNumber, j);
+		}
 
 		Date SimulationEndDate = Calendar.getInstance().getTime();
 		now = df.format(SimulationEndDate);
 		SimLogger.printLine("Simulation finished at " + now +  ". It took " + SimUtils.getTimeDifference(SimulationStartDate,SimulationEndDate));
 	}
+
+	public static void mainHelper(String outputFolder, String simScenario, String orchestratorPolicy, int iterationNumber, int numOfMobileDevice){
+		DateFormat df = new SimpleDateFormat("dd/MM/yyyy HH:mm:ss");
+		Date ScenarioStartDate = Calendar.getInstance().getTime();
+		String now = df.format(ScenarioStartDate);
+		SimSettings SS = SimSettings.getInstance();
+		
+		SimLogger.printLine("Scenario started at " + now);
+		SimLogger.printLine("Scenario: " + simScenario + " - Policy: " + orchestratorPolicy + " - #iteration: " + iterationNumber);
+		SimLogger.printLine("Duration: " + SS.getSimulationTime()/3600 + " hour(s) - Poisson: " + SS.getTaskLookUpTable()[0][2] + " - #devices: " + numOfMobileDevice);
+		RandomStreams.initialize(SS.getRandomSeed(), iterationNumber);
+		SimLogger.getInstance().simStarted(outputFolder,"SIMRESULT_" + simScenario + "_"  + orchestratorPolicy + "_" + numOfMobileDevice + "DEVICES");
+		
+		try
+		{
+			// First step: Initialize the CloudSim package. It should be called
+			// before creating any entities.
+			int num_user = 2;   // number of grid users
+			Calendar calendar = Calendar.getInstance();
+			boolean trace_flag = false;  // mean trace events
+	
+			// Initialize the CloudSim library
+			CloudSim.init(num_user, calendar, trace_flag, 0.01);
+			
+			// Generate EdgeCloudsim Scenario Factory
+			ScenarioFactory sampleFactory = new SampleScenarioFactory(numOfMobileDevice,SS.getSimulationTime(), orchestratorPolicy, simScenario);
+			
+			// Generate EdgeCloudSim Simulation Manager
+			SimManager manager = new SimManager(sampleFactory, numOfMobileDevice, simScenario, orchestratorPolicy);
+			
+			// Start simulation
+			manager.startSimulation();
+		}
+		catch (Exception e)
+		{
+			//the caller records the failed scenario, other concurrent runs are not terminated
+			SimLogger.printLine("The simulation has been terminated due to an unexpected error");
+			throw new IllegalStateException("Scenario " + simScenario + " - " + orchestratorPolicy + " - " + numOfMobileDevice + " devices failed", e);
+		}
+		
+		Date ScenarioEndDate = Calendar.getInstance().getTime();
+		now = df.format(ScenarioEndDate);
+		SimLogger.printLine("Scenario finished at " + now +  ". It took " + SimUtils.getTimeDifference(ScenarioStartDate,ScenarioEndDate));
+		SimLogger.printLine("----------------------------------------------------------------------");
+	}
 }
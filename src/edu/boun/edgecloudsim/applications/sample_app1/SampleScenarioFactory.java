@@ -13,6 +13,7 @@ package edu.boun.edgecloudsim.applications.sample_app1;
 import edu.boun.edgecloudsim.cloud_server.CloudServerManager;
 import edu.boun.edgecloudsim.cloud_server.DefaultCloudServerManager;
 import edu.boun.edgecloudsim.core.ScenarioFactory;
+import edu.boun.edgecloudsim.core.SimSettings;
 import edu.boun.edgecloudsim.edge_orchestrator.BasicEdgeOrchestrator;
 import edu.boun.edgecloudsim.edge_orchestrator.EdgeOrchestrator;
 import edu.boun.edgecloudsim.edge_server.DefaultEdgeServerManager;
@@ -23,8 +24,10 @@ import edu.boun.edgecloudsim.edge_client.mobile_processing_unit.DefaultMobileSer
 import edu.boun.edgecloudsim.edge_client.mobile_processing_unit.MobileServerManager;
 import edu.boun.edgecloudsim.mobility.MobilityModel;
 import edu.boun.edgecloudsim.mobility.NomadicMobility;
+import edu.boun.edgecloudsim.mobility.TraceMobility;
 import edu.boun.edgecloudsim.task_generator.IdleActiveLoadGenerator;
 import edu.boun.edgecloudsim.task_generator.LoadGeneratorModel;
+import edu.boun.edgecloudsim.network.FlowNetworkModel;
 import edu.boun.edgecloudsim.network.MM1Queue;
 import edu.boun.edgecloudsim.network.NetworkModel;
 
@@ -65,11 +68,17 @@ public class SampleScenarioFactory implements ScenarioFactory {
 
 	@Override
 	public MobilityModel getMobilityModel() {
+		//real trajectories are replayed if a trace file is given
+		if(!SimSettings.getInstance().getMobilityTraceFile().isEmpty())
+			return new TraceMobility(numOfMobileDevice,simulationTime);
 		return new NomadicMobility(numOfMobileDevice,simulationTime);
 	}
 
 	@Override
 	public NetworkModel getNetworkModel() {
+		//transfers share the bandwidth of the links if the flow model is enabled
+		if(SimSettings.getInstance().getFlowNetworkModelEnabled())
+			return new FlowNetworkModel(numOfMobileDevice, simScenario);
 		return new MM1Queue(numOfMobileDevice, simScenario);
 	}
 
@@ -13,19 +13,13 @@
 
 package edu.boun.edgecloudsim.applications.sample_app2;
 
-import java.util.List;
-
-import org.cloudbus.cloudsim.Host;
 import org.cloudbus.cloudsim.UtilizationModelFull;
 import org.cloudbus.cloudsim.Vm;
-import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.SimEvent;
 
-import edu.boun.edgecloudsim.cloud_server.CloudVM;
 import edu.boun.edgecloudsim.core.SimManager;
 import edu.boun.edgecloudsim.core.SimSettings;
 import edu.boun.edgecloudsim.edge_orchestrator.EdgeOrchestrator;
-import edu.boun.edgecloudsim.edge_server.EdgeVM;
 import edu.boun.edgecloudsim.edge_client.CpuUtilizationModel_Custom;
 import edu.boun.edgecloudsim.edge_client.Task;
 import edu.boun.edgecloudsim.utils.SimLogger;
@@ -108,34 +102,13 @@ public class SampleEdgeOrchestrator extends EdgeOrchestrator {
 		
 		if(deviceId == SimSettings.CLOUD_DATACENTER_ID){
 			//Select VM on cloud devices via Least Loaded algorithm!
-			double selectedVmCapacity = 0; //start with min value
-			List<Host> list = SimManager.getInstance().getCloudServerManager().getDatacenter().getHostList();
-			for (int hostIndex=0; hostIndex < list.size(); hostIndex++) {
-				List<CloudVM> vmArray = SimManager.getInstance().getCloudServerManager().getVmList(hostIndex);
-				for(int vmIndex=0; vmIndex<vmArray.size(); vmIndex++){
-					double requiredCapacity = ((CpuUtilizationModel_Custom)task.getUtilizationModelCpu()).predictUtilization(vmArray.get(vmIndex).getVmType());
-					double targetVmCapacity = (double)100 - vmArray.get(vmIndex).getCloudletScheduler().getTotalUtilizationOfCpu(CloudSim.clock());
-					if(requiredCapacity <= targetVmCapacity && targetVmCapacity > selectedVmCapacity){
-						selectedVM = vmArray.get(vmIndex);
-						selectedVmCapacity = targetVmCapacity;
-					}
-	            }
-			}
+			double requiredCapacity = ((CpuUtilizationModel_Custom)task.getUtilizationModelCpu()).predictUtilization(SimSettings.VM_TYPES.CLOUD_VM);
+			selectedVM = getCloudVmIndex().selectWorstFit(requiredCapacity);
 		}
 		else if(deviceId == SimSettings.GENERIC_EDGE_DEVICE_ID){
 			//Select VM on edge devices via Least Loaded algorithm!
-			double selectedVmCapacity = 0; //start with min value
-			for(int hostIndex=0; hostIndex<numberOfHost; hostIndex++){
-				List<EdgeVM> vmArray = SimManager.getInstance().getEdgeServerManager().getVmList(hostIndex);
-				for(int vmIndex=0; vmIndex<vmArray.size(); vmIndex++){
-					double requiredCapacity = ((CpuUtilizationModel_Custom)task.getUtilizationModelCpu()).predictUtilization(vmArray.get(vmIndex).getVmType());
-					double targetVmCapacity = (double)100 - vmArray.get(vmIndex).getCloudletScheduler().getTotalUtilizationOfCpu(CloudSim.clock());
-					if(requiredCapacity <= targetVmCapacity && targetVmCapacity > selectedVmCapacity){
-						selectedVM = vmArray.get(vmIndex);
-						selectedVmCapacity = targetVmCapacity;
-					}
-				}
-			}
+			double requiredCapacity = ((CpuUtilizationModel_Custom)task.getUtilizationModelCpu()).predictUtilization(SimSettings.VM_TYPES.EDGE_VM);
+			selectedVM = getEdgeVmIndex().selectWorstFit(requiredCapacity);
 		}
 		else{
 			SimLogger.printLine("Unknown device id! The simulation has been terminated.");
@@ -10,6 +10,8 @@
  * -> MMPP/MMPP/1 queue model for MAN delay
  * MAN delay is observed via a single server queue model with
  * Markov-modulated Poisson process (MMPP) arrivals.
+ * If the MAN links are defined in edge_devices.xml, each link on the
+ * path between the edge datacenters is observed as a separate queue.
  *   
  * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
  * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
@@ -19,9 +21,13 @@ package edu.boun.edgecloudsim.applications.sample_app2;
 
 import org.cloudbus.cloudsim.core.CloudSim;
 
+import edu.boun.edgecloudsim.core.EdgeTopology;
+import edu.boun.edgecloudsim.core.ManTopology;
 import edu.boun.edgecloudsim.core.SimManager;
 import edu.boun.edgecloudsim.core.SimSettings;
 import edu.boun.edgecloudsim.edge_client.Task;
+import edu.boun.edgecloudsim.network.EmpiricalDelayModel;
+import edu.boun.edgecloudsim.network.ManPathModel;
 import edu.boun.edgecloudsim.network.NetworkModel;
 import edu.boun.edgecloudsim.utils.Location;
 import edu.boun.edgecloudsim.utils.SimLogger;
@@ -35,6 +41,7 @@ public class SampleNetworkModel extends NetworkModel {
 	private int manClients;
 	private int[] wanClients;
 	private int[] wlanClients;
+	private EmpiricalDelayModel empiricalDelayModel;
 	
 	private double lastMM1QueueUpdateTime;
 	private double ManPoissonMeanForDownload; //seconds
@@ -48,6 +55,9 @@ public class SampleNetworkModel extends NetworkModel {
 	private double totalManTaskOutputSize;
 	private double numOfManTaskForDownload;
 	private double numOfManTaskForUpload;
+
+	//null if the MAN links are not defined, a single MAN queue is used in this case
+	private ManPathModel manPathModel;
 	
 	public static final double[] experimentalWlanDelay = {
 		/*1 Client*/ 88040.279 /*(Kbps)*/,
@@ -189,6 +199,9 @@ public class SampleNetworkModel extends NetworkModel {
 	public void initialize() {
 		wanClients = new int[SimSettings.getInstance().getNumOfEdgeDatacenters()];  //we have one access point for each datacenter
 		wlanClients = new int[SimSettings.getInstance().getNumOfEdgeDatacenters()];  //we have one access point for each datacenter
+		//802.11ac is around 3 times faster than 802.11n used in the measurements
+		empiricalDelayModel = EmpiricalDelayModel.fromSettings(
+				EmpiricalDelayModel.fromBuiltInTables(experimentalWlanDelay, experimentalWlanDelay, experimentalWanDelay, experimentalWanDelay, 3));
 
 		int numOfApp = SimSettings.getInstance().getTaskLookUpTable().length;
 		SimSettings SS = SimSettings.getInstance();
@@ -219,6 +232,16 @@ public class SampleNetworkModel extends NetworkModel {
 		numOfManTaskForDownload = 0;
 		totalManTaskInputSize = 0;
 		numOfManTaskForUpload = 0;
+
+		ManTopology manTopology = SimSettings.getInstance().getManTopology();
+		if(manTopology != null){
+			//each link is assumed to carry the MAN traffic of one datacenter at the beginning
+			double manTaskPerSecond = (double)numberOfMobileDevices / ManPoissonMeanForUpload / manTopology.getNumOfNodes();
+			manPathModel = new ManPathModel(manTopology, manTaskPerSecond, (avgManTaskInputSize + avgManTaskOutputSize) / 2);
+		}
+		else{
+			manPathModel = null;
+		}
 	}
 
     /**
@@ -230,6 +253,8 @@ public class SampleNetworkModel extends NetworkModel {
 		
 		//special case for man communication
 		if(sourceDeviceId == destDeviceId && sourceDeviceId == SimSettings.GENERIC_EDGE_DEVICE_ID){
+			if(manPathModel != null)
+				return delay = getManPathDelay(task, true);
 			return delay = getManUploadDelay();
 		}
 		
@@ -256,6 +281,8 @@ public class SampleNetworkModel extends NetworkModel {
 		
 		//special case for man communication
 		if(sourceDeviceId == destDeviceId && sourceDeviceId == SimSettings.GENERIC_EDGE_DEVICE_ID){
+			if(manPathModel != null)
+				return delay = getManPathDelay(task, false);
 			return delay = getManDownloadDelay();
 		}
 		
@@ -331,37 +358,22 @@ public class SampleNetworkModel extends NetworkModel {
 
 	private double getWlanDownloadDelay(Location accessPointLocation, double dataSize) {
 		int numOfWlanUser = wlanClients[accessPointLocation.getServingWlanId()];
-		double taskSizeInKb = dataSize * (double)8; //KB to Kb
-		double result=0;
-		
-		if(numOfWlanUser < experimentalWlanDelay.length)
-			result = taskSizeInKb /*Kb*/ / (experimentalWlanDelay[numOfWlanUser] * (double) 3 ) /*Kbps*/; //802.11ac is around 3 times faster than 802.11n
-
-		//System.out.println("--> " + numOfWlanUser + " user, " + taskSizeInKb + " KB, " +result + " sec");
-		return result;
+		return empiricalDelayModel.getDelay(SimSettings.NETWORK_DELAY_TYPES.WLAN_DELAY, true, numOfWlanUser + 1, dataSize);
 	}
 	
-	//wlan upload and download delay is symmetric in this model
 	private double getWlanUploadDelay(Location accessPointLocation, double dataSize) {
-		return getWlanDownloadDelay(accessPointLocation, dataSize);
+		int numOfWlanUser = wlanClients[accessPointLocation.getServingWlanId()];
+		return empiricalDelayModel.getDelay(SimSettings.NETWORK_DELAY_TYPES.WLAN_DELAY, false, numOfWlanUser + 1, dataSize);
 	}
 	
 	private double getWanDownloadDelay(Location accessPointLocation, double dataSize) {
 		int numOfWanUser = wanClients[accessPointLocation.getServingWlanId()];
-		double taskSizeInKb = dataSize * (double)8; //KB to Kb
-		double result=0;
-		
-		if(numOfWanUser < experimentalWanDelay.length)
-			result = taskSizeInKb /*Kb*/ / (experimentalWanDelay[numOfWanUser]) /*Kbps*/;
-		
-		//System.out.println("--> " + numOfWanUser + " user, " + taskSizeInKb + " KB, " +result + " sec");
-		
-		return result;
+		return empiricalDelayModel.getDelay(SimSettings.NETWORK_DELAY_TYPES.WAN_DELAY, true, numOfWanUser + 1, dataSize);
 	}
 	
-	//wan upload and download delay is symmetric in this model
 	private double getWanUploadDelay(Location accessPointLocation, double dataSize) {
-		return getWanDownloadDelay(accessPointLocation, dataSize);
+		int numOfWanUser = wanClients[accessPointLocation.getServingWlanId()];
+		return empiricalDelayModel.getDelay(SimSettings.NETWORK_DELAY_TYPES.WAN_DELAY, false, numOfWanUser + 1, dataSize);
 	}
 	
 	private double calculateMM1(double propagationDelay, double bandwidth /*Kbps*/, double PoissonMean, double avgTaskSize /*KB*/, int deviceCount){
@@ -411,6 +423,29 @@ public class SampleNetworkModel extends NetworkModel {
 		return result;
 	}
 	
+	/*
+	 * MAN delay between the datacenter serving the mobile device and the
+	 * datacenter running the task, the data is sent in the reverse
+	 * direction for the download
+	 */
+	private double getManPathDelay(Task task, boolean forUpload) {
+		EdgeTopology edgeTopology = SimSettings.getInstance().getEdgeTopology();
+		int accessPointDatacenter = edgeTopology.getDatacenterIndexOfWlan(task.getSubmittedLocation().getServingWlanId());
+		int taskDatacenter = edgeTopology.getVm(task.getAssociatedVmId()).getDatacenterIndex();
+
+		//the wlan of the mobile device may not be mapped to any datacenter
+		if(accessPointDatacenter < 0 || taskDatacenter < 0)
+			return 0;
+
+		double result;
+		if(forUpload)
+			result = manPathModel.getDelay(accessPointDatacenter, taskDatacenter, task.getCloudletFileSize());
+		else
+			result = manPathModel.getDelay(taskDatacenter, accessPointDatacenter, task.getCloudletOutputSize());
+
+		return (result < 0 || result > 15) ? 0 : result;
+	}
+	
 	public void updateMM1QueeuModel(){
 		double lastInterval = CloudSim.clock() - lastMM1QueueUpdateTime;
 		lastMM1QueueUpdateTime = CloudSim.clock();
@@ -428,5 +463,8 @@ public class SampleNetworkModel extends NetworkModel {
 		numOfManTaskForDownload = 0;
 		totalManTaskInputSize = 0;
 		numOfManTaskForUpload = 0;
+
+		if(manPathModel != null)
+			manPathModel.updateStatistics(lastInterval);
 	}
 }
@@ -20,7 +20,6 @@ import org.cloudbus.cloudsim.core.SimEvent;
 import edu.boun.edgecloudsim.core.SimManager;
 import edu.boun.edgecloudsim.core.SimSettings;
 import edu.boun.edgecloudsim.edge_orchestrator.EdgeOrchestrator;
-import edu.boun.edgecloudsim.edge_server.EdgeVM;
 import edu.boun.edgecloudsim.edge_client.CpuUtilizationModel_Custom;
 import edu.boun.edgecloudsim.edge_client.Task;
 import edu.boun.edgecloudsim.edge_client.mobile_processing_unit.MobileVM;
@@ -86,18 +85,8 @@ public class SampleEdgeOrchestrator extends EdgeOrchestrator {
 		 }
 		else if(deviceId == SimSettings.GENERIC_EDGE_DEVICE_ID){
 			//Select VM on edge devices via Least Loaded algorithm!
-			double selectedVmCapacity = 0; //start with min value
-			for(int hostIndex=0; hostIndex<numberOfHost; hostIndex++){
-				List<EdgeVM> vmArray = SimManager.getInstance().getEdgeServerManager().getVmList(hostIndex);
-				for(int vmIndex=0; vmIndex<vmArray.size(); vmIndex++){
-					double requiredCapacity = ((CpuUtilizationModel_Custom)task.getUtilizationModelCpu()).predictUtilization(vmArray.get(vmIndex).getVmType());
-					double targetVmCapacity = (double)100 - vmArray.get(vmIndex).getCloudletScheduler().getTotalUtilizationOfCpu(CloudSim.clock());
-					if(requiredCapacity <= targetVmCapacity && targetVmCapacity > selectedVmCapacity){
-						selectedVM = vmArray.get(vmIndex);
-						selectedVmCapacity = targetVmCapacity;
-					}
-				}
-			}
+			double requiredCapacity = ((CpuUtilizationModel_Custom)task.getUtilizationModelCpu()).predictUtilization(SimSettings.VM_TYPES.EDGE_VM);
+			selectedVM = getEdgeVmIndex().selectWorstFit(requiredCapacity);
 		}
 		else{
 			SimLogger.printLine("Unknown device id! The simulation has been terminated.");
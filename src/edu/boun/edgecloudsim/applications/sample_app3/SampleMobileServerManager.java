@@ -15,7 +15,6 @@ import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 
-import org.cloudbus.cloudsim.CloudletSchedulerTimeShared;
 import org.cloudbus.cloudsim.Datacenter;
 import org.cloudbus.cloudsim.DatacenterCharacteristics;
 import org.cloudbus.cloudsim.Host;
@@ -23,17 +22,17 @@ import org.cloudbus.cloudsim.Pe;
 import org.cloudbus.cloudsim.Storage;
 import org.cloudbus.cloudsim.VmAllocationPolicy;
 import org.cloudbus.cloudsim.VmSchedulerSpaceShared;
-import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
 import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
 import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
 
-import edu.boun.edgecloudsim.core.SimManager;
 import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.edge_client.CloudletSchedulerTimeShared_Custom;
 import edu.boun.edgecloudsim.edge_client.mobile_processing_unit.MobileHost;
 import edu.boun.edgecloudsim.edge_client.mobile_processing_unit.MobileServerManager;
 import edu.boun.edgecloudsim.edge_client.mobile_processing_unit.MobileVM;
 import edu.boun.edgecloudsim.edge_client.mobile_processing_unit.MobileVmAllocationPolicy_Custom;
+import edu.boun.edgecloudsim.utils.VmUtilizationAggregator;
 
 public class SampleMobileServerManager extends MobileServerManager{
 	private int numOfMobileDevices=0;
@@ -66,6 +65,8 @@ public class SampleMobileServerManager extends MobileServerManager{
 
 	@Override
 	public void createVmList(int brokerId) {
+		utilizationAggregator = new VmUtilizationAggregator(numOfMobileDevices);
+
 		//VMs should have unique IDs, so create Mobile VMs after Edge+Cloud VMs
 		int vmCounter=SimSettings.getInstance().getNumOfEdgeVMs() + SimSettings.getInstance().getNumOfCloudVMs();
 		
@@ -82,7 +83,7 @@ public class SampleMobileServerManager extends MobileServerManager{
 			long bandwidth = 0;
 			
 			//VM Parameters		
-			MobileVM vm = new MobileVM(vmCounter, brokerId, mips, numOfCores, ram, bandwidth, storage, vmm, new CloudletSchedulerTimeShared());
+			MobileVM vm = new MobileVM(vmCounter, brokerId, mips, numOfCores, ram, bandwidth, storage, vmm, new CloudletSchedulerTimeShared_Custom(utilizationAggregator, i));
 			vmList.get(i).add(vm);
 			vmCounter++;
 		}
@@ -90,21 +91,7 @@ public class SampleMobileServerManager extends MobileServerManager{
 
 	@Override
 	public double getAvgUtilization() {
-		double totalUtilization = 0;
-		double vmCounter = 0;
-
-		List<? extends Host> list = localDatacenter.getHostList();
-		// for each host...
-		for (int hostIndex=0; hostIndex < list.size(); hostIndex++) {
-			List<MobileVM> vmArray = SimManager.getInstance().getMobileServerManager().getVmList(hostIndex);
-			//for each vm...
-			for(int vmIndex=0; vmIndex<vmArray.size(); vmIndex++){
-				totalUtilization += vmArray.get(vmIndex).getCloudletScheduler().getTotalUtilizationOfCpu(CloudSim.clock());
-				vmCounter++;
-			}
-		}
-
-		return totalUtilization / vmCounter;
+		return utilizationAggregator.getAvgUtilization();
 	}
 	
 
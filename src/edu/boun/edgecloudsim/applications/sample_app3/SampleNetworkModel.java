@@ -18,12 +18,14 @@ import org.cloudbus.cloudsim.core.CloudSim;
 import edu.boun.edgecloudsim.core.SimManager;
 import edu.boun.edgecloudsim.core.SimSettings;
 import edu.boun.edgecloudsim.edge_client.Task;
+import edu.boun.edgecloudsim.network.EmpiricalDelayModel;
 import edu.boun.edgecloudsim.network.NetworkModel;
 import edu.boun.edgecloudsim.utils.Location;
 import edu.boun.edgecloudsim.utils.SimLogger;
 
 public class SampleNetworkModel extends NetworkModel {
 	private int[] wlanClients;
+	private EmpiricalDelayModel empiricalDelayModel;
 	
 	public static final double[] experimentalWlanDelay = {
 		/*1 Client*/ 88040.279 /*(Kbps)*/,
@@ -136,6 +138,9 @@ public class SampleNetworkModel extends NetworkModel {
 	@Override
 	public void initialize() {
 		wlanClients = new int[SimSettings.getInstance().getNumOfEdgeDatacenters()];  //we have one access point for each datacenter
+		//802.11ac is around 3 times faster than 802.11n used in the measurements
+		empiricalDelayModel = EmpiricalDelayModel.fromSettings(
+				EmpiricalDelayModel.fromBuiltInTables(experimentalWlanDelay, experimentalWlanDelay, null, null, 3));
 	}
 
     /**
@@ -223,21 +228,11 @@ public class SampleNetworkModel extends NetworkModel {
 
 	private double getWlanDownloadDelay(Location accessPointLocation, double dataSize) {
 		int numOfWlanUser = wlanClients[accessPointLocation.getServingWlanId()];
-		double taskSizeInKb = dataSize * (double)8; //KB to Kb
-		double result=0;
-		
-		if(numOfWlanUser < 0)
-			System.out.println("--> ");
-		
-		if(numOfWlanUser < experimentalWlanDelay.length)
-			result = taskSizeInKb /*Kb*/ / (experimentalWlanDelay[numOfWlanUser] * (double) 3 ) /*Kbps*/; //802.11ac is around 3 times faster than 802.11n
-
-		//System.out.println("--> " + numOfWlanUser + " user, " + taskSizeInKb + " KB, " +result + " sec");
-		return result;
+		return empiricalDelayModel.getDelay(SimSettings.NETWORK_DELAY_TYPES.WLAN_DELAY, true, numOfWlanUser + 1, dataSize);
 	}
 	
-	//wlan upload and download delay is symmetric in this model
 	private double getWlanUploadDelay(Location accessPointLocation, double dataSize) {
-		return getWlanDownloadDelay(accessPointLocation, dataSize);
+		int numOfWlanUser = wlanClients[accessPointLocation.getServingWlanId()];
+		return empiricalDelayModel.getDelay(SimSettings.NETWORK_DELAY_TYPES.WLAN_DELAY, false, numOfWlanUser + 1, dataSize);
 	}
 }
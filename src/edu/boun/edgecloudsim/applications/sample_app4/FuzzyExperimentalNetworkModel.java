@@ -15,6 +15,7 @@ import org.cloudbus.cloudsim.core.CloudSim;
 import edu.boun.edgecloudsim.core.SimManager;
 import edu.boun.edgecloudsim.core.SimSettings;
 import edu.boun.edgecloudsim.edge_client.Task;
+import edu.boun.edgecloudsim.network.EmpiricalDelayModel;
 import edu.boun.edgecloudsim.network.NetworkModel;
 import edu.boun.edgecloudsim.utils.Location;
 import edu.boun.edgecloudsim.utils.SimLogger;
@@ -28,6 +29,7 @@ public class FuzzyExperimentalNetworkModel extends NetworkModel {
 	private int manClients;
 	private int[] wanClients;
 	private int[] wlanClients;
+	private EmpiricalDelayModel empiricalDelayModel;
 	
 	private double lastMM1QueeuUpdateTime;
 	private double ManPoissonMeanForDownload; //seconds
@@ -182,6 +184,9 @@ public class FuzzyExperimentalNetworkModel extends NetworkModel {
 	public void initialize() {
 		wanClients = new int[SimSettings.getInstance().getNumOfEdgeDatacenters()];  //we have one access point for each datacenter
 		wlanClients = new int[SimSettings.getInstance().getNumOfEdgeDatacenters()];  //we have one access point for each datacenter
+		//802.11ac is around 3 times faster than 802.11n used in the measurements
+		empiricalDelayModel = EmpiricalDelayModel.fromSettings(
+				EmpiricalDelayModel.fromBuiltInTables(experimentalWlanDelay, experimentalWlanDelay, experimentalWanDelay, experimentalWanDelay, 3));
 
 		int numOfApp = SimSettings.getInstance().getTaskLookUpTable().length;
 		SimSettings SS = SimSettings.getInstance();
@@ -324,37 +329,22 @@ public class FuzzyExperimentalNetworkModel extends NetworkModel {
 
 	private double getWlanDownloadDelay(Location accessPointLocation, double dataSize) {
 		int numOfWlanUser = wlanClients[accessPointLocation.getServingWlanId()];
-		double taskSizeInKb = dataSize * (double)8; //KB to Kb
-		double result=0;
-		
-		if(numOfWlanUser < experimentalWlanDelay.length)
-			result = taskSizeInKb /*Kb*/ / (experimentalWlanDelay[numOfWlanUser] * (double) 3 ) /*Kbps*/; //802.11ac is around 3 times faster than 802.11n
-
-		//System.out.println("--> " + numOfWlanUser + " user, " + taskSizeInKb + " KB, " +result + " sec");
-		return result;
+		return empiricalDelayModel.getDelay(SimSettings.NETWORK_DELAY_TYPES.WLAN_DELAY, true, numOfWlanUser + 1, dataSize);
 	}
 	
-	//wlan upload and download delay is symmetric in this model
 	private double getWlanUploadDelay(Location accessPointLocation, double dataSize) {
-		return getWlanDownloadDelay(accessPointLocation, dataSize);
+		int numOfWlanUser = wlanClients[accessPointLocation.getServingWlanId()];
+		return empiricalDelayModel.getDelay(SimSettings.NETWORK_DELAY_TYPES.WLAN_DELAY, false, numOfWlanUser + 1, dataSize);
 	}
 	
 	private double getWanDownloadDelay(Location accessPointLocation, double dataSize) {
 		int numOfWanUser = wanClients[accessPointLocation.getServingWlanId()];
-		double taskSizeInKb = dataSize * (double)8; //KB to Kb
-		double result=0;
-		
-		if(numOfWanUser < experimentalWanDelay.length)
-			result = taskSizeInKb /*Kb*/ / (experimentalWanDelay[numOfWanUser]) /*Kbps*/;
-		
-		//System.out.println("--> " + numOfWanUser + " user, " + taskSizeInKb + " KB, " +result + " sec");
-		
-		return result;
+		return empiricalDelayModel.getDelay(SimSettings.NETWORK_DELAY_TYPES.WAN_DELAY, true, numOfWanUser + 1, dataSize);
 	}
 	
-	//wan upload and download delay is symmetric in this model
 	private double getWanUploadDelay(Location accessPointLocation, double dataSize) {
-		return getWanDownloadDelay(accessPointLocation, dataSize);
+		int numOfWanUser = wanClients[accessPointLocation.getServingWlanId()];
+		return empiricalDelayModel.getDelay(SimSettings.NETWORK_DELAY_TYPES.WAN_DELAY, false, numOfWanUser + 1, dataSize);
 	}
 	
 	private double calculateMM1(double propagationDelay, double bandwidth /*Kbps*/, double PoissonMean, double avgTaskSize /*KB*/, int deviceCount){
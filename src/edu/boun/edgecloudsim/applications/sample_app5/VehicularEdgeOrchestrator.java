@@ -75,15 +75,17 @@ public class VehicularEdgeOrchestrator extends EdgeOrchestrator {
 		double avgEdgeUtilization = SimManager.getInstance().getEdgeServerManager().getAvgUtilization();
 		double avgCloudUtilization = SimManager.getInstance().getCloudServerManager().getAvgUtilization();
 
+		//the estimates are read from a single snapshot of the network model
 		VehicularNetworkModel networkModel = (VehicularNetworkModel)SimManager.getInstance().getNetworkModel();
-		double wanUploadDelay = networkModel.estimateUploadDelay(NETWORK_DELAY_TYPES.WAN_DELAY, task);
-		double wanDownloadDelay = networkModel.estimateDownloadDelay(NETWORK_DELAY_TYPES.WAN_DELAY, task);
+		VehicularNetworkModel.DelaySnapshot delays = networkModel.getDelaySnapshot(task);
+		double wanUploadDelay = delays.getUploadDelay(NETWORK_DELAY_TYPES.WAN_DELAY);
+		double wanDownloadDelay = delays.getDownloadDelay(NETWORK_DELAY_TYPES.WAN_DELAY);
 
-		double gsmUploadDelay = networkModel.estimateUploadDelay(NETWORK_DELAY_TYPES.GSM_DELAY, task);
-		double gsmDownloadDelay = networkModel.estimateDownloadDelay(NETWORK_DELAY_TYPES.GSM_DELAY, task);
+		double gsmUploadDelay = delays.getUploadDelay(NETWORK_DELAY_TYPES.GSM_DELAY);
+		double gsmDownloadDelay = delays.getDownloadDelay(NETWORK_DELAY_TYPES.GSM_DELAY);
 
-		double wlanUploadDelay = networkModel.estimateUploadDelay(NETWORK_DELAY_TYPES.WLAN_DELAY, task);
-		double wlanDownloadDelay =networkModel.estimateDownloadDelay(NETWORK_DELAY_TYPES.WLAN_DELAY, task);
+		double wlanUploadDelay = delays.getUploadDelay(NETWORK_DELAY_TYPES.WLAN_DELAY);
+		double wlanDownloadDelay = delays.getDownloadDelay(NETWORK_DELAY_TYPES.WLAN_DELAY);
 
 		int options[] = {
 				EDGE_DATACENTER,
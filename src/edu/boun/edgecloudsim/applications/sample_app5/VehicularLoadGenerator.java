@@ -7,12 +7,20 @@ import org.apache.commons.math3.distribution.ExponentialDistribution;
 import edu.boun.edgecloudsim.core.SimSettings;
 import edu.boun.edgecloudsim.task_generator.LoadGeneratorModel;
 import edu.boun.edgecloudsim.utils.TaskProperty;
+import edu.boun.edgecloudsim.utils.RandomStream;
+import edu.boun.edgecloudsim.utils.RandomStreams;
 import edu.boun.edgecloudsim.utils.SimLogger;
 import edu.boun.edgecloudsim.utils.SimUtils;
 
 public class VehicularLoadGenerator extends LoadGeneratorModel{
 	int taskTypeOfDevices[];
 
+	//arrival cursor of each device
+	private RandomStream deviceRngs[];
+	private ExponentialDistribution intervalRngs[];
+	private double virtualTimes[];
+	private double activePeriodStartTimes[];
+
 	public VehicularLoadGenerator(int _numberOfMobileDevices, double _simulationTime, String _simScenario) {
 		super(_numberOfMobileDevices, _simulationTime, _simScenario);
 	}
@@ -20,13 +28,35 @@ public class VehicularLoadGenerator extends LoadGeneratorModel{
 
 	@Override
 	public void initializeModel() {
+		initializeStreaming();
+
 		taskList = new ArrayList<TaskProperty>();
+		for(int i=0; i<numberOfMobileDevices; i++) {
+			TaskProperty task;
+			while((task = getNextTask(i)) != null)
+				taskList.add(task);
+		}
+	}
 
+	@Override
+	public boolean supportsStreaming() {
+		return true;
+	}
+
+	@Override
+	public void initializeStreaming() {
 		//Each mobile device utilizes an app type (task type)
 		taskTypeOfDevices = new int[numberOfMobileDevices];
+		deviceRngs = new RandomStream[numberOfMobileDevices];
+		intervalRngs = new ExponentialDistribution[numberOfMobileDevices];
+		virtualTimes = new double[numberOfMobileDevices];
+		activePeriodStartTimes = new double[numberOfMobileDevices];
 		for(int i=0; i<numberOfMobileDevices; i++) {
+			//each device draws all of its random values from its own stream
+			RandomStream deviceRng = RandomStreams.getStream(RandomStreams.LOAD_GENERATOR, i);
+
 			int randomTaskType = -1;
-			double taskTypeSelector = SimUtils.getRandomDoubleNumber(0,100);
+			double taskTypeSelector = SimUtils.getRandomDoubleNumber(deviceRng, 0,100);
 			double taskTypePercentage = 0;
 			for (int j=0; j<SimSettings.getInstance().getTaskLookUpTable().length; j++) {
 				taskTypePercentage += SimSettings.getInstance().getTaskLookUpTable()[j][0];
@@ -37,60 +67,65 @@ public class VehicularLoadGenerator extends LoadGeneratorModel{
 			}
 			if(randomTaskType == -1){
 				SimLogger.printLine("Impossible is occurred! no random task type!");
+				//the device does not generate any task
+				virtualTimes[i] = simulationTime;
 				continue;
 			}
 
 			taskTypeOfDevices[i] = randomTaskType;
 
 			double poissonMean = SimSettings.getInstance().getTaskLookUpTable()[randomTaskType][2];
-			double activePeriod = SimSettings.getInstance().getTaskLookUpTable()[randomTaskType][3];
-			double idlePeriod = SimSettings.getInstance().getTaskLookUpTable()[randomTaskType][4];
-			double activePeriodStartTime = SimUtils.getRandomDoubleNumber(
+			activePeriodStartTimes[i] = SimUtils.getRandomDoubleNumber(deviceRng,
 					SimSettings.CLIENT_ACTIVITY_START_TIME, 
 					SimSettings.CLIENT_ACTIVITY_START_TIME * 2);  //active period starts shortly after the simulation started (e.g. 10 seconds)
-			double virtualTime = activePeriodStartTime;
+			virtualTimes[i] = activePeriodStartTimes[i];
+
+			deviceRngs[i] = deviceRng;
+			intervalRngs[i] = new ExponentialDistribution(deviceRng, poissonMean);
+		}
+	}
 
-			ExponentialDistribution rng = new ExponentialDistribution(poissonMean);
-			//ExponentialDistribution rng[] = new ExponentialDistribution[10];
-			//for(int j=0; j<10; j++)
-			//	rng[j] = new ExponentialDistribution(poissonMean * ((double)1 + (double)j * (double) 0.12));
+	@Override
+	public TaskProperty getNextTask(int deviceId) {
+		int randomTaskType = taskTypeOfDevices[deviceId];
+		double activePeriod = SimSettings.getInstance().getTaskLookUpTable()[randomTaskType][3];
+		double idlePeriod = SimSettings.getInstance().getTaskLookUpTable()[randomTaskType][4];
+		RandomStream deviceRng = deviceRngs[deviceId];
 
-			while(virtualTime < simulationTime) {
-				//int index = Math.min(9, (int)virtualTime / 15);
-				//double interval = rng[9-index].sample();
-				double interval = rng.sample();
+		while(virtualTimes[deviceId] < simulationTime) {
+			double interval = intervalRngs[deviceId].sample();
 
-				if(interval <= 0){
-					SimLogger.printLine("Impossible is occurred! interval is " + interval + " for device " + i + " time " + virtualTime);
-					continue;
-				}
-				//SimLogger.printLine(virtualTime + " -> " + interval + " for device " + i + " time ");
-				virtualTime += interval;
+			if(interval <= 0){
+				SimLogger.printLine("Impossible is occurred! interval is " + interval + " for device " + deviceId + " time " + virtualTimes[deviceId]);
+				continue;
+			}
+			virtualTimes[deviceId] += interval;
 
-				if(virtualTime > activePeriodStartTime + activePeriod){
-					activePeriodStartTime = activePeriodStartTime + activePeriod + idlePeriod;
-					virtualTime = activePeriodStartTime;
-					continue;
-				}
+			if(virtualTimes[deviceId] > activePeriodStartTimes[deviceId] + activePeriod){
+				activePeriodStartTimes[deviceId] = activePeriodStartTimes[deviceId] + activePeriod + idlePeriod;
+				virtualTimes[deviceId] = activePeriodStartTimes[deviceId];
+				continue;
+			}
 
-				long inputFileSize = (long)SimSettings.getInstance().getTaskLookUpTable()[randomTaskType][5];
-				long inputFileSizeBias = inputFileSize / 10;
+			long inputFileSize = (long)SimSettings.getInstance().getTaskLookUpTable()[randomTaskType][5];
+			long inputFileSizeBias = inputFileSize / 10;
 
-				long outputFileSize =(long)SimSettings.getInstance().getTaskLookUpTable()[randomTaskType][6];
-				long outputFileSizeBias = outputFileSize / 10;
+			long outputFileSize =(long)SimSettings.getInstance().getTaskLookUpTable()[randomTaskType][6];
+			long outputFileSizeBias = outputFileSize / 10;
 
-				long length = (long)SimSettings.getInstance().getTaskLookUpTable()[randomTaskType][7];	
-				long lengthBias = length / 10;
+			long length = (long)SimSettings.getInstance().getTaskLookUpTable()[randomTaskType][7];	
+			long lengthBias = length / 10;
 
-				int pesNumber = (int)SimSettings.getInstance().getTaskLookUpTable()[randomTaskType][8];
+			int pesNumber = (int)SimSettings.getInstance().getTaskLookUpTable()[randomTaskType][8];
 
-				inputFileSize = SimUtils.getRandomLongNumber(inputFileSize - inputFileSizeBias, inputFileSize + inputFileSizeBias);
-				outputFileSize = SimUtils.getRandomLongNumber(outputFileSize - outputFileSizeBias, outputFileSize + outputFileSizeBias);
-				length = SimUtils.getRandomLongNumber(length - lengthBias, length + lengthBias);
+			inputFileSize = SimUtils.getRandomLongNumber(deviceRng, inputFileSize - inputFileSizeBias, inputFileSize + inputFileSizeBias);
+			outputFileSize = SimUtils.getRandomLongNumber(deviceRng, outputFileSize - outputFileSizeBias, outputFileSize + outputFileSizeBias);
+			length = SimUtils.getRandomLongNumber(deviceRng, length - lengthBias, length + lengthBias);
 
-				taskList.add(new TaskProperty(virtualTime, i, randomTaskType, pesNumber, length, inputFileSize, outputFileSize));
-			}
+			return new TaskProperty(virtualTimes[deviceId], deviceId, randomTaskType, pesNumber, length, inputFileSize, outputFileSize);
 		}
+
+		return null;
 	}
 
 	@Override
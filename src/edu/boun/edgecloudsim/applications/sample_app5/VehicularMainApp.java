@@ -17,9 +17,11 @@ import java.util.Date;
 import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.core.CloudSim;
 
+import edu.boun.edgecloudsim.core.ExperimentRunner;
 import edu.boun.edgecloudsim.core.ScenarioFactory;
 import edu.boun.edgecloudsim.core.SimManager;
 import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.utils.RandomStreams;
 import edu.boun.edgecloudsim.utils.SimLogger;
 import edu.boun.edgecloudsim.utils.SimUtils;
 
@@ -36,16 +38,19 @@ public class VehicularMainApp {
 		SimLogger.enablePrintLog();
 
 		int iterationNumber = 1;
+		int numOfParallelRuns = 1;
 		String configFile = "";
 		String outputFolder = "";
 		String edgeDevicesFile = "";
 		String applicationsFile = "";
-		if (args.length == 5){
+		if (args.length == 5 || args.length == 6){
 			configFile = args[0];
 			edgeDevicesFile = args[1];
 			applicationsFile = args[2];
 			outputFolder = args[3];
 			iterationNumber = Integer.parseInt(args[4]);
+			if (args.length == 6)
+				numOfParallelRuns = Integer.parseInt(args[5]);
 		}
 		else{
 			SimLogger.printLine("Simulation setting file, output folder and iteration number are not provided! Using default ones...");
@@ -74,19 +79,33 @@ public class VehicularMainApp {
 		SimLogger.printLine("Simulation started at " + now);
 		SimLogger.printLine("----------------------------------------------------------------------");
 
-		String wekaModelsFolder = configFile.substring(0, configFile.lastIndexOf('/')) + "/weka/";
-		WekaWrapper.getInstance().initialize("MultilayerPerceptron", "LinearRegression", wekaModelsFolder);
+		if(numOfParallelRuns > 1){
+			//run the simulations concurrently, each one in its own context
+			ExperimentRunner runner = new ExperimentRunner(VehicularMainApp.class, configFile, edgeDevicesFile, applicationsFile, outputFolder, iterationNumber);
+			runner.run(numOfParallelRuns);
+		}
+		else{
+			initializeApplication(configFile);
 
-		for(int i=SS.getMinNumOfMobileDev(); i<=SS.getMaxNumOfMobileDev(); i+=SS.getMobileDevCounterSize())
-			for(int s=0; s<SS.getSimulationScenarios().length; s++)
-				for(int p=0; p<SS.getOrchestratorPolicies().length; p++)
-					mainHelper(outputFolder, SS.getSimulationScenarios()[s], SS.getOrchestratorPolicies()[p], iterationNumber, i);
+			for(int i=SS.getMinNumOfMobileDev(); i<=SS.getMaxNumOfMobileDev(); i+=SS.getMobileDevCounterSize())
+				for(int s=0; s<SS.getSimulationScenarios().length; s++)
+					for(int p=0; p<SS.getOrchestratorPolicies().length; p++)
+						mainHelper(outputFolder, SS.getSimulationScenarios()[s], SS.getOrchestratorPolicies()[p], iterationNumber, i);
+		}
 
 		Date SimulationEndDate = Calendar.getInstance().getTime();
 		now = df.format(SimulationEndDate);
 		SimLogger.printLine("Simulation finished at " + now +  ". It took " + SimUtils.getTimeDifference(SimulationStartDate,SimulationEndDate));
 	}
 
+	/**
+	 * loads the weka models, which are used by the AI based orchestrator
+	 */
+	public static void initializeApplication(String configFile){
+		String wekaModelsFolder = configFile.substring(0, configFile.lastIndexOf('/')) + "/weka/";
+		WekaWrapper.getInstance().initialize("MultilayerPerceptron", "LinearRegression", wekaModelsFolder);
+	}
+
 	public static void mainHelper(String outputFolder, String simulationScenario, String orchestratorPolicy, int iterationNumber, int numOfMobileDevice){
 		DateFormat df = new SimpleDateFormat("dd/MM/yyyy HH:mm:ss");
 		Date ScenarioStartDate = Calendar.getInstance().getTime();
@@ -96,6 +115,7 @@ public class VehicularMainApp {
 		SimLogger.printLine("Scenario started at " + now);
 		SimLogger.printLine("Scenario: " + simulationScenario + " - Policy: " + orchestratorPolicy + " - #iteration: " + iterationNumber);
 		SimLogger.printLine("Duration: " + SS.getSimulationTime()/60 + " min (warm up period: "+ SS.getWarmUpPeriod()/60 +" min) - #devices: " + numOfMobileDevice);
+		RandomStreams.initialize(SS.getRandomSeed(), iterationNumber);
 		SimLogger.getInstance().simStarted(outputFolder, "SIMRESULT_" + simulationScenario + "_"  + orchestratorPolicy + "_" + numOfMobileDevice + "DEVICES");
 
 		try
@@ -132,9 +152,9 @@ public class VehicularMainApp {
 		}
 		catch (Exception e)
 		{
+			//the caller records the failed scenario, other concurrent runs are not terminated
 			SimLogger.printLine("The simulation has been terminated due to an unexpected error");
-			e.printStackTrace();
-			System.exit(1);
+			throw new IllegalStateException("Scenario " + simulationScenario + " - " + orchestratorPolicy + " - " + numOfMobileDevice + " devices failed", e);
 		}
 
 
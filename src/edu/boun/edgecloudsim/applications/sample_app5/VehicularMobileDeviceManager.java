@@ -51,8 +51,13 @@ public class VehicularMobileDeviceManager extends MobileDeviceManager {
 	private static final int RESPONSE_RECEIVED_BY_EDGE_DEVICE_TO_RELAY_MOBILE_DEVICE = BASE + 11;
 
 	private static final double MM1_QUEUE_MODEL_UPDATE_INTERVAL = 0.5; //seconds
+	private static final int[] DELAY_LOG_ACCESS_POINTS = {0,6,10};
 	private int taskIdCounter=0;
 
+	//delays of the logged access points, the arrays are reused by each log
+	private double[] apUploadDelays = new double[DELAY_LOG_ACCESS_POINTS.length];
+	private double[] apDownloadDelays = new double[DELAY_LOG_ACCESS_POINTS.length];
+
 	public VehicularMobileDeviceManager() throws Exception{
 	}
 
@@ -129,15 +134,15 @@ public class VehicularMobileDeviceManager extends MobileDeviceManager {
 			}
 		}
 		else if(task.getAssociatedDatacenterId() == VehicularEdgeOrchestrator.EDGE_DATACENTER) {
-			Location currentLocation = SimManager.getInstance().getMobilityModel().getLocation(task.getMobileDeviceId(),CloudSim.clock());
-			if(task.getSubmittedLocation().getServingWlanId() == currentLocation.getServingWlanId())
+			int currentWlanId = SimManager.getInstance().getMobilityModel().getServingWlanId(task.getMobileDeviceId(),CloudSim.clock());
+			if(task.getSubmittedLocation().getServingWlanId() == currentWlanId)
 			{
 				NETWORK_DELAY_TYPES delayType = NETWORK_DELAY_TYPES.WLAN_DELAY;
 				double wlanDelay = networkModel.getDownloadDelay(delayType, task);
 				if(wlanDelay > 0)
 				{
-					Location futureLocation = SimManager.getInstance().getMobilityModel().getLocation(task.getMobileDeviceId(),CloudSim.clock()+wlanDelay);
-					if(task.getSubmittedLocation().getServingWlanId() == futureLocation.getServingWlanId())
+					int futureWlanId = SimManager.getInstance().getMobilityModel().getServingWlanId(task.getMobileDeviceId(),CloudSim.clock()+wlanDelay);
+					if(task.getSubmittedLocation().getServingWlanId() == futureWlanId)
 					{
 						SimLogger.getInstance().setDownloadDelay(task.getCloudletId(), wlanDelay, delayType);
 						schedule(getId(), wlanDelay, RESPONSE_RECEIVED_BY_MOBILE_DEVICE, task);
@@ -198,12 +203,9 @@ public class VehicularMobileDeviceManager extends MobileDeviceManager {
 		}
 		case SET_DELAY_LOG:
 		{
-			int[] indices = {0,6,10};
-			double apUploadDelays[] = new double[indices.length];
-			double apDownloadDelays[] = new double[indices.length];
-			for(int i=0; i<indices.length; i++){
-				apUploadDelays[i] = networkModel.estimateWlanUploadDelay(indices[i]);
-				apDownloadDelays[i] = networkModel.estimateWlanDownloadDelay(indices[i]);
+			for(int i=0; i<DELAY_LOG_ACCESS_POINTS.length; i++){
+				apUploadDelays[i] = networkModel.estimateWlanUploadDelay(DELAY_LOG_ACCESS_POINTS[i]);
+				apDownloadDelays[i] = networkModel.estimateWlanDownloadDelay(DELAY_LOG_ACCESS_POINTS[i]);
 			}
 			SimLogger.getInstance().addApDelayLog(CloudSim.clock(), apUploadDelays, apDownloadDelays);
 
@@ -336,8 +338,8 @@ public class VehicularMobileDeviceManager extends MobileDeviceManager {
 		case RESPONSE_RECEIVED_BY_EDGE_DEVICE:
 		{
 			Task task = (Task) ev.getData();
-			Location currentLocation = SimManager.getInstance().getMobilityModel().getLocation(task.getMobileDeviceId(),CloudSim.clock());
-			if(task.getSubmittedLocation().getServingWlanId() == currentLocation.getServingWlanId())
+			int currentWlanId = SimManager.getInstance().getMobilityModel().getServingWlanId(task.getMobileDeviceId(),CloudSim.clock());
+			if(task.getSubmittedLocation().getServingWlanId() == currentWlanId)
 			{
 				scheduleNow(getId(), RESPONSE_RECEIVED_BY_EDGE_DEVICE_TO_RELAY_MOBILE_DEVICE, task);
 			}
@@ -369,10 +371,10 @@ public class VehicularMobileDeviceManager extends MobileDeviceManager {
 
 			if(wlanDelay > 0)
 			{
-				Location currentLocation = SimManager.getInstance().getMobilityModel().getLocation(task.getMobileDeviceId(),CloudSim.clock());
-				Location futureLocation = SimManager.getInstance().getMobilityModel().getLocation(task.getMobileDeviceId(),CloudSim.clock()+wlanDelay);
+				int currentWlanId = SimManager.getInstance().getMobilityModel().getServingWlanId(task.getMobileDeviceId(),CloudSim.clock());
+				int futureWlanId = SimManager.getInstance().getMobilityModel().getServingWlanId(task.getMobileDeviceId(),CloudSim.clock()+wlanDelay);
 
-				if(currentLocation.getServingWlanId() == futureLocation.getServingWlanId())
+				if(currentWlanId == futureWlanId)
 				{
 					SimLogger.getInstance().setDownloadDelay(task.getCloudletId(), wlanDelay, delayType);
 					schedule(getId(), wlanDelay, RESPONSE_RECEIVED_BY_MOBILE_DEVICE, task);}
@@ -10,14 +10,13 @@
 
 package edu.boun.edgecloudsim.applications.sample_app5;
 
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
+import java.util.Arrays;
 
+import edu.boun.edgecloudsim.core.EdgeTopology;
 import edu.boun.edgecloudsim.core.SimSettings;
 import edu.boun.edgecloudsim.mobility.MobilityModel;
 import edu.boun.edgecloudsim.utils.Location;
+import edu.boun.edgecloudsim.utils.RandomStreams;
 import edu.boun.edgecloudsim.utils.SimUtils;
 
 public class VehicularMobilityModel extends MobilityModel {
@@ -33,6 +32,7 @@ public class VehicularMobilityModel extends MobilityModel {
 	private int[] initialLocationIndexArray;
 	private int[] initialPositionArray; //in meters unit
 	private double[] timeToDriveLocationArray;//in seconds unit
+	private double[] timeToReachLocationArray;//prefix sums of timeToDriveLocationArray
 	private double[] timeToReachNextLocationArray; //in seconds unit
 
 	public VehicularMobilityModel(int _numberOfMobileDevices, double _simulationTime) {
@@ -43,21 +43,17 @@ public class VehicularMobilityModel extends MobilityModel {
 	@Override
 	public void initialize() {
 		//Find total length of the road
-		Document doc = SimSettings.getInstance().getEdgeDevicesDocument();
-		NodeList datacenterList = doc.getElementsByTagName("datacenter");
-		Element location = (Element)((Element)datacenterList.item(0)).getElementsByTagName("location").item(0);
-		int x_pos = Integer.parseInt(location.getElementsByTagName("x_pos").item(0).getTextContent());
+		EdgeTopology topology = SimSettings.getInstance().getEdgeTopology();
+		int x_pos = topology.getLocation(0).getXPos();
 		lengthOfSegment = x_pos * 2; //assume that all segments have the same length
-		int totalLengthOfRoad = lengthOfSegment * datacenterList.getLength();
+		int totalLengthOfRoad = lengthOfSegment * topology.getNumOfDatacenters();
 
 		//prepare locationTypes array to store attractiveness level of the locations
-		locationTypes = new int[datacenterList.getLength()];
-		timeToDriveLocationArray = new double[datacenterList.getLength()];
-		for(int i=0; i<datacenterList.getLength(); i++) {
-			Node datacenterNode = datacenterList.item(i);
-			Element datacenterElement = (Element) datacenterNode;
-			Element locationElement = (Element)datacenterElement.getElementsByTagName("location").item(0);
-			locationTypes[i] = Integer.parseInt(locationElement.getElementsByTagName("attractiveness").item(0).getTextContent());
+		locationTypes = new int[topology.getNumOfDatacenters()];
+		timeToDriveLocationArray = new double[topology.getNumOfDatacenters()];
+		timeToReachLocationArray = new double[topology.getNumOfDatacenters()+1];
+		for(int i=0; i<topology.getNumOfDatacenters(); i++) {
+			locationTypes[i] = topology.getLocation(i).getPlaceTypeIndex();
 
 			//(3600 * lengthOfSegment) / (SPEED_FOR_PLACES[x] * 1000);
 			timeToDriveLocationArray[i] = ((double)3.6 * (double)lengthOfSegment) /
@@ -65,6 +61,7 @@ public class VehicularMobilityModel extends MobilityModel {
 
 			//find the time required to loop in the road
 			totalTimeForLoop += timeToDriveLocationArray[i];
+			timeToReachLocationArray[i+1] = totalTimeForLoop;
 		}
 
 		//assign a random x position as an initial position for each device
@@ -72,7 +69,7 @@ public class VehicularMobilityModel extends MobilityModel {
 		initialLocationIndexArray =  new int[numberOfMobileDevices];
 		timeToReachNextLocationArray =  new double[numberOfMobileDevices];
 		for(int i=0; i<numberOfMobileDevices; i++) {
-			initialPositionArray[i] = SimUtils.getRandomNumber(0, totalLengthOfRoad-1);
+			initialPositionArray[i] = SimUtils.getRandomNumber(RandomStreams.getStream(RandomStreams.MOBILITY, i), 0, totalLengthOfRoad-1);
 			initialLocationIndexArray[i] = initialPositionArray[i] / lengthOfSegment;
 			timeToReachNextLocationArray[i] = ((double)3.6 *
 					(double)(lengthOfSegment - (initialPositionArray[i] % lengthOfSegment))) /
@@ -80,33 +77,106 @@ public class VehicularMobilityModel extends MobilityModel {
 		}
 	}
 
+	/*
+	 * the x position of a vehicle changes continuously, so the location
+	 * cannot be shared like the place level locations and a new one is
+	 * created; getServingWlanId() and getXPos() do not create any object
+	 */
 	@Override
 	public Location getLocation(int deviceId, double time) {
-		int ofset = 0;
-		double remainingTime = 0;
+		int locationIndex = findLocationIndex(deviceId, time);
+		return new Location(locationTypes[locationIndex], locationIndex, getXPos(deviceId, time, locationIndex), 0);
+	}
 
-		int locationIndex = initialLocationIndexArray[deviceId];
-		double timeToReachNextLocation = timeToReachNextLocationArray[deviceId];
+	@Override
+	public int getServingWlanId(int deviceId, double time) {
+		return findLocationIndex(deviceId, time);
+	}
 
-		if(time < timeToReachNextLocation){
-			ofset = initialPositionArray[deviceId];
-			remainingTime = time;
-		}
-		else{
-			remainingTime = (time - timeToReachNextLocation) % totalTimeForLoop;
-			locationIndex = (locationIndex+1) % locationTypes.length;
+	@Override
+	public int getXPos(int deviceId, double time) {
+		return getXPos(deviceId, time, findLocationIndex(deviceId, time));
+	}
 
-			while(remainingTime > timeToDriveLocationArray[locationIndex]) {
-				remainingTime -= timeToDriveLocationArray[locationIndex];
-				locationIndex =  (locationIndex+1) % locationTypes.length;
-			}
+	@Override
+	public int getYPos(int deviceId, double time) {
+		return 0;
+	}
 
-			ofset = locationIndex * lengthOfSegment;
-		}
+	@Override
+	public boolean isHandoverNotificationSupported() {
+		return true;
+	}
+
+	@Override
+	public double getNextHandoverTime(int deviceId, double time) {
+		//devices are located when the simulation starts
+		if(time < 0)
+			return 0;
+
+		if(time < timeToReachNextLocationArray[deviceId])
+			return timeToReachNextLocationArray[deviceId];
+
+		//the device leaves the location right after the time to drive it is exceeded
+		int locationIndex = findLocationIndex(deviceId, time);
+		double leavingTime = time + (timeToDriveLocationArray[locationIndex] - getTimeInLocation(deviceId, time, locationIndex));
+		return Math.nextUp(Math.max(leavingTime, time));
+	}
+
+	/*
+	 * returns the index of the road segment (i.e. the serving wlan id) of
+	 * the device at the given time
+	 */
+	private int findLocationIndex(int deviceId, double time) {
+		if(time < timeToReachNextLocationArray[deviceId])
+			return initialLocationIndexArray[deviceId];
+
+		//the device is at the start of the next location of its initial one
+		if((time - timeToReachNextLocationArray[deviceId]) % totalTimeForLoop == 0)
+			return (initialLocationIndexArray[deviceId]+1) % locationTypes.length;
+
+		//the device stays in a location until the remaining time exceeds
+		//the time to drive it, so the location is found by a binary search
+		//on the time required to reach each location from the start of the road
+		double timeInLoop = getTimeInLoop(deviceId, time);
+		int index = Arrays.binarySearch(timeToReachLocationArray, timeInLoop);
+		if(index < 0)
+			index = -index - 1;
+		return Math.max(index - 1, 0);
+	}
+
+	/*
+	 * returns the time passed since the start of the road when the device
+	 * is in the same position of its last loop; valid after the device
+	 * leaves its initial road segment
+	 */
+	private double getTimeInLoop(int deviceId, double time) {
+		double remainingTime = (time - timeToReachNextLocationArray[deviceId]) % totalTimeForLoop;
+		int nextLocationIndex = (initialLocationIndexArray[deviceId]+1) % locationTypes.length;
+
+		double timeInLoop = timeToReachLocationArray[nextLocationIndex] + remainingTime;
+		if(timeInLoop > totalTimeForLoop)
+			timeInLoop -= totalTimeForLoop;
+		return timeInLoop;
+	}
+
+	/*
+	 * returns the time spent in the road segment found by findLocationIndex(),
+	 * the time spent since the start of the simulation for the initial segment
+	 */
+	private double getTimeInLocation(int deviceId, double time, int locationIndex) {
+		if(time < timeToReachNextLocationArray[deviceId])
+			return time;
+
+		return Math.max(getTimeInLoop(deviceId, time) - timeToReachLocationArray[locationIndex], 0);
+	}
 
-		int x_pos = (int) (ofset + ( (SPEED_FOR_PLACES[locationTypes[locationIndex]] * remainingTime) / (double)3.6));
+	private int getXPos(int deviceId, double time, int locationIndex) {
+		int ofset = (time < timeToReachNextLocationArray[deviceId]) ?
+				initialPositionArray[deviceId] : locationIndex * lengthOfSegment;
+		double timeInLocation = getTimeInLocation(deviceId, time, locationIndex);
 
-		return new Location(locationTypes[locationIndex], locationIndex, x_pos, 0);
+		return (int) (ofset + ( (SPEED_FOR_PLACES[locationTypes[locationIndex]] * timeInLocation) / (double)3.6));
 	}
 
 }
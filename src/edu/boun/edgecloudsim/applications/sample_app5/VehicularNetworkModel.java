@@ -4,6 +4,9 @@
  * Description: 
  * VehicularNetworkModel implements MMPP/M/1 queue model for
  * WLAN, MAN, WAN and GSM based communication
+ * If the MAN links are defined in edge_devices.xml, the MAN delay of
+ * a relayed task is calculated on the path between the datacenters by
+ * ManPathModel instead of the single MAN queue
  * 
  * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
  * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
@@ -11,11 +14,17 @@
 
 package edu.boun.edgecloudsim.applications.sample_app5;
 
+import java.util.Arrays;
+
 import org.cloudbus.cloudsim.core.CloudSim;
 
+import edu.boun.edgecloudsim.core.EdgeTopology;
+import edu.boun.edgecloudsim.core.ManTopology;
+import edu.boun.edgecloudsim.core.SimManager;
 import edu.boun.edgecloudsim.core.SimSettings;
 import edu.boun.edgecloudsim.core.SimSettings.NETWORK_DELAY_TYPES;
 import edu.boun.edgecloudsim.edge_client.Task;
+import edu.boun.edgecloudsim.network.ManPathModel;
 import edu.boun.edgecloudsim.network.NetworkModel;
 import edu.boun.edgecloudsim.utils.Location;
 import edu.boun.edgecloudsim.utils.SimLogger;
@@ -105,17 +114,159 @@ public class VehicularNetworkModel extends NetworkModel {
 		}
 	}
 
+	/*
+	 * MMPP/M/1 model of the WLAN links of all access points; the values of
+	 * the access points are kept in primitive arrays instead of separate
+	 * MMPPWrapper objects, so all of them are updated in simple loops which
+	 * can be vectorized by the JIT compiler
+	 */
+	private static class MMPPArray {
+		private final double bandwidth; //Kbps
+
+		private final double[] currentPoissonMeans;
+		private final double[] currentTaskSizes;
+
+		//record last values used for successful packet transmission
+		private final double[] lastPoissonMeans;
+		private final double[] lastTaskSizes;
+
+		//record last n task statistics during MM1_QUEUE_MODEL_UPDATE_INTEVAL seconds to simulate mmpp/m/1 queue model
+		private final double[] numOfTasks;
+		private final double[] totalTaskSizes;
+
+		//delay calculated from the current values, 0 if the queue is not stable
+		private final double[] delays;
+
+		public MMPPArray(int numOfAccessPoints, double _bandwidth) {
+			bandwidth = _bandwidth;
+			currentPoissonMeans = new double[numOfAccessPoints];
+			currentTaskSizes = new double[numOfAccessPoints];
+			lastPoissonMeans = new double[numOfAccessPoints];
+			lastTaskSizes = new double[numOfAccessPoints];
+			numOfTasks = new double[numOfAccessPoints];
+			totalTaskSizes = new double[numOfAccessPoints];
+			delays = new double[numOfAccessPoints];
+		}
+
+		public double getDelay(int accessPointId) {
+			return delays[accessPointId];
+		}
+
+		public double getMaxDelay() {
+			double maxDelay = 0;
+			for(int i=0; i<delays.length; i++)
+				maxDelay = (maxDelay < delays[i]) ? delays[i] : maxDelay;
+			return maxDelay;
+		}
+
+		public void increaseMM1StatValues(int accessPointId, double taskSize) {
+			numOfTasks[accessPointId]++;
+			totalTaskSizes[accessPointId] += taskSize;
+		}
+
+		public void initializeMM1QueueValues(double poissonMean, double taskSize) {
+			Arrays.fill(currentPoissonMeans, poissonMean);
+			Arrays.fill(currentTaskSizes, taskSize);
+			Arrays.fill(lastPoissonMeans, poissonMean);
+			Arrays.fill(lastTaskSizes, taskSize);
+
+			double avgTaskSize = taskSize * 8; //convert from KB to Kb
+			double lamda = ((double)1/(double)poissonMean); //task per seconds
+			double mu = bandwidth /*Kbps*/ / avgTaskSize /*Kb*/; //task per seconds
+
+			if(mu <= lamda) {
+				SimLogger.printLine("Error in initializeMM1QueueValues function:" +
+						"MU is smallar than LAMDA! Check your simulation settings.");
+				System.exit(1);
+			}
+
+			updateDelays();
+		}
+
+		/*
+		 * updates the values of all access points by the statistics of the
+		 * last interval, then the last successful values of the stable queues
+		 */
+		public void updateMM1Values(double interval, boolean smoothIncrease) {
+			for(int i=0; i<currentPoissonMeans.length; i++) {
+				double tasks = numOfTasks[i];
+				double poissonMean = interval / tasks;
+				double taskSize = totalTaskSizes[i] / tasks;
+
+				if(smoothIncrease && poissonMean > currentPoissonMeans[i])
+					poissonMean = (poissonMean + currentPoissonMeans[i] * 3) / 4;
+
+				currentPoissonMeans[i] = (tasks == 0) ? lastPoissonMeans[i] : poissonMean;
+				currentTaskSizes[i] = (tasks == 0) ? lastTaskSizes[i] : taskSize;
+				numOfTasks[i] = 0;
+				totalTaskSizes[i] = 0;
+			}
+
+			updateDelays();
+
+			for(int i=0; i<delays.length; i++) {
+				boolean successful = delays[i] != 0;
+				lastPoissonMeans[i] = successful ? currentPoissonMeans[i] : lastPoissonMeans[i];
+				lastTaskSizes[i] = successful ? currentTaskSizes[i] : lastTaskSizes[i];
+			}
+		}
+
+		private void updateDelays() {
+			for(int i=0; i<delays.length; i++) {
+				double avgTaskSize = currentTaskSizes[i] * 8; //convert from KB to Kb
+				double lamda = ((double)1/currentPoissonMeans[i]); //task per seconds
+				double mu = bandwidth /*Kbps*/ / avgTaskSize /*Kb*/; //task per seconds
+				double result = (double)1 / (mu-lamda);
+				delays[i] = (result > 7.5 || result < 0 ) ? 0 : result;
+			}
+		}
+	}
+
+	/*
+	 * delay estimates of an access point; the estimates change only when
+	 * the MMPP/M/1 model is updated, so a snapshot is created by the first
+	 * decision of an update interval and reused by the following ones
+	 */
+	public static class DelaySnapshot {
+		private final int modelVersion;
+
+		//indexed by the ordinal of the network delay type
+		private final double[] uploadDelays;
+		private final double[] downloadDelays;
+
+		private DelaySnapshot(int _modelVersion, double[] _uploadDelays, double[] _downloadDelays) {
+			modelVersion = _modelVersion;
+			uploadDelays = _uploadDelays;
+			downloadDelays = _downloadDelays;
+		}
+
+		public double getUploadDelay(NETWORK_DELAY_TYPES delayType) {
+			return uploadDelays[delayType.ordinal()];
+		}
+
+		public double getDownloadDelay(NETWORK_DELAY_TYPES delayType) {
+			return downloadDelays[delayType.ordinal()];
+		}
+	}
+
 	private static double MAN_CONTROL_MESSAGE_PER_SECONDS = 10;
 	private static double MAN_CONTROL_MESSAGE_SIZE = 25; //100 KB
 
 	private double lastMM1QueeuUpdateTime;
 
-	private MMPPWrapper[] wlanMMPPForDownload;
-	private MMPPWrapper[] wlanMMPPForUpload;
+	//number of MMPP/M/1 model updates, the snapshots of the older versions are not valid
+	private int modelVersion;
+	private DelaySnapshot[] delaySnapshots;
+
+	private MMPPArray wlanMMPPForDownload;
+	private MMPPArray wlanMMPPForUpload;
 
 	private MMPPWrapper manMMPPForDownload;
 	private MMPPWrapper manMMPPForUpload;
 
+	//used instead of the single MAN queue if the MAN links are defined
+	private ManPathModel manPathModel;
+
 	private MMPPWrapper wanMMPPForDownload;
 	private MMPPWrapper wanMMPPForUpload;
 
@@ -134,12 +285,10 @@ public class VehicularNetworkModel extends NetworkModel {
 		int numOfApp = SimSettings.getInstance().getTaskLookUpTable().length;
 		int numOfAccessPoint = SimSettings.getInstance().getNumOfEdgeDatacenters();
 
-		wlanMMPPForDownload = new MMPPWrapper[numOfAccessPoint];
-		wlanMMPPForUpload = new MMPPWrapper[numOfAccessPoint];
-		for(int apIndex=0; apIndex<numOfAccessPoint; apIndex++) {
-			wlanMMPPForDownload[apIndex] = new MMPPWrapper();
-			wlanMMPPForUpload[apIndex] = new MMPPWrapper();
-		}
+		delaySnapshots = new DelaySnapshot[numOfAccessPoint];
+
+		wlanMMPPForDownload = new MMPPArray(numOfAccessPoint, SimSettings.getInstance().getWlanBandwidth());
+		wlanMMPPForUpload = new MMPPArray(numOfAccessPoint, SimSettings.getInstance().getWlanBandwidth());
 
 		manMMPPForDownload = new MMPPWrapper();
 		manMMPPForUpload = new MMPPWrapper();
@@ -179,16 +328,24 @@ public class VehicularNetworkModel extends NetworkModel {
 			weightedTaskPerSecond += ((double)1 / poissonOfApp)  * (percentageOfAppUsage / (double)100);
 		}
 
-		for(int apIndex=0; apIndex<numOfAccessPoint; apIndex++) {
-			double poisson = (double)1 / (weightedTaskPerSecond * (numberOfMobileDevices/numOfAccessPoint) * probOfWlanComm);
-			wlanMMPPForDownload[apIndex].initializeMM1QueueValues(poisson, weightedTaskOutputSize, SimSettings.getInstance().getWlanBandwidth());
-			wlanMMPPForUpload[apIndex].initializeMM1QueueValues(poisson, weightedTaskInputSize, SimSettings.getInstance().getWlanBandwidth());
-		}
+		double poisson = (double)1 / (weightedTaskPerSecond * (numberOfMobileDevices/numOfAccessPoint) * probOfWlanComm);
+		wlanMMPPForDownload.initializeMM1QueueValues(poisson, weightedTaskOutputSize);
+		wlanMMPPForUpload.initializeMM1QueueValues(poisson, weightedTaskInputSize);
 
-		double poisson = (double)1 / (weightedTaskPerSecond * numberOfMobileDevices * probOfManComm);
+		poisson = (double)1 / (weightedTaskPerSecond * numberOfMobileDevices * probOfManComm);
 		manMMPPForDownload.initializeMM1QueueValues(poisson, weightedTaskOutputSize, SimSettings.getInstance().getManBandwidth());
 		manMMPPForUpload.initializeMM1QueueValues(poisson, weightedTaskInputSize, SimSettings.getInstance().getManBandwidth());
 
+		ManTopology manTopology = SS.getManTopology();
+		if(manTopology != null){
+			//each link is assumed to carry the MAN traffic of one datacenter at the beginning
+			double manTaskPerSecond = (weightedTaskPerSecond * numberOfMobileDevices * probOfManComm) / manTopology.getNumOfNodes();
+			manPathModel = new ManPathModel(manTopology, manTaskPerSecond, (weightedTaskInputSize + weightedTaskOutputSize) / 2);
+		}
+		else{
+			manPathModel = null;
+		}
+
 		poisson = (double)1 / (weightedTaskPerSecond * numberOfMobileDevices *  probOfWanComm);
 		wanMMPPForDownload.initializeMM1QueueValues(poisson, weightedTaskOutputSize, SimSettings.getInstance().getWanBandwidth());
 		wanMMPPForUpload.initializeMM1QueueValues(poisson, weightedTaskInputSize, SimSettings.getInstance().getWanBandwidth());
@@ -250,11 +407,33 @@ public class VehicularNetworkModel extends NetworkModel {
 	}
 
 	public double estimateUploadDelay(NETWORK_DELAY_TYPES delayType, Task task) {
-		return getDelay(delayType, task, false, true);
+		return getDelaySnapshot(task).getUploadDelay(delayType);
 	}
 
 	public double estimateDownloadDelay(NETWORK_DELAY_TYPES delayType, Task task) {
-		return getDelay(delayType, task, true, true);
+		return getDelaySnapshot(task).getDownloadDelay(delayType);
+	}
+
+	/**
+	 * returns the delay estimates of the access point serving the task
+	 */
+	public DelaySnapshot getDelaySnapshot(Task task) {
+		return getDelaySnapshot(task.getSubmittedLocation().getServingWlanId());
+	}
+
+	public DelaySnapshot getDelaySnapshot(int apId) {
+		DelaySnapshot snapshot = delaySnapshots[apId];
+		if(snapshot == null || snapshot.modelVersion != modelVersion) {
+			double[] uploadDelays = new double[NETWORK_DELAY_TYPES.values().length];
+			double[] downloadDelays = new double[NETWORK_DELAY_TYPES.values().length];
+			for(NETWORK_DELAY_TYPES delayType : NETWORK_DELAY_TYPES.values()) {
+				uploadDelays[delayType.ordinal()] = getEstimatedDelay(delayType, apId, false);
+				downloadDelays[delayType.ordinal()] = getEstimatedDelay(delayType, apId, true);
+			}
+			snapshot = new DelaySnapshot(modelVersion, uploadDelays, downloadDelays);
+			delaySnapshots[apId] = snapshot;
+		}
+		return snapshot;
 	}
 
 	public double getUploadDelay(NETWORK_DELAY_TYPES delayType, Task task) {
@@ -266,37 +445,100 @@ public class VehicularNetworkModel extends NetworkModel {
 	}
 
 	private double getDelay(NETWORK_DELAY_TYPES delayType, Task task, boolean forDownload, boolean justEstimate) {
+		if(delayType == NETWORK_DELAY_TYPES.MAN_DELAY && manPathModel != null && !justEstimate)
+			return getManPathDelay(task, forDownload);
+
+		double taskSize = forDownload ? task.getCloudletOutputSize() : task.getCloudletFileSize();
+		return getDelay(delayType, task.getSubmittedLocation().getServingWlanId(), taskSize, forDownload, justEstimate);
+	}
+
+	/*
+	 * MAN delay on the path between the datacenters relaying the task;
+	 * the request is sent from the access point serving the vehicle to
+	 * the datacenter running the task, and the response is sent from the
+	 * datacenter running the task (or the access point receiving it from
+	 * the cloud) to the access point serving the vehicle now
+	 */
+	private double getManPathDelay(Task task, boolean forDownload) {
+		EdgeTopology edgeTopology = SimSettings.getInstance().getEdgeTopology();
+		int submittedDatacenter = edgeTopology.getDatacenterIndexOfWlan(task.getSubmittedLocation().getServingWlanId());
+
+		//the vm id of a cloud task does not belong to an edge vm
+		int taskDatacenter = -1;
+		if(task.getAssociatedDatacenterId() == VehicularEdgeOrchestrator.CLOUD_DATACENTER_VIA_RSU) {
+			taskDatacenter = submittedDatacenter;
+		}
+		else {
+			EdgeTopology.VmSpec vm = edgeTopology.getVm(task.getAssociatedVmId());
+			if(vm != null)
+				taskDatacenter = vm.getDatacenterIndex();
+		}
+
+		int sourceDatacenter, destDatacenter;
+		double taskSize;
+		if(forDownload) {
+			int currentWlanId = SimManager.getInstance().getMobilityModel().getServingWlanId(task.getMobileDeviceId(), CloudSim.clock());
+			sourceDatacenter = taskDatacenter;
+			destDatacenter = edgeTopology.getDatacenterIndexOfWlan(currentWlanId);
+			taskSize = task.getCloudletOutputSize();
+		}
+		else {
+			sourceDatacenter = submittedDatacenter;
+			destDatacenter = taskDatacenter;
+			taskSize = task.getCloudletFileSize();
+		}
+
+		if(sourceDatacenter < 0 || destDatacenter < 0)
+			return 0;
+
+		//same limit with the single MAN queue, the delay is 0 if the datacenters are same
+		double result = manPathModel.getDelay(sourceDatacenter, destDatacenter, taskSize);
+		if(result < 0 || result > 7.5)
+			return 0;
+
+		return result + SimSettings.getInstance().getInternalLanDelay();
+	}
+
+	/*
+	 * the estimates do not depend on the task size, the size is only
+	 * recorded for the next MMPP/M/1 model update
+	 */
+	private double getEstimatedDelay(NETWORK_DELAY_TYPES delayType, int apId, boolean forDownload) {
+		return getDelay(delayType, apId, 0, forDownload, true);
+	}
+
+	private double getDelay(NETWORK_DELAY_TYPES delayType, int apId, double taskSize, boolean forDownload, boolean justEstimate) {
 		double delay = 0;
 
 		if(delayType == NETWORK_DELAY_TYPES.GSM_DELAY){
 			if(forDownload)
-				delay = getGsmDownloadDelay(task.getCloudletOutputSize(), justEstimate);
+				delay = getGsmDownloadDelay(taskSize, justEstimate);
 			else
-				delay = getGsmUploadDelay(task.getCloudletFileSize(), justEstimate);
+				delay = getGsmUploadDelay(taskSize, justEstimate);
 
 			if(delay != 0)
 				delay += SimSettings.getInstance().getGsmPropagationDelay();
 		}
 		else if(delayType == NETWORK_DELAY_TYPES.WLAN_DELAY){
 			if(forDownload)
-				delay = getWlanDownloadDelay(task.getCloudletOutputSize(), task.getSubmittedLocation().getServingWlanId(), justEstimate);
+				delay = getWlanDownloadDelay(taskSize, apId, justEstimate);
 			else
-				delay = getWlanUploadDelay(task.getCloudletFileSize(), task.getSubmittedLocation().getServingWlanId(),justEstimate);
+				delay = getWlanUploadDelay(taskSize, apId, justEstimate);
 		}
 		else if(delayType == NETWORK_DELAY_TYPES.WAN_DELAY){
 			if(forDownload)
-				delay = getWanDownloadDelay(task.getCloudletOutputSize(), justEstimate);
+				delay = getWanDownloadDelay(taskSize, justEstimate);
 			else
-				delay = getWanUploadDelay(task.getCloudletFileSize(), justEstimate);
+				delay = getWanUploadDelay(taskSize, justEstimate);
 
 			if(delay != 0)
 				delay += SimSettings.getInstance().getWanPropagationDelay();
 		}
 		else if(delayType == NETWORK_DELAY_TYPES.MAN_DELAY){
 			if(forDownload)
-				delay = getManDownloadDelay(task.getCloudletOutputSize(), justEstimate);
+				delay = getManDownloadDelay(taskSize, justEstimate);
 			else
-				delay = getManUploadDelay(task.getCloudletFileSize(), justEstimate);
+				delay = getManUploadDelay(taskSize, justEstimate);
 
 			if(delay != 0)
 				delay += SimSettings.getInstance().getInternalLanDelay();
@@ -322,10 +564,12 @@ public class VehicularNetworkModel extends NetworkModel {
 		return (result > 7.5 || result < 0 ) ? 0 : result;
 	}
 
+	//the delays of the access points are calculated when the MMPP/M/1 model is updated
 	private double getWlanDownloadDelay(double taskSize, int accessPointId, boolean justEstimate) {
-		double bw = SimSettings.getInstance().getWlanBandwidth();
+		if(!justEstimate)
+			wlanMMPPForDownload.increaseMM1StatValues(accessPointId, taskSize);
 
-		double result = calculateMM1(taskSize, bw, wlanMMPPForDownload[accessPointId],justEstimate);
+		double result = wlanMMPPForDownload.getDelay(accessPointId);
 
 		if(maxWlanDelay < result)
 			maxWlanDelay = result;
@@ -334,9 +578,10 @@ public class VehicularNetworkModel extends NetworkModel {
 	}
 
 	private double getWlanUploadDelay(double taskSize, int accessPointId, boolean justEstimate) {
-		double bw = SimSettings.getInstance().getWlanBandwidth();
+		if(!justEstimate)
+			wlanMMPPForUpload.increaseMM1StatValues(accessPointId, taskSize);
 
-		double result = calculateMM1(taskSize, bw, wlanMMPPForUpload[accessPointId], justEstimate);
+		double result = wlanMMPPForUpload.getDelay(accessPointId);
 
 		if(maxWlanDelay < result)
 			maxWlanDelay = result;
@@ -420,15 +665,10 @@ public class VehicularNetworkModel extends NetworkModel {
 
 		//UPDATE MM1 QUEUE MODEL VARIABLES to simulate mmpp/m/1 queue model
 		//for wlan:
-		for(int i = 0; i< numOfAccessPoint; i++){
-			wlanMMPPForDownload[i].updateMM1Values(lastInterval, 0, 0);
-			wlanMMPPForUpload[i].updateMM1Values(lastInterval, 0, 0);
-
-			if(getWlanDownloadDelay(0, i, true) != 0)
-				wlanMMPPForDownload[i].updateLastSuccessfulMM1QueueValues();
-			if(getWlanUploadDelay(0, i, true) != 0)
-				wlanMMPPForUpload[i].updateLastSuccessfulMM1QueueValues();
-		}
+		boolean smoothIncrease = CloudSim.clock() > SimSettings.getInstance().getWarmUpPeriod();
+		wlanMMPPForDownload.updateMM1Values(lastInterval, smoothIncrease);
+		wlanMMPPForUpload.updateMM1Values(lastInterval, smoothIncrease);
+		maxWlanDelay = Math.max(maxWlanDelay, Math.max(wlanMMPPForDownload.getMaxDelay(), wlanMMPPForUpload.getMaxDelay()));
 
 		//for man:
 		manMMPPForDownload.updateMM1Values(lastInterval, numOfControlMessagePerInterval, sizeOfControlMessages);
@@ -437,6 +677,8 @@ public class VehicularNetworkModel extends NetworkModel {
 			manMMPPForDownload.updateLastSuccessfulMM1QueueValues();
 		if(getManUploadDelay(0, true) != 0)
 			manMMPPForUpload.updateLastSuccessfulMM1QueueValues();
+		if(manPathModel != null)
+			manPathModel.updateStatistics(lastInterval);
 
 		//for wan:
 		wanMMPPForDownload.updateMM1Values(lastInterval, 0, 0);
@@ -454,6 +696,9 @@ public class VehicularNetworkModel extends NetworkModel {
 		if(getGsmUploadDelay(0, true) != 0)
 			gsmMMPPForUpload.updateLastSuccessfulMM1QueueValues();
 
+		//delay estimates of the previous interval are not valid anymore
+		modelVersion++;
+
 		//		for(int i = 0; i< numOfAccessPoint; i++){
 		//			SimLogger.printLine(CloudSim.clock() + ": MM1 Queue Model is updated");
 		//			SimLogger.printLine("WlanPoissonMeanForDownload[" + i + "] - avgWlanTaskOutputSize[" + i + "]: "
@@ -23,9 +23,12 @@ import org.cloudbus.cloudsim.Datacenter;
 import org.cloudbus.cloudsim.Host;
 import org.cloudbus.cloudsim.VmAllocationPolicy;
 
+import edu.boun.edgecloudsim.utils.VmUtilizationAggregator;
+
 public abstract class CloudServerManager {
 	protected Datacenter localDatacenter;
 	protected List<List<CloudVM>> vmList;
+	protected VmUtilizationAggregator utilizationAggregator;
 
 	public CloudServerManager() {
 		vmList = new ArrayList<List<CloudVM>>();
@@ -39,6 +42,14 @@ public abstract class CloudServerManager {
 		return localDatacenter;
 	}
 	
+	/*
+	 * returns running utilization sums of the VMs
+	 * null if the server manager does not keep them
+	 */
+	public VmUtilizationAggregator getUtilizationAggregator(){
+		return utilizationAggregator;
+	}
+	
 	/*
 	 * initialize edge server manager if needed
 	 */
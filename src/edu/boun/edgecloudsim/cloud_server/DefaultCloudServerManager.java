@@ -14,7 +14,6 @@ import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 
-import org.cloudbus.cloudsim.CloudletSchedulerTimeShared;
 import org.cloudbus.cloudsim.Datacenter;
 import org.cloudbus.cloudsim.DatacenterCharacteristics;
 import org.cloudbus.cloudsim.Host;
@@ -22,13 +21,13 @@ import org.cloudbus.cloudsim.Pe;
 import org.cloudbus.cloudsim.Storage;
 import org.cloudbus.cloudsim.VmAllocationPolicy;
 import org.cloudbus.cloudsim.VmSchedulerSpaceShared;
-import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
 import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
 import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
 
-import edu.boun.edgecloudsim.core.SimManager;
 import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.edge_client.CloudletSchedulerTimeShared_Custom;
+import edu.boun.edgecloudsim.utils.VmUtilizationAggregator;
 
 public class DefaultCloudServerManager extends CloudServerManager{
 
@@ -54,6 +53,8 @@ public class DefaultCloudServerManager extends CloudServerManager{
 	}
 
 	public void createVmList(int brokerId){
+		utilizationAggregator = new VmUtilizationAggregator(SimSettings.getInstance().getNumOfCloudHost());
+
 		//VMs should have unique IDs, so create Cloud VMs after Edge VMs
 		int vmCounter=SimSettings.getInstance().getNumOfEdgeVMs();
 		
@@ -69,7 +70,7 @@ public class DefaultCloudServerManager extends CloudServerManager{
 				long bandwidth = 0;
 				
 				//VM Parameters		
-				CloudVM vm = new CloudVM(vmCounter, brokerId, mips, numOfCores, ram, bandwidth, storage, vmm, new CloudletSchedulerTimeShared());
+				CloudVM vm = new CloudVM(vmCounter, brokerId, mips, numOfCores, ram, bandwidth, storage, vmm, new CloudletSchedulerTimeShared_Custom(utilizationAggregator, i));
 				vmList.get(i).add(vm);
 				vmCounter++;
 			}
@@ -78,21 +79,7 @@ public class DefaultCloudServerManager extends CloudServerManager{
 	
 	//average utilization of all VMs
 	public double getAvgUtilization(){
-		double totalUtilization = 0;
-		double vmCounter = 0;
-
-		List<? extends Host> list = localDatacenter.getHostList();
-		// for each host...
-		for (int hostIndex=0; hostIndex < list.size(); hostIndex++) {
-			List<CloudVM> vmArray = SimManager.getInstance().getCloudServerManager().getVmList(hostIndex);
-			//for each vm...
-			for(int vmIndex=0; vmIndex<vmArray.size(); vmIndex++){
-				totalUtilization += vmArray.get(vmIndex).getCloudletScheduler().getTotalUtilizationOfCpu(CloudSim.clock());
-				vmCounter++;
-			}
-		}
-
-		return totalUtilization / vmCounter;
+		return utilizationAggregator.getAvgUtilization();
 	}
 
 	private Datacenter createDatacenter(int index) throws Exception{
@@ -0,0 +1,214 @@
+/*
+ * Title:        EdgeCloudSim - Edge Topology
+ *
+ * Description:
+ * EdgeTopology keeps the edge datacenters, hosts and VMs defined in
+ * edge_devices.xml. SimSettings parses the XML document once and
+ * creates this immutable model, so the other modules do not need to
+ * traverse the XML document. The hosts and VMs can also be accessed
+ * directly by their global index, which is the order in the XML file.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.core;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import edu.boun.edgecloudsim.utils.Location;
+
+public class EdgeTopology {
+	private final List<DatacenterSpec> datacenters;
+	private final HostSpec[] hosts;
+	private final VmSpec[] vms;
+
+	//first datacenter serving each WLAN, -1 if there is no such datacenter
+	private final int[] wlanDatacenters;
+
+	EdgeTopology(List<DatacenterSpec> _datacenters, int numOfHosts, int numOfVms) {
+		datacenters = Collections.unmodifiableList(_datacenters);
+		hosts = new HostSpec[numOfHosts];
+		vms = new VmSpec[numOfVms];
+
+		for(DatacenterSpec datacenter : datacenters){
+			for(HostSpec host : datacenter.getHosts()){
+				hosts[host.getIndex()] = host;
+				for(VmSpec vm : host.getVms())
+					vms[vm.getId()] = vm;
+			}
+		}
+
+		int maxWlanId = -1;
+		for(DatacenterSpec datacenter : datacenters)
+			maxWlanId = Math.max(maxWlanId, datacenter.getLocation().getServingWlanId());
+		wlanDatacenters = new int[maxWlanId + 1];
+		Arrays.fill(wlanDatacenters, -1);
+		for(DatacenterSpec datacenter : datacenters){
+			int wlanId = datacenter.getLocation().getServingWlanId();
+			if(wlanId >= 0 && wlanDatacenters[wlanId] == -1)
+				wlanDatacenters[wlanId] = datacenter.getIndex();
+		}
+	}
+
+	public List<DatacenterSpec> getDatacenters() {
+		return datacenters;
+	}
+
+	public DatacenterSpec getDatacenter(int datacenterIndex) {
+		return datacenters.get(datacenterIndex);
+	}
+
+	public int getNumOfDatacenters() {
+		return datacenters.size();
+	}
+
+	/*
+	 * returns the host by its global index
+	 */
+	public HostSpec getHost(int hostIndex) {
+		return hosts[hostIndex];
+	}
+
+	public int getNumOfHosts() {
+		return hosts.length;
+	}
+
+	/*
+	 * returns the VM by its id, null if there is no such edge VM
+	 */
+	public VmSpec getVm(int vmId) {
+		if(vmId < 0 || vmId >= vms.length)
+			return null;
+		return vms[vmId];
+	}
+
+	public int getNumOfVms() {
+		return vms.length;
+	}
+
+	/*
+	 * returns the index of the datacenter serving the WLAN, -1 if there is
+	 * no such datacenter
+	 */
+	public int getDatacenterIndexOfWlan(int wlanId) {
+		if(wlanId < 0 || wlanId >= wlanDatacenters.length)
+			return -1;
+		return wlanDatacenters[wlanId];
+	}
+
+	/*
+	 * returns the location of the datacenter
+	 */
+	public Location getLocation(int datacenterIndex) {
+		return datacenters.get(datacenterIndex).getLocation();
+	}
+
+	public static class DatacenterSpec {
+		private final int index;
+		private final String arch;
+		private final String os;
+		private final String vmm;
+		private final double costPerBw;
+		private final double costPerSec;
+		private final double costPerMem;
+		private final double costPerStorage;
+		private final Location location;
+		private final List<HostSpec> hosts;
+
+		DatacenterSpec(int _index, String _arch, String _os, String _vmm,
+				double _costPerBw, double _costPerSec, double _costPerMem, double _costPerStorage,
+				Location _location, List<HostSpec> _hosts) {
+			index = _index;
+			arch = _arch;
+			os = _os;
+			vmm = _vmm;
+			costPerBw = _costPerBw;
+			costPerSec = _costPerSec;
+			costPerMem = _costPerMem;
+			costPerStorage = _costPerStorage;
+			location = _location;
+			hosts = Collections.unmodifiableList(_hosts);
+		}
+
+		public int getIndex() { return index; }
+		public String getArch() { return arch; }
+		public String getOs() { return os; }
+		public String getVmm() { return vmm; }
+		public double getCostPerBw() { return costPerBw; }
+		public double getCostPerSec() { return costPerSec; }
+		public double getCostPerMem() { return costPerMem; }
+		public double getCostPerStorage() { return costPerStorage; }
+		public Location getLocation() { return location; }
+		public List<HostSpec> getHosts() { return hosts; }
+	}
+
+	public static class HostSpec {
+		private final int index;
+		private final int datacenterIndex;
+		private final int indexInDatacenter;
+		private final int numOfCores;
+		private final double mips;
+		private final int ram;
+		private final long storage;
+		private final List<VmSpec> vms;
+
+		HostSpec(int _index, int _datacenterIndex, int _indexInDatacenter,
+				int _numOfCores, double _mips, int _ram, long _storage, List<VmSpec> _vms) {
+			index = _index;
+			datacenterIndex = _datacenterIndex;
+			indexInDatacenter = _indexInDatacenter;
+			numOfCores = _numOfCores;
+			mips = _mips;
+			ram = _ram;
+			storage = _storage;
+			vms = Collections.unmodifiableList(_vms);
+		}
+
+		public int getIndex() { return index; }
+		public int getDatacenterIndex() { return datacenterIndex; }
+		public int getIndexInDatacenter() { return indexInDatacenter; }
+		public int getNumOfCores() { return numOfCores; }
+		public double getMips() { return mips; }
+		public int getRam() { return ram; }
+		public long getStorage() { return storage; }
+		public List<VmSpec> getVms() { return vms; }
+	}
+
+	public static class VmSpec {
+		private final int id;
+		private final int hostIndex;
+		private final int datacenterIndex;
+		private final int hostIndexInDatacenter;
+		private final String vmm;
+		private final int numOfCores;
+		private final double mips;
+		private final int ram;
+		private final long storage;
+
+		VmSpec(int _id, int _hostIndex, int _datacenterIndex, int _hostIndexInDatacenter,
+				String _vmm, int _numOfCores, double _mips, int _ram, long _storage) {
+			id = _id;
+			hostIndex = _hostIndex;
+			datacenterIndex = _datacenterIndex;
+			hostIndexInDatacenter = _hostIndexInDatacenter;
+			vmm = _vmm;
+			numOfCores = _numOfCores;
+			mips = _mips;
+			ram = _ram;
+			storage = _storage;
+		}
+
+		public int getId() { return id; }
+		public int getHostIndex() { return hostIndex; }
+		public int getDatacenterIndex() { return datacenterIndex; }
+		public int getHostIndexInDatacenter() { return hostIndexInDatacenter; }
+		public String getVmm() { return vmm; }
+		public int getNumOfCores() { return numOfCores; }
+		public double getMips() { return mips; }
+		public int getRam() { return ram; }
+		public long getStorage() { return storage; }
+	}
+}
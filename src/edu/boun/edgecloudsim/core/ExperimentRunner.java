@@ -0,0 +1,269 @@
+/*
+ * Title:        EdgeCloudSim - Experiment Runner
+ *
+ * Description:
+ * ExperimentRunner runs the simulations of all device count, scenario
+ * and orchestrator policy combinations concurrently in a single JVM.
+ *
+ * CloudSim, SimSettings, SimLogger, SimManager and the other helper
+ * classes keep their state in static fields, so two simulations cannot
+ * share the same classes. Therefore each simulation is run in a
+ * separate context which has its own class loader; the classes of
+ * EdgeCloudSim, CloudSim and the other libraries are loaded again for
+ * each simulation, and only the JDK classes are shared.
+ *
+ * The configuration file and the XML files are parsed once. A copy of
+ * the parsed documents is given to each simulation context. The results
+ * of each simulation are saved to a separate folder in the output
+ * folder, together with the console output of the simulation.
+ *
+ * The main class of the application should provide the mainHelper
+ * method which runs a single simulation, i.e.
+ * public static void mainHelper(String outputFolder, String simulationScenario,
+ *     String orchestratorPolicy, int iterationNumber, int numOfMobileDevice)
+ * If the application should be prepared before the simulations (e.g.
+ * loading the trained models), the main class can also provide the
+ * public static void initializeApplication(String configFile) method.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.core;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.cloudbus.cloudsim.Log;
+import org.w3c.dom.Document;
+
+import edu.boun.edgecloudsim.utils.SimLogger;
+import edu.boun.edgecloudsim.utils.SimUtils;
+
+public class ExperimentRunner {
+	private String mainClassName;
+	private String configFile;
+	private String outputFolder;
+	private int iterationNumber;
+
+	private Properties properties;
+	private Document edgeDevicesDocument;
+	private Document applicationsDocument;
+
+	private URL[] classPath;
+
+	public ExperimentRunner(Class<?> mainClass, String configFile, String edgeDevicesFile,
+			String applicationsFile, String outputFolder, int iterationNumber) {
+		this.mainClassName = mainClass.getName();
+		this.configFile = configFile;
+		this.outputFolder = outputFolder;
+		this.iterationNumber = iterationNumber;
+
+		properties = SimSettings.loadProperties(configFile);
+		if(properties == null){
+			SimLogger.printLine("cannot load simulation settings! Terminating simulation...");
+			System.exit(1);
+		}
+		edgeDevicesDocument = SimSettings.parseXML(edgeDevicesFile);
+		applicationsDocument = SimSettings.parseXML(applicationsFile);
+
+		String[] classPathEntries = System.getProperty("java.class.path").split(File.pathSeparator);
+		classPath = new URL[classPathEntries.length];
+		try {
+			for(int i=0; i<classPathEntries.length; i++)
+				classPath[i] = new File(classPathEntries[i]).toURI().toURL();
+		} catch (IOException e) {
+			SimLogger.printLine("Class path cannot be resolved! Terminating simulation...");
+			e.printStackTrace();
+			System.exit(1);
+		}
+	}
+
+	/*
+	 * runs all simulations by using the given number of threads
+	 * SimSettings of the caller should be initialized with the same configuration
+	 */
+	public void run(int numOfThreads) {
+		SimSettings SS = SimSettings.getInstance();
+
+		//the console output of each simulation is written to its own file
+		PrintStream console = System.out;
+		RunOutputStream runOutput = new RunOutputStream(console);
+		System.setOut(new PrintStream(runOutput, true));
+
+		ExecutorService executor = Executors.newFixedThreadPool(numOfThreads);
+		List<Future<?>> results = new ArrayList<Future<?>>();
+
+		for(int i=SS.getMinNumOfMobileDev(); i<=SS.getMaxNumOfMobileDev(); i+=SS.getMobileDevCounterSize()){
+			for(int s=0; s<SS.getSimulationScenarios().length; s++){
+				for(int p=0; p<SS.getOrchestratorPolicies().length; p++){
+					String simScenario = SS.getSimulationScenarios()[s];
+					String orchestratorPolicy = SS.getOrchestratorPolicies()[p];
+					int numOfMobileDevice = i;
+
+					//each simulation uses its own copy of the parsed documents
+					Document edgeDevices = (Document)edgeDevicesDocument.cloneNode(true);
+					Document applications = (Document)applicationsDocument.cloneNode(true);
+
+					results.add(executor.submit(new Runnable() {
+						@Override
+						public void run() {
+							runScenario(runOutput, console, edgeDevices, applications,
+									simScenario, orchestratorPolicy, numOfMobileDevice);
+						}
+					}));
+				}
+			}
+		}
+
+		//a failed scenario does not stop the others, the failures are reported at the end
+		executor.shutdown();
+		List<Throwable> failures = new ArrayList<Throwable>();
+		for(Future<?> result : results){
+			try {
+				result.get();
+			} catch (ExecutionException e) {
+				failures.add(e.getCause());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				failures.add(e);
+			}
+		}
+
+		System.setOut(console);
+
+		if(!failures.isEmpty()){
+			SimLogger.printLine(failures.size() + " of " + results.size() + " scenarios have been terminated due to an unexpected error");
+			for(Throwable failure : failures)
+				failure.printStackTrace();
+			System.exit(1);
+		}
+	}
+
+	private void runScenario(RunOutputStream runOutput, PrintStream console, Document edgeDevices,
+			Document applications, String simScenario, String orchestratorPolicy, int numOfMobileDevice) {
+		String runName = simScenario + "_" + orchestratorPolicy + "_" + numOfMobileDevice + "DEVICES";
+		File runFolder = new File(outputFolder, runName);
+		runFolder.mkdirs();
+		SimUtils.cleanOutputFolder(runFolder.getPath());
+
+		console.println("Scenario " + runName + " started (#iteration: " + iterationNumber + ")");
+
+		ClassLoader parentLoader = ClassLoader.getSystemClassLoader().getParent();
+		try (URLClassLoader loader = new URLClassLoader(classPath, parentLoader);
+				OutputStream runConsole = new FileOutputStream(new File(runFolder, "console.log"))) {
+			runOutput.setTarget(runConsole);
+
+			Class<?> contextClass = loader.loadClass(RunContext.class.getName());
+			Method runMethod = contextClass.getMethod("run", String.class, String.class,
+					Properties.class, Document.class, Document.class,
+					String.class, String.class, String.class, int.class, int.class);
+			runMethod.invoke(null, mainClassName, configFile, properties, edgeDevices, applications,
+					runFolder.getPath(), simScenario, orchestratorPolicy, iterationNumber, numOfMobileDevice);
+		} catch (InvocationTargetException e) {
+			console.println("Scenario " + runName + " failed");
+			throw new IllegalStateException("Scenario " + runName + " failed", e.getCause());
+		} catch (Exception e) {
+			throw new IllegalStateException("Scenario " + runName + " cannot be started", e);
+		} finally {
+			runOutput.setTarget(null);
+		}
+
+		console.println("Scenario " + runName + " finished");
+	}
+
+	/*
+	 * entry point of a simulation context, this class is loaded by the
+	 * class loader of the context, so it uses the classes of the context
+	 */
+	public static class RunContext {
+		public static void run(String mainClassName, String configFile, Properties properties,
+				Document edgeDevicesDocument, Document applicationsDocument, String outputFolder,
+				String simScenario, String orchestratorPolicy, int iterationNumber,
+				int numOfMobileDevice) throws Exception {
+			//disable console output of cloudsim library
+			Log.disable();
+
+			//enable console output and file output of this application
+			SimLogger.enablePrintLog();
+
+			SimSettings SS = SimSettings.getInstance();
+			if(SS.initialize(properties, edgeDevicesDocument, applicationsDocument) == false)
+				throw new IllegalStateException("cannot initialize simulation settings!");
+
+			if(SS.getFileLoggingEnabled())
+				SimLogger.enableFileLog();
+
+			Class<?> mainClass = Class.forName(mainClassName, true, RunContext.class.getClassLoader());
+			try {
+				mainClass.getMethod("initializeApplication", String.class).invoke(null, configFile);
+			} catch (NoSuchMethodException e) {
+				//the application does not need any preparation
+			}
+
+			try {
+				mainClass.getMethod("mainHelper", String.class, String.class, String.class, int.class, int.class)
+					.invoke(null, outputFolder, simScenario, orchestratorPolicy, iterationNumber, numOfMobileDevice);
+			} catch (InvocationTargetException e) {
+				//the error of the simulation is reported instead of the reflection wrapper
+				if(e.getCause() instanceof Exception)
+					throw (Exception)e.getCause();
+				throw e;
+			}
+		}
+	}
+
+	/*
+	 * forwards the output of each thread to the stream assigned to that thread
+	 * the output of the threads without an assigned stream goes to the console
+	 */
+	private static class RunOutputStream extends OutputStream {
+		private final OutputStream console;
+		private final ThreadLocal<OutputStream> target = new ThreadLocal<OutputStream>();
+
+		RunOutputStream(OutputStream console) {
+			this.console = console;
+		}
+
+		void setTarget(OutputStream stream) {
+			if(stream == null)
+				target.remove();
+			else
+				target.set(stream);
+		}
+
+		private OutputStream getTarget() {
+			OutputStream stream = target.get();
+			return (stream == null) ? console : stream;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			getTarget().write(b);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			getTarget().write(b, off, len);
+		}
+
+		@Override
+		public void flush() throws IOException {
+			getTarget().flush();
+		}
+	}
+}
@@ -0,0 +1,254 @@
+/*
+ * Title:        EdgeCloudSim - MAN Topology
+ *
+ * Description:
+ * ManTopology keeps the metropolitan area network links between the
+ * edge datacenters defined in the man_links element of edge_devices.xml.
+ * Each link is full duplex, so it is kept as two directed links having
+ * the same bandwidth and latency.
+ *
+ * The shortest paths between all datacenter pairs are calculated once
+ * when the topology is created. The path having the lowest total link
+ * latency is selected (the one having fewer hops if the latencies are
+ * equal), and only the first link of the path is kept for each pair,
+ * so the next hop table needs a single int per datacenter pair and the
+ * links of a path are found in O(hops).
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.core;
+
+import java.util.Arrays;
+
+public class ManTopology {
+	//total latencies of two paths are assumed to be equal if they differ by rounding errors
+	private static final double LATENCY_TOLERANCE = 1e-12;
+
+	private final int numOfNodes;
+
+	//directed link l goes from linkSources[l] to linkDestinations[l]
+	private final int[] linkSources;
+	private final int[] linkDestinations;
+	private final double[] linkBandwidths; //Kbps
+	private final double[] linkLatencies; //seconds
+
+	//first link on the path from node s to node d is nextLinks[d * numOfNodes + s], -1 if there is no path
+	//the entries of a destination are consecutive, so they are filled and followed with few cache misses
+	private final int[] nextLinks;
+
+	//state of the shortest path search, only used while the topology is created
+	private static final int NOT_VISITED = -1;
+	private static final int SETTLED = -2;
+	private double[] latencies;
+	private int[] hops;
+	private int[] heap;
+	private int[] heapPositions;
+	private int heapSize;
+
+	/*
+	 * creates the topology from the full duplex links, the arrays keep
+	 * one entry for each link
+	 */
+	ManTopology(int _numOfNodes, int[] sources, int[] destinations, double[] bandwidths, double[] latencies) {
+		numOfNodes = _numOfNodes;
+		int numOfLinks = sources.length * 2;
+		linkSources = new int[numOfLinks];
+		linkDestinations = new int[numOfLinks];
+		linkBandwidths = new double[numOfLinks];
+		linkLatencies = new double[numOfLinks];
+		for(int i=0; i<sources.length; i++){
+			linkSources[2*i] = sources[i];
+			linkDestinations[2*i] = destinations[i];
+			linkSources[2*i+1] = destinations[i];
+			linkDestinations[2*i+1] = sources[i];
+			linkBandwidths[2*i] = linkBandwidths[2*i+1] = bandwidths[i];
+			linkLatencies[2*i] = linkLatencies[2*i+1] = latencies[i];
+		}
+
+		nextLinks = new int[numOfNodes * numOfNodes];
+		Arrays.fill(nextLinks, -1);
+		calculateShortestPaths();
+	}
+
+	public int getNumOfNodes() {
+		return numOfNodes;
+	}
+
+	/*
+	 * returns the number of directed links, which is twice the number of
+	 * links in edge_devices.xml
+	 */
+	public int getNumOfLinks() {
+		return linkSources.length;
+	}
+
+	public int getLinkSource(int link) {
+		return linkSources[link];
+	}
+
+	public int getLinkDestination(int link) {
+		return linkDestinations[link];
+	}
+
+	public double getLinkBandwidth(int link) {
+		return linkBandwidths[link];
+	}
+
+	public double getLinkLatency(int link) {
+		return linkLatencies[link];
+	}
+
+	/*
+	 * returns the first link on the path from the source datacenter to
+	 * the destination datacenter, -1 if they are same or not connected
+	 */
+	public int getNextLink(int sourceDatacenter, int destDatacenter) {
+		return nextLinks[destDatacenter * numOfNodes + sourceDatacenter];
+	}
+
+	public boolean isReachable(int sourceDatacenter, int destDatacenter) {
+		return sourceDatacenter == destDatacenter || getNextLink(sourceDatacenter, destDatacenter) != -1;
+	}
+
+	/*
+	 * writes the links on the path from the source datacenter to the
+	 * destination datacenter to the result array and returns their number
+	 * the array should be large enough to keep the path (number of nodes - 1)
+	 */
+	public int getPath(int sourceDatacenter, int destDatacenter, int[] result) {
+		int numOfHops = 0;
+		int node = sourceDatacenter;
+		while(node != destDatacenter){
+			int link = getNextLink(node, destDatacenter);
+			if(link == -1)
+				return 0;
+			result[numOfHops++] = link;
+			node = linkDestinations[link];
+		}
+		return numOfHops;
+	}
+
+	/*
+	 * runs Dijkstra's algorithm from each destination over the reversed
+	 * links, so the first link of the path from every source to that
+	 * destination is found when the source is reached
+	 */
+	private void calculateShortestPaths() {
+		int numOfLinks = linkSources.length;
+
+		//incoming links of node n are in incomingLinks[incomingOffsets[n] .. incomingOffsets[n+1])
+		int[] incomingOffsets = new int[numOfNodes + 1];
+		for(int l=0; l<numOfLinks; l++)
+			incomingOffsets[linkDestinations[l] + 1]++;
+		for(int n=0; n<numOfNodes; n++)
+			incomingOffsets[n+1] += incomingOffsets[n];
+		int[] incomingLinks = new int[numOfLinks];
+		int[] filled = new int[numOfNodes];
+		for(int l=0; l<numOfLinks; l++){
+			int node = linkDestinations[l];
+			incomingLinks[incomingOffsets[node] + filled[node]] = l;
+			filled[node]++;
+		}
+
+		latencies = new double[numOfNodes];
+		hops = new int[numOfNodes];
+		heap = new int[numOfNodes];
+		heapPositions = new int[numOfNodes];
+
+		for(int dest=0; dest<numOfNodes; dest++){
+			Arrays.fill(latencies, Double.MAX_VALUE);
+			Arrays.fill(hops, Integer.MAX_VALUE);
+			Arrays.fill(heapPositions, NOT_VISITED);
+			latencies[dest] = 0;
+			hops[dest] = 0;
+
+			heapSize = 0;
+			push(dest);
+			while(heapSize > 0){
+				int node = pop();
+
+				for(int i=incomingOffsets[node]; i<incomingOffsets[node+1]; i++){
+					int link = incomingLinks[i];
+					int source = linkSources[link];
+					if(heapPositions[source] == SETTLED)
+						continue;
+
+					double latency = latencies[node] + linkLatencies[link];
+					int hop = hops[node] + 1;
+					double difference = latency - latencies[source];
+					if(difference < -LATENCY_TOLERANCE || (difference <= LATENCY_TOLERANCE && hop < hops[source])){
+						latencies[source] = latency;
+						hops[source] = hop;
+						nextLinks[dest * numOfNodes + source] = link;
+						if(heapPositions[source] == NOT_VISITED)
+							push(source);
+						else
+							moveUp(heapPositions[source]);
+					}
+				}
+			}
+		}
+
+		//the search state is not needed after the table is filled
+		latencies = null;
+		hops = null;
+		heap = null;
+		heapPositions = null;
+	}
+
+	private boolean isBefore(int nodeA, int nodeB) {
+		return latencies[nodeA] < latencies[nodeB] || (latencies[nodeA] == latencies[nodeB] && hops[nodeA] < hops[nodeB]);
+	}
+
+	private void place(int node, int position) {
+		heap[position] = node;
+		heapPositions[node] = position;
+	}
+
+	private void push(int node) {
+		place(node, heapSize);
+		heapSize++;
+		moveUp(heapSize - 1);
+	}
+
+	private int pop() {
+		int node = heap[0];
+		heapSize--;
+		if(heapSize > 0){
+			place(heap[heapSize], 0);
+			moveDown(0);
+		}
+		heapPositions[node] = SETTLED;
+		return node;
+	}
+
+	private void moveUp(int position) {
+		int node = heap[position];
+		while(position > 0){
+			int parent = (position - 1) / 2;
+			if(!isBefore(node, heap[parent]))
+				break;
+			place(heap[parent], position);
+			position = parent;
+		}
+		place(node, position);
+	}
+
+	private void moveDown(int position) {
+		int node = heap[position];
+		while(true){
+			int child = 2 * position + 1;
+			if(child >= heapSize)
+				break;
+			if(child + 1 < heapSize && isBefore(heap[child + 1], heap[child]))
+				child++;
+			if(!isBefore(heap[child], node))
+				break;
+			place(heap[child], position);
+			position = child;
+		}
+		place(node, position);
+	}
+}
@@ -26,9 +26,11 @@ import edu.boun.edgecloudsim.edge_server.EdgeVmAllocationPolicy_Custom;
 import edu.boun.edgecloudsim.cloud_server.CloudServerManager;
 import edu.boun.edgecloudsim.edge_client.MobileDeviceManager;
 import edu.boun.edgecloudsim.edge_client.mobile_processing_unit.MobileServerManager;
+import edu.boun.edgecloudsim.mobility.HandoverListener;
 import edu.boun.edgecloudsim.mobility.MobilityModel;
 import edu.boun.edgecloudsim.task_generator.LoadGeneratorModel;
 import edu.boun.edgecloudsim.network.NetworkModel;
+import edu.boun.edgecloudsim.utils.EventLoopProfiler;
 import edu.boun.edgecloudsim.utils.TaskProperty;
 import edu.boun.edgecloudsim.utils.SimLogger;
 
@@ -38,6 +40,7 @@ public class SimManager extends SimEntity {
 	private static final int GET_LOAD_LOG = 2;
 	private static final int PRINT_PROGRESS = 3;
 	private static final int STOP_SIMULATION = 4;
+	private static final int HANDOVER = 5;
 	
 	private String simScenario;
 	private String orchestratorPolicy;
@@ -51,6 +54,9 @@ public class SimManager extends SimEntity {
 	private MobileServerManager mobileServerManager;
 	private LoadGeneratorModel loadGeneratorModel;
 	private MobileDeviceManager mobileDeviceManager;
+	private boolean streamingTaskGeneration;
+	private EventLoopProfiler.Section profilerSection;
+	private int[] servingWlanIds;
 	
 	private static SimManager instance = null;
 	
@@ -63,7 +69,13 @@ public class SimManager extends SimEntity {
 
 		SimLogger.print("Creating tasks...");
 		loadGeneratorModel = scenarioFactory.getLoadGeneratorModel();
-		loadGeneratorModel.initializeModel();
+		streamingTaskGeneration = SimSettings.getInstance().getStreamingTaskGenerationEnabled();
+		if(streamingTaskGeneration && !loadGeneratorModel.supportsStreaming())
+			SimLogger.print("streaming is not supported by the load generator, tasks are streamed from the task list...");
+		if(streamingTaskGeneration)
+			loadGeneratorModel.initializeStreaming();
+		else
+			loadGeneratorModel.initializeModel();
 		SimLogger.printLine("Done, ");
 		
 		SimLogger.print("Creating device locations...");
@@ -95,6 +107,14 @@ public class SimManager extends SimEntity {
 		mobileDeviceManager = scenarioFactory.getMobileDeviceManager();
 		mobileDeviceManager.initialize();
 		
+		//modules which want to be notified on handovers are registered to the mobility model
+		if(networkModel instanceof HandoverListener)
+			mobilityModel.addHandoverListener((HandoverListener)networkModel);
+		if(edgeOrchestrator instanceof HandoverListener)
+			mobilityModel.addHandoverListener((HandoverListener)edgeOrchestrator);
+		if(mobileDeviceManager instanceof HandoverListener)
+			mobilityModel.addHandoverListener((HandoverListener)mobileDeviceManager);
+		
 		instance = this;
 	}
 	
@@ -176,6 +196,14 @@ public class SimManager extends SimEntity {
 	public void startEntity() {
 		int hostCounter=0;
 
+		profilerSection = EventLoopProfiler.getInstance().getSection(getName());
+		profilerSection.setTagName(CREATE_TASK, "CREATE_TASK");
+		profilerSection.setTagName(CHECK_ALL_VM, "CHECK_ALL_VM");
+		profilerSection.setTagName(GET_LOAD_LOG, "GET_LOAD_LOG");
+		profilerSection.setTagName(PRINT_PROGRESS, "PRINT_PROGRESS");
+		profilerSection.setTagName(STOP_SIMULATION, "STOP_SIMULATION");
+		profilerSection.setTagName(HANDOVER, "HANDOVER");
+
 		for(int i= 0; i<edgeServerManager.getDatacenterList().size(); i++) {
 			List<? extends Host> list = edgeServerManager.getDatacenterList().get(i).getHostList();
 			for (int j=0; j < list.size(); j++) {
@@ -194,8 +222,29 @@ public class SimManager extends SimEntity {
 		}
 		
 		//Creation of tasks are scheduled here!
-		for(int i=0; i< loadGeneratorModel.getTaskList().size(); i++)
-			schedule(getId(), loadGeneratorModel.getTaskList().get(i).getStartTime(), CREATE_TASK, loadGeneratorModel.getTaskList().get(i));
+		if(streamingTaskGeneration){
+			//only the first task of each device is scheduled, the next one is scheduled when it is created
+			for(int i=0; i<numOfMobileDevice; i++)
+				scheduleNextTask(i);
+		}
+		else{
+			for(int i=0; i< loadGeneratorModel.getTaskList().size(); i++)
+				schedule(getId(), loadGeneratorModel.getTaskList().get(i).getStartTime(), CREATE_TASK, loadGeneratorModel.getTaskList().get(i));
+		}
+		
+		//Handovers are scheduled one by one for each device, only if they are listened
+		if(mobilityModel.hasHandoverListeners()){
+			if(mobilityModel.isHandoverNotificationSupported()){
+				servingWlanIds = new int[numOfMobileDevice];
+				for(int i=0; i<numOfMobileDevice; i++){
+					servingWlanIds[i] = -1;
+					scheduleNextHandover(i, -1);
+				}
+			}
+			else{
+				SimLogger.printLine("handover notifications are not supported by the mobility model!");
+			}
+		}
 		
 		//Periodic event loops starts from here!
 		schedule(getId(), 5, CHECK_ALL_VM);
@@ -206,13 +255,34 @@ public class SimManager extends SimEntity {
 		SimLogger.printLine("Done.");
 	}
 
+	/*
+	 * schedules the next task of the device if it generates any more tasks
+	 */
+	private void scheduleNextTask(int deviceId) {
+		TaskProperty task = loadGeneratorModel.getNextTask(deviceId);
+		if(task != null)
+			schedule(getId(), task.getStartTime() - CloudSim.clock(), CREATE_TASK, task);
+	}
+
+	/*
+	 * schedules the next handover of the device if it happens before the end of the simulation
+	 */
+	private void scheduleNextHandover(int deviceId, double time) {
+		double handoverTime = mobilityModel.getNextHandoverTime(deviceId, time);
+		if(handoverTime < SimSettings.getInstance().getSimulationTime())
+			schedule(getId(), Math.max(handoverTime - CloudSim.clock(), 0), HANDOVER, deviceId);
+	}
+
 	@Override
 	public void processEvent(SimEvent ev) {
+		long profilerStartTime = profilerSection.begin();
 		synchronized(this){
 			switch (ev.getTag()) {
 			case CREATE_TASK:
 				try {
 					TaskProperty edgeTask = (TaskProperty) ev.getData();
+					if(streamingTaskGeneration)
+						scheduleNextTask(edgeTask.getMobileDeviceId());
 					mobileDeviceManager.submitTask(edgeTask);						
 				} catch (Exception e) {
 					e.printStackTrace();
@@ -255,11 +325,24 @@ public class SimManager extends SimEntity {
 					System.exit(1);
 				}
 				break;
+			case HANDOVER:
+				int deviceId = (Integer) ev.getData();
+				int wlanId = mobilityModel.getServingWlanId(deviceId, CloudSim.clock());
+				
+				//the event may be processed slightly before the handover because of rounding
+				if(wlanId != servingWlanIds[deviceId]){
+					mobilityModel.notifyHandover(deviceId, servingWlanIds[deviceId], wlanId, CloudSim.clock());
+					servingWlanIds[deviceId] = wlanId;
+				}
+				
+				scheduleNextHandover(deviceId, CloudSim.clock());
+				break;
 			default:
 				SimLogger.printLine(getName() + ": unknown event type");
 				break;
 			}
 		}
+		profilerSection.end(ev.getTag(), profilerStartTime);
 	}
 
 	@Override
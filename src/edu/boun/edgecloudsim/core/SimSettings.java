@@ -17,6 +17,8 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 
 import javax.xml.parsers.DocumentBuilder;
@@ -27,11 +29,17 @@ import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 
+import edu.boun.edgecloudsim.core.EdgeTopology.DatacenterSpec;
+import edu.boun.edgecloudsim.core.EdgeTopology.HostSpec;
+import edu.boun.edgecloudsim.core.EdgeTopology.VmSpec;
+import edu.boun.edgecloudsim.utils.Location;
 import edu.boun.edgecloudsim.utils.SimLogger;
 
 public class SimSettings {
 	private static SimSettings instance = null;
 	private Document edgeDevicesDoc = null;
+	private EdgeTopology edgeTopology = null;
+	private ManTopology manTopology = null;
 
 	public static final double CLIENT_ACTIVITY_START_TIME = 10;
 
@@ -41,6 +49,9 @@ public class SimSettings {
 	//enumarations for the VM types
 	public static enum NETWORK_DELAY_TYPES { WLAN_DELAY, MAN_DELAY, WAN_DELAY, GSM_DELAY }
 
+	//enumarations for the decision trace levels
+	public static enum DECISION_TRACE_LEVELS { OFF, DECISION, DETAIL }
+
 	//predifined IDs for the components.
 	public static final int CLOUD_DATACENTER_ID = 1000;
 	public static final int MOBILE_DATACENTER_ID = 1001;
@@ -57,11 +68,21 @@ public class SimSettings {
 	private double INTERVAL_TO_GET_AP_DELAY_LOG; //minutes unit in properties file
 	private boolean FILE_LOG_ENABLED; //boolean to check file logging option
 	private boolean DEEP_FILE_LOG_ENABLED; //boolean to check deep file logging option
+	private boolean BINARY_DEEP_FILE_LOG_ENABLED; //boolean to check binary format option of deep file logging
+	private boolean ASYNC_FILE_LOG_ENABLED; //boolean to check background writer thread option of file logging
+	private long RANDOM_SEED; //seed of the random streams, combined with the iteration number
+	private boolean STREAMING_TASK_GENERATION; //boolean to check on demand task generation option
+	private DECISION_TRACE_LEVELS DECISION_TRACE_LEVEL; //records of the orchestrator decisions
+	private boolean DECISION_TRACE_BINARY; //boolean to check binary format option of decision trace
+	private int DECISION_TRACE_SAMPLING; //only every Nth task is traced
+	private int DECISION_TRACE_DEVICE; //only the tasks of this device are traced, -1 for all devices
+	private boolean EVENT_LOOP_PROFILING_ENABLED; //boolean to check event processing time measurement option
 
 	private int MIN_NUM_OF_MOBILE_DEVICES;
 	private int MAX_NUM_OF_MOBILE_DEVICES;
 	private int MOBILE_DEVICE_COUNTER_SIZE;
 	private int WLAN_RANGE;
+	private String MOBILITY_TRACE_FILE; //binary trace replayed by TraceMobility, empty if not used
 
 	private int NUM_OF_EDGE_DATACENTERS;
 	private int NUM_OF_EDGE_HOSTS;
@@ -75,6 +96,8 @@ public class SimSettings {
 	private int BANDWITH_MAN; //Mbps unit in properties file
 	private int BANDWITH_WAN; //Mbps unit in properties file
 	private int BANDWITH_GSM; //Mbps unit in properties file
+	private boolean FLOW_NETWORK_MODEL_ENABLED; //transfers share the link bandwidth if enabled (only with DefaultMobileDeviceManager)
+	private String EMPIRICAL_DELAY_FILE; //measured throughput curves, empty if the built-in curves are used
 
 	private int NUM_OF_HOST_ON_CLOUD_DATACENTER;
 	private int NUM_OF_VM_ON_CLOUD_HOST;
@@ -134,86 +157,143 @@ public class SimSettings {
 	 * @return
 	 */
 	public boolean initialize(String propertiesFile, String edgeDevicesFile, String applicationsFile){
-		boolean result = false;
+		Properties prop = loadProperties(propertiesFile);
+		if(prop == null)
+			return false;
+
+		return initialize(prop, parseXML(edgeDevicesFile), parseXML(applicationsFile));
+	}
+
+	/**
+	 * Stores the information in the already loaded configuration to local variables
+	 * The edge devices document is kept and used while creating the edge servers
+	 * @param prop
+	 * @param edgeDevicesDocument
+	 * @param applicationsDocument
+	 * @return
+	 */
+	public boolean initialize(Properties prop, Document edgeDevicesDocument, Document applicationsDocument){
+		SIMULATION_TIME = (double)60 * Double.parseDouble(prop.getProperty("simulation_time")); //seconds
+		WARM_UP_PERIOD = (double)60 * Double.parseDouble(prop.getProperty("warm_up_period")); //seconds
+		INTERVAL_TO_GET_VM_LOAD_LOG = (double)60 * Double.parseDouble(prop.getProperty("vm_load_check_interval")); //seconds
+		INTERVAL_TO_GET_LOCATION_LOG = (double)60 * Double.parseDouble(prop.getProperty("location_check_interval")); //seconds
+		INTERVAL_TO_GET_AP_DELAY_LOG = (double)60 * Double.parseDouble(prop.getProperty("ap_delay_check_interval", "0")); //seconds		
+		FILE_LOG_ENABLED = Boolean.parseBoolean(prop.getProperty("file_log_enabled"));
+		DEEP_FILE_LOG_ENABLED = Boolean.parseBoolean(prop.getProperty("deep_file_log_enabled"));
+		BINARY_DEEP_FILE_LOG_ENABLED = Boolean.parseBoolean(prop.getProperty("deep_file_log_binary", "false"));
+		ASYNC_FILE_LOG_ENABLED = Boolean.parseBoolean(prop.getProperty("async_file_log_enabled", "false"));
+		RANDOM_SEED = Long.parseLong(prop.getProperty("random_seed", Long.toString(System.currentTimeMillis())));
+		STREAMING_TASK_GENERATION = Boolean.parseBoolean(prop.getProperty("streaming_task_generation", "false"));
+		DECISION_TRACE_LEVEL = DECISION_TRACE_LEVELS.valueOf(prop.getProperty("decision_trace_level", "OFF").trim().toUpperCase());
+		DECISION_TRACE_BINARY = Boolean.parseBoolean(prop.getProperty("decision_trace_binary", "false"));
+		DECISION_TRACE_SAMPLING = Integer.parseInt(prop.getProperty("decision_trace_sampling", "1"));
+		DECISION_TRACE_DEVICE = Integer.parseInt(prop.getProperty("decision_trace_device", "-1"));
+		EVENT_LOOP_PROFILING_ENABLED = Boolean.parseBoolean(prop.getProperty("event_loop_profiling_enabled", "false"));
+
+		MIN_NUM_OF_MOBILE_DEVICES = Integer.parseInt(prop.getProperty("min_number_of_mobile_devices"));
+		MAX_NUM_OF_MOBILE_DEVICES = Integer.parseInt(prop.getProperty("max_number_of_mobile_devices"));
+		MOBILE_DEVICE_COUNTER_SIZE = Integer.parseInt(prop.getProperty("mobile_device_counter_size"));
+		WLAN_RANGE = Integer.parseInt(prop.getProperty("wlan_range", "0"));
+		MOBILITY_TRACE_FILE = prop.getProperty("mobility_trace_file", "").trim();
+
+		WAN_PROPAGATION_DELAY = Double.parseDouble(prop.getProperty("wan_propagation_delay", "0"));
+		GSM_PROPAGATION_DELAY = Double.parseDouble(prop.getProperty("gsm_propagation_delay", "0"));
+		LAN_INTERNAL_DELAY = Double.parseDouble(prop.getProperty("lan_internal_delay", "0"));
+		BANDWITH_WLAN = 1000 * Integer.parseInt(prop.getProperty("wlan_bandwidth"));
+		BANDWITH_MAN = 1000 * Integer.parseInt(prop.getProperty("man_bandwidth", "0"));
+		BANDWITH_WAN = 1000 * Integer.parseInt(prop.getProperty("wan_bandwidth", "0"));
+		BANDWITH_GSM =  1000 * Integer.parseInt(prop.getProperty("gsm_bandwidth", "0"));
+		FLOW_NETWORK_MODEL_ENABLED = Boolean.parseBoolean(prop.getProperty("flow_network_model_enabled", "false"));
+		EMPIRICAL_DELAY_FILE = prop.getProperty("empirical_delay_file", "").trim();
+
+		NUM_OF_HOST_ON_CLOUD_DATACENTER = Integer.parseInt(prop.getProperty("number_of_host_on_cloud_datacenter"));
+		NUM_OF_VM_ON_CLOUD_HOST = Integer.parseInt(prop.getProperty("number_of_vm_on_cloud_host"));
+		CORE_FOR_CLOUD_VM = Integer.parseInt(prop.getProperty("core_for_cloud_vm"));
+		MIPS_FOR_CLOUD_VM = Integer.parseInt(prop.getProperty("mips_for_cloud_vm"));
+		RAM_FOR_CLOUD_VM = Integer.parseInt(prop.getProperty("ram_for_cloud_vm"));
+		STORAGE_FOR_CLOUD_VM = Integer.parseInt(prop.getProperty("storage_for_cloud_vm"));
+
+		RAM_FOR_VM = Integer.parseInt(prop.getProperty("ram_for_mobile_vm"));
+		CORE_FOR_VM = Integer.parseInt(prop.getProperty("core_for_mobile_vm"));
+		MIPS_FOR_VM = Integer.parseInt(prop.getProperty("mips_for_mobile_vm"));
+		STORAGE_FOR_VM = Integer.parseInt(prop.getProperty("storage_for_mobile_vm"));
+
+		ORCHESTRATOR_POLICIES = prop.getProperty("orchestrator_policies").split(",");
+
+		SIMULATION_SCENARIOS = prop.getProperty("simulation_scenarios").split(",");
+
+		NORTHERN_BOUND = Double.parseDouble(prop.getProperty("northern_bound", "0"));
+		SOUTHERN_BOUND = Double.parseDouble(prop.getProperty("southern_bound", "0"));
+		EASTERN_BOUND = Double.parseDouble(prop.getProperty("eastern_bound", "0"));
+		WESTERN_BOUND = Double.parseDouble(prop.getProperty("western_bound", "0"));
+
+		//avg waiting time in a place (min)
+		double place1_mean_waiting_time = Double.parseDouble(prop.getProperty("attractiveness_L1_mean_waiting_time"));
+		double place2_mean_waiting_time = Double.parseDouble(prop.getProperty("attractiveness_L2_mean_waiting_time"));
+		double place3_mean_waiting_time = Double.parseDouble(prop.getProperty("attractiveness_L3_mean_waiting_time"));
+
+		//mean waiting time (minute)
+		mobilityLookUpTable = new double[]{
+				place1_mean_waiting_time, //ATTRACTIVENESS_L1
+				place2_mean_waiting_time, //ATTRACTIVENESS_L2
+				place3_mean_waiting_time  //ATTRACTIVENESS_L3
+		};
+
+		parseApplicationsXML(applicationsDocument);
+		parseEdgeDevicesXML(edgeDevicesDocument);
+
+		return true;
+	}
+
+	/**
+	 * Loads the configuration file, returns null if it cannot be read
+	 * @param propertiesFile
+	 * @return
+	 */
+	public static Properties loadProperties(String propertiesFile){
+		Properties prop = null;
 		InputStream input = null;
 		try {
 			input = new FileInputStream(propertiesFile);
 
 			// load a properties file
-			Properties prop = new Properties();
+			prop = new Properties();
 			prop.load(input);
-
-			SIMULATION_TIME = (double)60 * Double.parseDouble(prop.getProperty("simulation_time")); //seconds
-			WARM_UP_PERIOD = (double)60 * Double.parseDouble(prop.getProperty("warm_up_period")); //seconds
-			INTERVAL_TO_GET_VM_LOAD_LOG = (double)60 * Double.parseDouble(prop.getProperty("vm_load_check_interval")); //seconds
-			INTERVAL_TO_GET_LOCATION_LOG = (double)60 * Double.parseDouble(prop.getProperty("location_check_interval")); //seconds
-			INTERVAL_TO_GET_AP_DELAY_LOG = (double)60 * Double.parseDouble(prop.getProperty("ap_delay_check_interval", "0")); //seconds		
-			FILE_LOG_ENABLED = Boolean.parseBoolean(prop.getProperty("file_log_enabled"));
-			DEEP_FILE_LOG_ENABLED = Boolean.parseBoolean(prop.getProperty("deep_file_log_enabled"));
-
-			MIN_NUM_OF_MOBILE_DEVICES = Integer.parseInt(prop.getProperty("min_number_of_mobile_devices"));
-			MAX_NUM_OF_MOBILE_DEVICES = Integer.parseInt(prop.getProperty("max_number_of_mobile_devices"));
-			MOBILE_DEVICE_COUNTER_SIZE = Integer.parseInt(prop.getProperty("mobile_device_counter_size"));
-			WLAN_RANGE = Integer.parseInt(prop.getProperty("wlan_range", "0"));
-
-			WAN_PROPAGATION_DELAY = Double.parseDouble(prop.getProperty("wan_propagation_delay", "0"));
-			GSM_PROPAGATION_DELAY = Double.parseDouble(prop.getProperty("gsm_propagation_delay", "0"));
-			LAN_INTERNAL_DELAY = Double.parseDouble(prop.getProperty("lan_internal_delay", "0"));
-			BANDWITH_WLAN = 1000 * Integer.parseInt(prop.getProperty("wlan_bandwidth"));
-			BANDWITH_MAN = 1000 * Integer.parseInt(prop.getProperty("man_bandwidth", "0"));
-			BANDWITH_WAN = 1000 * Integer.parseInt(prop.getProperty("wan_bandwidth", "0"));
-			BANDWITH_GSM =  1000 * Integer.parseInt(prop.getProperty("gsm_bandwidth", "0"));
-
-			NUM_OF_HOST_ON_CLOUD_DATACENTER = Integer.parseInt(prop.getProperty("number_of_host_on_cloud_datacenter"));
-			NUM_OF_VM_ON_CLOUD_HOST = Integer.parseInt(prop.getProperty("number_of_vm_on_cloud_host"));
-			CORE_FOR_CLOUD_VM = Integer.parseInt(prop.getProperty("core_for_cloud_vm"));
-			MIPS_FOR_CLOUD_VM = Integer.parseInt(prop.getProperty("mips_for_cloud_vm"));
-			RAM_FOR_CLOUD_VM = Integer.parseInt(prop.getProperty("ram_for_cloud_vm"));
-			STORAGE_FOR_CLOUD_VM = Integer.parseInt(prop.getProperty("storage_for_cloud_vm"));
-
-			RAM_FOR_VM = Integer.parseInt(prop.getProperty("ram_for_mobile_vm"));
-			CORE_FOR_VM = Integer.parseInt(prop.getProperty("core_for_mobile_vm"));
-			MIPS_FOR_VM = Integer.parseInt(prop.getProperty("mips_for_mobile_vm"));
-			STORAGE_FOR_VM = Integer.parseInt(prop.getProperty("storage_for_mobile_vm"));
-
-			ORCHESTRATOR_POLICIES = prop.getProperty("orchestrator_policies").split(",");
-
-			SIMULATION_SCENARIOS = prop.getProperty("simulation_scenarios").split(",");
-
-			NORTHERN_BOUND = Double.parseDouble(prop.getProperty("northern_bound", "0"));
-			SOUTHERN_BOUND = Double.parseDouble(prop.getProperty("southern_bound", "0"));
-			EASTERN_BOUND = Double.parseDouble(prop.getProperty("eastern_bound", "0"));
-			WESTERN_BOUND = Double.parseDouble(prop.getProperty("western_bound", "0"));
-
-			//avg waiting time in a place (min)
-			double place1_mean_waiting_time = Double.parseDouble(prop.getProperty("attractiveness_L1_mean_waiting_time"));
-			double place2_mean_waiting_time = Double.parseDouble(prop.getProperty("attractiveness_L2_mean_waiting_time"));
-			double place3_mean_waiting_time = Double.parseDouble(prop.getProperty("attractiveness_L3_mean_waiting_time"));
-
-			//mean waiting time (minute)
-			mobilityLookUpTable = new double[]{
-					place1_mean_waiting_time, //ATTRACTIVENESS_L1
-					place2_mean_waiting_time, //ATTRACTIVENESS_L2
-					place3_mean_waiting_time  //ATTRACTIVENESS_L3
-			};
-
-
 		} catch (IOException ex) {
 			ex.printStackTrace();
+			prop = null;
 		} finally {
 			if (input != null) {
 				try {
 					input.close();
-					result = true;
 				} catch (IOException e) {
 					e.printStackTrace();
+					prop = null;
 				}
 			}
 		}
-		parseApplicationsXML(applicationsFile);
-		parseEdgeDevicesXML(edgeDevicesFile);
+		return prop;
+	}
 
-		return result;
+	/**
+	 * Parses the XML file, terminates the simulation if it cannot be parsed
+	 * @param filePath
+	 * @return
+	 */
+	public static Document parseXML(String filePath){
+		Document doc = null;
+		try {
+			File xmlFile = new File(filePath);
+			DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
+			DocumentBuilder dBuilder = dbFactory.newDocumentBuilder();
+			doc = dBuilder.parse(xmlFile);
+			doc.getDocumentElement().normalize();
+		} catch (Exception e) {
+			SimLogger.printLine(filePath + " cannot be parsed! Terminating simulation...");
+			e.printStackTrace();
+			System.exit(1);
+		}
+		return doc;
 	}
 
 	/**
@@ -223,6 +303,21 @@ public class SimSettings {
 		return edgeDevicesDoc;
 	}
 
+	/**
+	 * returns the datacenters, hosts and VMs defined in edge_devices.xml
+	 */
+	public EdgeTopology getEdgeTopology(){
+		return edgeTopology;
+	}
+
+	/**
+	 * returns the MAN links between the edge datacenters defined in
+	 * edge_devices.xml, null if there is no man_links element
+	 */
+	public ManTopology getManTopology(){
+		return manTopology;
+	}
+
 
 	/**
 	 * returns simulation time (in seconds unit) from properties file
@@ -272,6 +367,81 @@ public class SimSettings {
 		return FILE_LOG_ENABLED && DEEP_FILE_LOG_ENABLED; 
 	}
 
+	/**
+	 * returns true if deep statistics are logged in binary format
+	 * see BinaryTaskLogConverter to convert them to the text format
+	 */
+	public boolean getBinaryDeepFileLoggingEnabled()
+	{
+		return BINARY_DEEP_FILE_LOG_ENABLED; 
+	}
+
+	/**
+	 * returns the seed given in the properties file
+	 * current time is used if the seed is not given
+	 */
+	public long getRandomSeed()
+	{
+		return RANDOM_SEED;
+	}
+
+	/**
+	 * returns true if the tasks of each device are generated on demand
+	 * instead of creating the whole task list at the beginning
+	 */
+	public boolean getStreamingTaskGenerationEnabled()
+	{
+		return STREAMING_TASK_GENERATION;
+	}
+
+	/**
+	 * returns the level of the orchestrator decision trace
+	 */
+	public DECISION_TRACE_LEVELS getDecisionTraceLevel()
+	{
+		return DECISION_TRACE_LEVEL;
+	}
+
+	/**
+	 * returns true if the decision trace is written in binary format
+	 */
+	public boolean getDecisionTraceBinary()
+	{
+		return DECISION_TRACE_BINARY;
+	}
+
+	/**
+	 * returns N, only the tasks whose id is a multiple of N are traced
+	 */
+	public int getDecisionTraceSampling()
+	{
+		return DECISION_TRACE_SAMPLING;
+	}
+
+	/**
+	 * returns the id of the traced device, -1 if all devices are traced
+	 */
+	public int getDecisionTraceDevice()
+	{
+		return DECISION_TRACE_DEVICE;
+	}
+
+	/**
+	 * returns true if the processing time of the events are measured
+	 */
+	public boolean getEventLoopProfilingEnabled()
+	{
+		return EVENT_LOOP_PROFILING_ENABLED;
+	}
+
+	/**
+	 * returns true if the log files are written by a background thread
+	 */
+	public boolean getAsyncFileLoggingEnabled()
+	{
+		return FILE_LOG_ENABLED && ASYNC_FILE_LOG_ENABLED; 
+	}
+
 	/**
 	 * returns deep statistics logging status from properties file
 	 */
@@ -336,6 +506,26 @@ public class SimSettings {
 		return BANDWITH_GSM;
 	}
 
+	/**
+	 * returns true if sample_app1 should use FlowNetworkModel instead of its
+	 * queue based network model; FlowNetworkModel is only valid with the
+	 * DefaultMobileDeviceManager, which passes the tasks to the network model
+	 * callbacks and lets the end events of the transfers be moved
+	 */
+	public boolean getFlowNetworkModelEnabled()
+	{
+		return FLOW_NETWORK_MODEL_ENABLED;
+	}
+
+	/**
+	 * returns the path of the CSV file keeping the measured throughput
+	 * curves used by EmpiricalDelayModel, empty if it is not given
+	 */
+	public String getEmpiricalDelayFile()
+	{
+		return EMPIRICAL_DELAY_FILE;
+	}
+
 	/**
 	 * returns the minimum number of the mobile devices used in the simulation
 	 */
@@ -369,6 +559,15 @@ public class SimSettings {
 		return WLAN_RANGE;
 	}
 
+	/**
+	 * returns the path of the binary mobility trace file, empty if it is not given
+	 * the file can be created from a CSV trace by MobilityTraceConverter
+	 */
+	public String getMobilityTraceFile()
+	{
+		return MOBILITY_TRACE_FILE;
+	}
+
 	/**
 	 * returns the number of edge datacenters
 	 */
@@ -593,6 +792,10 @@ public class SimSettings {
 		}
 	}
 
+	private String getElementValue(Element element, String key) {
+		return element.getElementsByTagName(key).item(0).getTextContent();
+	}
+
 	private Boolean checkElement(Element element, String key) {
 		Boolean result = true;
 		try {
@@ -607,16 +810,9 @@ public class SimSettings {
 		return result;
 	}
 
-	private void parseApplicationsXML(String filePath)
+	private void parseApplicationsXML(Document doc)
 	{
-		Document doc = null;
 		try {	
-			File devicesFile = new File(filePath);
-			DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
-			DocumentBuilder dBuilder = dbFactory.newDocumentBuilder();
-			doc = dBuilder.parse(devicesFile);
-			doc.getDocumentElement().normalize();
-
 			String mandatoryAttributes[] = {
 					"usage_percentage", //usage percentage [0-100]
 					"prob_cloud_selection", //prob. of selecting cloud [0-100]
@@ -669,14 +865,16 @@ public class SimSettings {
 		}
 	}
 
-	private void parseEdgeDevicesXML(String filePath)
+	private void parseEdgeDevicesXML(Document doc)
 	{
 		try {	
-			File devicesFile = new File(filePath);
-			DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
-			DocumentBuilder dBuilder = dbFactory.newDocumentBuilder();
-			edgeDevicesDoc = dBuilder.parse(devicesFile);
-			edgeDevicesDoc.getDocumentElement().normalize();
+			edgeDevicesDoc = doc;
+			List<DatacenterSpec> datacenters = new ArrayList<DatacenterSpec>();
+
+			//the settings may be initialized more than once in the same JVM (e.g. benchmarks)
+			NUM_OF_EDGE_DATACENTERS = 0;
+			NUM_OF_EDGE_HOSTS = 0;
+			NUM_OF_EDGE_VMS = 0;
 
 			NodeList datacenterList = edgeDevicesDoc.getElementsByTagName("datacenter");
 			for (int i = 0; i < datacenterList.getLength(); i++) {
@@ -703,8 +901,15 @@ public class SimSettings {
 				if(NUM_OF_PLACE_TYPES < placeTypeIndex+1)
 					NUM_OF_PLACE_TYPES = placeTypeIndex+1;
 
+				Location datacenterLocation = new Location(placeTypeIndex,
+						Integer.parseInt(getElementValue(location, "wlan_id")),
+						Integer.parseInt(getElementValue(location, "x_pos")),
+						Integer.parseInt(getElementValue(location, "y_pos")));
+
+				List<HostSpec> hosts = new ArrayList<HostSpec>();
 				NodeList hostList = datacenterElement.getElementsByTagName("host");
 				for (int j = 0; j < hostList.getLength(); j++) {
+					int hostIndex = NUM_OF_EDGE_HOSTS;
 					NUM_OF_EDGE_HOSTS++;
 					Node hostNode = hostList.item(j);
 
@@ -714,8 +919,10 @@ public class SimSettings {
 					isElementPresent(hostElement, "ram");
 					isElementPresent(hostElement, "storage");
 
+					List<VmSpec> vms = new ArrayList<VmSpec>();
 					NodeList vmList = hostElement.getElementsByTagName("VM");
 					for (int k = 0; k < vmList.getLength(); k++) {
+						int vmId = NUM_OF_EDGE_VMS;
 						NUM_OF_EDGE_VMS++;
 						Node vmNode = vmList.item(k);
 
@@ -725,14 +932,77 @@ public class SimSettings {
 						isElementPresent(vmElement, "mips");
 						isElementPresent(vmElement, "ram");
 						isElementPresent(vmElement, "storage");
+
+						vms.add(new VmSpec(vmId, hostIndex, i, j,
+								vmElement.getAttribute("vmm"),
+								Integer.parseInt(getElementValue(vmElement, "core")),
+								Double.parseDouble(getElementValue(vmElement, "mips")),
+								Integer.parseInt(getElementValue(vmElement, "ram")),
+								Long.parseLong(getElementValue(vmElement, "storage"))));
 					}
+
+					hosts.add(new HostSpec(hostIndex, i, j,
+							Integer.parseInt(getElementValue(hostElement, "core")),
+							Double.parseDouble(getElementValue(hostElement, "mips")),
+							Integer.parseInt(getElementValue(hostElement, "ram")),
+							Long.parseLong(getElementValue(hostElement, "storage")),
+							vms));
 				}
+
+				datacenters.add(new DatacenterSpec(i,
+						datacenterElement.getAttribute("arch"),
+						datacenterElement.getAttribute("os"),
+						datacenterElement.getAttribute("vmm"),
+						Double.parseDouble(getElementValue(datacenterElement, "costPerBw")),
+						Double.parseDouble(getElementValue(datacenterElement, "costPerSec")),
+						Double.parseDouble(getElementValue(datacenterElement, "costPerMem")),
+						Double.parseDouble(getElementValue(datacenterElement, "costPerStorage")),
+						datacenterLocation, hosts));
 			}
 
+			edgeTopology = new EdgeTopology(datacenters, NUM_OF_EDGE_HOSTS, NUM_OF_EDGE_VMS);
+			manTopology = parseManLinks(NUM_OF_EDGE_DATACENTERS);
+
 		} catch (Exception e) {
 			SimLogger.printLine("Edge Devices XML cannot be parsed! Terminating simulation...");
 			e.printStackTrace();
 			System.exit(1);
 		}
 	}
+
+	/*
+	 * links refer to the datacenters by their order in edge_devices.xml
+	 * bandwidth is in Kbps and latency is in seconds
+	 */
+	private ManTopology parseManLinks(int numOfDatacenters) {
+		NodeList manLinksList = edgeDevicesDoc.getElementsByTagName("man_links");
+		if(manLinksList.getLength() == 0)
+			return null;
+
+		NodeList linkList = ((Element) manLinksList.item(0)).getElementsByTagName("link");
+		int numOfLinks = linkList.getLength();
+		int[] sources = new int[numOfLinks];
+		int[] destinations = new int[numOfLinks];
+		double[] bandwidths = new double[numOfLinks];
+		double[] latencies = new double[numOfLinks];
+		for (int i = 0; i < numOfLinks; i++) {
+			Element linkElement = (Element) linkList.item(i);
+			isElementPresent(linkElement, "source");
+			isElementPresent(linkElement, "destination");
+			isElementPresent(linkElement, "bandwidth");
+			isElementPresent(linkElement, "latency");
+
+			sources[i] = Integer.parseInt(getElementValue(linkElement, "source"));
+			destinations[i] = Integer.parseInt(getElementValue(linkElement, "destination"));
+			bandwidths[i] = Double.parseDouble(getElementValue(linkElement, "bandwidth"));
+			latencies[i] = Double.parseDouble(getElementValue(linkElement, "latency"));
+
+			if(sources[i] < 0 || sources[i] >= numOfDatacenters || destinations[i] < 0 || destinations[i] >= numOfDatacenters)
+				throw new IllegalArgumentException("MAN link " + i + " refers to an unknown datacenter");
+			if(bandwidths[i] <= 0 || latencies[i] < 0)
+				throw new IllegalArgumentException("MAN link " + i + " has invalid bandwidth or latency");
+		}
+
+		return new ManTopology(numOfDatacenters, sources, destinations, bandwidths, latencies);
+	}
 }
@@ -0,0 +1,121 @@
+/*
+ * Title:        EdgeCloudSim - Custom Time Shared Cloudlet Scheduler
+ *
+ * Description:
+ * CloudletSchedulerTimeShared_Custom extends CloudSim's time shared
+ * cloudlet scheduler by keeping the CPU utilization of the VM as a
+ * running sum. In CloudSim, the utilization is calculated by visiting
+ * all running cloudlets each time it is requested. Since the CPU
+ * utilization of the tasks is taken from the applications.xml file and
+ * does not change while they are running, the utilization is updated
+ * only when a cloudlet starts or stops running. The changes are also
+ * reported to a VmUtilizationAggregator, which provides the per host
+ * and average utilization values of the server managers.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.edge_client;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.CloudletSchedulerTimeShared;
+import org.cloudbus.cloudsim.ResCloudlet;
+import org.cloudbus.cloudsim.core.CloudSim;
+
+import edu.boun.edgecloudsim.utils.VmUtilizationAggregator;
+
+public class CloudletSchedulerTimeShared_Custom extends CloudletSchedulerTimeShared {
+	private VmUtilizationAggregator utilizationAggregator;
+	private int hostIndex;
+	private int vmIndex;
+	private double totalUtilization;
+	private int numOfRunningCloudlets;
+
+	public CloudletSchedulerTimeShared_Custom(VmUtilizationAggregator _utilizationAggregator, int _hostIndex) {
+		super();
+		utilizationAggregator = _utilizationAggregator;
+		hostIndex = _hostIndex;
+		totalUtilization = 0;
+		numOfRunningCloudlets = 0;
+		vmIndex = utilizationAggregator.vmCreated(hostIndex);
+	}
+
+	@Override
+	public double cloudletSubmit(Cloudlet cloudlet, double fileTransferTime) {
+		double result = super.cloudletSubmit(cloudlet, fileTransferTime);
+		cloudletStarted(cloudlet);
+		return result;
+	}
+
+	@Override
+	public void cloudletFinish(ResCloudlet rcl) {
+		super.cloudletFinish(rcl);
+		cloudletStopped(rcl.getCloudlet());
+	}
+
+	@Override
+	public Cloudlet cloudletCancel(int cloudletId) {
+		ResCloudlet rcl = getRunningCloudlet(cloudletId);
+		Cloudlet cloudlet = super.cloudletCancel(cloudletId);
+		if(rcl != null && cloudlet != null)
+			cloudletStopped(cloudlet);
+		return cloudlet;
+	}
+
+	@Override
+	public boolean cloudletPause(int cloudletId) {
+		ResCloudlet rcl = getRunningCloudlet(cloudletId);
+		boolean result = super.cloudletPause(cloudletId);
+		if(rcl != null && result)
+			cloudletStopped(rcl.getCloudlet());
+		return result;
+	}
+
+	@Override
+	public double cloudletResume(int cloudletId) {
+		boolean wasRunning = getRunningCloudlet(cloudletId) != null;
+		double result = super.cloudletResume(cloudletId);
+		ResCloudlet rcl = getRunningCloudlet(cloudletId);
+		if(!wasRunning && rcl != null)
+			cloudletStarted(rcl.getCloudlet());
+		return result;
+	}
+
+	/*
+	 * returns the running sum instead of visiting all running cloudlets
+	 */
+	@Override
+	public double getTotalUtilizationOfCpu(double time) {
+		return totalUtilization;
+	}
+
+	private ResCloudlet getRunningCloudlet(int cloudletId) {
+		for (ResCloudlet rcl : getCloudletExecList()) {
+			if (rcl.getCloudletId() == cloudletId)
+				return rcl;
+		}
+		return null;
+	}
+
+	private void cloudletStarted(Cloudlet cloudlet) {
+		double utilization = cloudlet.getUtilizationOfCpu(CloudSim.clock());
+		totalUtilization += utilization;
+		numOfRunningCloudlets++;
+		utilizationAggregator.vmUtilizationChanged(hostIndex, vmIndex, totalUtilization);
+	}
+
+	private void cloudletStopped(Cloudlet cloudlet) {
+		double utilization = cloudlet.getUtilizationOfCpu(CloudSim.clock());
+		numOfRunningCloudlets--;
+
+		//reset the sum when there is no running cloudlet to avoid accumulating rounding errors
+		//note that finished cloudlets are removed from the exec list after cloudletFinish is called
+		if(numOfRunningCloudlets == 0)
+			totalUtilization = 0;
+		else
+			totalUtilization -= utilization;
+
+		utilizationAggregator.vmUtilizationChanged(hostIndex, vmIndex, totalUtilization);
+	}
+}
@@ -12,6 +12,7 @@ import edu.boun.edgecloudsim.core.SimSettings;
 import edu.boun.edgecloudsim.core.SimSettings.NETWORK_DELAY_TYPES;
 import edu.boun.edgecloudsim.network.NetworkModel;
 import edu.boun.edgecloudsim.utils.TaskProperty;
+import edu.boun.edgecloudsim.utils.DecisionTracer;
 import edu.boun.edgecloudsim.utils.Location;
 import edu.boun.edgecloudsim.utils.SimLogger;
 
@@ -51,9 +52,8 @@ public class DefaultMobileDeviceManager extends MobileDeviceManager {
                 Location currentLocation = SimManager.getInstance().getMobilityModel().getLocation(
                         task.getMobileDeviceId(), CloudSim.clock() + WanDelay);
                 if (task.getSubmittedLocation().getServingWlanId() == currentLocation.getServingWlanId()) {
-                    networkModel.downloadStarted(task.getSubmittedLocation(), SimSettings.CLOUD_DATACENTER_ID);
-                    SimLogger.getInstance().setDownloadDelay(task.getCloudletId(), WanDelay, NETWORK_DELAY_TYPES.WAN_DELAY);
-                    schedule(getId(), WanDelay, RESPONSE_RECEIVED_BY_MOBILE_DEVICE, task);
+                    scheduleTransferEnd(WanDelay, RESPONSE_RECEIVED_BY_MOBILE_DEVICE, task);
+                    networkModel.downloadStarted(task.getSubmittedLocation(), SimSettings.CLOUD_DATACENTER_ID, task);
                 } else {
                     SimLogger.getInstance().failedDueToMobility(task.getCloudletId(), CloudSim.clock());
                 }
@@ -66,9 +66,8 @@ public class DefaultMobileDeviceManager extends MobileDeviceManager {
                 Location currentLocation = SimManager.getInstance().getMobilityModel().getLocation(
                         task.getMobileDeviceId(), CloudSim.clock() + WlanDelay);
                 if (task.getSubmittedLocation().getServingWlanId() == currentLocation.getServingWlanId()) {
-                    networkModel.downloadStarted(currentLocation, SimSettings.GENERIC_EDGE_DEVICE_ID);
-                    SimLogger.getInstance().setDownloadDelay(task.getCloudletId(), WlanDelay, NETWORK_DELAY_TYPES.WLAN_DELAY);
-                    schedule(getId(), WlanDelay, RESPONSE_RECEIVED_BY_MOBILE_DEVICE, task);
+                    scheduleTransferEnd(WlanDelay, RESPONSE_RECEIVED_BY_MOBILE_DEVICE, task);
+                    networkModel.downloadStarted(currentLocation, SimSettings.GENERIC_EDGE_DEVICE_ID, task);
                 } else {
                     SimLogger.getInstance().failedDueToMobility(task.getCloudletId(), CloudSim.clock());
                 }
@@ -90,23 +89,38 @@ public class DefaultMobileDeviceManager extends MobileDeviceManager {
         switch (ev.getTag()) {
             case REQUEST_RECEIVED_BY_CLOUD: {
                 Task task = (Task) ev.getData();
-                networkModel.uploadFinished(task.getSubmittedLocation(), SimSettings.CLOUD_DATACENTER_ID);
+                networkModel.uploadFinished(task.getSubmittedLocation(), SimSettings.CLOUD_DATACENTER_ID, task);
+                //the delays are logged when the transfers end since the network model may change them
+                SimLogger.getInstance().setUploadDelay(task.getCloudletId(), getTransferDelay(task), NETWORK_DELAY_TYPES.WAN_DELAY);
                 submitTaskToVm(task, 0, SimSettings.CLOUD_DATACENTER_ID);
                 break;
             }
             case REQUEST_RECEIVED_BY_EDGE_DEVICE: {
                 Task task = (Task) ev.getData();
-                networkModel.uploadFinished(task.getSubmittedLocation(), SimSettings.GENERIC_EDGE_DEVICE_ID);
+                networkModel.uploadFinished(task.getSubmittedLocation(), SimSettings.GENERIC_EDGE_DEVICE_ID, task);
+                SimLogger.getInstance().setUploadDelay(task.getCloudletId(), getTransferDelay(task), NETWORK_DELAY_TYPES.WLAN_DELAY);
                 submitTaskToVm(task, 0, SimSettings.GENERIC_EDGE_DEVICE_ID);
                 break;
             }
             case RESPONSE_RECEIVED_BY_MOBILE_DEVICE: {
                 Task task = (Task) ev.getData();
-                if (task.getAssociatedDatacenterId() == SimSettings.CLOUD_DATACENTER_ID)
-                    networkModel.downloadFinished(task.getSubmittedLocation(), SimSettings.CLOUD_DATACENTER_ID);
-                else if (task.getAssociatedDatacenterId() != SimSettings.MOBILE_DATACENTER_ID)
-                    networkModel.downloadFinished(task.getSubmittedLocation(), SimSettings.GENERIC_EDGE_DEVICE_ID);
-                SimLogger.getInstance().taskEnded(task.getCloudletId(), CloudSim.clock());
+                if (task.getAssociatedDatacenterId() == SimSettings.CLOUD_DATACENTER_ID) {
+                    networkModel.downloadFinished(task.getSubmittedLocation(), SimSettings.CLOUD_DATACENTER_ID, task);
+                    SimLogger.getInstance().setDownloadDelay(task.getCloudletId(), getTransferDelay(task), NETWORK_DELAY_TYPES.WAN_DELAY);
+                }
+                else if (task.getAssociatedDatacenterId() != SimSettings.MOBILE_DATACENTER_ID) {
+                    networkModel.downloadFinished(task.getSubmittedLocation(), SimSettings.GENERIC_EDGE_DEVICE_ID, task);
+                    SimLogger.getInstance().setDownloadDelay(task.getCloudletId(), getTransferDelay(task), NETWORK_DELAY_TYPES.WLAN_DELAY);
+                }
+
+                //the end of the download may be moved by the network model, so the
+                //serving wlan is checked again at the actual end time
+                Location currentLocation = SimManager.getInstance().getMobilityModel().getLocation(
+                        task.getMobileDeviceId(), CloudSim.clock());
+                if (task.getSubmittedLocation().getServingWlanId() == currentLocation.getServingWlanId())
+                    SimLogger.getInstance().taskEnded(task.getCloudletId(), CloudSim.clock());
+                else
+                    SimLogger.getInstance().failedDueToMobility(task.getCloudletId(), CloudSim.clock());
                 break;
             }
             default:
@@ -137,20 +151,14 @@ public class DefaultMobileDeviceManager extends MobileDeviceManager {
         );
 
         int nextHopId = SimManager.getInstance().getEdgeOrchestrator().getDeviceToOffload(task);
-        System.out.println(
-                "Task " + task.getCloudletId() +
-                        " (criticality=" + edgeTask.getCriticality() +
-                        ", deadline=" + edgeTask.getDeadline() +
-                        ") assigned to device ID=" + nextHopId
-        );
 
         if (nextHopId == SimSettings.CLOUD_DATACENTER_ID) {
             double WanDelay = networkModel.getUploadDelay(task.getMobileDeviceId(), nextHopId, task);
             if (WanDelay > 0) {
-                networkModel.uploadStarted(currentLocation, nextHopId);
+                // the end event is scheduled first, the network model may move it when the transfer starts
+                scheduleTransferEnd(WanDelay, REQUEST_RECEIVED_BY_CLOUD, task);
+                networkModel.uploadStarted(currentLocation, nextHopId, task);
                 SimLogger.getInstance().taskStarted(task.getCloudletId(), CloudSim.clock());
-                SimLogger.getInstance().setUploadDelay(task.getCloudletId(), WanDelay, NETWORK_DELAY_TYPES.WAN_DELAY);
-                schedule(getId(), WanDelay, REQUEST_RECEIVED_BY_CLOUD, task);
             } else {
                 SimLogger.getInstance().rejectedDueToBandwidth(
                         task.getCloudletId(),
@@ -161,10 +169,9 @@ public class DefaultMobileDeviceManager extends MobileDeviceManager {
         } else if (nextHopId == SimSettings.GENERIC_EDGE_DEVICE_ID) {
             double WlanDelay = networkModel.getUploadDelay(task.getMobileDeviceId(), nextHopId, task);
             if (WlanDelay > 0) {
-                networkModel.uploadStarted(currentLocation, nextHopId);
-                schedule(getId(), WlanDelay, REQUEST_RECEIVED_BY_EDGE_DEVICE, task);
+                scheduleTransferEnd(WlanDelay, REQUEST_RECEIVED_BY_EDGE_DEVICE, task);
+                networkModel.uploadStarted(currentLocation, nextHopId, task);
                 SimLogger.getInstance().taskStarted(task.getCloudletId(), CloudSim.clock());
-                SimLogger.getInstance().setUploadDelay(task.getCloudletId(), WlanDelay, NETWORK_DELAY_TYPES.WLAN_DELAY);
             } else {
                 SimLogger.getInstance().rejectedDueToBandwidth(
                         task.getCloudletId(),
@@ -180,6 +187,7 @@ public class DefaultMobileDeviceManager extends MobileDeviceManager {
 
     private void submitTaskToVm(Task task, double delay, int datacenterId) {
         Vm selectedVM = SimManager.getInstance().getEdgeOrchestrator().getVmToOffload(task, datacenterId);
+        DecisionTracer.getInstance().vmSelection(task, datacenterId, selectedVM);
 
         int vmType = (datacenterId == SimSettings.CLOUD_DATACENTER_ID)
                 ? SimSettings.VM_TYPES.CLOUD_VM.ordinal()
@@ -1,15 +1,142 @@
 package edu.boun.edgecloudsim.edge_client;
 
+import java.util.HashMap;
+import java.util.HashSet;
+
 import org.cloudbus.cloudsim.DatacenterBroker;
 import org.cloudbus.cloudsim.UtilizationModel;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.CloudSimTags;
+import org.cloudbus.cloudsim.core.SimEvent;
 
+import edu.boun.edgecloudsim.utils.EventLoopProfiler;
 import edu.boun.edgecloudsim.utils.TaskProperty;
 
 public abstract class MobileDeviceManager  extends DatacenterBroker {
+	private EventLoopProfiler.Section profilerSection;
+
+	//end events of the transfers in progress for each task, and the tags used for them
+	private HashMap<Integer, TransferEnd> transferEnds = new HashMap<Integer, TransferEnd>();
+	private HashSet<Integer> transferEndTags = new HashSet<Integer>();
+	private TransferEnd currentTransferEnd;
+
+	private static class TransferEnd {
+		private final int tag;
+		private final double startTime;
+		private final double delay; //delay given when the transfer is started
+		private double endTime;
+		private double eventTime; //time of the earliest end event in the queue
+		private boolean moved;
+
+		private TransferEnd(int _tag, double _startTime, double _delay) {
+			tag = _tag;
+			startTime = _startTime;
+			delay = _delay;
+			endTime = _startTime + _delay;
+			eventTime = endTime;
+		}
+	}
 
 	public MobileDeviceManager() throws Exception {
 		super("Global_Broker");
 	}
+
+	/*
+	 * processCloudletReturn and processOtherEvent of the subclasses are
+	 * called from here, the processing time of each event is measured
+	 */
+	@Override
+	public void processEvent(SimEvent ev) {
+		if(profilerSection == null){
+			profilerSection = EventLoopProfiler.getInstance().getSection(getName());
+			profilerSection.setTagName(CloudSimTags.CLOUDLET_RETURN, "CLOUDLET_RETURN");
+			profilerSection.setTagName(CloudSimTags.VM_CREATE_ACK, "VM_CREATE_ACK");
+			profilerSection.setTagName(CloudSimTags.RESOURCE_CHARACTERISTICS_REQUEST, "RESOURCE_CHARACTERISTICS_REQUEST");
+			profilerSection.setTagName(CloudSimTags.RESOURCE_CHARACTERISTICS, "RESOURCE_CHARACTERISTICS");
+		}
+
+		long profilerStartTime = profilerSection.begin();
+		if(!transferEndTags.contains(ev.getTag())){
+			super.processEvent(ev);
+		}
+		else if(isTransferEnded(ev)){
+			//the transfer is kept while the event is processed, so its delay can be queried
+			super.processEvent(ev);
+			if(ev.getData() instanceof Task)
+				transferEnds.remove(((Task) ev.getData()).getCloudletId(), currentTransferEnd);
+			currentTransferEnd = null;
+		}
+		profilerSection.end(ev.getTag(), profilerStartTime);
+	}
+
+	/*
+	 * schedules the event which is received when the transfer of the task
+	 * ends; the network models sharing the bandwidth among the transfers
+	 * move the event via updateTransferEnd when the delay changes
+	 */
+	protected void scheduleTransferEnd(double delay, int tag, Task task) {
+		transferEndTags.add(tag);
+		transferEnds.put(task.getCloudletId(), new TransferEnd(tag, CloudSim.clock(), delay));
+		schedule(getId(), delay, tag, task);
+	}
+
+	/*
+	 * sets the time left until the end of the transfer of the task, an
+	 * earlier event is scheduled if the transfer is sped up, the event
+	 * is scheduled again when it is received if the transfer is slowed down
+	 */
+	public void updateTransferEnd(Task task, double delay) {
+		TransferEnd transferEnd = transferEnds.get(task.getCloudletId());
+		if(transferEnd == null)
+			return;
+
+		double endTime = CloudSim.clock() + delay;
+		if(endTime != transferEnd.endTime){
+			transferEnd.endTime = endTime;
+			transferEnd.moved = true;
+		}
+		if(transferEnd.endTime < transferEnd.eventTime){
+			transferEnd.eventTime = transferEnd.endTime;
+			schedule(getId(), delay, transferEnd.tag, task);
+		}
+	}
+
+	/*
+	 * returns true if the transfer of the task ends with the event, the
+	 * events which are replaced by an earlier one are ignored
+	 */
+	private boolean isTransferEnded(SimEvent ev) {
+		if(!(ev.getData() instanceof Task))
+			return true;
+
+		Task task = (Task) ev.getData();
+		TransferEnd transferEnd = transferEnds.get(task.getCloudletId());
+		if(transferEnd == null || transferEnd.tag != ev.getTag() || transferEnd.eventTime != ev.eventTime())
+			return false;
+
+		if(transferEnd.endTime > CloudSim.clock()){
+			double delay = transferEnd.endTime - CloudSim.clock();
+			transferEnd.eventTime = CloudSim.clock() + delay;
+			schedule(getId(), delay, transferEnd.tag, task);
+			return false;
+		}
+
+		currentTransferEnd = transferEnd;
+		return true;
+	}
+
+	/*
+	 * returns the actual delay of the transfer of the task, it should be
+	 * called while the end event of the transfer is processed; the delay
+	 * given when the transfer is started is returned if it is not moved
+	 */
+	protected double getTransferDelay(Task task) {
+		TransferEnd transferEnd = transferEnds.get(task.getCloudletId());
+		if(transferEnd == null)
+			return 0;
+
+		return transferEnd.moved ? CloudSim.clock() - transferEnd.startTime : transferEnd.delay;
+	}
 	
 	/*
 	 * initialize mobile device manager if needed
@@ -28,9 +28,12 @@ import org.cloudbus.cloudsim.Datacenter;
 import org.cloudbus.cloudsim.Host;
 import org.cloudbus.cloudsim.VmAllocationPolicy;
 
+import edu.boun.edgecloudsim.utils.VmUtilizationAggregator;
+
 public abstract class MobileServerManager {
 	protected Datacenter localDatacenter;
 	protected List<List<MobileVM>> vmList;
+	protected VmUtilizationAggregator utilizationAggregator;
 
 	public MobileServerManager() {
 		vmList = new ArrayList<List<MobileVM>>();
@@ -47,6 +50,14 @@ public abstract class MobileServerManager {
 		return localDatacenter;
 	}
 	
+	/*
+	 * returns running utilization sums of the VMs
+	 * null if the server manager does not keep them
+	 */
+	public VmUtilizationAggregator getUtilizationAggregator(){
+		return utilizationAggregator;
+	}
+	
 	/*
 	 * initialize edge server manager if needed
 	 */
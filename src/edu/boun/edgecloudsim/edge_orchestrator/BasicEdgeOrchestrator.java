@@ -14,25 +14,27 @@ package edu.boun.edgecloudsim.edge_orchestrator;
 
 import java.util.List;
 
-import org.cloudbus.cloudsim.Host;
 import org.cloudbus.cloudsim.Vm;
 import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.SimEvent;
 import org.cloudbus.cloudsim.Cloudlet;
 
-import edu.boun.edgecloudsim.cloud_server.CloudVM;
 import edu.boun.edgecloudsim.core.SimManager;
 import edu.boun.edgecloudsim.core.SimSettings;
 import edu.boun.edgecloudsim.edge_server.EdgeVM;
 import edu.boun.edgecloudsim.edge_client.CpuUtilizationModel_Custom;
 import edu.boun.edgecloudsim.edge_client.Task;
+import edu.boun.edgecloudsim.utils.DecisionTracer;
 import edu.boun.edgecloudsim.utils.Location;
+import edu.boun.edgecloudsim.utils.RandomStream;
+import edu.boun.edgecloudsim.utils.RandomStreams;
 import edu.boun.edgecloudsim.utils.SimUtils;
 
 public class BasicEdgeOrchestrator extends EdgeOrchestrator {
     private int numberOfHost; //used by load balancer
     private int lastSelectedHostIndex; //used by load balancer
     private int[] lastSelectedVmIndexes; //used by each host individually
+    private RandomStream rng; //used by random fit policy
 
     // threshold for deadline-based decision (seconds) — tune as needed
     private static final double DEADLINE_THRESHOLD = 10.0;
@@ -49,6 +51,8 @@ public class BasicEdgeOrchestrator extends EdgeOrchestrator {
         lastSelectedVmIndexes = new int[numberOfHost];
         for (int i = 0; i < numberOfHost; i++)
             lastSelectedVmIndexes[i] = -1;
+
+        rng = RandomStreams.getStream(RandomStreams.EDGE_ORCHESTRATOR);
     }
 
     /**
@@ -57,10 +61,6 @@ public class BasicEdgeOrchestrator extends EdgeOrchestrator {
      */
     @Override
     public int getDeviceToOffload(Task task) {
-        double length = task.getCloudletLength();
-        long inputSize = task.getCloudletFileSize();
-        long outputSize = task.getCloudletOutputSize();
-
         // Default decision: cloud
         int deviceId = SimSettings.CLOUD_DATACENTER_ID;
 
@@ -77,14 +77,8 @@ public class BasicEdgeOrchestrator extends EdgeOrchestrator {
             deviceId = SimSettings.CLOUD_DATACENTER_ID;
         }
 
-        // Debug log: show decision and task attributes
-        System.out.println("Strategy used for task -> Length: " + length +
-                ", Input: " + inputSize +
-                ", Output: " + outputSize);
-        System.out.println("Decision: criticality=" + task.getCriticality()
-                + ", deadline=" + task.getDeadline()
-                + " -> deviceId=" + deviceId
-                + (deviceId == SimSettings.GENERIC_EDGE_DEVICE_ID ? " (EDGE)" : " (CLOUD)"));
+        // Record the decision and task attributes if decision tracing is enabled
+        DecisionTracer.getInstance().offloadDecision(task, deviceId);
 
         return deviceId;
     }
@@ -95,21 +89,9 @@ public class BasicEdgeOrchestrator extends EdgeOrchestrator {
 
         if (deviceId == SimSettings.CLOUD_DATACENTER_ID) {
             // Select VM on cloud devices via Least Loaded algorithm!
-            double selectedVmCapacity = 0; // start with min value
-            List<Host> list = SimManager.getInstance().getCloudServerManager().getDatacenter().getHostList();
-            for (int hostIndex = 0; hostIndex < list.size(); hostIndex++) {
-                List<CloudVM> vmArray = SimManager.getInstance().getCloudServerManager().getVmList(hostIndex);
-                for (int vmIndex = 0; vmIndex < vmArray.size(); vmIndex++) {
-                    double requiredCapacity = ((CpuUtilizationModel_Custom) task.getUtilizationModelCpu())
-                            .predictUtilization(vmArray.get(vmIndex).getVmType());
-                    double targetVmCapacity = (double) 100 - vmArray.get(vmIndex).getCloudletScheduler()
-                            .getTotalUtilizationOfCpu(CloudSim.clock());
-                    if (requiredCapacity <= targetVmCapacity && targetVmCapacity > selectedVmCapacity) {
-                        selectedVM = vmArray.get(vmIndex);
-                        selectedVmCapacity = targetVmCapacity;
-                    }
-                }
-            }
+            double requiredCapacity = ((CpuUtilizationModel_Custom) task.getUtilizationModelCpu())
+                    .predictUtilization(SimSettings.VM_TYPES.CLOUD_VM);
+            selectedVM = getCloudVmIndex().selectWorstFit(requiredCapacity);
         } else if (simScenario.equals("TWO_TIER_WITH_EO"))
             selectedVM = selectVmOnLoadBalancer(task);
         else
@@ -128,7 +110,7 @@ public class BasicEdgeOrchestrator extends EdgeOrchestrator {
         List<EdgeVM> vmArray = SimManager.getInstance().getEdgeServerManager().getVmList(relatedHostId);
 
         if (policy.equalsIgnoreCase("RANDOM_FIT")) {
-            int randomIndex = SimUtils.getRandomNumber(0, vmArray.size() - 1);
+            int randomIndex = SimUtils.getRandomNumber(rng, 0, vmArray.size() - 1);
             double requiredCapacity = ((CpuUtilizationModel_Custom) task.getUtilizationModelCpu())
                     .predictUtilization(vmArray.get(randomIndex).getVmType());
             double targetVmCapacity = (double) 100 - vmArray.get(randomIndex).getCloudletScheduler()
@@ -194,9 +176,9 @@ public class BasicEdgeOrchestrator extends EdgeOrchestrator {
         EdgeVM selectedVM = null;
 
         if (policy.equalsIgnoreCase("RANDOM_FIT")) {
-            int randomHostIndex = SimUtils.getRandomNumber(0, numberOfHost - 1);
+            int randomHostIndex = SimUtils.getRandomNumber(rng, 0, numberOfHost - 1);
             List<EdgeVM> vmArray = SimManager.getInstance().getEdgeServerManager().getVmList(randomHostIndex);
-            int randomIndex = SimUtils.getRandomNumber(0, vmArray.size() - 1);
+            int randomIndex = SimUtils.getRandomNumber(rng, 0, vmArray.size() - 1);
 
             double requiredCapacity = ((CpuUtilizationModel_Custom) task.getUtilizationModelCpu())
                     .predictUtilization(vmArray.get(randomIndex).getVmType());
@@ -205,49 +187,12 @@ public class BasicEdgeOrchestrator extends EdgeOrchestrator {
             if (requiredCapacity <= targetVmCapacity)
                 selectedVM = vmArray.get(randomIndex);
         } else if (policy.equalsIgnoreCase("WORST_FIT")) {
-            double selectedVmCapacity = 0; // start with min value
-            for (int hostIndex = 0; hostIndex < numberOfHost; hostIndex++) {
-                List<EdgeVM> vmArray = SimManager.getInstance().getEdgeServerManager().getVmList(hostIndex);
-                for (int vmIndex = 0; vmIndex < vmArray.size(); vmIndex++) {
-                    double requiredCapacity = ((CpuUtilizationModel_Custom) task.getUtilizationModelCpu())
-                            .predictUtilization(vmArray.get(vmIndex).getVmType());
-                    double targetVmCapacity = (double) 100 - vmArray.get(vmIndex).getCloudletScheduler()
-                            .getTotalUtilizationOfCpu(CloudSim.clock());
-                    if (requiredCapacity <= targetVmCapacity && targetVmCapacity > selectedVmCapacity) {
-                        selectedVM = vmArray.get(vmIndex);
-                        selectedVmCapacity = targetVmCapacity;
-                    }
-                }
-            }
+            selectedVM = getEdgeVmIndex().selectWorstFit(getRequiredEdgeCapacity(task));
         } else if (policy.equalsIgnoreCase("BEST_FIT")) {
-            double selectedVmCapacity = 101; // start with max value
-            for (int hostIndex = 0; hostIndex < numberOfHost; hostIndex++) {
-                List<EdgeVM> vmArray = SimManager.getInstance().getEdgeServerManager().getVmList(hostIndex);
-                for (int vmIndex = 0; vmIndex < vmArray.size(); vmIndex++) {
-                    double requiredCapacity = ((CpuUtilizationModel_Custom) task.getUtilizationModelCpu())
-                            .predictUtilization(vmArray.get(vmIndex).getVmType());
-                    double targetVmCapacity = (double) 100 - vmArray.get(vmIndex).getCloudletScheduler()
-                            .getTotalUtilizationOfCpu(CloudSim.clock());
-                    if (requiredCapacity <= targetVmCapacity && targetVmCapacity < selectedVmCapacity) {
-                        selectedVM = vmArray.get(vmIndex);
-                        selectedVmCapacity = targetVmCapacity;
-                    }
-                }
-            }
+            selectedVM = getEdgeVmIndex().selectBestFit(getRequiredEdgeCapacity(task));
         } else if (policy.equalsIgnoreCase("FIRST_FIT")) {
-            for (int hostIndex = 0; hostIndex < numberOfHost; hostIndex++) {
-                List<EdgeVM> vmArray = SimManager.getInstance().getEdgeServerManager().getVmList(hostIndex);
-                for (int vmIndex = 0; vmIndex < vmArray.size(); vmIndex++) {
-                    double requiredCapacity = ((CpuUtilizationModel_Custom) task.getUtilizationModelCpu())
-                            .predictUtilization(vmArray.get(vmIndex).getVmType());
-                    double targetVmCapacity = (double) 100 - vmArray.get(vmIndex).getCloudletScheduler()
-                            .getTotalUtilizationOfCpu(CloudSim.clock());
-                    if (requiredCapacity <= targetVmCapacity) {
-                        selectedVM = vmArray.get(vmIndex);
-                        break;
-                    }
-                }
-            }
+            // first fit VM of the last host having such a VM, as the host by host scan finds
+            selectedVM = getEdgeVmIndex().selectFirstFitOnLastHost(getRequiredEdgeCapacity(task));
         } else if (policy.equalsIgnoreCase("NEXT_FIT")) {
             int hostCheckCounter = 0;
             while (selectedVM == null && hostCheckCounter < numberOfHost) {
@@ -276,6 +221,11 @@ public class BasicEdgeOrchestrator extends EdgeOrchestrator {
         return selectedVM;
     }
 
+    private double getRequiredEdgeCapacity(Task task) {
+        return ((CpuUtilizationModel_Custom) task.getUtilizationModelCpu())
+                .predictUtilization(SimSettings.VM_TYPES.EDGE_VM);
+    }
+
     @Override
     public void processEvent(SimEvent arg0) {
         
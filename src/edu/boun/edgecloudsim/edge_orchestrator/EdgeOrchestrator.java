@@ -16,11 +16,15 @@ package edu.boun.edgecloudsim.edge_orchestrator;
 import org.cloudbus.cloudsim.Vm;
 import org.cloudbus.cloudsim.core.SimEntity;
 
+import edu.boun.edgecloudsim.cloud_server.CloudVM;
 import edu.boun.edgecloudsim.edge_client.Task;
+import edu.boun.edgecloudsim.edge_server.EdgeVM;
 
 public abstract class EdgeOrchestrator extends SimEntity{
 	protected String policy;
 	protected String simScenario;
+	private VmCapacityIndex<EdgeVM> edgeVmIndex;
+	private VmCapacityIndex<CloudVM> cloudVmIndex;
 	
 	public EdgeOrchestrator(String _policy, String _simScenario){
 		super("EdgeOrchestrator");
@@ -49,4 +53,24 @@ public abstract class EdgeOrchestrator extends SimEntity{
 	 * returns proper VM from the edge orchestrator point of view
 	 */
 	public abstract Vm getVmToOffload(Task task, int deviceId);
+
+	/*
+	 * returns the capacity index of the edge VMs, VMs are created after the
+	 * orchestrator is initialized, so the index is created when it is needed
+	 * for the first time
+	 */
+	protected VmCapacityIndex<EdgeVM> getEdgeVmIndex() {
+		if(edgeVmIndex == null)
+			edgeVmIndex = VmCapacityIndex.createEdgeVmIndex();
+		return edgeVmIndex;
+	}
+
+	/*
+	 * returns the capacity index of the cloud VMs, created lazily as the edge one
+	 */
+	protected VmCapacityIndex<CloudVM> getCloudVmIndex() {
+		if(cloudVmIndex == null)
+			cloudVmIndex = VmCapacityIndex.createCloudVmIndex();
+		return cloudVmIndex;
+	}
 }
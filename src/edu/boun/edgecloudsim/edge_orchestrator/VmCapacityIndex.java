@@ -0,0 +1,231 @@
+/*
+ * Title:        EdgeCloudSim - VM Capacity Index
+ *
+ * Description:
+ * VmCapacityIndex keeps the residual CPU capacity of the VMs in
+ * structures ordered by free capacity, so that the first/best/worst
+ * fit VM can be selected in logarithmic time instead of visiting all
+ * VMs on all hosts. The VMs are ordered in the same way with the VM
+ * lists of the server manager (host by host), hence the selected VM
+ * is the same with the one found by scanning the VM lists.
+ *
+ * A segment tree over the residual capacities is used to find the
+ * first fit and the worst fit VMs, and a tree map from residual
+ * capacity to VM positions is used to find the best fit VM. The index
+ * listens to the VmUtilizationAggregator of the server manager, which
+ * is updated when the cloudlets are submitted to or finished on VMs.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.edge_orchestrator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.cloudbus.cloudsim.Vm;
+
+import edu.boun.edgecloudsim.cloud_server.CloudServerManager;
+import edu.boun.edgecloudsim.cloud_server.CloudVM;
+import edu.boun.edgecloudsim.core.SimManager;
+import edu.boun.edgecloudsim.edge_server.EdgeServerManager;
+import edu.boun.edgecloudsim.edge_server.EdgeVM;
+import edu.boun.edgecloudsim.utils.SimLogger;
+import edu.boun.edgecloudsim.utils.VmUtilizationAggregator;
+import edu.boun.edgecloudsim.utils.VmUtilizationListener;
+
+public class VmCapacityIndex<T extends Vm> implements VmUtilizationListener {
+	private List<T> vmList;
+	private int[] hostOffsets;
+	private double[] capacities;
+
+	//segment tree keeping the max residual capacity of each range
+	private int numOfLeaves;
+	private double[] maxCapacityTree;
+
+	//VM positions grouped by residual capacity
+	private TreeMap<Double, TreeSet<Integer>> capacityMap;
+
+	public VmCapacityIndex(VmUtilizationAggregator utilizationAggregator, List<List<T>> vmListOfHosts) {
+		if(utilizationAggregator == null){
+			SimLogger.printLine("VM utilization aggregator is not available! Terminating simulation...");
+			System.exit(1);
+		}
+
+		vmList = new ArrayList<T>();
+		hostOffsets = new int[vmListOfHosts.size()];
+		for(int hostIndex=0; hostIndex<vmListOfHosts.size(); hostIndex++){
+			hostOffsets[hostIndex] = vmList.size();
+			vmList.addAll(vmListOfHosts.get(hostIndex));
+		}
+
+		numOfLeaves = 1;
+		while(numOfLeaves < vmList.size())
+			numOfLeaves *= 2;
+
+		capacities = new double[vmList.size()];
+		maxCapacityTree = new double[2*numOfLeaves];
+		Arrays.fill(maxCapacityTree, Double.NEGATIVE_INFINITY);
+		capacityMap = new TreeMap<Double, TreeSet<Integer>>();
+
+		for(int hostIndex=0; hostIndex<vmListOfHosts.size(); hostIndex++){
+			for(int vmIndex=0; vmIndex<vmListOfHosts.get(hostIndex).size(); vmIndex++){
+				int position = hostOffsets[hostIndex] + vmIndex;
+				capacities[position] = (double)100 - utilizationAggregator.getUtilizationOfVm(hostIndex, vmIndex);
+				addToCapacityMap(position);
+				maxCapacityTree[numOfLeaves + position] = capacities[position];
+			}
+		}
+		for(int node=numOfLeaves-1; node>0; node--)
+			maxCapacityTree[node] = Math.max(maxCapacityTree[2*node], maxCapacityTree[2*node+1]);
+
+		utilizationAggregator.addListener(this);
+	}
+
+	/*
+	 * creates an index for all VMs running on the edge hosts
+	 */
+	public static VmCapacityIndex<EdgeVM> createEdgeVmIndex() {
+		EdgeServerManager edgeServerManager = SimManager.getInstance().getEdgeServerManager();
+		int numOfHosts = edgeServerManager.getUtilizationAggregator().getNumOfHosts();
+		List<List<EdgeVM>> vmListOfHosts = new ArrayList<List<EdgeVM>>();
+		for(int hostIndex=0; hostIndex<numOfHosts; hostIndex++)
+			vmListOfHosts.add(edgeServerManager.getVmList(hostIndex));
+		return new VmCapacityIndex<EdgeVM>(edgeServerManager.getUtilizationAggregator(), vmListOfHosts);
+	}
+
+	/*
+	 * creates an index for all VMs running on the cloud hosts
+	 */
+	public static VmCapacityIndex<CloudVM> createCloudVmIndex() {
+		CloudServerManager cloudServerManager = SimManager.getInstance().getCloudServerManager();
+		int numOfHosts = cloudServerManager.getUtilizationAggregator().getNumOfHosts();
+		List<List<CloudVM>> vmListOfHosts = new ArrayList<List<CloudVM>>();
+		for(int hostIndex=0; hostIndex<numOfHosts; hostIndex++)
+			vmListOfHosts.add(cloudServerManager.getVmList(hostIndex));
+		return new VmCapacityIndex<CloudVM>(cloudServerManager.getUtilizationAggregator(), vmListOfHosts);
+	}
+
+	@Override
+	public void vmUtilizationChanged(int hostIndex, int vmIndex, double utilization) {
+		int position = hostOffsets[hostIndex] + vmIndex;
+
+		removeFromCapacityMap(position);
+		capacities[position] = (double)100 - utilization;
+		addToCapacityMap(position);
+
+		int node = numOfLeaves + position;
+		maxCapacityTree[node] = capacities[position];
+		for(node /= 2; node > 0; node /= 2)
+			maxCapacityTree[node] = Math.max(maxCapacityTree[2*node], maxCapacityTree[2*node+1]);
+	}
+
+	/*
+	 * returns the first VM having enough capacity, null if there is no such VM
+	 */
+	public T selectFirstFit(double requiredCapacity) {
+		if(vmList.isEmpty() || maxCapacityTree[1] < requiredCapacity)
+			return null;
+
+		int node = 1;
+		while(node < numOfLeaves)
+			node = (maxCapacityTree[2*node] >= requiredCapacity) ? 2*node : 2*node+1;
+
+		return vmList.get(node - numOfLeaves);
+	}
+
+	/*
+	 * returns the first VM having enough capacity on the last host having
+	 * such a VM, null if there is no such VM; this is the VM selected by
+	 * scanning the VM lists of all hosts and stopping at the first fit VM
+	 * of each host
+	 */
+	public T selectFirstFitOnLastHost(double requiredCapacity) {
+		if(vmList.isEmpty() || maxCapacityTree[1] < requiredCapacity)
+			return null;
+
+		//last VM having enough capacity
+		int node = 1;
+		while(node < numOfLeaves)
+			node = (maxCapacityTree[2*node+1] >= requiredCapacity) ? 2*node+1 : 2*node;
+		int lastPosition = node - numOfLeaves;
+
+		//first VM of the host running that VM
+		int low = 0, high = hostOffsets.length - 1;
+		while(low < high){
+			int middle = (low + high + 1) / 2;
+			if(hostOffsets[middle] <= lastPosition)
+				low = middle;
+			else
+				high = middle - 1;
+		}
+
+		return vmList.get(findFirstFit(1, 0, numOfLeaves - 1, hostOffsets[low], requiredCapacity));
+	}
+
+	/*
+	 * returns the first position not before the given one having enough
+	 * capacity in the range of the node, -1 if there is no such position
+	 */
+	private int findFirstFit(int node, int rangeStart, int rangeEnd, int firstPosition, double requiredCapacity) {
+		if(rangeEnd < firstPosition || maxCapacityTree[node] < requiredCapacity)
+			return -1;
+		if(node >= numOfLeaves)
+			return rangeStart;
+
+		int middle = (rangeStart + rangeEnd) / 2;
+		int position = findFirstFit(2*node, rangeStart, middle, firstPosition, requiredCapacity);
+		if(position == -1)
+			position = findFirstFit(2*node+1, middle + 1, rangeEnd, firstPosition, requiredCapacity);
+		return position;
+	}
+
+	/*
+	 * returns the VM having the least residual capacity which is enough for the task
+	 * the first one is selected if there are more than one such VMs
+	 */
+	public T selectBestFit(double requiredCapacity) {
+		Map.Entry<Double, TreeSet<Integer>> entry = capacityMap.ceilingEntry(requiredCapacity);
+		if(entry == null)
+			return null;
+
+		return vmList.get(entry.getValue().first());
+	}
+
+	/*
+	 * returns the VM having the most residual capacity if it is enough for the task
+	 * the first one is selected if there are more than one such VMs
+	 */
+	public T selectWorstFit(double requiredCapacity) {
+		double maxCapacity = maxCapacityTree[1];
+		if(vmList.isEmpty() || maxCapacity < requiredCapacity || maxCapacity <= 0)
+			return null;
+
+		int node = 1;
+		while(node < numOfLeaves)
+			node = (maxCapacityTree[2*node] == maxCapacity) ? 2*node : 2*node+1;
+
+		return vmList.get(node - numOfLeaves);
+	}
+
+	private void addToCapacityMap(int position) {
+		TreeSet<Integer> positions = capacityMap.get(capacities[position]);
+		if(positions == null){
+			positions = new TreeSet<Integer>();
+			capacityMap.put(capacities[position], positions);
+		}
+		positions.add(position);
+	}
+
+	private void removeFromCapacityMap(int position) {
+		TreeSet<Integer> positions = capacityMap.get(capacities[position]);
+		positions.remove(position);
+		if(positions.isEmpty())
+			capacityMap.remove(capacities[position]);
+	}
+}
@@ -16,7 +16,6 @@ import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 
-import org.cloudbus.cloudsim.CloudletSchedulerTimeShared;
 import org.cloudbus.cloudsim.Datacenter;
 import org.cloudbus.cloudsim.DatacenterCharacteristics;
 import org.cloudbus.cloudsim.Host;
@@ -24,18 +23,17 @@ import org.cloudbus.cloudsim.Pe;
 import org.cloudbus.cloudsim.Storage;
 import org.cloudbus.cloudsim.VmAllocationPolicy;
 import org.cloudbus.cloudsim.VmSchedulerSpaceShared;
-import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
 import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
 import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
 
-import edu.boun.edgecloudsim.core.SimManager;
+import edu.boun.edgecloudsim.core.EdgeTopology;
+import edu.boun.edgecloudsim.core.EdgeTopology.DatacenterSpec;
+import edu.boun.edgecloudsim.core.EdgeTopology.HostSpec;
+import edu.boun.edgecloudsim.core.EdgeTopology.VmSpec;
 import edu.boun.edgecloudsim.core.SimSettings;
-import edu.boun.edgecloudsim.utils.Location;
+import edu.boun.edgecloudsim.edge_client.CloudletSchedulerTimeShared_Custom;
+import edu.boun.edgecloudsim.utils.VmUtilizationAggregator;
 
 public class DefaultEdgeServerManager extends EdgeServerManager{
 	private int hostIdCounter;
@@ -54,46 +52,30 @@ public class DefaultEdgeServerManager extends EdgeServerManager{
 	}
 	
 	public void startDatacenters() throws Exception{
-		Document doc = SimSettings.getInstance().getEdgeDevicesDocument();
-		NodeList datacenterList = doc.getElementsByTagName("datacenter");
-		for (int i = 0; i < datacenterList.getLength(); i++) {
-			Node datacenterNode = datacenterList.item(i);
-			Element datacenterElement = (Element) datacenterNode;
-			localDatacenters.add(createDatacenter(i, datacenterElement));
+		EdgeTopology topology = SimSettings.getInstance().getEdgeTopology();
+		for (DatacenterSpec datacenter : topology.getDatacenters()) {
+			localDatacenters.add(createDatacenter(datacenter));
 		}
 	}
 
 	public void createVmList(int brokerId){
+		utilizationAggregator = new VmUtilizationAggregator(SimSettings.getInstance().getNumOfEdgeHosts());
+
 		int hostCounter=0;
 		int vmCounter=0;
 		
 		//Create VMs for each hosts
-		Document doc = SimSettings.getInstance().getEdgeDevicesDocument();
-		NodeList datacenterList = doc.getElementsByTagName("datacenter");
-		for (int i = 0; i < datacenterList.getLength(); i++) {
-			Node datacenterNode = datacenterList.item(i);
-			Element datacenterElement = (Element) datacenterNode;
-			NodeList hostNodeList = datacenterElement.getElementsByTagName("host");
-			for (int j = 0; j < hostNodeList.getLength(); j++) {
+		EdgeTopology topology = SimSettings.getInstance().getEdgeTopology();
+		for (DatacenterSpec datacenter : topology.getDatacenters()) {
+			for (HostSpec host : datacenter.getHosts()) {
 				
 				vmList.add(hostCounter, new ArrayList<EdgeVM>());
 				
-				Node hostNode = hostNodeList.item(j);
-				Element hostElement = (Element) hostNode;
-				NodeList vmNodeList = hostElement.getElementsByTagName("VM");
-				for (int k = 0; k < vmNodeList.getLength(); k++) {
-					Node vmNode = vmNodeList.item(k);					
-					Element vmElement = (Element) vmNode;
-
-					String vmm = vmElement.getAttribute("vmm");
-					int numOfCores = Integer.parseInt(vmElement.getElementsByTagName("core").item(0).getTextContent());
-					double mips = Double.parseDouble(vmElement.getElementsByTagName("mips").item(0).getTextContent());
-					int ram = Integer.parseInt(vmElement.getElementsByTagName("ram").item(0).getTextContent());
-					long storage = Long.parseLong(vmElement.getElementsByTagName("storage").item(0).getTextContent());
-					long bandwidth = SimSettings.getInstance().getWlanBandwidth() / (hostNodeList.getLength()+vmNodeList.getLength());
+				for (VmSpec vmSpec : host.getVms()) {
+					long bandwidth = SimSettings.getInstance().getWlanBandwidth() / (datacenter.getHosts().size()+host.getVms().size());
 					
 					//VM Parameters		
-					EdgeVM vm = new EdgeVM(vmCounter, brokerId, mips, numOfCores, ram, bandwidth, storage, vmm, new CloudletSchedulerTimeShared());
+					EdgeVM vm = new EdgeVM(vmCounter, brokerId, vmSpec.getMips(), vmSpec.getNumOfCores(), vmSpec.getRam(), bandwidth, vmSpec.getStorage(), vmSpec.getVmm(), new CloudletSchedulerTimeShared_Custom(utilizationAggregator, hostCounter));
 					vmList.get(hostCounter).add(vm);
 					vmCounter++;
 				}
@@ -111,36 +93,20 @@ public class DefaultEdgeServerManager extends EdgeServerManager{
 
 	//average utilization of all VMs
 	public double getAvgUtilization(){
-		double totalUtilization = 0;
-		double vmCounter = 0;
-		
-		// for each datacenter...
-		for(int i= 0; i<localDatacenters.size(); i++) {
-			List<? extends Host> list = localDatacenters.get(i).getHostList();
-			// for each host...
-			for (int j=0; j < list.size(); j++) {
-				Host host = list.get(j);
-				List<EdgeVM> vmArray = SimManager.getInstance().getEdgeServerManager().getVmList(host.getId());
-				//for each vm...
-				for(int vmIndex=0; vmIndex<vmArray.size(); vmIndex++){
-					totalUtilization += vmArray.get(vmIndex).getCloudletScheduler().getTotalUtilizationOfCpu(CloudSim.clock());
-					vmCounter++;
-				}
-			}
-		}
-		return totalUtilization / vmCounter;
+		return utilizationAggregator.getAvgUtilization();
 	}
 
-	private Datacenter createDatacenter(int index, Element datacenterElement) throws Exception{
-		String arch = datacenterElement.getAttribute("arch");
-		String os = datacenterElement.getAttribute("os");
-		String vmm = datacenterElement.getAttribute("vmm");
-		double costPerBw = Double.parseDouble(datacenterElement.getElementsByTagName("costPerBw").item(0).getTextContent());
-		double costPerSec = Double.parseDouble(datacenterElement.getElementsByTagName("costPerSec").item(0).getTextContent());
-		double costPerMem = Double.parseDouble(datacenterElement.getElementsByTagName("costPerMem").item(0).getTextContent());
-		double costPerStorage = Double.parseDouble(datacenterElement.getElementsByTagName("costPerStorage").item(0).getTextContent());
+	private Datacenter createDatacenter(DatacenterSpec datacenterSpec) throws Exception{
+		int index = datacenterSpec.getIndex();
+		String arch = datacenterSpec.getArch();
+		String os = datacenterSpec.getOs();
+		String vmm = datacenterSpec.getVmm();
+		double costPerBw = datacenterSpec.getCostPerBw();
+		double costPerSec = datacenterSpec.getCostPerSec();
+		double costPerMem = datacenterSpec.getCostPerMem();
+		double costPerStorage = datacenterSpec.getCostPerStorage();
 		
-		List<EdgeHost> hostList=createHosts(datacenterElement);
+		List<EdgeHost> hostList=createHosts(datacenterSpec);
 		
 		String name = "Datacenter_" + Integer.toString(index);
 		double time_zone = 3.0;         // time zone this resource located
@@ -163,29 +129,18 @@ public class DefaultEdgeServerManager extends EdgeServerManager{
 		return datacenter;
 	}
 	
-	private List<EdgeHost> createHosts(Element datacenterElement){
+	private List<EdgeHost> createHosts(DatacenterSpec datacenterSpec){
 
 		// Here are the steps needed to create a PowerDatacenter:
 		// 1. We need to create a list to store one or more Machines
 		List<EdgeHost> hostList = new ArrayList<EdgeHost>();
 		
-		Element location = (Element)datacenterElement.getElementsByTagName("location").item(0);
-		String attractiveness = location.getElementsByTagName("attractiveness").item(0).getTextContent();
-		int wlan_id = Integer.parseInt(location.getElementsByTagName("wlan_id").item(0).getTextContent());
-		int x_pos = Integer.parseInt(location.getElementsByTagName("x_pos").item(0).getTextContent());
-		int y_pos = Integer.parseInt(location.getElementsByTagName("y_pos").item(0).getTextContent());
-		int placeTypeIndex = Integer.parseInt(attractiveness);
-
-		NodeList hostNodeList = datacenterElement.getElementsByTagName("host");
-		for (int j = 0; j < hostNodeList.getLength(); j++) {
-			Node hostNode = hostNodeList.item(j);
-			
-			Element hostElement = (Element) hostNode;
-			int numOfCores = Integer.parseInt(hostElement.getElementsByTagName("core").item(0).getTextContent());
-			double mips = Double.parseDouble(hostElement.getElementsByTagName("mips").item(0).getTextContent());
-			int ram = Integer.parseInt(hostElement.getElementsByTagName("ram").item(0).getTextContent());
-			long storage = Long.parseLong(hostElement.getElementsByTagName("storage").item(0).getTextContent());
-			long bandwidth = SimSettings.getInstance().getWlanBandwidth() / hostNodeList.getLength();
+		for (HostSpec hostSpec : datacenterSpec.getHosts()) {
+			int numOfCores = hostSpec.getNumOfCores();
+			double mips = hostSpec.getMips();
+			int ram = hostSpec.getRam();
+			long storage = hostSpec.getStorage();
+			long bandwidth = SimSettings.getInstance().getWlanBandwidth() / datacenterSpec.getHosts().size();
 			
 			// 2. A Machine contains one or more PEs or CPUs/Cores. Therefore, should
 			//    create a list to store these PEs before creating
@@ -208,7 +163,7 @@ public class DefaultEdgeServerManager extends EdgeServerManager{
 					new VmSchedulerSpaceShared(peList)
 				);
 			
-			host.setPlace(new Location(placeTypeIndex, wlan_id, x_pos, y_pos));
+			host.setPlace(datacenterSpec.getLocation());
 			hostList.add(host);
 			hostIdCounter++;
 		}
@@ -23,9 +23,12 @@ import org.cloudbus.cloudsim.Datacenter;
 import org.cloudbus.cloudsim.Host;
 import org.cloudbus.cloudsim.VmAllocationPolicy;
 
+import edu.boun.edgecloudsim.utils.VmUtilizationAggregator;
+
 public abstract class EdgeServerManager {
 	protected List<Datacenter> localDatacenters;
 	protected List<List<EdgeVM>> vmList;
+	protected VmUtilizationAggregator utilizationAggregator;
 
 	public EdgeServerManager() {
 		localDatacenters=new ArrayList<Datacenter>();
@@ -40,6 +43,14 @@ public abstract class EdgeServerManager {
 		return localDatacenters;
 	}
 	
+	/*
+	 * returns running utilization sums of the VMs
+	 * null if the server manager does not keep them
+	 */
+	public VmUtilizationAggregator getUtilizationAggregator(){
+		return utilizationAggregator;
+	}
+	
 	/*
 	 * initialize edge server manager if needed
 	 */
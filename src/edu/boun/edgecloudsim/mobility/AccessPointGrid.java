@@ -0,0 +1,221 @@
+/*
+ * Title:        EdgeCloudSim - Access Point Grid
+ *
+ * Description:
+ * AccessPointGrid is a uniform grid index over the locations of the
+ * edge datacenters (access points). Each cell keeps the datacenters
+ * located in it, and the size of the cells is selected according to
+ * the number of datacenters, so the nearest datacenter of an arbitrary
+ * point is found by checking a few cells around the point instead of
+ * scanning all datacenters.
+ *
+ * The datacenters within the WLAN range (wlan_range property) of a point
+ * are found by checking the cells overlapping the range. If the range is
+ * not given, the coverage of a datacenter is assumed to be unlimited. The
+ * simulation area (northern, eastern, southern and western bounds) is
+ * used to select the cell size if it is given; the points outside the
+ * grid are handled as if they are in the nearest cell.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.mobility;
+
+import edu.boun.edgecloudsim.core.EdgeTopology;
+import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.utils.Location;
+
+public class AccessPointGrid {
+	//average number of datacenters in a cell
+	private static final double DATACENTERS_PER_CELL = 2;
+
+	private double minX;
+	private double minY;
+	private double cellSize;
+	private int numOfColumns;
+	private int numOfRows;
+	private double wlanRange;
+
+	//datacenters of cell c are in cellDatacenters[cellOffsets[c] .. cellOffsets[c+1])
+	private int[] cellOffsets;
+	private int[] cellDatacenters;
+	private int[] xPositions;
+	private int[] yPositions;
+
+	public AccessPointGrid(EdgeTopology topology) {
+		this(topology, SimSettings.getInstance().getWlanRange(),
+				SimSettings.getInstance().getWesternBound(), SimSettings.getInstance().getSouthernBound(),
+				SimSettings.getInstance().getEasternBound(), SimSettings.getInstance().getNorthernBound());
+	}
+
+	/*
+	 * creates the grid for the given WLAN range (0 for unlimited range)
+	 * bounds of the simulation area are ignored if they do not define an area
+	 */
+	public AccessPointGrid(EdgeTopology topology, double _wlanRange,
+			double westernBound, double southernBound, double easternBound, double northernBound) {
+		wlanRange = _wlanRange;
+		int numOfDatacenters = topology.getNumOfDatacenters();
+		xPositions = new int[numOfDatacenters];
+		yPositions = new int[numOfDatacenters];
+
+		double maxX = -Double.MAX_VALUE;
+		double maxY = -Double.MAX_VALUE;
+		minX = Double.MAX_VALUE;
+		minY = Double.MAX_VALUE;
+		for(int i=0; i<numOfDatacenters; i++){
+			Location location = topology.getLocation(i);
+			xPositions[i] = location.getXPos();
+			yPositions[i] = location.getYPos();
+			minX = Math.min(minX, xPositions[i]);
+			minY = Math.min(minY, yPositions[i]);
+			maxX = Math.max(maxX, xPositions[i]);
+			maxY = Math.max(maxY, yPositions[i]);
+		}
+
+		if(easternBound > westernBound && northernBound > southernBound){
+			minX = Math.min(minX, westernBound);
+			minY = Math.min(minY, southernBound);
+			maxX = Math.max(maxX, easternBound);
+			maxY = Math.max(maxY, northernBound);
+		}
+
+		//datacenters may be placed on a line, e.g. along a road
+		double width = maxX - minX;
+		double height = maxY - minY;
+		cellSize = Math.sqrt(width * height * DATACENTERS_PER_CELL / numOfDatacenters);
+		if(cellSize <= 0)
+			cellSize = Math.max(width, height) * DATACENTERS_PER_CELL / numOfDatacenters;
+		if(cellSize <= 0)
+			cellSize = 1;
+
+		numOfColumns = (int)(width / cellSize) + 1;
+		numOfRows = (int)(height / cellSize) + 1;
+
+		//count the datacenters in each cell, then place them (compressed sparse row layout)
+		cellOffsets = new int[numOfColumns * numOfRows + 1];
+		for(int i=0; i<numOfDatacenters; i++)
+			cellOffsets[getCell(xPositions[i], yPositions[i]) + 1]++;
+		for(int c=0; c<numOfColumns * numOfRows; c++)
+			cellOffsets[c+1] += cellOffsets[c];
+
+		int[] filled = new int[numOfColumns * numOfRows];
+		cellDatacenters = new int[numOfDatacenters];
+		for(int i=0; i<numOfDatacenters; i++){
+			int cell = getCell(xPositions[i], yPositions[i]);
+			cellDatacenters[cellOffsets[cell] + filled[cell]] = i;
+			filled[cell]++;
+		}
+	}
+
+	/*
+	 * returns the index of the datacenter which is nearest to the given point
+	 * if there are more than one, the one having the lowest index is returned
+	 */
+	public int getNearestDatacenter(double x, double y) {
+		int column = getColumn(x);
+		int row = getRow(y);
+		int maxRing = Math.max(numOfColumns, numOfRows);
+
+		int nearest = -1;
+		double nearestDistance = Double.MAX_VALUE;
+		for(int ring=0; ring<=maxRing; ring++){
+			for(int r=row-ring; r<=row+ring; r++){
+				if(r < 0 || r >= numOfRows)
+					continue;
+
+				//only the border of the ring is checked, inner cells are already checked
+				int step = (r == row-ring || r == row+ring || ring == 0) ? 1 : 2 * ring;
+				for(int c=column-ring; c<=column+ring; c+=step){
+					if(c < 0 || c >= numOfColumns)
+						continue;
+
+					int cell = r * numOfColumns + c;
+					for(int i=cellOffsets[cell]; i<cellOffsets[cell+1]; i++){
+						int datacenter = cellDatacenters[i];
+						double distance = getDistanceSquare(datacenter, x, y);
+						if(distance < nearestDistance || (distance == nearestDistance && datacenter < nearest)){
+							nearestDistance = distance;
+							nearest = datacenter;
+						}
+					}
+				}
+			}
+
+			//the cells of the next rings are at least ring * cellSize away
+			double minDistanceOfNextRing = ring * cellSize;
+			if(nearest != -1 && nearestDistance <= minDistanceOfNextRing * minDistanceOfNextRing)
+				break;
+		}
+
+		return nearest;
+	}
+
+	/*
+	 * returns the index of the nearest datacenter which covers the given
+	 * point, -1 if the point is not in the WLAN range of any datacenter
+	 */
+	public int getServingDatacenter(double x, double y) {
+		int nearest = getNearestDatacenter(x, y);
+		if(wlanRange > 0 && getDistanceSquare(nearest, x, y) > wlanRange * wlanRange)
+			return -1;
+		return nearest;
+	}
+
+	/*
+	 * writes the indexes of the datacenters covering the given point to the
+	 * result array and returns their number; the array should be large
+	 * enough to keep all datacenters. All datacenters cover the point if
+	 * the WLAN range is not given.
+	 */
+	public int getDatacentersInRange(double x, double y, int[] result) {
+		if(wlanRange <= 0){
+			for(int i=0; i<xPositions.length; i++)
+				result[i] = i;
+			return xPositions.length;
+		}
+
+		int firstColumn = getColumn(x - wlanRange);
+		int lastColumn = getColumn(x + wlanRange);
+		int firstRow = getRow(y - wlanRange);
+		int lastRow = getRow(y + wlanRange);
+		double rangeSquare = wlanRange * wlanRange;
+
+		int count = 0;
+		for(int r=firstRow; r<=lastRow; r++){
+			for(int c=firstColumn; c<=lastColumn; c++){
+				int cell = r * numOfColumns + c;
+				for(int i=cellOffsets[cell]; i<cellOffsets[cell+1]; i++){
+					int datacenter = cellDatacenters[i];
+					if(getDistanceSquare(datacenter, x, y) <= rangeSquare)
+						result[count++] = datacenter;
+				}
+			}
+		}
+
+		return count;
+	}
+
+	public int getNumOfDatacenters() {
+		return xPositions.length;
+	}
+
+	private double getDistanceSquare(int datacenter, double x, double y) {
+		double dx = xPositions[datacenter] - x;
+		double dy = yPositions[datacenter] - y;
+		return dx * dx + dy * dy;
+	}
+
+	private int getColumn(double x) {
+		return Math.min(Math.max((int)Math.floor((x - minX) / cellSize), 0), numOfColumns - 1);
+	}
+
+	private int getRow(double y) {
+		return Math.min(Math.max((int)Math.floor((y - minY) / cellSize), 0), numOfRows - 1);
+	}
+
+	private int getCell(double x, double y) {
+		return getRow(y) * numOfColumns + getColumn(x);
+	}
+}
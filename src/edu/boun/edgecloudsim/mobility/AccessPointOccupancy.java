@@ -0,0 +1,90 @@
+/*
+ * Title:        EdgeCloudSim - Access Point Occupancy
+ *
+ * Description:
+ * AccessPointOccupancy keeps the number of mobile devices connected
+ * to each access point as a step function of time. Mobility models
+ * which know the trajectories in advance record every arrival and
+ * departure here, so that the number of clients in a place can be
+ * found with a binary search instead of scanning all devices.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.mobility;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class AccessPointOccupancy {
+	private List<TreeMap<Double, Integer>> pendingChanges;
+
+	//following arrays are filled after build() is called
+	//deviceCounts[ap][k] is valid in [changeTimes[ap][k], changeTimes[ap][k+1])
+	private double[][] changeTimes;
+	private int[][] deviceCounts;
+
+	public AccessPointOccupancy(int numOfAccessPoints) {
+		pendingChanges = new ArrayList<TreeMap<Double, Integer>>(numOfAccessPoints);
+		for(int i=0; i<numOfAccessPoints; i++)
+			pendingChanges.add(new TreeMap<Double, Integer>());
+	}
+
+	/*
+	 * records that a device is connected to the access point at the given time
+	 */
+	public void deviceArrived(int wlanId, double time) {
+		pendingChanges.get(wlanId).merge(time, 1, Integer::sum);
+	}
+
+	/*
+	 * records that a device is disconnected from the access point at the given time
+	 */
+	public void deviceLeft(int wlanId, double time) {
+		pendingChanges.get(wlanId).merge(time, -1, Integer::sum);
+	}
+
+	/*
+	 * converts recorded arrivals and departures to cumulative device counts
+	 * must be called once after all changes are recorded
+	 */
+	public void build() {
+		changeTimes = new double[pendingChanges.size()][];
+		deviceCounts = new int[pendingChanges.size()][];
+
+		for(int i=0; i<pendingChanges.size(); i++) {
+			changeTimes[i] = new double[pendingChanges.get(i).size()];
+			deviceCounts[i] = new int[pendingChanges.get(i).size()];
+
+			int index = 0;
+			int deviceCount = 0;
+			for(Map.Entry<Double, Integer> entry : pendingChanges.get(i).entrySet()) {
+				deviceCount += entry.getValue();
+				changeTimes[i][index] = entry.getKey();
+				deviceCounts[i][index] = deviceCount;
+				index++;
+			}
+		}
+
+		//tree maps are not needed anymore
+		pendingChanges = null;
+	}
+
+	/*
+	 * returns number of devices connected to the access point at a certain time
+	 */
+	public int getDeviceCount(int wlanId, double time) {
+		double[] times = changeTimes[wlanId];
+		int index = Arrays.binarySearch(times, time);
+
+		//if the exact time is not found, use the last change before it
+		if(index < 0)
+			index = -index - 2;
+
+		return (index < 0) ? 0 : deviceCounts[wlanId][index];
+	}
+}
@@ -0,0 +1,25 @@
+/*
+ * Title:        EdgeCloudSim - Handover Listener
+ *
+ * Description:
+ * HandoverListener is notified by SimManager whenever a mobile device
+ * is connected to another access point. The network model, the edge
+ * orchestrator and the mobile device manager are registered
+ * automatically if they implement this interface, so they can keep
+ * the per access point state up to date without polling the mobility
+ * model. Handover events are scheduled only if there is a listener and
+ * the mobility model supports handover notifications.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.mobility;
+
+public interface HandoverListener {
+	/*
+	 * called when the serving access point of the device is changed
+	 * previousWlanId is -1 when the device is located for the first time
+	 */
+	public void handoverOccurred(int deviceId, int previousWlanId, int newWlanId, double time);
+}
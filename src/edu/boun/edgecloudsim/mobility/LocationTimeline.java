@@ -0,0 +1,160 @@
+/*
+ * Title:        EdgeCloudSim - Location Timeline
+ *
+ * Description:
+ * LocationTimeline keeps the trajectories of all mobile devices in
+ * primitive arrays (compressed sparse row layout). The waypoints of a
+ * device are stored in consecutive entries sorted by time; each entry
+ * keeps the time of the waypoint and the index of the place, which is
+ * the edge datacenter index for the nomadic mobility model.
+ *
+ * The simulation mostly queries the location of a device at increasing
+ * times, so the last found waypoint of each device is kept as a cursor
+ * and checked before the binary search.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.mobility;
+
+import java.util.Arrays;
+
+public class LocationTimeline {
+	private static final int INITIAL_CAPACITY = 1024;
+
+	//waypoints of device i are in [deviceOffsets[i], deviceOffsets[i+1])
+	private int[] deviceOffsets;
+	private double[] times;
+	private int[] placeIndexes;
+	private int[] cursors;
+	private int numOfWaypoints;
+	private int lastDeviceId;
+
+	public LocationTimeline(int numOfDevices) {
+		deviceOffsets = new int[numOfDevices + 1];
+		cursors = new int[numOfDevices];
+		times = new double[INITIAL_CAPACITY];
+		placeIndexes = new int[INITIAL_CAPACITY];
+		numOfWaypoints = 0;
+		lastDeviceId = 0;
+	}
+
+	/*
+	 * adds a waypoint to the end of the trajectory of the device
+	 * waypoints should be added in the order of device id and time
+	 * if the time is equal to the last waypoint, the last one is replaced
+	 */
+	public void addWaypoint(int deviceId, double time, int placeIndex) {
+		if(deviceId < lastDeviceId)
+			throw new IllegalArgumentException("waypoints should be added in the order of device id");
+
+		//close the trajectories of the previous devices
+		while(lastDeviceId < deviceId){
+			lastDeviceId++;
+			deviceOffsets[lastDeviceId] = numOfWaypoints;
+		}
+
+		int start = deviceOffsets[deviceId];
+		if(numOfWaypoints > start){
+			double lastTime = times[numOfWaypoints-1];
+			if(time < lastTime)
+				throw new IllegalArgumentException("waypoints should be added in the order of time");
+			if(time == lastTime){
+				placeIndexes[numOfWaypoints-1] = placeIndex;
+				return;
+			}
+		}
+
+		if(numOfWaypoints == times.length){
+			times = Arrays.copyOf(times, times.length * 2);
+			placeIndexes = Arrays.copyOf(placeIndexes, placeIndexes.length * 2);
+		}
+
+		times[numOfWaypoints] = time;
+		placeIndexes[numOfWaypoints] = placeIndex;
+		numOfWaypoints++;
+	}
+
+	/*
+	 * closes the trajectories and releases the unused capacity
+	 * must be called once after all waypoints are added
+	 */
+	public void build() {
+		while(lastDeviceId < cursors.length){
+			lastDeviceId++;
+			deviceOffsets[lastDeviceId] = numOfWaypoints;
+		}
+
+		times = Arrays.copyOf(times, numOfWaypoints);
+		placeIndexes = Arrays.copyOf(placeIndexes, numOfWaypoints);
+
+		for(int i=0; i<cursors.length; i++)
+			cursors[i] = deviceOffsets[i];
+	}
+
+	public int getNumOfDevices() {
+		return cursors.length;
+	}
+
+	/*
+	 * returns the index of the last waypoint of the device which is not
+	 * after the given time, -1 if the time is before the first waypoint
+	 */
+	public int getWaypointIndex(int deviceId, double time) {
+		int start = deviceOffsets[deviceId];
+		int end = deviceOffsets[deviceId+1];
+		int cursor = cursors[deviceId];
+
+		if(start == end || time < times[start])
+			return -1;
+
+		//check the last found waypoint and the next one first
+		if(times[cursor] <= time){
+			if(cursor+1 == end || time < times[cursor+1])
+				return cursor;
+			if(cursor+2 == end || time < times[cursor+2]){
+				cursors[deviceId] = cursor+1;
+				return cursor+1;
+			}
+		}
+
+		int index = Arrays.binarySearch(times, start, end, time);
+
+		//if the exact time is not found, use the last waypoint before it
+		if(index < 0)
+			index = -index - 2;
+
+		//equal times are not stored, so the found waypoint is unique
+		cursors[deviceId] = index;
+		return index;
+	}
+
+	/*
+	 * returns the place of the device at the given time, -1 if the time
+	 * is before the first waypoint of the device
+	 */
+	public int getPlaceIndex(int deviceId, double time) {
+		int index = getWaypointIndex(deviceId, time);
+		return (index < 0) ? -1 : placeIndexes[index];
+	}
+
+	/*
+	 * waypoints of the device are in [getFirstWaypoint, getLastWaypoint]
+	 */
+	public int getFirstWaypoint(int deviceId) {
+		return deviceOffsets[deviceId];
+	}
+
+	public int getLastWaypoint(int deviceId) {
+		return deviceOffsets[deviceId+1] - 1;
+	}
+
+	public double getWaypointTime(int waypointIndex) {
+		return times[waypointIndex];
+	}
+
+	public int getWaypointPlace(int waypointIndex) {
+		return placeIndexes[waypointIndex];
+	}
+}
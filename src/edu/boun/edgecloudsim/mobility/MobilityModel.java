@@ -13,11 +13,15 @@
 
 package edu.boun.edgecloudsim.mobility;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import edu.boun.edgecloudsim.utils.Location;
 
 public abstract class MobilityModel {
 	protected int numberOfMobileDevices;
 	protected double simulationTime;
+	private List<HandoverListener> handoverListeners = new ArrayList<HandoverListener>();
 	
 	public MobilityModel(int _numberOfMobileDevices, double _simulationTime){
 		numberOfMobileDevices=_numberOfMobileDevices;
@@ -39,4 +43,72 @@ public abstract class MobilityModel {
 	 * returns location of a device at a certain time
 	 */
 	public abstract Location getLocation(int deviceId, double time);
+
+	/*
+	 * following methods return a single value of the location of a device
+	 * at a certain time; mobility models which create a new Location for
+	 * each query should override them to avoid creating garbage
+	 */
+	public int getServingWlanId(int deviceId, double time) {
+		return getLocation(deviceId, time).getServingWlanId();
+	}
+
+	public int getXPos(int deviceId, double time) {
+		return getLocation(deviceId, time).getXPos();
+	}
+
+	public int getYPos(int deviceId, double time) {
+		return getLocation(deviceId, time).getYPos();
+	}
+
+	/*
+	 * returns number of devices connected to the given access point at a certain time
+	 * default implementation scans all devices, mobility models which know the
+	 * trajectories in advance should override it with a faster lookup
+	 */
+	public int getDeviceCount(int wlanId, double time) {
+		int deviceCount = 0;
+
+		for(int i=0; i<numberOfMobileDevices; i++) {
+			if(getServingWlanId(i,time) == wlanId)
+				deviceCount++;
+		}
+
+		return deviceCount;
+	}
+
+	/*
+	 * mobility models which can find the next time when the serving access
+	 * point of a device changes should return true and override
+	 * getNextHandoverTime(), so that handover events can be scheduled
+	 */
+	public boolean isHandoverNotificationSupported() {
+		return false;
+	}
+
+	/*
+	 * returns the first time after the given time at which the serving
+	 * access point of the device may change, Double.MAX_VALUE if it does
+	 * not change anymore; a negative time is given to find the time when
+	 * the device is located for the first time
+	 */
+	public double getNextHandoverTime(int deviceId, double time) {
+		return Double.MAX_VALUE;
+	}
+
+	public void addHandoverListener(HandoverListener listener) {
+		handoverListeners.add(listener);
+	}
+
+	public boolean hasHandoverListeners() {
+		return !handoverListeners.isEmpty();
+	}
+
+	/*
+	 * called by SimManager when a handover event is processed
+	 */
+	public void notifyHandover(int deviceId, int previousWlanId, int newWlanId, double time) {
+		for(int i=0; i<handoverListeners.size(); i++)
+			handoverListeners.get(i).handoverOccurred(deviceId, previousWlanId, newWlanId, time);
+	}
 }
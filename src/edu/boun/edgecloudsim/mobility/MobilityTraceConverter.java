@@ -0,0 +1,248 @@
+/*
+ * Title:        EdgeCloudSim - Mobility Trace Converter
+ *
+ * Description:
+ * MobilityTraceConverter converts a CSV trace of vehicles or pedestrians
+ * to the indexed binary format read by MobilityTraceFile. Each line of
+ * the CSV file should contain timestamp (seconds from the start of the
+ * simulation), device, x and y (meters) separated by commas; empty
+ * lines, lines starting with '#' and a header line are skipped.
+ *
+ * The devices are numbered in the order of their first appearance in
+ * the CSV file, and the mapping is written to a .devices file next to
+ * the output file. The input is read twice: the records of each device
+ * are counted first, then each record is written directly to its place
+ * in the memory mapped output file, so only the record counts of the
+ * devices are kept in the heap.
+ *
+ * Usage: java MobilityTraceConverter <trace.csv> <trace.bin>
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.mobility;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.boun.edgecloudsim.core.SimSettings;
+
+public class MobilityTraceConverter {
+	private Map<String, Integer> deviceIndexes = new HashMap<String, Integer>();
+	private List<String> deviceNames = new ArrayList<String>();
+	private long[] recordCounts = new long[1024];
+
+	public static void main(String[] args) {
+		if(args.length != 2){
+			System.out.println("Usage: MobilityTraceConverter <trace.csv> <trace.bin>");
+			System.exit(1);
+		}
+
+		try {
+			MobilityTraceConverter converter = new MobilityTraceConverter();
+			long numOfRecords = converter.convert(args[0], args[1]);
+			System.out.println(numOfRecords + " records of " + converter.deviceNames.size() +
+					" devices are converted to " + args[1]);
+		} catch (IOException e) {
+			e.printStackTrace();
+			System.exit(1);
+		}
+	}
+
+	/*
+	 * converts the CSV trace to the binary trace, returns the number of records
+	 */
+	public long convert(String csvFile, String binFile) throws IOException {
+		//first pass: find the devices and count their records
+		long numOfRecords = 0;
+		BufferedReader reader = new BufferedReader(new FileReader(csvFile));
+		try {
+			String line;
+			long lineNumber = 0;
+			while((line = reader.readLine()) != null){
+				lineNumber++;
+				String[] fields = parseLine(line, lineNumber);
+				if(fields == null)
+					continue;
+
+				int device = getDeviceIndex(fields[1].trim());
+				recordCounts[device]++;
+				numOfRecords++;
+			}
+		}
+		finally {
+			reader.close();
+		}
+
+		int numOfDevices = deviceNames.size();
+		long[] deviceOffsets = new long[numOfDevices + 1];
+		for(int i=0; i<numOfDevices; i++)
+			deviceOffsets[i+1] = deviceOffsets[i] + recordCounts[i];
+
+		RandomAccessFile file = new RandomAccessFile(binFile, "rw");
+		try {
+			FileChannel channel = file.getChannel();
+			file.setLength(MobilityTraceFile.getRecordsPosition(numOfDevices) + numOfRecords * MobilityTraceFile.RECORD_SIZE);
+
+			ByteBuffer header = ByteBuffer.allocate((int)MobilityTraceFile.getRecordsPosition(numOfDevices));
+			header.putInt(MobilityTraceFile.MAGIC_NUMBER);
+			header.putInt(MobilityTraceFile.VERSION);
+			header.putInt(numOfDevices);
+			header.putInt(0);
+			for(int i=0; i<=numOfDevices; i++)
+				header.putLong(deviceOffsets[i]);
+			header.flip();
+			while(header.hasRemaining())
+				channel.write(header, header.position());
+
+			//second pass: write each record to the next free place of its device
+			MappedByteBuffer[] segments = MobilityTraceFile.mapRecords(channel, FileChannel.MapMode.READ_WRITE, numOfDevices, numOfRecords);
+			long[] nextRecords = Arrays.copyOf(deviceOffsets, numOfDevices);
+			boolean[] sorted = new boolean[numOfDevices];
+			Arrays.fill(sorted, true);
+
+			reader = new BufferedReader(new FileReader(csvFile));
+			try {
+				String line;
+				long lineNumber = 0;
+				while((line = reader.readLine()) != null){
+					lineNumber++;
+					String[] fields = parseLine(line, lineNumber);
+					if(fields == null)
+						continue;
+
+					int device = deviceIndexes.get(fields[1].trim());
+					long record = nextRecords[device]++;
+					double time = Double.parseDouble(fields[0].trim());
+					if(record > deviceOffsets[device] && time < getTime(segments, record - 1))
+						sorted[device] = false;
+
+					putRecord(segments, record, time,
+							(int)Math.round(Double.parseDouble(fields[2].trim())),
+							(int)Math.round(Double.parseDouble(fields[3].trim())));
+				}
+			}
+			finally {
+				reader.close();
+			}
+
+			//the records of a device are sorted in the heap only if they are not in order
+			for(int i=0; i<numOfDevices; i++)
+				if(!sorted[i])
+					sortRecords(segments, deviceOffsets[i], deviceOffsets[i+1]);
+
+			for(int i=0; i<segments.length; i++)
+				segments[i].force();
+		}
+		finally {
+			file.close();
+		}
+
+		writeDeviceNames(binFile + ".devices");
+		return numOfRecords;
+	}
+
+	/*
+	 * returns the fields of the line, null if the line should be skipped
+	 */
+	private String[] parseLine(String line, long lineNumber) throws IOException {
+		String trimmed = line.trim();
+		if(trimmed.isEmpty() || trimmed.startsWith("#"))
+			return null;
+
+		String[] fields = trimmed.split(",");
+		if(fields.length < 4)
+			throw new IOException("line " + lineNumber + " should contain timestamp, device, x and y!");
+
+		try {
+			Double.parseDouble(fields[0].trim());
+		} catch (NumberFormatException e) {
+			//header line
+			if(lineNumber == 1)
+				return null;
+			throw new IOException("invalid timestamp at line " + lineNumber + "!");
+		}
+
+		return fields;
+	}
+
+	private int getDeviceIndex(String deviceName) {
+		Integer index = deviceIndexes.get(deviceName);
+		if(index == null){
+			index = deviceNames.size();
+			deviceIndexes.put(deviceName, index);
+			deviceNames.add(deviceName);
+			if(index == recordCounts.length)
+				recordCounts = Arrays.copyOf(recordCounts, recordCounts.length * 2);
+		}
+		return index;
+	}
+
+	private void writeDeviceNames(String file) throws IOException {
+		BufferedWriter bw = new BufferedWriter(new FileWriter(file, false));
+		try {
+			bw.write("#device index" + SimSettings.DELIMITER + "device in the CSV trace");
+			bw.newLine();
+			for(int i=0; i<deviceNames.size(); i++){
+				bw.write(i + SimSettings.DELIMITER + deviceNames.get(i));
+				bw.newLine();
+			}
+		}
+		finally {
+			bw.close();
+		}
+	}
+
+	private static double getTime(MappedByteBuffer[] segments, long record) {
+		return MobilityTraceFile.getSegment(segments, record).getDouble(MobilityTraceFile.getPositionInSegment(record));
+	}
+
+	private static void putRecord(MappedByteBuffer[] segments, long record, double time, int x, int y) {
+		ByteBuffer segment = MobilityTraceFile.getSegment(segments, record);
+		int position = MobilityTraceFile.getPositionInSegment(record);
+		segment.putDouble(position, time);
+		segment.putInt(position + 8, x);
+		segment.putInt(position + 12, y);
+	}
+
+	/*
+	 * sorts the records in [first, end) by time, records having the same
+	 * time are kept in the order of the CSV file
+	 */
+	private static void sortRecords(MappedByteBuffer[] segments, long first, long end) throws IOException {
+		if(end - first > Integer.MAX_VALUE)
+			throw new IOException("too many records for a single device!");
+
+		int numOfRecords = (int)(end - first);
+		double[] times = new double[numOfRecords];
+		int[] xPositions = new int[numOfRecords];
+		int[] yPositions = new int[numOfRecords];
+		Integer[] order = new Integer[numOfRecords];
+		for(int i=0; i<numOfRecords; i++){
+			ByteBuffer segment = MobilityTraceFile.getSegment(segments, first + i);
+			int position = MobilityTraceFile.getPositionInSegment(first + i);
+			times[i] = segment.getDouble(position);
+			xPositions[i] = segment.getInt(position + 8);
+			yPositions[i] = segment.getInt(position + 12);
+			order[i] = i;
+		}
+
+		Arrays.sort(order, (a, b) -> Double.compare(times[a], times[b]));
+
+		for(int i=0; i<numOfRecords; i++)
+			putRecord(segments, first + i, times[order[i]], xPositions[order[i]], yPositions[order[i]]);
+	}
+}
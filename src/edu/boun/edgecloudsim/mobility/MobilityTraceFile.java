@@ -0,0 +1,143 @@
+/*
+ * Title:        EdgeCloudSim - Mobility Trace File
+ *
+ * Description:
+ * MobilityTraceFile reads the indexed binary trajectory files created
+ * by MobilityTraceConverter. The records are memory mapped instead of
+ * being loaded to the heap, so traces larger than the heap can be used;
+ * the operating system loads the pages of the file when they are read.
+ *
+ * File format (big endian):
+ * header : magic number (int), version (int), number of devices (int),
+ *          reserved (int)
+ * index  : first record of each device (long), followed by the total
+ *          number of records (long)
+ * records: time in seconds (double), x position (int), y position (int)
+ * The records of each device are consecutive and sorted by time.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.mobility;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+public class MobilityTraceFile {
+	public static final int MAGIC_NUMBER = 0x4543544D; //"ECTM"
+	public static final int VERSION = 1;
+	public static final int HEADER_SIZE = 16;
+	public static final int RECORD_SIZE = 16;
+
+	//a mapped buffer cannot be larger than 2GB, so the records are mapped in segments
+	private static final int SEGMENT_SHIFT = 26; //records per segment (1GB)
+	private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+
+	private final long[] deviceOffsets;
+	private final MappedByteBuffer[] segments;
+
+	private MobilityTraceFile(long[] _deviceOffsets, MappedByteBuffer[] _segments) {
+		deviceOffsets = _deviceOffsets;
+		segments = _segments;
+	}
+
+	/*
+	 * opens the trace file, only the index of the devices is read to the heap
+	 */
+	public static MobilityTraceFile open(String path) throws IOException {
+		RandomAccessFile file = new RandomAccessFile(path, "r");
+		try {
+			FileChannel channel = file.getChannel();
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+			readFully(channel, header, 0);
+			if(header.getInt() != MAGIC_NUMBER || header.getInt() != VERSION)
+				throw new IOException(path + " is not a valid mobility trace file!");
+
+			int numOfDevices = header.getInt();
+			ByteBuffer index = ByteBuffer.allocate(8 * (numOfDevices + 1));
+			readFully(channel, index, HEADER_SIZE);
+			long[] deviceOffsets = new long[numOfDevices + 1];
+			for(int i=0; i<=numOfDevices; i++)
+				deviceOffsets[i] = index.getLong();
+
+			long numOfRecords = deviceOffsets[numOfDevices];
+			if(channel.size() < getRecordsPosition(numOfDevices) + numOfRecords * RECORD_SIZE)
+				throw new IOException("unexpected end of mobility trace file " + path + "!");
+
+			return new MobilityTraceFile(deviceOffsets, mapRecords(channel, FileChannel.MapMode.READ_ONLY, numOfDevices, numOfRecords));
+		}
+		finally {
+			//mapped buffers are still valid after the file is closed
+			file.close();
+		}
+	}
+
+	/*
+	 * returns the position of the first record in the file
+	 */
+	public static long getRecordsPosition(int numOfDevices) {
+		return HEADER_SIZE + 8L * (numOfDevices + 1);
+	}
+
+	/*
+	 * maps the records of the file in segments
+	 */
+	static MappedByteBuffer[] mapRecords(FileChannel channel, FileChannel.MapMode mode, int numOfDevices, long numOfRecords) throws IOException {
+		long recordsPosition = getRecordsPosition(numOfDevices);
+		int numOfSegments = (int)((numOfRecords + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+		MappedByteBuffer[] segments = new MappedByteBuffer[numOfSegments];
+		for(int i=0; i<numOfSegments; i++){
+			long firstRecord = (long)i << SEGMENT_SHIFT;
+			long segmentRecords = Math.min(numOfRecords - firstRecord, 1L << SEGMENT_SHIFT);
+			segments[i] = channel.map(mode, recordsPosition + firstRecord * RECORD_SIZE, segmentRecords * RECORD_SIZE);
+		}
+		return segments;
+	}
+
+	private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+		while(buffer.hasRemaining()){
+			if(channel.read(buffer, position + buffer.position()) < 0)
+				throw new IOException("unexpected end of mobility trace file!");
+		}
+		buffer.flip();
+	}
+
+	static ByteBuffer getSegment(MappedByteBuffer[] segments, long record) {
+		return segments[(int)(record >>> SEGMENT_SHIFT)];
+	}
+
+	static int getPositionInSegment(long record) {
+		return (int)(record & SEGMENT_MASK) * RECORD_SIZE;
+	}
+
+	public int getNumOfDevices() {
+		return deviceOffsets.length - 1;
+	}
+
+	/*
+	 * records of the device are in [getFirstRecord, getLastRecord]
+	 */
+	public long getFirstRecord(int traceDeviceId) {
+		return deviceOffsets[traceDeviceId];
+	}
+
+	public long getLastRecord(int traceDeviceId) {
+		return deviceOffsets[traceDeviceId + 1] - 1;
+	}
+
+	public double getTime(long record) {
+		return getSegment(segments, record).getDouble(getPositionInSegment(record));
+	}
+
+	public int getXPos(long record) {
+		return getSegment(segments, record).getInt(getPositionInSegment(record) + 8);
+	}
+
+	public int getYPos(long record) {
+		return getSegment(segments, record).getInt(getPositionInSegment(record) + 12);
+	}
+}
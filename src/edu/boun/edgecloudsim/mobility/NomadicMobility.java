@@ -12,24 +12,20 @@
 
 package edu.boun.edgecloudsim.mobility;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.TreeMap;
-import java.util.Map.Entry;
-
 import org.apache.commons.math3.distribution.ExponentialDistribution;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
 
+import edu.boun.edgecloudsim.core.EdgeTopology;
 import edu.boun.edgecloudsim.core.SimSettings;
 import edu.boun.edgecloudsim.utils.Location;
+import edu.boun.edgecloudsim.utils.RandomStream;
+import edu.boun.edgecloudsim.utils.RandomStreams;
 import edu.boun.edgecloudsim.utils.SimLogger;
 import edu.boun.edgecloudsim.utils.SimUtils;
 
 public class NomadicMobility extends MobilityModel {
-	private List<TreeMap<Double, Location>> treeMapArray;
+	private LocationTimeline timeline;
+	private EdgeTopology topology;
+	private AccessPointOccupancy accessPointOccupancy;
 	
 	public NomadicMobility(int _numberOfMobileDevices, double _simulationTime) {
 		super(_numberOfMobileDevices, _simulationTime);
@@ -38,63 +34,46 @@ public class NomadicMobility extends MobilityModel {
 	
 	@Override
 	public void initialize() {
-		treeMapArray = new ArrayList<TreeMap<Double, Location>>();
-		
-		ExponentialDistribution[] expRngList = new ExponentialDistribution[SimSettings.getInstance().getNumOfEdgeDatacenters()];
-
-		//create random number generator for each place
-		Document doc = SimSettings.getInstance().getEdgeDevicesDocument();
-		NodeList datacenterList = doc.getElementsByTagName("datacenter");
-		for (int i = 0; i < datacenterList.getLength(); i++) {
-			Node datacenterNode = datacenterList.item(i);
-			Element datacenterElement = (Element) datacenterNode;
-			Element location = (Element)datacenterElement.getElementsByTagName("location").item(0);
-			String attractiveness = location.getElementsByTagName("attractiveness").item(0).getTextContent();
-			int placeTypeIndex = Integer.parseInt(attractiveness);
+		//find the mean waiting time of each place
+		double[] meanWaitingTimes = new double[SimSettings.getInstance().getNumOfEdgeDatacenters()];
+		topology = SimSettings.getInstance().getEdgeTopology();
+		for (int i = 0; i < topology.getNumOfDatacenters(); i++) {
+			int placeTypeIndex = topology.getLocation(i).getPlaceTypeIndex();
 			
-			expRngList[i] = new ExponentialDistribution(SimSettings.getInstance().getMobilityLookUpTable()[placeTypeIndex]);
+			meanWaitingTimes[i] = SimSettings.getInstance().getMobilityLookUpTable()[placeTypeIndex];
 		}
 		
-		//initialize tree maps and position of mobile devices
+		//the place of a waypoint is the index of the edge datacenter
+		timeline = new LocationTimeline(numberOfMobileDevices);
+		
 		for(int i=0; i<numberOfMobileDevices; i++) {
-			treeMapArray.add(i, new TreeMap<Double, Location>());
+			//each device moves according to its own random stream
+			RandomStream rng = RandomStreams.getStream(RandomStreams.MOBILITY, i);
 			
-			int randDatacenterId = SimUtils.getRandomNumber(0, SimSettings.getInstance().getNumOfEdgeDatacenters()-1);
-			Node datacenterNode = datacenterList.item(randDatacenterId);
-			Element datacenterElement = (Element) datacenterNode;
-			Element location = (Element)datacenterElement.getElementsByTagName("location").item(0);
-			String attractiveness = location.getElementsByTagName("attractiveness").item(0).getTextContent();
-			int placeTypeIndex = Integer.parseInt(attractiveness);
-			int wlan_id = Integer.parseInt(location.getElementsByTagName("wlan_id").item(0).getTextContent());
-			int x_pos = Integer.parseInt(location.getElementsByTagName("x_pos").item(0).getTextContent());
-			int y_pos = Integer.parseInt(location.getElementsByTagName("y_pos").item(0).getTextContent());
+			int randDatacenterId = SimUtils.getRandomNumber(rng, 0, SimSettings.getInstance().getNumOfEdgeDatacenters()-1);
 
 			//start locating user shortly after the simulation started (e.g. 10 seconds)
-			treeMapArray.get(i).put(SimSettings.CLIENT_ACTIVITY_START_TIME, new Location(placeTypeIndex, wlan_id, x_pos, y_pos));
-		}
-		
-		for(int i=0; i<numberOfMobileDevices; i++) {
-			TreeMap<Double, Location> treeMap = treeMapArray.get(i);
+			double lastTime = SimSettings.CLIENT_ACTIVITY_START_TIME;
+			int lastDatacenterId = randDatacenterId;
+			timeline.addWaypoint(i, lastTime, lastDatacenterId);
+			
+			//create random number generator for each place
+			ExponentialDistribution[] expRngList = new ExponentialDistribution[meanWaitingTimes.length];
+			for (int j = 0; j < meanWaitingTimes.length; j++)
+				expRngList[j] = new ExponentialDistribution(rng, meanWaitingTimes[j]);
 
-			while(treeMap.lastKey() < SimSettings.getInstance().getSimulationTime()) {				
+			while(lastTime < SimSettings.getInstance().getSimulationTime()) {				
 				boolean placeFound = false;
-				int currentLocationId = treeMap.lastEntry().getValue().getServingWlanId();
+				int currentLocationId = topology.getLocation(lastDatacenterId).getServingWlanId();
 				double waitingTime = expRngList[currentLocationId].sample();
 				
 				while(placeFound == false){
-					int newDatacenterId = SimUtils.getRandomNumber(0,SimSettings.getInstance().getNumOfEdgeDatacenters()-1);
+					int newDatacenterId = SimUtils.getRandomNumber(rng, 0,SimSettings.getInstance().getNumOfEdgeDatacenters()-1);
 					if(newDatacenterId != currentLocationId){
 						placeFound = true;
-						Node datacenterNode = datacenterList.item(newDatacenterId);
-						Element datacenterElement = (Element) datacenterNode;
-						Element location = (Element)datacenterElement.getElementsByTagName("location").item(0);
-						String attractiveness = location.getElementsByTagName("attractiveness").item(0).getTextContent();
-						int placeTypeIndex = Integer.parseInt(attractiveness);
-						int wlan_id = Integer.parseInt(location.getElementsByTagName("wlan_id").item(0).getTextContent());
-						int x_pos = Integer.parseInt(location.getElementsByTagName("x_pos").item(0).getTextContent());
-						int y_pos = Integer.parseInt(location.getElementsByTagName("y_pos").item(0).getTextContent());
-						
-						treeMap.put(treeMap.lastKey()+waitingTime, new Location(placeTypeIndex, wlan_id, x_pos, y_pos));
+						lastTime += waitingTime;
+						lastDatacenterId = newDatacenterId;
+						timeline.addWaypoint(i, lastTime, lastDatacenterId);
 					}
 				}
 				if(!placeFound){
@@ -103,21 +82,62 @@ public class NomadicMobility extends MobilityModel {
 				}
 			}
 		}
+		timeline.build();
 
+		//record arrivals and departures of each device to find number of clients in a place quickly
+		accessPointOccupancy = new AccessPointOccupancy(SimSettings.getInstance().getNumOfEdgeDatacenters());
+		for(int i=0; i<numberOfMobileDevices; i++) {
+			int previousWlanId = -1;
+			for(int j=timeline.getFirstWaypoint(i); j<=timeline.getLastWaypoint(i); j++) {
+				double time = timeline.getWaypointTime(j);
+				int wlanId = topology.getLocation(timeline.getWaypointPlace(j)).getServingWlanId();
+				if(previousWlanId != -1)
+					accessPointOccupancy.deviceLeft(previousWlanId, time);
+				accessPointOccupancy.deviceArrived(wlanId, time);
+				previousWlanId = wlanId;
+			}
+		}
+		accessPointOccupancy.build();
 	}
 
 	@Override
 	public Location getLocation(int deviceId, double time) {
-		TreeMap<Double, Location> treeMap = treeMapArray.get(deviceId);
-		
-		Entry<Double, Location> e = treeMap.floorEntry(time);
+		int datacenterId = timeline.getPlaceIndex(deviceId, time);
 	    
-	    if(e == null){
+	    if(datacenterId < 0){
 	    	SimLogger.printLine("impossible is occurred! no location is found for the device '" + deviceId + "' at " + time);
 	    	System.exit(1);
 	    }
 	    
-		return e.getValue();
+		return topology.getLocation(datacenterId);
+	}
+
+	@Override
+	public boolean isHandoverNotificationSupported() {
+		return true;
+	}
+
+	@Override
+	public double getNextHandoverTime(int deviceId, double time) {
+		int index = timeline.getWaypointIndex(deviceId, time);
+
+		//the device is not located yet
+		if(index < 0)
+			return timeline.getWaypointTime(timeline.getFirstWaypoint(deviceId));
+
+		//skip the waypoints which are served by the same access point
+		int wlanId = topology.getLocation(timeline.getWaypointPlace(index)).getServingWlanId();
+		for(int i=index+1; i<=timeline.getLastWaypoint(deviceId); i++) {
+			if(topology.getLocation(timeline.getWaypointPlace(i)).getServingWlanId() != wlanId)
+				return timeline.getWaypointTime(i);
+		}
+
+		return Double.MAX_VALUE;
+	}
+
+	@Override
+	public int getDeviceCount(int wlanId, double time) {
+		return accessPointOccupancy.getDeviceCount(wlanId, time);
 	}
 
 }
@@ -0,0 +1,196 @@
+/*
+ * Title:        EdgeCloudSim - Trace Mobility model implementation
+ *
+ * Description:
+ * TraceMobility replays the trajectories of real vehicles or pedestrians
+ * from a binary trace file created by MobilityTraceConverter. The file
+ * is given by the mobility_trace_file property and it is memory mapped,
+ * so the records are not loaded to the heap.
+ *
+ * Mobile device i follows trace device (i mod number of trace devices).
+ * The position of a device is the position in its last record which is
+ * not after the given time (or the first record before the trace of the
+ * device starts), and the device is served by the edge datacenter which
+ * is nearest to that position. The devices which are out of the WLAN
+ * range of all datacenters stay connected to the nearest datacenter,
+ * the datacenters covering a device can be found by
+ * getDatacentersInRange().
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.mobility;
+
+import java.io.IOException;
+
+import edu.boun.edgecloudsim.core.EdgeTopology;
+import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.utils.Location;
+import edu.boun.edgecloudsim.utils.SimLogger;
+
+public class TraceMobility extends MobilityModel {
+	private MobilityTraceFile trace;
+	private EdgeTopology topology;
+	private AccessPointGrid accessPointGrid;
+	private AccessPointOccupancy accessPointOccupancy;
+
+	//last found record of each device, the simulation mostly queries increasing times
+	private long[] cursors;
+
+	public TraceMobility(int _numberOfMobileDevices, double _simulationTime) {
+		super(_numberOfMobileDevices, _simulationTime);
+	}
+
+	@Override
+	public void initialize() {
+		String traceFile = SimSettings.getInstance().getMobilityTraceFile();
+		try {
+			trace = MobilityTraceFile.open(traceFile);
+		} catch (IOException e) {
+			SimLogger.printLine("Mobility trace file '" + traceFile + "' cannot be read! Terminating simulation...");
+			e.printStackTrace();
+			System.exit(1);
+		}
+
+		if(trace.getNumOfDevices() == 0){
+			SimLogger.printLine("Mobility trace file '" + traceFile + "' has no device! Terminating simulation...");
+			System.exit(1);
+		}
+
+		topology = SimSettings.getInstance().getEdgeTopology();
+		accessPointGrid = new AccessPointGrid(topology);
+
+		cursors = new long[numberOfMobileDevices];
+		for(int i=0; i<numberOfMobileDevices; i++)
+			cursors[i] = trace.getFirstRecord(getTraceDevice(i));
+
+		//record arrivals and departures of each device to find number of clients in a place quickly
+		accessPointOccupancy = new AccessPointOccupancy(SimSettings.getInstance().getNumOfEdgeDatacenters());
+		for(int i=0; i<numberOfMobileDevices; i++) {
+			int traceDevice = getTraceDevice(i);
+			int previousWlanId = -1;
+			for(long r=trace.getFirstRecord(traceDevice); r<=trace.getLastRecord(traceDevice); r++) {
+				int wlanId = getServingWlanId(r);
+				if(wlanId == previousWlanId)
+					continue;
+
+				//the device is located at its first position until its trace starts
+				double time = (previousWlanId == -1) ? Double.NEGATIVE_INFINITY : trace.getTime(r);
+				if(previousWlanId != -1)
+					accessPointOccupancy.deviceLeft(previousWlanId, time);
+				accessPointOccupancy.deviceArrived(wlanId, time);
+				previousWlanId = wlanId;
+			}
+		}
+		accessPointOccupancy.build();
+	}
+
+	@Override
+	public Location getLocation(int deviceId, double time) {
+		long record = findRecord(deviceId, time);
+		int x = trace.getXPos(record);
+		int y = trace.getYPos(record);
+		Location accessPoint = topology.getLocation(accessPointGrid.getNearestDatacenter(x, y));
+
+		return new Location(accessPoint.getPlaceTypeIndex(), accessPoint.getServingWlanId(), x, y);
+	}
+
+	@Override
+	public int getServingWlanId(int deviceId, double time) {
+		return getServingWlanId(findRecord(deviceId, time));
+	}
+
+	@Override
+	public int getXPos(int deviceId, double time) {
+		return trace.getXPos(findRecord(deviceId, time));
+	}
+
+	@Override
+	public int getYPos(int deviceId, double time) {
+		return trace.getYPos(findRecord(deviceId, time));
+	}
+
+	@Override
+	public int getDeviceCount(int wlanId, double time) {
+		return accessPointOccupancy.getDeviceCount(wlanId, time);
+	}
+
+	@Override
+	public boolean isHandoverNotificationSupported() {
+		return true;
+	}
+
+	@Override
+	public double getNextHandoverTime(int deviceId, double time) {
+		//devices are located when the simulation starts
+		if(time < 0)
+			return 0;
+
+		long record = findRecord(deviceId, time);
+		int wlanId = getServingWlanId(record);
+		long lastRecord = trace.getLastRecord(getTraceDevice(deviceId));
+		for(long r=record+1; r<=lastRecord; r++) {
+			if(getServingWlanId(r) != wlanId)
+				return trace.getTime(r);
+		}
+
+		return Double.MAX_VALUE;
+	}
+
+	/*
+	 * writes the indexes of the datacenters covering the device to the
+	 * result array and returns their number
+	 */
+	public int getDatacentersInRange(int deviceId, double time, int[] result) {
+		long record = findRecord(deviceId, time);
+		return accessPointGrid.getDatacentersInRange(trace.getXPos(record), trace.getYPos(record), result);
+	}
+
+	private int getTraceDevice(int deviceId) {
+		return deviceId % trace.getNumOfDevices();
+	}
+
+	private int getServingWlanId(long record) {
+		int datacenter = accessPointGrid.getNearestDatacenter(trace.getXPos(record), trace.getYPos(record));
+		return topology.getLocation(datacenter).getServingWlanId();
+	}
+
+	/*
+	 * returns the last record of the device which is not after the given
+	 * time, or the first record if the trace of the device starts later
+	 */
+	private long findRecord(int deviceId, double time) {
+		int traceDevice = getTraceDevice(deviceId);
+		long first = trace.getFirstRecord(traceDevice);
+		long last = trace.getLastRecord(traceDevice);
+		long cursor = cursors[deviceId];
+
+		if(time < trace.getTime(first))
+			return first;
+
+		//check the last found record and the next one first
+		if(trace.getTime(cursor) <= time){
+			if(cursor == last || time < trace.getTime(cursor+1))
+				return cursor;
+			if(cursor+1 == last || time < trace.getTime(cursor+2)){
+				cursors[deviceId] = cursor+1;
+				return cursor+1;
+			}
+		}
+
+		//binary search for the last record which is not after the given time
+		long low = first;
+		long high = last;
+		while(low < high){
+			long middle = (low + high + 1) >>> 1;
+			if(trace.getTime(middle) <= time)
+				low = middle;
+			else
+				high = middle - 1;
+		}
+
+		cursors[deviceId] = low;
+		return low;
+	}
+}
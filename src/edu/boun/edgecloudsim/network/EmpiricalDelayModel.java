@@ -0,0 +1,305 @@
+/*
+ * Title:        EdgeCloudSim - Empirical Delay Model
+ *
+ * Description:
+ * EmpiricalDelayModel calculates the transfer delays from measured
+ * throughput curves. A curve gives the throughput of a client for each
+ * number of clients sharing a link, and there is a separate curve for
+ * each link type and direction. If the curve of a direction is not
+ * given, the curve of the other direction is used.
+ *
+ * The measurements do not need to cover each number of clients; the
+ * missing points are linearly interpolated when the curve is built, so
+ * the throughput is found by a single array access. Beyond the measured
+ * range, the throughput is either extrapolated by a power law fitted to
+ * the last measurements, or it is not available (0 is returned as the
+ * delay, which is handled as a failure by the network models).
+ *
+ * The curves can be loaded from a CSV file; each line should contain
+ * link type (WLAN, MAN, WAN or GSM), direction (UPLOAD or DOWNLOAD),
+ * number of clients and throughput in Kbps separated by commas. Empty
+ * lines, lines starting with '#' and a header line are skipped.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.network;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.Arrays;
+
+import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.core.SimSettings.NETWORK_DELAY_TYPES;
+import edu.boun.edgecloudsim.utils.SimLogger;
+
+public class EmpiricalDelayModel {
+	private boolean extrapolationEnabled;
+	private Curve[] curves;
+
+	/*
+	 * the throughput beyond the measured range is not available if the
+	 * extrapolation is disabled
+	 */
+	public EmpiricalDelayModel(boolean _extrapolationEnabled) {
+		extrapolationEnabled = _extrapolationEnabled;
+		curves = new Curve[NETWORK_DELAY_TYPES.values().length * 2];
+	}
+
+	/*
+	 * creates the model from the measurements kept in the network models,
+	 * throughputs[i] is measured for i+1 clients and the WLAN throughputs
+	 * are multiplied by the given factor; null arrays are skipped and the
+	 * measurements are not extrapolated
+	 */
+	public static EmpiricalDelayModel fromBuiltInTables(double[] wlanDownload, double[] wlanUpload,
+			double[] wanDownload, double[] wanUpload, double wlanFactor) {
+		EmpiricalDelayModel model = new EmpiricalDelayModel(false);
+		if(wlanDownload != null)
+			model.addMeasurements(NETWORK_DELAY_TYPES.WLAN_DELAY, true, wlanDownload, wlanFactor);
+		if(wlanUpload != null)
+			model.addMeasurements(NETWORK_DELAY_TYPES.WLAN_DELAY, false, wlanUpload, wlanFactor);
+		if(wanDownload != null)
+			model.addMeasurements(NETWORK_DELAY_TYPES.WAN_DELAY, true, wanDownload, 1);
+		if(wanUpload != null)
+			model.addMeasurements(NETWORK_DELAY_TYPES.WAN_DELAY, false, wanUpload, 1);
+		return model;
+	}
+
+	/*
+	 * returns the model loaded from the file given by the empirical_delay_file
+	 * property, or the built-in model if the file is not given
+	 */
+	public static EmpiricalDelayModel fromSettings(EmpiricalDelayModel builtInModel) {
+		String file = SimSettings.getInstance().getEmpiricalDelayFile();
+		if(file.isEmpty())
+			return builtInModel;
+
+		EmpiricalDelayModel model = null;
+		try {
+			model = load(file);
+		} catch (IOException e) {
+			SimLogger.printLine("Empirical delay file '" + file + "' cannot be read! Terminating simulation...");
+			e.printStackTrace();
+			System.exit(1);
+		}
+		return model;
+	}
+
+	/*
+	 * loads the curves from the CSV file, the measurements in a file are
+	 * extrapolated
+	 */
+	public static EmpiricalDelayModel load(String file) throws IOException {
+		EmpiricalDelayModel model = new EmpiricalDelayModel(true);
+		BufferedReader reader = new BufferedReader(new FileReader(file));
+		try {
+			String line;
+			long lineNumber = 0;
+			while((line = reader.readLine()) != null){
+				lineNumber++;
+				String trimmed = line.trim();
+				if(trimmed.isEmpty() || trimmed.startsWith("#"))
+					continue;
+
+				String[] fields = trimmed.split(",");
+				if(fields.length < 4)
+					throw new IOException("line " + lineNumber + " should contain link type, direction, number of clients and throughput!");
+
+				int numOfClients;
+				double throughput;
+				try {
+					numOfClients = Integer.parseInt(fields[2].trim());
+					throughput = Double.parseDouble(fields[3].trim());
+				} catch (NumberFormatException e) {
+					//header line
+					if(lineNumber == 1)
+						continue;
+					throw new IOException("invalid number at line " + lineNumber + "!");
+				}
+
+				if(numOfClients < 1 || throughput <= 0)
+					throw new IOException("number of clients and throughput should be positive at line " + lineNumber + "!");
+
+				model.addMeasurement(parseLinkType(fields[0].trim(), lineNumber),
+						parseDirection(fields[1].trim(), lineNumber), numOfClients, throughput);
+			}
+		}
+		finally {
+			reader.close();
+		}
+
+		return model;
+	}
+
+	/*
+	 * adds the throughput (Kbps) measured when the link is shared by the
+	 * given number of clients, a later measurement replaces the previous one
+	 */
+	public void addMeasurement(NETWORK_DELAY_TYPES linkType, boolean forDownload, int numOfClients, double throughput) {
+		int index = getCurveIndex(linkType, forDownload);
+		if(curves[index] == null)
+			curves[index] = new Curve();
+		curves[index].add(numOfClients, throughput);
+	}
+
+	/*
+	 * adds the measurements of 1, 2, ... clients
+	 */
+	public void addMeasurements(NETWORK_DELAY_TYPES linkType, boolean forDownload, double[] throughputs) {
+		addMeasurements(linkType, forDownload, throughputs, 1);
+	}
+
+	/*
+	 * adds the measurements of 1, 2, ... clients multiplied by the factor
+	 */
+	public void addMeasurements(NETWORK_DELAY_TYPES linkType, boolean forDownload, double[] throughputs, double factor) {
+		for(int i=0; i<throughputs.length; i++)
+			addMeasurement(linkType, forDownload, i+1, throughputs[i] * factor);
+	}
+
+	/*
+	 * returns true if there is a curve for any direction of the link
+	 */
+	public boolean isAvailable(NETWORK_DELAY_TYPES linkType) {
+		return curves[getCurveIndex(linkType, false)] != null || curves[getCurveIndex(linkType, true)] != null;
+	}
+
+	/*
+	 * returns the throughput (Kbps) of a client when the link is shared by
+	 * the given number of clients, 0 if it is not available
+	 */
+	public double getThroughput(NETWORK_DELAY_TYPES linkType, boolean forDownload, int numOfClients) {
+		Curve curve = curves[getCurveIndex(linkType, forDownload)];
+		if(curve == null)
+			curve = curves[getCurveIndex(linkType, !forDownload)];
+		if(curve == null)
+			return 0;
+
+		return curve.getThroughput(Math.max(numOfClients, 1), extrapolationEnabled);
+	}
+
+	/*
+	 * returns the transfer delay of the data (KB) in seconds, 0 if the
+	 * throughput is not available
+	 */
+	public double getDelay(NETWORK_DELAY_TYPES linkType, boolean forDownload, int numOfClients, double dataSize) {
+		double throughput = getThroughput(linkType, forDownload, numOfClients);
+		if(throughput <= 0)
+			return 0;
+
+		return dataSize * (double)8 /*Kb*/ / throughput /*Kbps*/;
+	}
+
+	private static int getCurveIndex(NETWORK_DELAY_TYPES linkType, boolean forDownload) {
+		return linkType.ordinal() * 2 + (forDownload ? 1 : 0);
+	}
+
+	private static NETWORK_DELAY_TYPES parseLinkType(String linkType, long lineNumber) throws IOException {
+		String name = linkType.toUpperCase();
+		for(NETWORK_DELAY_TYPES type : NETWORK_DELAY_TYPES.values())
+			if(type.name().equals(name) || type.name().equals(name + "_DELAY"))
+				return type;
+		throw new IOException("unknown link type '" + linkType + "' at line " + lineNumber + "!");
+	}
+
+	private static boolean parseDirection(String direction, long lineNumber) throws IOException {
+		if(direction.equalsIgnoreCase("DOWNLOAD"))
+			return true;
+		if(direction.equalsIgnoreCase("UPLOAD"))
+			return false;
+		throw new IOException("unknown direction '" + direction + "' at line " + lineNumber + "!");
+	}
+
+	private static class Curve {
+		private int numOfMeasurements;
+		private int[] measuredClients = new int[16];
+		private double[] measuredThroughputs = new double[16];
+
+		//throughputs[c] is the throughput for c clients, built when it is first needed
+		private double[] throughputs;
+		//throughput is proportional to (number of clients)^-exponent beyond the measured range
+		private double exponent;
+
+		void add(int numOfClients, double throughput) {
+			if(numOfMeasurements == measuredClients.length){
+				measuredClients = Arrays.copyOf(measuredClients, numOfMeasurements * 2);
+				measuredThroughputs = Arrays.copyOf(measuredThroughputs, numOfMeasurements * 2);
+			}
+			measuredClients[numOfMeasurements] = numOfClients;
+			measuredThroughputs[numOfMeasurements] = throughput;
+			numOfMeasurements++;
+			throughputs = null;
+		}
+
+		double getThroughput(int numOfClients, boolean extrapolationEnabled) {
+			if(throughputs == null)
+				build();
+
+			int maxClients = throughputs.length - 1;
+			if(numOfClients <= maxClients)
+				return throughputs[numOfClients];
+			if(!extrapolationEnabled)
+				return 0;
+			return throughputs[maxClients] * Math.pow((double)maxClients / numOfClients, exponent);
+		}
+
+		private void build() {
+			//the last measurement of each number of clients is used
+			int maxClients = 0;
+			for(int i=0; i<numOfMeasurements; i++)
+				maxClients = Math.max(maxClients, measuredClients[i]);
+			double[] measured = new double[maxClients + 1];
+			for(int i=0; i<numOfMeasurements; i++)
+				measured[measuredClients[i]] = measuredThroughputs[i];
+
+			int numOfPoints = 0;
+			int[] pointClients = new int[maxClients];
+			for(int c=1; c<=maxClients; c++)
+				if(measured[c] > 0)
+					pointClients[numOfPoints++] = c;
+
+			//the throughput before the first measurement is assumed to be same as the first one
+			throughputs = new double[maxClients + 1];
+			for(int c=0; c<=pointClients[0]; c++)
+				throughputs[c] = measured[pointClients[0]];
+			for(int p=1; p<numOfPoints; p++){
+				int first = pointClients[p-1];
+				int last = pointClients[p];
+				for(int c=first+1; c<last; c++)
+					throughputs[c] = measured[first] + (measured[last] - measured[first]) * (c - first) / (last - first);
+				throughputs[last] = measured[last];
+			}
+
+			exponent = fitExponent(measured, pointClients, numOfPoints);
+		}
+
+		/*
+		 * fits log(throughput) = a - exponent * log(clients) to the last
+		 * quarter of the measurements (at least two); the throughput is
+		 * shared equally (exponent is 1) if there is a single measurement
+		 */
+		private static double fitExponent(double[] measured, int[] pointClients, int numOfPoints) {
+			if(numOfPoints < 2)
+				return 1;
+
+			int numOfFitPoints = Math.max(2, (numOfPoints + 3) / 4);
+			double sumX = 0, sumY = 0, sumXX = 0, sumXY = 0;
+			for(int p=numOfPoints-numOfFitPoints; p<numOfPoints; p++){
+				double x = Math.log(pointClients[p]);
+				double y = Math.log(measured[pointClients[p]]);
+				sumX += x;
+				sumY += y;
+				sumXX += x * x;
+				sumXY += x * y;
+			}
+
+			double slope = (numOfFitPoints * sumXY - sumX * sumY) / (numOfFitPoints * sumXX - sumX * sumX);
+
+			//the throughput of a client does not increase with more clients
+			return Math.max(0, -slope);
+		}
+	}
+}
@@ -0,0 +1,575 @@
+/*
+ * Title:        EdgeCloudSim - Flow Network Model
+ *
+ * Description:
+ * FlowNetworkModel shares the bandwidth of the WLAN, MAN, WAN and GSM
+ * links among the transfers (flows) using them with max-min fairness,
+ * instead of estimating the delay by a closed-form queue model. Each
+ * access point has its own WLAN and WAN link, MAN and GSM links are
+ * shared by all devices, and the upload and download directions are
+ * separate links. A transfer to the cloud passes through both the WLAN
+ * and the WAN link of the access point, or only through the GSM link if
+ * the cloud is reached over the cellular network (the device id of the
+ * cloud is CLOUD_DATACENTER_VIA_GSM_ID in that case).
+ *
+ * The flows are created and removed by the uploadStarted/Finished and
+ * downloadStarted/Finished callbacks which pass the task of the transfer,
+ * and each flow is kept by the cloudlet id of its task. When a flow starts
+ * or ends, only the fair share of its links is recomputed, and the links
+ * of the other flows on them are revisited only if the share changes.
+ * The model listens to the handovers of the mobile devices. When a device
+ * is connected to another access point, its flows on the WLAN and WAN
+ * links are moved to the links of the new access point, so the share of
+ * the old access point is not used by a device which has left it.
+ *
+ * The callbacks without the task are not supported, so the model can only
+ * be used with a mobile device manager calling the task overloads and
+ * scheduling the end events by scheduleTransferEnd, i.e. the
+ * DefaultMobileDeviceManager.
+ *
+ * The delay returned for a transfer is its size divided by the rate it
+ * would get on its path when it starts. When the rate of a flow changes
+ * later, the time left to transfer its remaining data is recomputed and
+ * the end event of the transfer is moved via the mobile device manager,
+ * so a transfer ends when all of its data is transferred. The propagation
+ * delay of the path is added after the data is transferred.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.network;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+
+import edu.boun.edgecloudsim.core.SimManager;
+import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.edge_client.Task;
+import edu.boun.edgecloudsim.edge_server.EdgeHost;
+import edu.boun.edgecloudsim.mobility.HandoverListener;
+import edu.boun.edgecloudsim.utils.Location;
+import edu.boun.edgecloudsim.utils.SimLogger;
+
+public class FlowNetworkModel extends NetworkModel implements HandoverListener {
+	private static final int WLAN_PATH = 0;
+	private static final int WLAN_WAN_PATH = 1;
+	private static final int MAN_PATH = 2;
+	private static final int GSM_PATH = 3;
+	private static final int NUM_OF_PATHS = 4;
+
+	//device id of the cloud server which is reached over the cellular network
+	public static final int CLOUD_DATACENTER_VIA_GSM_ID = SimSettings.GENERIC_EDGE_DEVICE_ID + 2;
+
+	//fair shares closer than this (Kbps) are assumed to be equal
+	private static final double SHARE_TOLERANCE = 1e-6;
+
+	//visits of the links in a single rate update, to stop if the shares oscillate
+	private static final int MAX_LINK_VISITS = 64;
+
+	//slot of a flow in the flow list of its mobile device
+	private static final int DEVICE_SLOT = 2;
+
+	private static class Flow {
+		private final Task task;
+		private final int path;
+		private final boolean forDownload;
+		private Link[] links;
+		private final int[] slots = new int[3];
+		private double fixedDelay; //seconds
+		private double remainingSize; //Kb
+		private double rate; //Kbps
+		private double lastUpdateTime;
+
+		private Flow(Task _task, int _path, boolean _forDownload, Link[] _links, double size, double _fixedDelay, double time) {
+			task = _task;
+			path = _path;
+			forDownload = _forDownload;
+			links = _links;
+			remainingSize = size;
+			fixedDelay = _fixedDelay;
+			lastUpdateTime = time;
+		}
+
+		private double getRemainingSize(double time) {
+			return Math.max(remainingSize - rate * (time - lastUpdateTime), 0);
+		}
+	}
+
+	private static class FlowList {
+		private final int slot;
+		private Flow[] flows = new Flow[4];
+		private int size;
+
+		private FlowList(int _slot) {
+			slot = _slot;
+		}
+
+		private void add(Flow flow) {
+			if(size == flows.length)
+				flows = Arrays.copyOf(flows, size * 2);
+			flow.slots[slot] = size;
+			flows[size++] = flow;
+		}
+
+		private void remove(Flow flow) {
+			int index = flow.slots[slot];
+			Flow last = flows[--size];
+			flows[index] = last;
+			last.slots[slot] = index;
+			flows[size] = null;
+		}
+	}
+
+	private static class Link {
+		private final double capacity; //Kbps
+		private final FlowList flows;
+		private int numOfSharedFlows; //flows passing through another link too
+		private double share; //rate of the flows which are not limited by another link
+		private boolean queued;
+		private boolean visited;
+
+		private Link(double _capacity, int slot) {
+			capacity = _capacity;
+			flows = new FlowList(slot);
+			share = _capacity;
+		}
+	}
+
+	private int numOfAccessPoints;
+
+	//links of each path key
+	private Link[][] pathLinks;
+
+	//flows of the transfers in progress, kept by the cloudlet id of their task
+	private HashMap<Integer, Flow> uploadFlows;
+	private HashMap<Integer, Flow> downloadFlows;
+
+	//flows on the links of an access point, kept by the mobile device id
+	private FlowList[] deviceFlows;
+
+	private ArrayList<Link> linksToUpdate;
+	private ArrayList<Link> visitedLinks;
+	private double[] limits;
+
+	public FlowNetworkModel(int _numberOfMobileDevices, String _simScenario) {
+		super(_numberOfMobileDevices, _simScenario);
+	}
+
+	@Override
+	public void initialize() {
+		SimSettings SS = SimSettings.getInstance();
+		numOfAccessPoints = SS.getNumOfEdgeDatacenters();
+
+		Link manUploadLink = new Link(SS.getManBandwidth(), 0);
+		Link manDownloadLink = new Link(SS.getManBandwidth(), 0);
+		Link gsmUploadLink = new Link(SS.getGsmBandwidth(), 0);
+		Link gsmDownloadLink = new Link(SS.getGsmBandwidth(), 0);
+
+		pathLinks = new Link[2 * NUM_OF_PATHS * numOfAccessPoints][];
+		for(int ap=0; ap<numOfAccessPoints; ap++) {
+			for(int direction=0; direction<2; direction++) {
+				boolean forDownload = (direction == 1);
+				Link wlanLink = new Link(SS.getWlanBandwidth(), 0);
+				Link wanLink = new Link(SS.getWanBandwidth(), 1);
+
+				pathLinks[getPathKey(WLAN_PATH, ap, forDownload)] = new Link[] {wlanLink};
+				pathLinks[getPathKey(WLAN_WAN_PATH, ap, forDownload)] = new Link[] {wlanLink, wanLink};
+				pathLinks[getPathKey(MAN_PATH, ap, forDownload)] = new Link[] {forDownload ? manDownloadLink : manUploadLink};
+				pathLinks[getPathKey(GSM_PATH, ap, forDownload)] = new Link[] {forDownload ? gsmDownloadLink : gsmUploadLink};
+			}
+		}
+
+		uploadFlows = new HashMap<Integer, Flow>();
+		downloadFlows = new HashMap<Integer, Flow>();
+		deviceFlows = new FlowList[numberOfMobileDevices];
+		linksToUpdate = new ArrayList<Link>();
+		visitedLinks = new ArrayList<Link>();
+		limits = new double[16];
+	}
+
+	/**
+	 * source device is always mobile device in our simulation scenarios!
+	 */
+	@Override
+	public double getUploadDelay(int sourceDeviceId, int destDeviceId, Task task) {
+		//special case for man communication
+		if(sourceDeviceId == destDeviceId && sourceDeviceId == SimSettings.GENERIC_EDGE_DEVICE_ID)
+			return getDelay(MAN_PATH, 0, false, task.getCloudletFileSize(), getPropagationDelay(MAN_PATH));
+
+		//mobile device to cloud server over the cellular network
+		if(destDeviceId == CLOUD_DATACENTER_VIA_GSM_ID)
+			return getDelay(GSM_PATH, 0, false, task.getCloudletFileSize(), getPropagationDelay(GSM_PATH));
+
+		int accessPointId = SimManager.getInstance().getMobilityModel().getServingWlanId(sourceDeviceId, CloudSim.clock());
+		double delay = 0;
+
+		//mobile device to cloud server
+		if(destDeviceId == SimSettings.CLOUD_DATACENTER_ID){
+			delay = getDelay(WLAN_WAN_PATH, accessPointId, false, task.getCloudletFileSize(), getPropagationDelay(WLAN_WAN_PATH));
+		}
+		//mobile device to edge orchestrator
+		else if(destDeviceId == SimSettings.EDGE_ORCHESTRATOR_ID){
+			delay = getDelay(WLAN_PATH, accessPointId, false, task.getCloudletFileSize(),
+					getPropagationDelay(WLAN_PATH) + SimSettings.getInstance().getInternalLanDelay());
+		}
+		//mobile device to edge device (wifi access point)
+		else if (destDeviceId == SimSettings.GENERIC_EDGE_DEVICE_ID) {
+			delay = getDelay(WLAN_PATH, accessPointId, false, task.getCloudletFileSize(), getPropagationDelay(WLAN_PATH));
+		}
+
+		return delay;
+	}
+
+	/**
+	 * destination device is always mobile device in our simulation scenarios!
+	 */
+	@Override
+	public double getDownloadDelay(int sourceDeviceId, int destDeviceId, Task task) {
+		//Special Case -> edge orchestrator to edge device
+		if(sourceDeviceId == SimSettings.EDGE_ORCHESTRATOR_ID &&
+				destDeviceId == SimSettings.GENERIC_EDGE_DEVICE_ID){
+			return SimSettings.getInstance().getInternalLanDelay();
+		}
+
+		//special case for man communication
+		if(sourceDeviceId == destDeviceId && sourceDeviceId == SimSettings.GENERIC_EDGE_DEVICE_ID)
+			return getDelay(MAN_PATH, 0, true, task.getCloudletOutputSize(), getPropagationDelay(MAN_PATH));
+
+		//cloud server to mobile device over the cellular network
+		if(sourceDeviceId == CLOUD_DATACENTER_VIA_GSM_ID)
+			return getDelay(GSM_PATH, 0, true, task.getCloudletOutputSize(), getPropagationDelay(GSM_PATH));
+
+		int accessPointId = SimManager.getInstance().getMobilityModel().getServingWlanId(destDeviceId, CloudSim.clock());
+		double delay = 0;
+
+		//cloud server to mobile device
+		if(sourceDeviceId == SimSettings.CLOUD_DATACENTER_ID){
+			delay = getDelay(WLAN_WAN_PATH, accessPointId, true, task.getCloudletOutputSize(), getPropagationDelay(WLAN_WAN_PATH));
+		}
+		//edge device (wifi access point) to mobile device
+		else{
+			delay = getDelay(WLAN_PATH, accessPointId, true, task.getCloudletOutputSize(),
+					getPropagationDelay(WLAN_PATH) + getEdgeHostLanDelay(sourceDeviceId, accessPointId));
+		}
+
+		return delay;
+	}
+
+	/**
+	 * the flows are kept by their tasks, so the callbacks passing the task
+	 * should be used with this model
+	 */
+	@Override
+	public void uploadStarted(Location accessPointLocation, int destDeviceId) {
+		SimLogger.printLine("uploadStarted without a task is not supported by FlowNetworkModel! Terminating simulation...");
+		System.exit(1);
+	}
+
+	@Override
+	public void uploadFinished(Location accessPointLocation, int destDeviceId) {
+		SimLogger.printLine("uploadFinished without a task is not supported by FlowNetworkModel! Terminating simulation...");
+		System.exit(1);
+	}
+
+	@Override
+	public void downloadStarted(Location accessPointLocation, int sourceDeviceId) {
+		SimLogger.printLine("downloadStarted without a task is not supported by FlowNetworkModel! Terminating simulation...");
+		System.exit(1);
+	}
+
+	@Override
+	public void downloadFinished(Location accessPointLocation, int sourceDeviceId) {
+		SimLogger.printLine("downloadFinished without a task is not supported by FlowNetworkModel! Terminating simulation...");
+		System.exit(1);
+	}
+
+	@Override
+	public void uploadStarted(Location accessPointLocation, int destDeviceId, Task task) {
+		int path = getPathOfDevice(destDeviceId, "uploadStarted");
+		startFlow(task, path, accessPointLocation.getServingWlanId(), false,
+				task.getCloudletFileSize(), getPropagationDelay(path));
+	}
+
+	@Override
+	public void uploadFinished(Location accessPointLocation, int destDeviceId, Task task) {
+		finishFlow(task, false);
+	}
+
+	/**
+	 * the source of a download from an edge device is the host of the task
+	 */
+	@Override
+	public void downloadStarted(Location accessPointLocation, int sourceDeviceId, Task task) {
+		int path = getPathOfDevice(sourceDeviceId, "downloadStarted");
+		int accessPointId = accessPointLocation.getServingWlanId();
+
+		startFlow(task, path, accessPointId, true, task.getCloudletOutputSize(),
+				getDownloadFixedDelay(task, path, accessPointId));
+	}
+
+	@Override
+	public void downloadFinished(Location accessPointLocation, int sourceDeviceId, Task task) {
+		finishFlow(task, true);
+	}
+
+	/**
+	 * the flows of the device on the WLAN and WAN links continue on the
+	 * links of the new access point with the data left to transfer
+	 */
+	@Override
+	public void handoverOccurred(int deviceId, int previousWlanId, int newWlanId, double time) {
+		FlowList flows = deviceFlows[deviceId];
+		if(flows == null || previousWlanId < 0)
+			return;
+
+		for(int i=0; i<flows.size; i++){
+			Flow flow = flows.flows[i];
+			flow.remainingSize = flow.getRemainingSize(time);
+			flow.lastUpdateTime = time;
+
+			removeFromLinks(flow);
+			updateRates(flow.links, time);
+
+			flow.links = pathLinks[getPathKey(flow.path, newWlanId, flow.forDownload)];
+			if(flow.forDownload)
+				flow.fixedDelay = getDownloadFixedDelay(flow.task, flow.path, newWlanId);
+			addToLinks(flow);
+			updateRates(flow.links, time);
+
+			//the fixed delay may change even if the rate on the new links is same
+			if(flow.rate > 0 && flow.remainingSize > 0)
+				SimManager.getInstance().getMobileDeviceManager().updateTransferEnd(flow.task, flow.remainingSize / flow.rate + flow.fixedDelay);
+		}
+	}
+
+	private int getPathKey(int path, int accessPointId, boolean forDownload) {
+		//MAN and GSM links do not depend on the access point
+		if(path == MAN_PATH || path == GSM_PATH)
+			accessPointId = 0;
+		return ((forDownload ? NUM_OF_PATHS : 0) + path) * numOfAccessPoints + accessPointId;
+	}
+
+	private int getPathOfDevice(int deviceId, String caller) {
+		if(deviceId == SimSettings.CLOUD_DATACENTER_ID)
+			return WLAN_WAN_PATH;
+		else if(deviceId == SimSettings.GENERIC_EDGE_DEVICE_ID)
+			return WLAN_PATH;
+		else if(deviceId == SimSettings.GENERIC_EDGE_DEVICE_ID+1)
+			return MAN_PATH;
+		else if(deviceId == CLOUD_DATACENTER_VIA_GSM_ID)
+			return GSM_PATH;
+
+		SimLogger.printLine("Error - unknown device id in FlowNetworkModel." + caller + "(). Terminating simulation...");
+		System.exit(1);
+		return -1;
+	}
+
+	private double getPropagationDelay(int path) {
+		if(path == WLAN_WAN_PATH)
+			return SimSettings.getInstance().getWanPropagationDelay();
+		else if(path == MAN_PATH)
+			return SimSettings.getInstance().getInternalLanDelay();
+		else if(path == GSM_PATH)
+			return SimSettings.getInstance().getGsmPropagationDelay();
+		return 0;
+	}
+
+	/*
+	 * the data downloaded from an edge device is also carried over the
+	 * internal lan if the host of the task is not in the place of the
+	 * access point
+	 */
+	private double getDownloadFixedDelay(Task task, int path, int accessPointId) {
+		double fixedDelay = getPropagationDelay(path);
+		if(path == WLAN_PATH)
+			fixedDelay += getEdgeHostLanDelay(task.getAssociatedHostId(), accessPointId);
+		return fixedDelay;
+	}
+
+	/*
+	 * returns the internal lan delay between the edge host and the access
+	 * point, if the host is located in another place
+	 */
+	private double getEdgeHostLanDelay(int hostId, int accessPointId) {
+		EdgeHost host = (EdgeHost)(SimManager.
+				getInstance().
+				getEdgeServerManager().
+				getDatacenterList().get(hostId).
+				getHostList().get(0));
+
+		if(host.getLocation().getServingWlanId() != accessPointId)
+			return SimSettings.getInstance().getInternalLanDelay() * 2;
+		return 0;
+	}
+
+	/*
+	 * returns the time required to transfer the data with the rate of a
+	 * new flow on the path plus the fixed delay, 0 if the path has no
+	 * bandwidth
+	 */
+	private double getDelay(int path, int accessPointId, boolean forDownload, double dataSize /*KB*/, double fixedDelay) {
+		double rate = Double.MAX_VALUE;
+		for(Link link : pathLinks[getPathKey(path, accessPointId, forDownload)])
+			rate = Math.min(rate, getShare(link, 1));
+
+		if(rate <= 0)
+			return 0;
+
+		return dataSize * (double)8 / rate + fixedDelay; //KB to Kb
+	}
+
+	private void startFlow(Task task, int path, int accessPointId, boolean forDownload, double dataSize /*KB*/, double fixedDelay) {
+		double time = CloudSim.clock();
+		Flow flow = new Flow(task, path, forDownload, pathLinks[getPathKey(path, accessPointId, forDownload)],
+				dataSize * (double)8, fixedDelay, time);
+		addToLinks(flow);
+		(forDownload ? downloadFlows : uploadFlows).put(task.getCloudletId(), flow);
+
+		//only the flows on the links of an access point are affected by the handovers
+		if(path == WLAN_PATH || path == WLAN_WAN_PATH){
+			int deviceId = task.getMobileDeviceId();
+			if(deviceFlows[deviceId] == null)
+				deviceFlows[deviceId] = new FlowList(DEVICE_SLOT);
+			deviceFlows[deviceId].add(flow);
+		}
+
+		updateRates(flow.links, time);
+	}
+
+	private void finishFlow(Task task, boolean forDownload) {
+		Flow flow = (forDownload ? downloadFlows : uploadFlows).remove(task.getCloudletId());
+		if(flow == null)
+			return;
+
+		removeFromLinks(flow);
+		if(flow.path == WLAN_PATH || flow.path == WLAN_WAN_PATH)
+			deviceFlows[task.getMobileDeviceId()].remove(flow);
+
+		updateRates(flow.links, CloudSim.clock());
+	}
+
+	private void addToLinks(Flow flow) {
+		for(Link link : flow.links){
+			link.flows.add(flow);
+			if(flow.links.length > 1)
+				link.numOfSharedFlows++;
+		}
+	}
+
+	private void removeFromLinks(Flow flow) {
+		for(Link link : flow.links){
+			link.flows.remove(flow);
+			if(flow.links.length > 1)
+				link.numOfSharedFlows--;
+		}
+	}
+
+	/*
+	 * recomputes the fair share of the given links; the links of the
+	 * flows on a link are recomputed too if the share of the link changes,
+	 * then the rates of the flows on all visited links are updated
+	 */
+	private void updateRates(Link[] links, double time) {
+		for(Link link : links){
+			link.queued = true;
+			linksToUpdate.add(link);
+		}
+
+		int numOfVisits = 0;
+		while(!linksToUpdate.isEmpty()){
+			Link link = linksToUpdate.remove(linksToUpdate.size() - 1);
+			link.queued = false;
+			if(!link.visited){
+				link.visited = true;
+				visitedLinks.add(link);
+			}
+
+			double share = getShare(link, 0);
+			boolean changed = Math.abs(share - link.share) > SHARE_TOLERANCE;
+			link.share = share;
+			if(!changed || link.numOfSharedFlows == 0 || ++numOfVisits > MAX_LINK_VISITS)
+				continue;
+
+			for(int i=0; i<link.flows.size; i++){
+				for(Link otherLink : link.flows.flows[i].links){
+					if(otherLink != link && !otherLink.queued){
+						otherLink.queued = true;
+						linksToUpdate.add(otherLink);
+					}
+				}
+			}
+		}
+
+		for(Link link : visitedLinks){
+			link.visited = false;
+			for(int i=0; i<link.flows.size; i++){
+				Flow flow = link.flows.flows[i];
+				double rate = Double.MAX_VALUE;
+				for(Link flowLink : flow.links)
+					rate = Math.min(rate, flowLink.share);
+				setRate(flow, rate, time);
+			}
+		}
+		visitedLinks.clear();
+	}
+
+	/*
+	 * returns the max-min fair share of the link if the given number of
+	 * new flows are added; the flows limited by their other link get the
+	 * share of that link and the remaining capacity is shared equally
+	 */
+	private double getShare(Link link, int numOfNewFlows) {
+		int numOfFlows = link.flows.size;
+		if(link.numOfSharedFlows == 0)
+			return (numOfFlows + numOfNewFlows == 0) ? link.capacity : link.capacity / (numOfFlows + numOfNewFlows);
+
+		if(limits.length < numOfFlows)
+			limits = new double[Math.max(numOfFlows, limits.length * 2)];
+		for(int i=0; i<numOfFlows; i++){
+			double limit = Double.MAX_VALUE;
+			for(Link otherLink : link.flows.flows[i].links)
+				if(otherLink != link)
+					limit = Math.min(limit, otherLink.share);
+			limits[i] = limit;
+		}
+		Arrays.sort(limits, 0, numOfFlows);
+
+		double capacity = link.capacity;
+		int numOfUnlimitedFlows = numOfFlows + numOfNewFlows;
+		double maxLimit = 0;
+		for(int i=0; i<numOfFlows; i++){
+			if(limits[i] * numOfUnlimitedFlows >= capacity)
+				break;
+			capacity -= limits[i];
+			maxLimit = limits[i];
+			numOfUnlimitedFlows--;
+		}
+
+		//all flows are limited by their other link, a flow may use the remaining capacity
+		if(numOfUnlimitedFlows == 0)
+			return maxLimit + capacity;
+
+		return capacity / numOfUnlimitedFlows;
+	}
+
+	/*
+	 * sets the rate of the flow and moves the end of its transfer to the
+	 * time when its remaining data is transferred with the new rate
+	 */
+	private void setRate(Flow flow, double rate, double time) {
+		if(rate == flow.rate)
+			return;
+
+		flow.remainingSize = flow.getRemainingSize(time);
+		flow.lastUpdateTime = time;
+		flow.rate = rate;
+
+		//only the fixed delay is left if all data is transferred
+		if(rate > 0 && flow.remainingSize > 0)
+			SimManager.getInstance().getMobileDeviceManager().updateTransferEnd(flow.task, flow.remainingSize / rate + flow.fixedDelay);
+	}
+}
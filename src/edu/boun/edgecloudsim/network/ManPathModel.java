@@ -0,0 +1,130 @@
+/*
+ * Title:        EdgeCloudSim - MAN Path Model
+ *
+ * Description:
+ * ManPathModel calculates the MAN delay between two edge datacenters on
+ * the multi-hop topology given by ManTopology. Each directed link is
+ * observed as a separate M/M/1 queue; the arrival rate and the average
+ * task size of a link are updated with the tasks passed through the link
+ * during the last interval, as the single MAN queue of the sample
+ * applications does.
+ *
+ * The links of a path are followed from the precomputed next hop table,
+ * so the delay of a task is calculated in O(hops) without a graph search.
+ * The network models keeping a MAN queue can use this class when the
+ * MAN links are defined in edge_devices.xml.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.network;
+
+import java.util.Arrays;
+
+import edu.boun.edgecloudsim.core.ManTopology;
+
+public class ManPathModel {
+	private ManTopology topology;
+
+	//queue state of each directed link
+	private double[] arrivalRates; //tasks per second
+	private double[] avgTaskSizes; //KB
+
+	//tasks passed through each link during the current interval
+	private int[] numOfTasks;
+	private double[] totalTaskSizes; //KB
+
+	/*
+	 * the initial arrival rate and task size are used for all links until
+	 * the first update
+	 */
+	public ManPathModel(ManTopology _topology, double initialArrivalRate, double initialTaskSize) {
+		topology = _topology;
+		int numOfLinks = topology.getNumOfLinks();
+		arrivalRates = new double[numOfLinks];
+		avgTaskSizes = new double[numOfLinks];
+		numOfTasks = new int[numOfLinks];
+		totalTaskSizes = new double[numOfLinks];
+		Arrays.fill(arrivalRates, initialArrivalRate);
+		Arrays.fill(avgTaskSizes, initialTaskSize);
+	}
+
+	public ManTopology getTopology() {
+		return topology;
+	}
+
+	/*
+	 * returns the delay of the data sent from the source datacenter to the
+	 * destination datacenter and records the data on the links of the path
+	 * returns -1 if the datacenters are not connected or a link is saturated
+	 */
+	public double getDelay(int sourceDatacenter, int destDatacenter, double dataSize /*KB*/) {
+		double delay = getEstimatedDelay(sourceDatacenter, destDatacenter);
+		if(delay < 0)
+			return delay;
+
+		int node = sourceDatacenter;
+		while(node != destDatacenter){
+			int link = topology.getNextLink(node, destDatacenter);
+			numOfTasks[link]++;
+			totalTaskSizes[link] += dataSize;
+			node = topology.getLinkDestination(link);
+		}
+
+		return delay;
+	}
+
+	/*
+	 * returns the delay between the datacenters without recording a task
+	 * returns -1 if the datacenters are not connected or a link is saturated
+	 */
+	public double getEstimatedDelay(int sourceDatacenter, int destDatacenter) {
+		double delay = 0;
+		int node = sourceDatacenter;
+		while(node != destDatacenter){
+			int link = topology.getNextLink(node, destDatacenter);
+			if(link == -1)
+				return -1;
+
+			double linkDelay = getLinkDelay(link);
+			if(linkDelay < 0)
+				return -1;
+
+			delay += linkDelay;
+			node = topology.getLinkDestination(link);
+		}
+
+		return delay;
+	}
+
+	/*
+	 * returns the M/M/1 delay of the link including its latency, -1 if the
+	 * link is saturated
+	 */
+	public double getLinkDelay(int link) {
+		double mu = topology.getLinkBandwidth(link) /*Kbps*/ / (avgTaskSizes[link] * 8) /*Kb*/; //task per seconds
+		if(mu <= arrivalRates[link])
+			return -1;
+
+		return (double)1 / (mu - arrivalRates[link]) + topology.getLinkLatency(link);
+	}
+
+	/*
+	 * updates the queue state of the links with the tasks passed through
+	 * them during the last interval, the links which are not used become idle
+	 */
+	public void updateStatistics(double lastInterval) {
+		if(lastInterval <= 0)
+			return;
+
+		for(int l=0; l<arrivalRates.length; l++){
+			arrivalRates[l] = numOfTasks[l] / lastInterval;
+			if(numOfTasks[l] != 0)
+				avgTaskSizes[l] = totalTaskSizes[l] / numOfTasks[l];
+		}
+
+		Arrays.fill(numOfTasks, 0);
+		Arrays.fill(totalTaskSizes, 0);
+	}
+}
@@ -48,4 +48,24 @@ public abstract class NetworkModel {
 	public abstract void uploadFinished(Location accessPointLocation, int destDeviceId);
 	public abstract void downloadStarted(Location accessPointLocation, int sourceDeviceId);
 	public abstract void downloadFinished(Location accessPointLocation, int sourceDeviceId);
+
+	/**
+	 * following functions also pass the task of the transfer, the network
+	 * models keeping the state of each transfer should override them
+	 */
+	public void uploadStarted(Location accessPointLocation, int destDeviceId, Task task) {
+		uploadStarted(accessPointLocation, destDeviceId);
+	}
+
+	public void uploadFinished(Location accessPointLocation, int destDeviceId, Task task) {
+		uploadFinished(accessPointLocation, destDeviceId);
+	}
+
+	public void downloadStarted(Location accessPointLocation, int sourceDeviceId, Task task) {
+		downloadStarted(accessPointLocation, sourceDeviceId);
+	}
+
+	public void downloadFinished(Location accessPointLocation, int sourceDeviceId, Task task) {
+		downloadFinished(accessPointLocation, sourceDeviceId);
+	}
 }
@@ -1,18 +1,27 @@
 package edu.boun.edgecloudsim.task_generator;
 
 import java.util.ArrayList;
-import java.util.Random;
 
 import org.apache.commons.math3.distribution.ExponentialDistribution;
 
 import edu.boun.edgecloudsim.core.SimSettings;
 import edu.boun.edgecloudsim.utils.TaskProperty;
+import edu.boun.edgecloudsim.utils.RandomStream;
+import edu.boun.edgecloudsim.utils.RandomStreams;
 import edu.boun.edgecloudsim.utils.SimLogger;
 import edu.boun.edgecloudsim.utils.SimUtils;
 
 public class IdleActiveLoadGenerator extends LoadGeneratorModel {
     private int taskTypeOfDevices[];
-    private Random rngRandom = new Random(); // single Random object
+
+    // Arrival cursor of each device
+    private RandomStream deviceRngs[];
+    private double virtualTimes[];
+    private double activePeriodStartTimes[];
+    private ExponentialDistribution intervalRngs[];
+    private ExponentialDistribution inputSizeRngs[];
+    private ExponentialDistribution outputSizeRngs[];
+    private ExponentialDistribution lengthRngs[];
 
     public IdleActiveLoadGenerator(int _numberOfMobileDevices, double _simulationTime, String _simScenario) {
         super(_numberOfMobileDevices, _simulationTime, _simScenario);
@@ -20,25 +29,51 @@ public class IdleActiveLoadGenerator extends LoadGeneratorModel {
 
     @Override
     public void initializeModel() {
-        taskList = new ArrayList<>();
+        initializeStreaming();
 
-        ExponentialDistribution[][] expRngList = new ExponentialDistribution[SimSettings.getInstance().getTaskLookUpTable().length][3];
+        taskList = new ArrayList<>();
 
-        // Initialize ExponentialDistribution arrays for each task type
-        for (int i = 0; i < SimSettings.getInstance().getTaskLookUpTable().length; i++) {
-            if (SimSettings.getInstance().getTaskLookUpTable()[i][0] == 0) continue;
+        for (int i = 0; i < numberOfMobileDevices; i++) {
+            TaskProperty taskProp;
+            while ((taskProp = getNextTask(i)) != null) {
+                // Log
+                SimLogger.getInstance().addLog(
+                        i,
+                        taskList.size(),
+                        taskProp.getTaskType(),
+                        (int) taskProp.getLength(),
+                        (int) taskProp.getInputFileSize(),
+                        (int) taskProp.getOutputFileSize()
+                );
 
-            expRngList[i][0] = new ExponentialDistribution(SimSettings.getInstance().getTaskLookUpTable()[i][5]); // Input size
-            expRngList[i][1] = new ExponentialDistribution(SimSettings.getInstance().getTaskLookUpTable()[i][6]); // Output size
-            expRngList[i][2] = new ExponentialDistribution(SimSettings.getInstance().getTaskLookUpTable()[i][7]); // Length
+                taskList.add(taskProp);
+            }
         }
+    }
+
+    @Override
+    public boolean supportsStreaming() {
+        return true;
+    }
 
+    @Override
+    public void initializeStreaming() {
         taskTypeOfDevices = new int[numberOfMobileDevices];
+        deviceRngs = new RandomStream[numberOfMobileDevices];
+        virtualTimes = new double[numberOfMobileDevices];
+        activePeriodStartTimes = new double[numberOfMobileDevices];
+        intervalRngs = new ExponentialDistribution[numberOfMobileDevices];
+        inputSizeRngs = new ExponentialDistribution[numberOfMobileDevices];
+        outputSizeRngs = new ExponentialDistribution[numberOfMobileDevices];
+        lengthRngs = new ExponentialDistribution[numberOfMobileDevices];
 
         for (int i = 0; i < numberOfMobileDevices; i++) {
+            // Each device draws all of its random values from its own stream
+            RandomStream rng = RandomStreams.getStream(RandomStreams.LOAD_GENERATOR, i);
+
             // Random task type selection
             int randomTaskType = -1;
-            double taskTypeSelector = SimUtils.getRandomDoubleNumber(0, 100);
+            double taskTypeSelector = SimUtils.getRandomDoubleNumber(rng, 0, 100);
             double taskTypePercentage = 0;
             for (int j = 0; j < SimSettings.getInstance().getTaskLookUpTable().length; j++) {
                 taskTypePercentage += SimSettings.getInstance().getTaskLookUpTable()[j][0];
@@ -49,63 +84,66 @@ public class IdleActiveLoadGenerator extends LoadGeneratorModel {
             }
             if (randomTaskType == -1) {
                 SimLogger.printLine("Impossible occurred! no random task type!");
+                // The device does not generate any task
+                virtualTimes[i] = simulationTime;
                 continue;
             }
 
             taskTypeOfDevices[i] = randomTaskType;
 
-            double poissonMean = SimSettings.getInstance().getTaskLookUpTable()[randomTaskType][2];
             double activePeriod = SimSettings.getInstance().getTaskLookUpTable()[randomTaskType][3];
-            double idlePeriod = SimSettings.getInstance().getTaskLookUpTable()[randomTaskType][4];
-            double activePeriodStartTime = SimUtils.getRandomDoubleNumber(
+            activePeriodStartTimes[i] = SimUtils.getRandomDoubleNumber(rng,
                     SimSettings.CLIENT_ACTIVITY_START_TIME,
                     SimSettings.CLIENT_ACTIVITY_START_TIME + activePeriod
             );
-            double virtualTime = activePeriodStartTime;
+            virtualTimes[i] = activePeriodStartTimes[i];
 
-            ExponentialDistribution rng = new ExponentialDistribution(poissonMean);
+            deviceRngs[i] = rng;
+            intervalRngs[i] = new ExponentialDistribution(rng, SimSettings.getInstance().getTaskLookUpTable()[randomTaskType][2]);
+            inputSizeRngs[i] = new ExponentialDistribution(rng, SimSettings.getInstance().getTaskLookUpTable()[randomTaskType][5]);
+            outputSizeRngs[i] = new ExponentialDistribution(rng, SimSettings.getInstance().getTaskLookUpTable()[randomTaskType][6]);
+            lengthRngs[i] = new ExponentialDistribution(rng, SimSettings.getInstance().getTaskLookUpTable()[randomTaskType][7]);
+        }
+    }
 
-            while (virtualTime < simulationTime) {
-                double interval = rng.sample();
-                if (interval <= 0) continue;
+    @Override
+    public TaskProperty getNextTask(int deviceId) {
+        int randomTaskType = taskTypeOfDevices[deviceId];
+        double activePeriod = SimSettings.getInstance().getTaskLookUpTable()[randomTaskType][3];
+        double idlePeriod = SimSettings.getInstance().getTaskLookUpTable()[randomTaskType][4];
 
-                virtualTime += interval;
+        while (virtualTimes[deviceId] < simulationTime) {
+            double interval = intervalRngs[deviceId].sample();
+            if (interval <= 0) continue;
 
-                if (virtualTime > activePeriodStartTime + activePeriod) {
-                    activePeriodStartTime += activePeriod + idlePeriod;
-                    virtualTime = activePeriodStartTime;
-                    continue;
-                }
+            virtualTimes[deviceId] += interval;
 
-                // Create TaskProperty with random length/input/output
-                TaskProperty taskProp = new TaskProperty(
-                        virtualTime,
-                        i,
-                        randomTaskType,
-                        (int) SimSettings.getInstance().getTaskLookUpTable()[randomTaskType][8],
-                        (long) expRngList[randomTaskType][2].sample(),
-                        (long) expRngList[randomTaskType][0].sample(),
-                        (long) expRngList[randomTaskType][1].sample()
-                );
+            if (virtualTimes[deviceId] > activePeriodStartTimes[deviceId] + activePeriod) {
+                activePeriodStartTimes[deviceId] += activePeriod + idlePeriod;
+                virtualTimes[deviceId] = activePeriodStartTimes[deviceId];
+                continue;
+            }
 
-                //  Truly random deadline & criticality
-                double deadline = 5.0 + rngRandom.nextDouble() * 10.0;
-                taskProp.setDeadline(deadline);
-                taskProp.setCriticality((deadline < 10.0) ? 1 : 0);
+            // Create TaskProperty with random length/input/output
+            TaskProperty taskProp = new TaskProperty(
+                    virtualTimes[deviceId],
+                    deviceId,
+                    randomTaskType,
+                    (int) SimSettings.getInstance().getTaskLookUpTable()[randomTaskType][8],
+                    (long) lengthRngs[deviceId].sample(),
+                    (long) inputSizeRngs[deviceId].sample(),
+                    (long) outputSizeRngs[deviceId].sample()
+            );
 
-                // Log
-                SimLogger.getInstance().addLog(
-                        i,
-                        taskList.size(),
-                        randomTaskType,
-                        (int) taskProp.getLength(),
-                        (int) taskProp.getInputFileSize(),
-                        (int) taskProp.getOutputFileSize()
-                );
+            //  Truly random deadline & criticality
+            double deadline = 5.0 + deviceRngs[deviceId].nextDouble() * 10.0;
+            taskProp.setDeadline(deadline);
+            taskProp.setCriticality((deadline < 10.0) ? 1 : 0);
 
-                taskList.add(taskProp);
-            }
+            return taskProp;
         }
+
+        return null;
     }
 
     @Override
@@ -113,4 +151,3 @@ public class IdleActiveLoadGenerator extends LoadGeneratorModel {
         return taskTypeOfDevices[deviceId];
     }
 }
-
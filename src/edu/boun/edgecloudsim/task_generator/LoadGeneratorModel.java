@@ -6,6 +6,9 @@
  * deciding task generation pattern via a task list. For those who
  * wants to add a custom Load Generator Model to EdgeCloudSim should
  * extend this class and provide a concrete instance via ScenarioFactory
+ * The models supporting streaming can also generate the tasks of each
+ * device on demand, so only the next task of each device is kept. The
+ * other models are streamed from their task list.
  *               
  * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
  * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
@@ -13,6 +16,8 @@
 
 package edu.boun.edgecloudsim.task_generator;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import edu.boun.edgecloudsim.utils.TaskProperty;
@@ -22,6 +27,11 @@ public abstract class LoadGeneratorModel {
 	protected int numberOfMobileDevices;
 	protected double simulationTime;
 	protected String simScenario;
+
+	//tasks of the task list ordered by device and start time, used if streaming is not supported
+	private List<TaskProperty> streamedTasks;
+	private int[] nextTaskIndexes;
+	private int[] lastTaskIndexes;
 	
 	public LoadGeneratorModel(int _numberOfMobileDevices, double _simulationTime, String _simScenario){
 		numberOfMobileDevices=_numberOfMobileDevices;
@@ -52,4 +62,50 @@ public abstract class LoadGeneratorModel {
 	 * returns the task type (index) that the mobile device uses
 	 */
 	public abstract int getTaskTypeOfDevice(int deviceId);
+
+	/*
+	 * returns true if the model can generate the tasks of each device
+	 * on demand via initializeStreaming and getNextTask, otherwise the
+	 * task list is created and the tasks are streamed from the list
+	 */
+	public boolean supportsStreaming() {
+		return false;
+	}
+
+	/*
+	 * prepares the arrival cursor of each device instead of filling
+	 * the task list, task types of the devices are decided here
+	 * the models not supporting streaming fill the task list and the
+	 * cursors of the devices move on the list
+	 */
+	public void initializeStreaming() {
+		initializeModel();
+
+		streamedTasks = new ArrayList<TaskProperty>(taskList);
+		Collections.sort(streamedTasks, (a, b) -> a.getMobileDeviceId() != b.getMobileDeviceId() ?
+				Integer.compare(a.getMobileDeviceId(), b.getMobileDeviceId()) :
+				Double.compare(a.getStartTime(), b.getStartTime()));
+
+		nextTaskIndexes = new int[numberOfMobileDevices];
+		lastTaskIndexes = new int[numberOfMobileDevices];
+		for(int i=0; i<streamedTasks.size(); i++)
+			lastTaskIndexes[streamedTasks.get(i).getMobileDeviceId()] = i + 1;
+		for(int i=1; i<numberOfMobileDevices; i++){
+			//devices having no task start and end where the previous one ends
+			lastTaskIndexes[i] = Math.max(lastTaskIndexes[i], lastTaskIndexes[i-1]);
+			nextTaskIndexes[i] = lastTaskIndexes[i-1];
+		}
+	}
+
+	/*
+	 * returns the next task of the device and moves its arrival cursor,
+	 * tasks of a device are returned in the order of their start times
+	 * null is returned if the device does not generate any more tasks
+	 */
+	public TaskProperty getNextTask(int deviceId) {
+		if(nextTaskIndexes[deviceId] == lastTaskIndexes[deviceId])
+			return null;
+
+		return streamedTasks.get(nextTaskIndexes[deviceId]++);
+	}
 }
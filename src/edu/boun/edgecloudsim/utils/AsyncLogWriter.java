@@ -0,0 +1,157 @@
+/*
+ * Title:        EdgeCloudSim - Asynchronous Log Writer
+ *
+ * Description:
+ * AsyncLogWriter moves the file operations of SimLogger out of the
+ * simulation thread. The log records are handed to a dedicated writer
+ * thread through a bounded lock-free ring buffer. Since there is only
+ * one producer (the simulation thread) and one consumer (the writer
+ * thread), the buffer positions are kept in volatile fields without
+ * any lock. If the writer thread falls behind and the buffer becomes
+ * full, the simulation thread waits until a slot is available, so the
+ * memory consumption is bounded.
+ *
+ * The records are written in the same order they are submitted. The
+ * errors occurred in the writer thread are reported to the simulation
+ * thread on the next submit or flush operation.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.utils;
+
+import java.io.IOException;
+import java.util.concurrent.locks.LockSupport;
+
+public class AsyncLogWriter {
+	public static final int DEFAULT_CAPACITY = 64 * 1024;
+
+	//time to wait when the buffer is full or empty
+	private static final long WAIT_TIME_NS = 50 * 1000;
+
+	/*
+	 * a log record is written to the related file by the writer thread
+	 */
+	public interface LogRecord {
+		public void write() throws IOException;
+	}
+
+	private final LogRecord[] ring;
+	private final int mask;
+
+	//head is only updated by the simulation thread, tail is only updated by the writer thread
+	private volatile long head;
+	private volatile long tail;
+	private volatile boolean running;
+	private volatile boolean writerWaiting;
+	private volatile IOException error;
+
+	private Thread writerThread;
+
+	/*
+	 * capacity is rounded up to the next power of two
+	 */
+	public AsyncLogWriter(int capacity) {
+		int size = 1;
+		while(size < capacity)
+			size *= 2;
+
+		ring = new LogRecord[size];
+		mask = size - 1;
+		head = 0;
+		tail = 0;
+		running = true;
+		writerWaiting = false;
+		error = null;
+
+		writerThread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				processRecords();
+			}
+		}, "SimLogger-writer");
+		writerThread.setDaemon(true);
+		writerThread.start();
+	}
+
+	/*
+	 * puts the record to the buffer, waits if the buffer is full
+	 */
+	public void submit(LogRecord record) throws IOException {
+		checkError();
+
+		while(head - tail == ring.length){
+			LockSupport.parkNanos(WAIT_TIME_NS);
+			checkError();
+		}
+
+		ring[(int)(head & mask)] = record;
+		head = head + 1;
+
+		if(writerWaiting)
+			LockSupport.unpark(writerThread);
+	}
+
+	/*
+	 * waits until all submitted records are written
+	 */
+	public void flush() throws IOException {
+		while(tail != head){
+			checkError();
+			LockSupport.unpark(writerThread);
+			LockSupport.parkNanos(WAIT_TIME_NS);
+		}
+		checkError();
+	}
+
+	/*
+	 * writes all submitted records and stops the writer thread
+	 */
+	public void shutdown() throws IOException {
+		try {
+			flush();
+		}
+		finally {
+			running = false;
+			LockSupport.unpark(writerThread);
+			try {
+				writerThread.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	private void processRecords() {
+		while(running || tail != head){
+			if(tail == head){
+				writerWaiting = true;
+				if(tail == head && running)
+					LockSupport.parkNanos(WAIT_TIME_NS * 20);
+				writerWaiting = false;
+				continue;
+			}
+
+			int index = (int)(tail & mask);
+			LogRecord record = ring[index];
+			ring[index] = null;
+
+			//skip remaining records after the first error, it is reported to the simulation thread
+			if(error == null){
+				try {
+					record.write();
+				} catch (IOException e) {
+					error = e;
+				}
+			}
+
+			tail = tail + 1;
+		}
+	}
+
+	private void checkError() throws IOException {
+		if(error != null)
+			throw error;
+	}
+}
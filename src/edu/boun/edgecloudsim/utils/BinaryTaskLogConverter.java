@@ -0,0 +1,124 @@
+/*
+ * Title:        EdgeCloudSim - Binary Task Log Converter
+ *
+ * Description:
+ * BinaryTaskLogConverter reads the task results written by
+ * BinaryTaskLogWriter and converts them to the text format of the
+ * _SUCCESS.log and _FAIL.log files, so that the existing matlab and
+ * python scripts can be used with the binary deep logs.
+ *
+ * Usage: java BinaryTaskLogConverter <file.bin> [<file.bin> ...]
+ * Each file is converted to a file having the same name with .log
+ * extension in the same folder. If a folder is given, all .bin files
+ * in the folder are converted.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.utils;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import edu.boun.edgecloudsim.core.SimSettings;
+
+public class BinaryTaskLogConverter {
+	private static final int BUFFER_SIZE = 1024 * 1024;
+
+	public static void main(String[] args) {
+		if(args.length == 0){
+			System.out.println("Usage: BinaryTaskLogConverter <file.bin or folder> [...]");
+			System.exit(1);
+		}
+
+		try {
+			for(int i=0; i<args.length; i++){
+				File input = new File(args[i]);
+				File[] binFiles = input.isDirectory() ? input.listFiles((dir, name) -> name.endsWith(".bin")) : new File[] {input};
+
+				for(int j=0; j<binFiles.length; j++){
+					String binPath = binFiles[j].getPath();
+					File logFile = new File(binPath.substring(0, binPath.length() - ".bin".length()) + ".log");
+					convert(binFiles[j], logFile);
+					System.out.println(binFiles[j].getName() + " is converted to " + logFile.getName());
+				}
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+			System.exit(1);
+		}
+	}
+
+	/*
+	 * converts binary task records to the text format used by SimLogger
+	 */
+	public static void convert(File binFile, File logFile) throws IOException {
+		FileChannel channel = new FileInputStream(binFile).getChannel();
+		BufferedWriter bw = new BufferedWriter(new FileWriter(logFile, false));
+		ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+		try {
+			channel.read(buffer);
+			buffer.flip();
+			if(buffer.remaining() < BinaryTaskLogWriter.HEADER_SIZE ||
+					buffer.getInt() != BinaryTaskLogWriter.MAGIC_NUMBER ||
+					buffer.getInt() != BinaryTaskLogWriter.VERSION ||
+					buffer.getInt() != BinaryTaskLogWriter.RECORD_SIZE)
+				throw new IOException(binFile.getName() + " is not a valid binary task log file!");
+
+			bw.write("#auto generated file!");
+			bw.newLine();
+
+			StringBuilder sb = new StringBuilder();
+			double[] delays = new double[5];
+			while(true){
+				//read more records if there is no complete record in the buffer
+				if(buffer.remaining() < BinaryTaskLogWriter.RECORD_SIZE){
+					buffer.compact();
+					int numOfBytes = channel.read(buffer);
+					buffer.flip();
+					if(numOfBytes < 0)
+						break;
+					continue;
+				}
+
+				sb.setLength(0);
+				for(int i=0; i<10; i++)
+					sb.append(buffer.getInt()).append(SimSettings.DELIMITER);
+				sb.append(buffer.getDouble()).append(SimSettings.DELIMITER); //start time
+				sb.append(buffer.getDouble()).append(SimSettings.DELIMITER); //end time
+
+				for(int i=0; i<delays.length; i++)
+					delays[i] = buffer.getDouble();
+
+				int failureReason = buffer.getInt();
+				if(failureReason == BinaryTaskLogWriter.COMPLETED){
+					for(int i=0; i<delays.length; i++){
+						sb.append(delays[i]);
+						if(i < delays.length - 1)
+							sb.append(SimSettings.DELIMITER);
+					}
+				}
+				else{
+					sb.append(failureReason);
+				}
+
+				bw.write(sb.toString());
+				bw.newLine();
+			}
+
+			if(buffer.hasRemaining())
+				throw new IOException("unexpected end of binary task log file!");
+		}
+		finally {
+			bw.close();
+			channel.close();
+		}
+	}
+}
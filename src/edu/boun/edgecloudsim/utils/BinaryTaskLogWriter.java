@@ -0,0 +1,104 @@
+/*
+ * Title:        EdgeCloudSim - Binary Task Log Writer
+ *
+ * Description:
+ * BinaryTaskLogWriter is used by SimLogger when deep file logging is
+ * performed in binary format. Each task result is stored as a fixed
+ * width record, which is collected in a large direct buffer and
+ * written to the file via a FileChannel. Creating a string for each
+ * task and writing it through a character stream is avoided, which
+ * decreases both the simulation time and the size of the log files.
+ *
+ * The file starts with a header consisting of the magic number, the
+ * format version and the record size. The records are written in
+ * big-endian byte order with the following fields:
+ * taskId, deviceId, datacenterId, hostId, vmId, vmType, taskType,
+ * taskLength, taskInputSize, taskOutputSize (int),
+ * taskStartTime, taskEndTime, networkDelay, lanDelay, manDelay,
+ * wanDelay, gsmDelay (double), failureReason (int)
+ *
+ * The failure reason is COMPLETED for the successful tasks. Use
+ * BinaryTaskLogConverter to convert the binary files to the text
+ * format used by the matlab and python scripts.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.utils;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+public class BinaryTaskLogWriter implements Closeable {
+	public static final int MAGIC_NUMBER = 0x45435342; //"ECSB"
+	public static final int VERSION = 1;
+	public static final int HEADER_SIZE = 3 * 4;
+	public static final int RECORD_SIZE = 10 * 4 + 7 * 8 + 4;
+	public static final int COMPLETED = -1;
+
+	private static final int BUFFER_SIZE = 1024 * 1024;
+
+	private FileChannel channel;
+	private ByteBuffer buffer;
+
+	/*
+	 * creates the file (existing file is overwritten) and writes the header
+	 */
+	public BinaryTaskLogWriter(File file) throws IOException {
+		channel = new FileOutputStream(file, false).getChannel();
+		buffer = ByteBuffer.allocateDirect(BUFFER_SIZE - (BUFFER_SIZE % RECORD_SIZE));
+
+		buffer.putInt(MAGIC_NUMBER);
+		buffer.putInt(VERSION);
+		buffer.putInt(RECORD_SIZE);
+	}
+
+	public void writeRecord(int taskId, int deviceId, int datacenterId, int hostId,
+			int vmId, int vmType, int taskType, int taskLength, int taskInputSize,
+			int taskOutputSize, double taskStartTime, double taskEndTime,
+			double networkDelay, double lanDelay, double manDelay, double wanDelay,
+			double gsmDelay, int failureReason) throws IOException {
+		if(buffer.remaining() < RECORD_SIZE)
+			flush();
+
+		buffer.putInt(taskId);
+		buffer.putInt(deviceId);
+		buffer.putInt(datacenterId);
+		buffer.putInt(hostId);
+		buffer.putInt(vmId);
+		buffer.putInt(vmType);
+		buffer.putInt(taskType);
+		buffer.putInt(taskLength);
+		buffer.putInt(taskInputSize);
+		buffer.putInt(taskOutputSize);
+		buffer.putDouble(taskStartTime);
+		buffer.putDouble(taskEndTime);
+		buffer.putDouble(networkDelay);
+		buffer.putDouble(lanDelay);
+		buffer.putDouble(manDelay);
+		buffer.putDouble(wanDelay);
+		buffer.putDouble(gsmDelay);
+		buffer.putInt(failureReason);
+	}
+
+	/*
+	 * writes the buffered records to the file
+	 */
+	public void flush() throws IOException {
+		buffer.flip();
+		while(buffer.hasRemaining())
+			channel.write(buffer);
+		buffer.clear();
+	}
+
+	@Override
+	public void close() throws IOException {
+		flush();
+		channel.close();
+	}
+}
@@ -0,0 +1,227 @@
+/*
+ * Title:        EdgeCloudSim - Decision Tracer
+ *
+ * Description:
+ * DecisionTracer records the decisions of the edge orchestrator to a
+ * dedicated file instead of printing them to the console. The trace
+ * level is configured in the properties file:
+ * OFF      : nothing is recorded (default)
+ * DECISION : the offloading decision of each task is recorded
+ * DETAIL   : the selected VM of each task is also recorded
+ *
+ * The number of records can be decreased by sampling; only the tasks
+ * whose id is a multiple of decision_trace_sampling are recorded, and
+ * if decision_trace_device is given, only the tasks of that device
+ * are recorded. The trace methods take the task object and do nothing
+ * but a few comparisons if the task is not traced, so the callers do
+ * not need to check the trace level.
+ *
+ * The records are written to <prefix>_DECISIONS.csv, or to
+ * <prefix>_DECISIONS.bin if decision_trace_binary is true. The binary
+ * file starts with the magic number, the format version and the
+ * record size. Each record has the following big-endian fields:
+ * recordType, taskId, deviceId, taskType, criticality, target,
+ * hostId, vmId (int), taskLength, taskInputSize, taskOutputSize (long),
+ * time, deadline (double)
+ * target is the device selected by the orchestrator for the decision
+ * records, and the device on which the VM is searched for the VM
+ * records. hostId and vmId are -1 if they are not available.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.utils;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.core.CloudSim;
+
+import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.core.SimSettings.DECISION_TRACE_LEVELS;
+import edu.boun.edgecloudsim.edge_client.Task;
+
+public class DecisionTracer implements Closeable {
+	public static final int MAGIC_NUMBER = 0x45435354; //"ECST"
+	public static final int VERSION = 1;
+	public static final int HEADER_SIZE = 3 * 4;
+	public static final int RECORD_SIZE = 8 * 4 + 3 * 8 + 2 * 8;
+
+	//record types
+	public static final int OFFLOAD_DECISION = 0;
+	public static final int VM_SELECTION = 1;
+	private static final String[] RECORD_NAMES = {"DECISION", "VM"};
+
+	private static final int BUFFER_SIZE = 1024 * 1024;
+
+	//tracing is disabled until a simulation is started
+	private static DecisionTracer instance = new DecisionTracer();
+
+	private int level;
+	private int samplingInterval;
+	private int tracedDevice;
+
+	private FileChannel channel;
+	private ByteBuffer buffer;
+	private BufferedWriter bw;
+	private StringBuilder line;
+
+	private DecisionTracer() {
+		level = DECISION_TRACE_LEVELS.OFF.ordinal();
+	}
+
+	public static DecisionTracer getInstance() {
+		return instance;
+	}
+
+	/*
+	 * creates the trace file according to the settings of the simulation
+	 * no file is created if the trace level is OFF
+	 */
+	public static void simStarted(String outputFolder, String filePrefix) throws IOException {
+		instance.close();
+		instance = new DecisionTracer();
+
+		SimSettings SS = SimSettings.getInstance();
+		if(SS.getDecisionTraceLevel() == DECISION_TRACE_LEVELS.OFF)
+			return;
+
+		if(SS.getDecisionTraceBinary()){
+			File file = new File(outputFolder, filePrefix + "_DECISIONS.bin");
+			instance.channel = new FileOutputStream(file, false).getChannel();
+			instance.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE - (BUFFER_SIZE % RECORD_SIZE));
+			instance.buffer.putInt(MAGIC_NUMBER);
+			instance.buffer.putInt(VERSION);
+			instance.buffer.putInt(RECORD_SIZE);
+		}
+		else {
+			File file = new File(outputFolder, filePrefix + "_DECISIONS.csv");
+			instance.bw = new BufferedWriter(new FileWriter(file, false), BUFFER_SIZE);
+			instance.line = new StringBuilder(128);
+			instance.bw.write("type;time;taskId;deviceId;taskType;criticality;deadline;" +
+					"length;inputSize;outputSize;target;hostId;vmId");
+			instance.bw.newLine();
+		}
+
+		instance.samplingInterval = Math.max(1, SS.getDecisionTraceSampling());
+		instance.tracedDevice = SS.getDecisionTraceDevice();
+		instance.level = SS.getDecisionTraceLevel().ordinal();
+	}
+
+	/*
+	 * writes the remaining records and closes the trace file
+	 */
+	public static void simStopped() throws IOException {
+		instance.close();
+	}
+
+	/*
+	 * returns true if the records of the task are written for the given level
+	 */
+	public boolean isTraced(DECISION_TRACE_LEVELS traceLevel, Task task) {
+		return level >= traceLevel.ordinal() &&
+				task.getCloudletId() % samplingInterval == 0 &&
+				(tracedDevice < 0 || task.getMobileDeviceId() == tracedDevice);
+	}
+
+	/*
+	 * records the device selected by the orchestrator for the task
+	 */
+	public void offloadDecision(Task task, int deviceId) {
+		if(isTraced(DECISION_TRACE_LEVELS.DECISION, task))
+			write(OFFLOAD_DECISION, task, deviceId, -1, -1);
+	}
+
+	/*
+	 * records the VM selected for the task, selectedVM is null if no VM is available
+	 */
+	public void vmSelection(Task task, int deviceId, Vm selectedVM) {
+		if(isTraced(DECISION_TRACE_LEVELS.DETAIL, task)){
+			if(selectedVM == null)
+				write(VM_SELECTION, task, deviceId, -1, -1);
+			else
+				write(VM_SELECTION, task, deviceId, selectedVM.getHost().getId(), selectedVM.getId());
+		}
+	}
+
+	private void write(int recordType, Task task, int target, int hostId, int vmId) {
+		try {
+			if(channel != null)
+				writeBinary(recordType, task, target, hostId, vmId);
+			else if(bw != null)
+				writeText(recordType, task, target, hostId, vmId);
+		} catch (IOException e) {
+			SimLogger.printLine("Decision trace cannot be written! Terminating simulation...");
+			e.printStackTrace();
+			System.exit(1);
+		}
+	}
+
+	private void writeBinary(int recordType, Task task, int target, int hostId, int vmId) throws IOException {
+		if(buffer.remaining() < RECORD_SIZE)
+			flush();
+
+		buffer.putInt(recordType);
+		buffer.putInt(task.getCloudletId());
+		buffer.putInt(task.getMobileDeviceId());
+		buffer.putInt(task.getTaskType());
+		buffer.putInt(task.getCriticality());
+		buffer.putInt(target);
+		buffer.putInt(hostId);
+		buffer.putInt(vmId);
+		buffer.putLong(task.getCloudletLength());
+		buffer.putLong(task.getCloudletFileSize());
+		buffer.putLong(task.getCloudletOutputSize());
+		buffer.putDouble(CloudSim.clock());
+		buffer.putDouble(task.getDeadline());
+	}
+
+	private void writeText(int recordType, Task task, int target, int hostId, int vmId) throws IOException {
+		line.setLength(0);
+		line.append(RECORD_NAMES[recordType]).append(SimSettings.DELIMITER)
+			.append(CloudSim.clock()).append(SimSettings.DELIMITER)
+			.append(task.getCloudletId()).append(SimSettings.DELIMITER)
+			.append(task.getMobileDeviceId()).append(SimSettings.DELIMITER)
+			.append(task.getTaskType()).append(SimSettings.DELIMITER)
+			.append(task.getCriticality()).append(SimSettings.DELIMITER)
+			.append(task.getDeadline()).append(SimSettings.DELIMITER)
+			.append(task.getCloudletLength()).append(SimSettings.DELIMITER)
+			.append(task.getCloudletFileSize()).append(SimSettings.DELIMITER)
+			.append(task.getCloudletOutputSize()).append(SimSettings.DELIMITER)
+			.append(target).append(SimSettings.DELIMITER)
+			.append(hostId).append(SimSettings.DELIMITER)
+			.append(vmId);
+		bw.append(line);
+		bw.newLine();
+	}
+
+	private void flush() throws IOException {
+		buffer.flip();
+		while(buffer.hasRemaining())
+			channel.write(buffer);
+		buffer.clear();
+	}
+
+	@Override
+	public void close() throws IOException {
+		level = DECISION_TRACE_LEVELS.OFF.ordinal();
+
+		if(channel != null){
+			flush();
+			channel.close();
+			channel = null;
+		}
+		if(bw != null){
+			bw.close();
+			bw = null;
+		}
+	}
+}
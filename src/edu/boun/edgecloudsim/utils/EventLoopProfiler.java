@@ -0,0 +1,281 @@
+/*
+ * Title:        EdgeCloudSim - Event Loop Profiler
+ *
+ * Description:
+ * EventLoopProfiler measures the wall clock time spent by the simulation
+ * entities while processing their events. For each entity and event tag
+ * the number of events, the distribution of the processing time and the
+ * number of bytes allocated by the simulation thread are recorded.
+ *
+ * The processing times are kept in log-linear histograms similar to HDR
+ * histograms; values are grouped by their power of two and each group
+ * is divided into 16 buckets, so the relative error of the percentiles
+ * is below 6.25% and no memory is allocated while recording.
+ *
+ * Profiling is enabled by event_loop_profiling_enabled in the config
+ * file. If it is disabled, the entities get a section which returns
+ * immediately without reading the clock. The report is written to <prefix>_EVENT_PROFILE.log
+ * when the simulation is stopped.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.utils;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import edu.boun.edgecloudsim.core.SimSettings;
+
+public class EventLoopProfiler {
+	//each power of two is divided into 2^SUB_BUCKET_BITS buckets
+	private static final int SUB_BUCKET_BITS = 4;
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+	private static final Section DISABLED_SECTION = new Section(null, "disabled");
+
+	//profiling is disabled until a simulation is started
+	private static EventLoopProfiler instance = new EventLoopProfiler(false);
+
+	private final boolean enabled;
+	private final List<Section> sections;
+	private final com.sun.management.ThreadMXBean allocationBean;
+
+	private EventLoopProfiler(boolean _enabled) {
+		enabled = _enabled;
+		sections = new ArrayList<Section>();
+
+		//allocation counters are not supported by all JVMs
+		ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+		if(enabled && threadBean instanceof com.sun.management.ThreadMXBean &&
+				((com.sun.management.ThreadMXBean)threadBean).isThreadAllocatedMemorySupported()){
+			allocationBean = (com.sun.management.ThreadMXBean)threadBean;
+			allocationBean.setThreadAllocatedMemoryEnabled(true);
+		}
+		else {
+			allocationBean = null;
+		}
+	}
+
+	public static EventLoopProfiler getInstance() {
+		return instance;
+	}
+
+	/*
+	 * resets the profiler according to the settings of the simulation
+	 */
+	public static void simStarted() {
+		instance = new EventLoopProfiler(SimSettings.getInstance().getEventLoopProfilingEnabled());
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/*
+	 * returns the section used by the entity to record its events
+	 */
+	public Section getSection(String entityName) {
+		if(!enabled)
+			return DISABLED_SECTION;
+
+		for(Section section : sections)
+			if(section.entityName.equals(entityName))
+				return section;
+
+		Section section = new Section(this, entityName);
+		sections.add(section);
+		return section;
+	}
+
+	/*
+	 * writes the report to the given file, the times are in microseconds
+	 */
+	public void writeReport(File file) throws IOException {
+		BufferedWriter bw = new BufferedWriter(new FileWriter(file, false));
+		try {
+			bw.write("#auto generated file!");
+			bw.newLine();
+			bw.write("#entity;tag;count;totalMs;meanUs;p50Us;p90Us;p99Us;maxUs;allocatedBytes;allocatedBytesPerEvent");
+			bw.newLine();
+			for(String line : getReportLines()){
+				bw.write(line);
+				bw.newLine();
+			}
+		}
+		finally {
+			bw.close();
+		}
+	}
+
+	/*
+	 * returns one line for each entity and event tag pair
+	 */
+	public List<String> getReportLines() {
+		List<String> lines = new ArrayList<String>();
+		for(Section section : sections){
+			for(int i=0; i<section.numOfTags; i++){
+				TagStats stats = section.stats[i];
+				if(stats.count == 0)
+					continue;
+
+				String name = (stats.name != null) ? stats.name : Integer.toString(stats.tag);
+				lines.add(section.entityName + SimSettings.DELIMITER +
+						name + SimSettings.DELIMITER +
+						stats.count + SimSettings.DELIMITER +
+						(double)stats.totalTime / 1000000 + SimSettings.DELIMITER +
+						(double)stats.totalTime / 1000 / stats.count + SimSettings.DELIMITER +
+						(double)stats.getPercentile(0.50) / 1000 + SimSettings.DELIMITER +
+						(double)stats.getPercentile(0.90) / 1000 + SimSettings.DELIMITER +
+						(double)stats.getPercentile(0.99) / 1000 + SimSettings.DELIMITER +
+						(double)stats.maxTime / 1000 + SimSettings.DELIMITER +
+						(allocationBean != null ? Long.toString(stats.allocatedBytes) : "NaN") + SimSettings.DELIMITER +
+						(allocationBean != null ? Double.toString((double)stats.allocatedBytes / stats.count) : "NaN"));
+			}
+		}
+		return lines;
+	}
+
+	private long getAllocatedBytes() {
+		return allocationBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	/*
+	 * returns the histogram bucket of the value
+	 */
+	static int getBucketIndex(long value) {
+		if(value < SUB_BUCKET_COUNT)
+			return (int)Math.max(0, value);
+
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int subBucket = (int)(value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+		return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+	}
+
+	/*
+	 * returns the highest value stored in the histogram bucket
+	 */
+	static long getBucketUpperBound(int index) {
+		if(index < SUB_BUCKET_COUNT)
+			return index;
+
+		int exponent = index / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+		long subBucket = index % SUB_BUCKET_COUNT;
+		int shift = exponent - SUB_BUCKET_BITS;
+		return ((SUB_BUCKET_COUNT + subBucket + 1) << shift) - 1;
+	}
+
+	/*
+	 * records the events of a single entity, the entities are processed
+	 * one by one in the simulation thread, so no synchronization is needed
+	 */
+	public static class Section {
+		private final EventLoopProfiler profiler;
+		private final String entityName;
+		private int[] tags;
+		private TagStats[] stats;
+		private int numOfTags;
+		private long startAllocatedBytes;
+
+		private Section(EventLoopProfiler _profiler, String _entityName) {
+			profiler = _profiler;
+			entityName = _entityName;
+			tags = new int[8];
+			stats = new TagStats[8];
+			numOfTags = 0;
+		}
+
+		/*
+		 * called before the event is processed, returns the start time
+		 */
+		public long begin() {
+			if(profiler == null)
+				return 0;
+
+			if(profiler.allocationBean != null)
+				startAllocatedBytes = profiler.getAllocatedBytes();
+			return System.nanoTime();
+		}
+
+		/*
+		 * called after the event is processed with the value returned by begin
+		 */
+		public void end(int tag, long startTime) {
+			if(profiler == null)
+				return;
+
+			long elapsedTime = System.nanoTime() - startTime;
+			long allocatedBytes = 0;
+			if(profiler.allocationBean != null)
+				allocatedBytes = profiler.getAllocatedBytes() - startAllocatedBytes;
+
+			getStats(tag).record(elapsedTime, allocatedBytes);
+		}
+
+		/*
+		 * sets the name of the event tag used in the report
+		 */
+		public void setTagName(int tag, String name) {
+			if(profiler != null)
+				getStats(tag).name = name;
+		}
+
+		private TagStats getStats(int tag) {
+			for(int i=0; i<numOfTags; i++)
+				if(tags[i] == tag)
+					return stats[i];
+
+			if(numOfTags == tags.length){
+				tags = Arrays.copyOf(tags, numOfTags * 2);
+				stats = Arrays.copyOf(stats, numOfTags * 2);
+			}
+			tags[numOfTags] = tag;
+			stats[numOfTags] = new TagStats(tag);
+			return stats[numOfTags++];
+		}
+	}
+
+	private static class TagStats {
+		private final int tag;
+		private String name;
+		private long count;
+		private long totalTime;
+		private long maxTime;
+		private long allocatedBytes;
+		private final long[] histogram;
+
+		private TagStats(int _tag) {
+			tag = _tag;
+			histogram = new long[BUCKET_COUNT];
+		}
+
+		private void record(long elapsedTime, long allocated) {
+			count++;
+			totalTime += elapsedTime;
+			allocatedBytes += allocated;
+			if(elapsedTime > maxTime)
+				maxTime = elapsedTime;
+			histogram[getBucketIndex(elapsedTime)]++;
+		}
+
+		private long getPercentile(double percentile) {
+			long threshold = (long)Math.ceil(percentile * count);
+			long total = 0;
+			for(int i=0; i<histogram.length; i++){
+				total += histogram[i];
+				if(total >= threshold && total > 0)
+					return Math.min(getBucketUpperBound(i), maxTime);
+			}
+			return maxTime;
+		}
+	}
+}
@@ -3,6 +3,12 @@
  * 
  * Description:  Location class used in EdgeCloudSim
  * 
+ * Locations are immutable. The location of each place (edge datacenter)
+ * is created once by EdgeTopology and shared by the mobility models, so
+ * comparing two place-level locations is mostly an identity check.
+ * Mobility models provide primitive queries (e.g. getServingWlanId) to
+ * avoid creating a Location when only one value is needed.
+ * 
  * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
  * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
  */
@@ -10,10 +16,11 @@
 package edu.boun.edgecloudsim.utils;
 
 public class Location {
-	private int xPos;
-	private int yPos;
-	private int servingWlanId;
-	private int placeTypeIndex;
+	private final int xPos;
+	private final int yPos;
+	private final int servingWlanId;
+	private final int placeTypeIndex;
+
 	public Location(int _placeTypeIndex, int _servingWlanId, int _xPos, int _yPos){
 		servingWlanId = _servingWlanId;
 		placeTypeIndex=_placeTypeIndex;
@@ -25,14 +32,15 @@ public class Location {
 	 * Default Constructor: Creates an empty Location
 	 */
 	public Location() {
+		this(0, 0, 0, 0);
 	}
 	
 	@Override
 	public boolean equals(Object other){
 		boolean result = false;
+	    if (other == this) return true;
 	    if (other == null) return false;
 	    if (!(other instanceof Location))return false;
-	    if (other == this) return true;
 	    
 	    Location otherLocation = (Location)other;
 	    if(this.xPos == otherLocation.xPos && this.yPos == otherLocation.yPos)
@@ -41,6 +49,11 @@ public class Location {
 	    return result;
 	}
 
+	@Override
+	public int hashCode(){
+		return 31 * xPos + yPos;
+	}
+
 	public int getServingWlanId(){
 		return servingWlanId;
 	}
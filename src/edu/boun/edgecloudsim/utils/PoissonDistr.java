@@ -9,11 +9,7 @@
 
 package edu.boun.edgecloudsim.utils;
 
-import java.util.Date;
-import java.util.concurrent.TimeUnit;
-
 import cern.jet.random.Poisson;
-import cern.jet.random.engine.MersenneTwister;
 import cern.jet.random.engine.RandomEngine;
 
 public class PoissonDistr {
@@ -22,21 +18,30 @@ public class PoissonDistr {
 
 	/**
 	 * Creates a new exponential number generator.
+	 * The generator is seeded from the shared SimUtils.RNG stream.
 	 * 
 	 * @param mean the mean for the distribution.
  	 */
 	public PoissonDistr(double mean) {
-		engine = new MersenneTwister(new Date());
+		this(mean, new RandomStream(SimUtils.RNG.nextLong()));
+	}
+
+	/**
+	 * Creates a new exponential number generator using the given stream.
+	 * 
+	 * @param mean the mean for the distribution.
+	 * @param rng the stream, see RandomStreams
+ 	 */
+	public PoissonDistr(double mean, final RandomStream rng) {
+		engine = new RandomEngine() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public int nextInt() {
+				return rng.nextInt();
+			}
+		};
 		poisson = new Poisson(mean, engine);
-		
-		//always sleep for some milliseconds in order not to have same seed for iterative PoissonDistr construction
-		try {
-			TimeUnit.MILLISECONDS.sleep(10);
-		} catch (InterruptedException e) {
-			SimLogger.printLine("impossible is occurred! Poisson random number cannot be created!");
-			e.printStackTrace();
-			System.exit(1);
-		}
 	}
 
 	/**
@@ -0,0 +1,94 @@
+/*
+ * Title:        EdgeCloudSim - Random Stream
+ *
+ * Description:
+ * RandomStream is a fast pseudo random number generator based on the
+ * SplitMix64 algorithm. It can be used wherever a java.util.Random or
+ * a commons-math RandomGenerator is required, so the distributions of
+ * commons-math (e.g. ExponentialDistribution) can use it directly.
+ *
+ * The streams are created by RandomStreams, which derives the seed of
+ * each stream from the seed of the simulation run. A new independent
+ * stream can also be derived from an existing one via split().
+ *
+ * This class is not thread safe, each stream should be used by a
+ * single simulation.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.utils;
+
+import java.util.Random;
+
+import org.apache.commons.math3.random.RandomGenerator;
+
+public class RandomStream extends Random implements RandomGenerator {
+	private static final long serialVersionUID = 1L;
+	private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+	private long state;
+
+	public RandomStream(long seed) {
+		super(seed);
+		state = seed;
+	}
+
+	/*
+	 * returns a new stream which is independent from this stream
+	 */
+	public RandomStream split() {
+		return new RandomStream(mix64(nextLong()));
+	}
+
+	@Override
+	public void setSeed(int seed) {
+		setSeed((long) seed);
+	}
+
+	@Override
+	public void setSeed(int[] seed) {
+		long combined = 0;
+		for(int i=0; i<seed.length; i++)
+			combined = mix64(combined + GOLDEN_GAMMA + seed[i]);
+		setSeed(combined);
+	}
+
+	@Override
+	public synchronized void setSeed(long seed) {
+		//also clears the cached gaussian value of java.util.Random
+		super.setSeed(seed);
+		state = seed;
+	}
+
+	@Override
+	protected int next(int bits) {
+		return (int)(nextLong() >>> (64 - bits));
+	}
+
+	@Override
+	public int nextInt() {
+		return (int)(nextLong() >>> 32);
+	}
+
+	@Override
+	public long nextLong() {
+		state += GOLDEN_GAMMA;
+		return mix64(state);
+	}
+
+	@Override
+	public double nextDouble() {
+		return (nextLong() >>> 11) * 0x1.0p-53;
+	}
+
+	/*
+	 * finalizer of SplitMix64, also used to derive the seeds
+	 */
+	static long mix64(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+}
@@ -0,0 +1,68 @@
+/*
+ * Title:        EdgeCloudSim - Random Streams
+ *
+ * Description:
+ * RandomStreams manages the seeds of the random number generators used
+ * in a simulation run. Each subsystem (mobility model, load generator,
+ * edge orchestrator etc.) gets its own stream, and the subsystems
+ * generating values for each mobile device get a separate stream for
+ * each device. The seed of a stream only depends on the seed of the run,
+ * the name of the subsystem and the device id; hence
+ * - the same configuration and iteration number reproduce the same run
+ * - the random numbers used by a subsystem do not change if another
+ *   subsystem draws more or less random numbers
+ * - the device i behaves the same regardless of the number of devices
+ *
+ * The seed of the run is derived from the random_seed property and the
+ * iteration number. If random_seed is not given in the configuration
+ * file, the current time is used, as in the earlier versions.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.utils;
+
+public class RandomStreams {
+	//predefined subsystem names, applications may use their own names
+	public static final String COMMON = "common";
+	public static final String MOBILITY = "mobility";
+	public static final String LOAD_GENERATOR = "load_generator";
+	public static final String EDGE_ORCHESTRATOR = "edge_orchestrator";
+	public static final String NETWORK = "network";
+
+	private static long runSeed = RandomStream.mix64(System.currentTimeMillis());
+
+	private RandomStreams() {
+	}
+
+	/*
+	 * should be called before creating the simulation entities of each run
+	 * the shared SimUtils.RNG stream is also reset
+	 */
+	public static void initialize(long seed, int iterationNumber) {
+		runSeed = RandomStream.mix64(RandomStream.mix64(seed) + iterationNumber);
+		SimUtils.RNG.setSeed(getSeed(COMMON, -1));
+	}
+
+	/*
+	 * returns a new stream for the given subsystem
+	 * the same sequence is returned if it is called again in the same run
+	 */
+	public static RandomStream getStream(String subsystem) {
+		return new RandomStream(getSeed(subsystem, -1));
+	}
+
+	/*
+	 * returns a new stream for the given device of the subsystem
+	 * the same sequence is returned if it is called again in the same run
+	 */
+	public static RandomStream getStream(String subsystem, int deviceId) {
+		return new RandomStream(getSeed(subsystem, deviceId));
+	}
+
+	private static long getSeed(String subsystem, int deviceId) {
+		long subsystemSeed = RandomStream.mix64(runSeed ^ RandomStream.mix64(subsystem.hashCode()));
+		return RandomStream.mix64(subsystemSeed + RandomStream.mix64((long)deviceId + 1));
+	}
+}
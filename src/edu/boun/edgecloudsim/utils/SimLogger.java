@@ -30,12 +30,12 @@
 package edu.boun.edgecloudsim.utils;
 
 import java.io.BufferedWriter;
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.LinkedList;
-import java.util.Map;
 import java.util.stream.DoubleStream;
 import java.util.stream.IntStream;
 
@@ -62,9 +62,9 @@ public class SimLogger {
 	private static boolean printLogEnabled;
 	private String filePrefix;
 	private String outputFolder;
-	private Map<Integer, LogItem> taskMap;
+	private TaskLogStore taskStore;
 	private LinkedList<VmLoadLogItem> vmLoadList;
-	private LinkedList<ApDelayLogItem> apDelayList;
+	private ApDelayLog apDelayList;
 
 	private static SimLogger singleton = new SimLogger();
 	
@@ -73,6 +73,8 @@ public class SimLogger {
 	private File successFile = null, failFile = null;
 	private FileWriter successFW = null, failFW = null;
 	private BufferedWriter successBW = null, failBW = null;
+	private BinaryTaskLogWriter successBinaryWriter = null, failBinaryWriter = null;
+	private AsyncLogWriter asyncLogWriter = null;
 
 	// extract following values for each app type.
 	// last index is average of all app types
@@ -166,9 +168,44 @@ public class SimLogger {
 		return outputFolder;
 	}
 
+	/*
+	 * returns the number of tasks which are completed after the warm up period
+	 */
+	public int getNumOfCompletedTasks() {
+		int result = 0;
+		for(int i=0; i<numOfAppTypes; i++)
+			result += completedTask[i];
+		return result;
+	}
+
+	/*
+	 * returns the number of tasks which are failed after the warm up period
+	 */
+	public int getNumOfFailedTasks() {
+		int result = 0;
+		for(int i=0; i<numOfAppTypes; i++)
+			result += failedTask[i];
+		return result;
+	}
+
 	private void appendToFile(BufferedWriter bw, String line) throws IOException {
-		bw.write(line);
-		bw.newLine();
+		if (asyncLogWriter != null) {
+			asyncLogWriter.submit(() -> {
+				bw.write(line);
+				bw.newLine();
+			});
+		}
+		else {
+			bw.write(line);
+			bw.newLine();
+		}
+	}
+
+	private void closeFile(Closeable file) throws IOException {
+		if (asyncLogWriter != null)
+			asyncLogWriter.submit(file::close);
+		else
+			file.close();
 	}
 
 	public static void printLine(String msg) {
@@ -185,24 +222,48 @@ public class SimLogger {
 		startTime = System.currentTimeMillis();
 		filePrefix = fileName;
 		outputFolder = outFolder;
-		taskMap = new HashMap<Integer, LogItem>();
+		taskStore = new TaskLogStore();
 		vmLoadList = new LinkedList<VmLoadLogItem>();
-		apDelayList = new LinkedList<ApDelayLogItem>();
+		apDelayList = new ApDelayLog();
 		
 		numOfAppTypes = SimSettings.getInstance().getTaskLookUpTable().length;
 		
+		//file operations are performed by a background thread in async mode
+		if (fileLogEnabled && SimSettings.getInstance().getAsyncFileLoggingEnabled())
+			asyncLogWriter = new AsyncLogWriter(AsyncLogWriter.DEFAULT_CAPACITY);
+		else
+			asyncLogWriter = null;
+
+		EventLoopProfiler.simStarted();
+
+		try {
+			DecisionTracer.simStarted(outputFolder, filePrefix);
+		} catch (IOException e) {
+			e.printStackTrace();
+			System.exit(1);
+		}
+
 		if (SimSettings.getInstance().getDeepFileLoggingEnabled()) {
 			try {
-				successFile = new File(outputFolder, filePrefix + "_SUCCESS.log");
-				successFW = new FileWriter(successFile, true);
-				successBW = new BufferedWriter(successFW);
+				if (SimSettings.getInstance().getBinaryDeepFileLoggingEnabled()) {
+					successFile = new File(outputFolder, filePrefix + "_SUCCESS.bin");
+					successBinaryWriter = new BinaryTaskLogWriter(successFile);
 
-				failFile = new File(outputFolder, filePrefix + "_FAIL.log");
-				failFW = new FileWriter(failFile, true);
-				failBW = new BufferedWriter(failFW);
-				
-				appendToFile(successBW, "#auto generated file!");
-				appendToFile(failBW, "#auto generated file!");
+					failFile = new File(outputFolder, filePrefix + "_FAIL.bin");
+					failBinaryWriter = new BinaryTaskLogWriter(failFile);
+				}
+				else {
+					successFile = new File(outputFolder, filePrefix + "_SUCCESS.log");
+					successFW = new FileWriter(successFile, true);
+					successBW = new BufferedWriter(successFW);
+
+					failFile = new File(outputFolder, filePrefix + "_FAIL.log");
+					failFW = new FileWriter(failFile, true);
+					failBW = new BufferedWriter(failFW);
+
+					appendToFile(successBW, "#auto generated file!");
+					appendToFile(failBW, "#auto generated file!");
+				}
 			} catch (IOException e) {
 				e.printStackTrace();
 				System.exit(1);
@@ -268,65 +329,65 @@ public class SimLogger {
 	public void addLog(int deviceId, int taskId, int taskType,
 			int taskLenght, int taskInputType, int taskOutputSize) {
 		// printLine(taskId+"->"+taskStartTime);
-		taskMap.put(taskId, new LogItem(deviceId, taskType, taskLenght, taskInputType, taskOutputSize));
+		taskStore.add(taskId, deviceId, taskType, taskLenght, taskInputType, taskOutputSize);
 	}
 
 	public void taskStarted(int taskId, double time) {
-		taskMap.get(taskId).taskStarted(time);
+		taskStore.taskStarted(taskId, time);
 	}
 
 	public void setUploadDelay(int taskId, double delay, NETWORK_DELAY_TYPES delayType) {
-		taskMap.get(taskId).setUploadDelay(delay, delayType);
+		taskStore.setUploadDelay(taskId, delay, delayType);
 	}
 
 	public void setDownloadDelay(int taskId, double delay, NETWORK_DELAY_TYPES delayType) {
-		taskMap.get(taskId).setDownloadDelay(delay, delayType);
+		taskStore.setDownloadDelay(taskId, delay, delayType);
 	}
 	
 	public void taskAssigned(int taskId, int datacenterId, int hostId, int vmId, int vmType) {
-		taskMap.get(taskId).taskAssigned(datacenterId, hostId, vmId, vmType);
+		taskStore.taskAssigned(taskId, datacenterId, hostId, vmId, vmType);
 	}
 
 	public void taskExecuted(int taskId) {
-		taskMap.get(taskId).taskExecuted();
+		taskStore.taskExecuted(taskId);
 	}
 
 	public void taskEnded(int taskId, double time) {
-		taskMap.get(taskId).taskEnded(time);
+		taskStore.taskEnded(taskId, time);
 		recordLog(taskId);
 	}
 
 	public void rejectedDueToVMCapacity(int taskId, double time, int vmType) {
-		taskMap.get(taskId).taskRejectedDueToVMCapacity(time, vmType);
+		taskStore.taskRejectedDueToVMCapacity(taskId, time, vmType);
 		recordLog(taskId);
 	}
 
     public void rejectedDueToWlanCoverage(int taskId, double time, int vmType) {
-    	taskMap.get(taskId).taskRejectedDueToWlanCoverage(time, vmType);
+    	taskStore.taskRejectedDueToWlanCoverage(taskId, time, vmType);
 		recordLog(taskId);
     }
     
 	public void rejectedDueToBandwidth(int taskId, double time, int vmType, NETWORK_DELAY_TYPES delayType) {
-		taskMap.get(taskId).taskRejectedDueToBandwidth(time, vmType, delayType);
+		taskStore.taskRejectedDueToBandwidth(taskId, time, vmType, delayType);
 		recordLog(taskId);
 	}
 
 	public void failedDueToBandwidth(int taskId, double time, NETWORK_DELAY_TYPES delayType) {
-		taskMap.get(taskId).taskFailedDueToBandwidth(time, delayType);
+		taskStore.taskFailedDueToBandwidth(taskId, time, delayType);
 		recordLog(taskId);
 	}
 
 	public void failedDueToMobility(int taskId, double time) {
-		taskMap.get(taskId).taskFailedDueToMobility(time);
+		taskStore.taskFailedDueToMobility(taskId, time);
 		recordLog(taskId);
 	}
 
 	public void setQoE(int taskId, double QoE){
-		taskMap.get(taskId).setQoE(QoE);
+		taskStore.setQoE(taskId, QoE);
 	}
 	
 	public void setOrchestratorOverhead(int taskId, double overhead){
-		taskMap.get(taskId).setOrchestratorOverhead(overhead);
+		taskStore.setOrchestratorOverhead(taskId, overhead);
 	}
 
 	public void addVmUtilizationLog(double time, double loadOnEdge, double loadOnCloud, double loadOnMobile) {
@@ -334,13 +395,18 @@ public class SimLogger {
 			vmLoadList.add(new VmLoadLogItem(time, loadOnEdge, loadOnCloud, loadOnMobile));
 	}
 
+	/*
+	 * the delays are copied, so the caller can reuse the arrays in the next call
+	 */
 	public void addApDelayLog(double time, double[] apUploadDelays, double[] apDownloadDelays) {
 		if(SimSettings.getInstance().getApDelayLogInterval() != 0)
-			apDelayList.add(new ApDelayLogItem(time, apUploadDelays, apDownloadDelays));
+			apDelayList.add(time, apUploadDelays, apDownloadDelays);
 	}
 	
 	public void simStopped() throws IOException {
 		endTime = System.currentTimeMillis();
+		DecisionTracer.simStopped();
+
 		File vmLoadFile = null, locationFile = null, apUploadDelayFile = null, apDownloadDelayFile = null;
 		FileWriter vmLoadFW = null, locationFW = null, apUploadDelayFW = null, apDownloadDelayFW = null;
 		BufferedWriter vmLoadBW = null, locationBW = null, apUploadDelayBW = null, apDownloadDelayBW = null;
@@ -393,16 +459,20 @@ public class SimLogger {
 		}
 
 		//the tasks in the map is not completed yet!
-		for (Map.Entry<Integer, LogItem> entry : taskMap.entrySet()) {
-			LogItem value = entry.getValue();
-
-			uncompletedTask[value.getTaskType()]++;
-			if (value.getVmType() == SimSettings.VM_TYPES.CLOUD_VM.ordinal())
-				uncompletedTaskOnCloud[value.getTaskType()]++;
-			else if (value.getVmType() == SimSettings.VM_TYPES.MOBILE_VM.ordinal())
-				uncompletedTaskOnMobile[value.getTaskType()]++;
+		for (int taskId = 0; taskId <= taskStore.getMaxTaskId(); taskId++) {
+			if (!taskStore.contains(taskId))
+				continue;
+
+			int taskType = taskStore.getTaskType(taskId);
+			int vmType = taskStore.getVmType(taskId);
+
+			uncompletedTask[taskType]++;
+			if (vmType == SimSettings.VM_TYPES.CLOUD_VM.ordinal())
+				uncompletedTaskOnCloud[taskType]++;
+			else if (vmType == SimSettings.VM_TYPES.MOBILE_VM.ordinal())
+				uncompletedTaskOnMobile[taskType]++;
 			else
-				uncompletedTaskOnEdge[value.getTaskType()]++;
+				uncompletedTaskOnEdge[taskType]++;
 		}
 
 		// calculate total values
@@ -484,23 +554,23 @@ public class SimLogger {
 						continue;
 
 					for (int i = 0; i < SimManager.getInstance().getNumOfMobileDevice(); i++) {
-						Location loc = SimManager.getInstance().getMobilityModel().getLocation(i, time);
-						locationInfo[loc.getServingWlanId()]++;
+						int wlanId = SimManager.getInstance().getMobilityModel().getServingWlanId(i, time);
+						locationInfo[wlanId]++;
 					}
 
-					locationBW.write(time.toString());
+					StringBuilder locationLine = new StringBuilder(time.toString());
 					for (int i = 0; i < locationInfo.length; i++)
-						locationBW.write(SimSettings.DELIMITER + locationInfo[i]);
+						locationLine.append(SimSettings.DELIMITER).append(locationInfo[i]);
 
-					locationBW.newLine();
+					appendToFile(locationBW, locationLine.toString());
 				}
 			}
 			
 			// write delay info to file for each access point
 			if(SimSettings.getInstance().getApDelayLogInterval() != 0) {
-				for (ApDelayLogItem entry : apDelayList) {
-					appendToFile(apUploadDelayBW, entry.getUploadStat());
-					appendToFile(apDownloadDelayBW, entry.getDownloadStat());
+				for (int i = 0; i < apDelayList.size(); i++) {
+					appendToFile(apUploadDelayBW, apDelayList.getUploadStat(i));
+					appendToFile(apDownloadDelayBW, apDelayList.getDownloadStat(i));
 				}
 			}
 
@@ -643,13 +713,19 @@ public class SimLogger {
 
 			// close open files
 			if (SimSettings.getInstance().getDeepFileLoggingEnabled()) {
-				successBW.close();
-				failBW.close();
+				if (SimSettings.getInstance().getBinaryDeepFileLoggingEnabled()) {
+					closeFile(successBinaryWriter);
+					closeFile(failBinaryWriter);
+				}
+				else {
+					closeFile(successBW);
+					closeFile(failBW);
+				}
 			}
-			vmLoadBW.close();
-			locationBW.close();
-			apUploadDelayBW.close();
-			apDownloadDelayBW.close();
+			closeFile(vmLoadBW);
+			closeFile(locationBW);
+			closeFile(apUploadDelayBW);
+			closeFile(apDownloadDelayBW);
 			for (int i = 0; i < numOfAppTypes + 1; i++) {
 				if (i < numOfAppTypes) {
 					// if related app is not used in this simulation, just
@@ -657,11 +733,28 @@ public class SimLogger {
 					if (SimSettings.getInstance().getTaskLookUpTable()[i][0] == 0)
 						continue;
 				}
-				genericBWs[i].close();
+				closeFile(genericBWs[i]);
 			}
 			
 		}
 
+		// processing times of the events are saved next to the generic results
+		if (EventLoopProfiler.getInstance().isEnabled()) {
+			if (fileLogEnabled) {
+				EventLoopProfiler.getInstance().writeReport(new File(outputFolder, filePrefix + "_EVENT_PROFILE.log"));
+			}
+			else {
+				for (String line : EventLoopProfiler.getInstance().getReportLines())
+					printLine(line);
+			}
+		}
+
+		// wait until the background thread writes all records to the files
+		if (asyncLogWriter != null) {
+			asyncLogWriter.shutdown();
+			asyncLogWriter = null;
+		}
+
 		// printout important results
 		printLine("# of tasks (Edge/Cloud/Mobile): "
 				+ (failedTask[numOfAppTypes] + completedTask[numOfAppTypes]) + "("
@@ -749,108 +842,127 @@ public class SimLogger {
 		printLine("average QoE (for executed): " + QoE[numOfAppTypes] / completedTask[numOfAppTypes] + "%");
 
 		// clear related collections (map list etc.)
-		taskMap.clear();
+		taskStore.clear();
 		vmLoadList.clear();
 		apDelayList.clear();
 	}
 	
 	private void recordLog(int taskId){
-		LogItem value = taskMap.remove(taskId);
+		taskStore.remove(taskId);
 		
-		if (value.isInWarmUpPeriod())
+		if (taskStore.isInWarmUpPeriod(taskId))
 			return;
 
-		if (value.getStatus() == SimLogger.TASK_STATUS.COMLETED) {
-			completedTask[value.getTaskType()]++;
+		int taskType = taskStore.getTaskType(taskId);
+		int vmType = taskStore.getVmType(taskId);
+		SimLogger.TASK_STATUS status = taskStore.getStatus(taskId);
 
-			if (value.getVmType() == SimSettings.VM_TYPES.CLOUD_VM.ordinal())
-				completedTaskOnCloud[value.getTaskType()]++;
-			else if (value.getVmType() == SimSettings.VM_TYPES.MOBILE_VM.ordinal())
-				completedTaskOnMobile[value.getTaskType()]++;
+		if (status == SimLogger.TASK_STATUS.COMLETED) {
+			completedTask[taskType]++;
+
+			if (vmType == SimSettings.VM_TYPES.CLOUD_VM.ordinal())
+				completedTaskOnCloud[taskType]++;
+			else if (vmType == SimSettings.VM_TYPES.MOBILE_VM.ordinal())
+				completedTaskOnMobile[taskType]++;
 			else
-				completedTaskOnEdge[value.getTaskType()]++;
+				completedTaskOnEdge[taskType]++;
 		}
 		else {
-			failedTask[value.getTaskType()]++;
+			failedTask[taskType]++;
 
-			if (value.getVmType() == SimSettings.VM_TYPES.CLOUD_VM.ordinal())
-				failedTaskOnCloud[value.getTaskType()]++;
-			else if (value.getVmType() == SimSettings.VM_TYPES.MOBILE_VM.ordinal())
-				failedTaskOnMobile[value.getTaskType()]++;
+			if (vmType == SimSettings.VM_TYPES.CLOUD_VM.ordinal())
+				failedTaskOnCloud[taskType]++;
+			else if (vmType == SimSettings.VM_TYPES.MOBILE_VM.ordinal())
+				failedTaskOnMobile[taskType]++;
 			else
-				failedTaskOnEdge[value.getTaskType()]++;
+				failedTaskOnEdge[taskType]++;
 		}
 
-		if (value.getStatus() == SimLogger.TASK_STATUS.COMLETED) {
-			cost[value.getTaskType()] += value.getCost();
-			QoE[value.getTaskType()] += value.getQoE();
-			serviceTime[value.getTaskType()] += value.getServiceTime();
-			networkDelay[value.getTaskType()] += value.getNetworkDelay();
-			processingTime[value.getTaskType()] += (value.getServiceTime() - value.getNetworkDelay());
-			orchestratorOverhead[value.getTaskType()] += value.getOrchestratorOverhead();
+		if (status == SimLogger.TASK_STATUS.COMLETED) {
+			cost[taskType] += taskStore.getCost(taskId);
+			QoE[taskType] += taskStore.getQoE(taskId);
+			serviceTime[taskType] += taskStore.getServiceTime(taskId);
+			networkDelay[taskType] += taskStore.getNetworkDelay(taskId);
+			processingTime[taskType] += (taskStore.getServiceTime(taskId) - taskStore.getNetworkDelay(taskId));
+			orchestratorOverhead[taskType] += taskStore.getOrchestratorOverhead(taskId);
 			
-			if(value.getNetworkDelay(NETWORK_DELAY_TYPES.WLAN_DELAY) != 0) {
-				lanUsage[value.getTaskType()]++;
-				lanDelay[value.getTaskType()] += value.getNetworkDelay(NETWORK_DELAY_TYPES.WLAN_DELAY);
+			if(taskStore.getNetworkDelay(taskId, NETWORK_DELAY_TYPES.WLAN_DELAY) != 0) {
+				lanUsage[taskType]++;
+				lanDelay[taskType] += taskStore.getNetworkDelay(taskId, NETWORK_DELAY_TYPES.WLAN_DELAY);
 			}
-			if(value.getNetworkDelay(NETWORK_DELAY_TYPES.MAN_DELAY) != 0) {
-				manUsage[value.getTaskType()]++;
-				manDelay[value.getTaskType()] += value.getNetworkDelay(NETWORK_DELAY_TYPES.MAN_DELAY);
+			if(taskStore.getNetworkDelay(taskId, NETWORK_DELAY_TYPES.MAN_DELAY) != 0) {
+				manUsage[taskType]++;
+				manDelay[taskType] += taskStore.getNetworkDelay(taskId, NETWORK_DELAY_TYPES.MAN_DELAY);
 			}
-			if(value.getNetworkDelay(NETWORK_DELAY_TYPES.WAN_DELAY) != 0) {
-				wanUsage[value.getTaskType()]++;
-				wanDelay[value.getTaskType()] += value.getNetworkDelay(NETWORK_DELAY_TYPES.WAN_DELAY);
+			if(taskStore.getNetworkDelay(taskId, NETWORK_DELAY_TYPES.WAN_DELAY) != 0) {
+				wanUsage[taskType]++;
+				wanDelay[taskType] += taskStore.getNetworkDelay(taskId, NETWORK_DELAY_TYPES.WAN_DELAY);
 			}
-			if(value.getNetworkDelay(NETWORK_DELAY_TYPES.GSM_DELAY) != 0) {
-				gsmUsage[value.getTaskType()]++;
-				gsmDelay[value.getTaskType()] += value.getNetworkDelay(NETWORK_DELAY_TYPES.GSM_DELAY);
+			if(taskStore.getNetworkDelay(taskId, NETWORK_DELAY_TYPES.GSM_DELAY) != 0) {
+				gsmUsage[taskType]++;
+				gsmDelay[taskType] += taskStore.getNetworkDelay(taskId, NETWORK_DELAY_TYPES.GSM_DELAY);
 			}
 			
-			if (value.getVmType() == SimSettings.VM_TYPES.CLOUD_VM.ordinal()) {
-				serviceTimeOnCloud[value.getTaskType()] += value.getServiceTime();
-				processingTimeOnCloud[value.getTaskType()] += (value.getServiceTime() - value.getNetworkDelay());
+			if (vmType == SimSettings.VM_TYPES.CLOUD_VM.ordinal()) {
+				serviceTimeOnCloud[taskType] += taskStore.getServiceTime(taskId);
+				processingTimeOnCloud[taskType] += (taskStore.getServiceTime(taskId) - taskStore.getNetworkDelay(taskId));
 			}
-			else if (value.getVmType() == SimSettings.VM_TYPES.MOBILE_VM.ordinal()) {
-				serviceTimeOnMobile[value.getTaskType()] += value.getServiceTime();
-				processingTimeOnMobile[value.getTaskType()] += value.getServiceTime();
+			else if (vmType == SimSettings.VM_TYPES.MOBILE_VM.ordinal()) {
+				serviceTimeOnMobile[taskType] += taskStore.getServiceTime(taskId);
+				processingTimeOnMobile[taskType] += taskStore.getServiceTime(taskId);
 			}
 			else {
-				serviceTimeOnEdge[value.getTaskType()] += value.getServiceTime();
-				processingTimeOnEdge[value.getTaskType()] += (value.getServiceTime() - value.getNetworkDelay());
+				serviceTimeOnEdge[taskType] += taskStore.getServiceTime(taskId);
+				processingTimeOnEdge[taskType] += (taskStore.getServiceTime(taskId) - taskStore.getNetworkDelay(taskId));
 			}
-		} else if (value.getStatus() == SimLogger.TASK_STATUS.REJECTED_DUE_TO_VM_CAPACITY) {
-			failedTaskDueToVmCapacity[value.getTaskType()]++;
+		} else if (status == SimLogger.TASK_STATUS.REJECTED_DUE_TO_VM_CAPACITY) {
+			failedTaskDueToVmCapacity[taskType]++;
 			
-			if (value.getVmType() == SimSettings.VM_TYPES.CLOUD_VM.ordinal())
-				failedTaskDueToVmCapacityOnCloud[value.getTaskType()]++;
-			else if (value.getVmType() == SimSettings.VM_TYPES.MOBILE_VM.ordinal())
-				failedTaskDueToVmCapacityOnMobile[value.getTaskType()]++;
+			if (vmType == SimSettings.VM_TYPES.CLOUD_VM.ordinal())
+				failedTaskDueToVmCapacityOnCloud[taskType]++;
+			else if (vmType == SimSettings.VM_TYPES.MOBILE_VM.ordinal())
+				failedTaskDueToVmCapacityOnMobile[taskType]++;
 			else
-				failedTaskDueToVmCapacityOnEdge[value.getTaskType()]++;
-		} else if (value.getStatus() == SimLogger.TASK_STATUS.REJECTED_DUE_TO_BANDWIDTH
-				|| value.getStatus() == SimLogger.TASK_STATUS.UNFINISHED_DUE_TO_BANDWIDTH) {
-			failedTaskDuetoBw[value.getTaskType()]++;
-			if (value.getNetworkError() == NETWORK_ERRORS.LAN_ERROR)
-				failedTaskDuetoLanBw[value.getTaskType()]++;
-			else if (value.getNetworkError() == NETWORK_ERRORS.MAN_ERROR)
-				failedTaskDuetoManBw[value.getTaskType()]++;
-			else if (value.getNetworkError() == NETWORK_ERRORS.WAN_ERROR)
-				failedTaskDuetoWanBw[value.getTaskType()]++;
-			else if (value.getNetworkError() == NETWORK_ERRORS.GSM_ERROR)
-				failedTaskDuetoGsmBw[value.getTaskType()]++;
-		} else if (value.getStatus() == SimLogger.TASK_STATUS.UNFINISHED_DUE_TO_MOBILITY) {
-			failedTaskDuetoMobility[value.getTaskType()]++;
-		} else if (value.getStatus() == SimLogger.TASK_STATUS.REJECTED_DUE_TO_WLAN_COVERAGE) {
-			refectedTaskDuetoWlanRange[value.getTaskType()]++;;
+				failedTaskDueToVmCapacityOnEdge[taskType]++;
+		} else if (status == SimLogger.TASK_STATUS.REJECTED_DUE_TO_BANDWIDTH
+				|| status == SimLogger.TASK_STATUS.UNFINISHED_DUE_TO_BANDWIDTH) {
+			failedTaskDuetoBw[taskType]++;
+			if (taskStore.getNetworkError(taskId) == NETWORK_ERRORS.LAN_ERROR)
+				failedTaskDuetoLanBw[taskType]++;
+			else if (taskStore.getNetworkError(taskId) == NETWORK_ERRORS.MAN_ERROR)
+				failedTaskDuetoManBw[taskType]++;
+			else if (taskStore.getNetworkError(taskId) == NETWORK_ERRORS.WAN_ERROR)
+				failedTaskDuetoWanBw[taskType]++;
+			else if (taskStore.getNetworkError(taskId) == NETWORK_ERRORS.GSM_ERROR)
+				failedTaskDuetoGsmBw[taskType]++;
+		} else if (status == SimLogger.TASK_STATUS.UNFINISHED_DUE_TO_MOBILITY) {
+			failedTaskDuetoMobility[taskType]++;
+		} else if (status == SimLogger.TASK_STATUS.REJECTED_DUE_TO_WLAN_COVERAGE) {
+			refectedTaskDuetoWlanRange[taskType]++;;
         }
 		
 		//if deep file logging is enabled, record every task result
 		if (SimSettings.getInstance().getDeepFileLoggingEnabled()){
 			try {
-				if (value.getStatus() == SimLogger.TASK_STATUS.COMLETED)
-					appendToFile(successBW, value.toString(taskId));
-				else
-					appendToFile(failBW, value.toString(taskId));
+				if (SimSettings.getInstance().getBinaryDeepFileLoggingEnabled()) {
+					BinaryTaskLogWriter writer = (status == SimLogger.TASK_STATUS.COMLETED) ? successBinaryWriter : failBinaryWriter;
+					if (asyncLogWriter != null)
+						asyncLogWriter.submit(() -> taskStore.writeTo(writer, taskId));
+					else
+						taskStore.writeTo(writer, taskId);
+				}
+				else {
+					BufferedWriter bw = (status == SimLogger.TASK_STATUS.COMLETED) ? successBW : failBW;
+					//the line is also formatted by the background thread in async mode
+					if (asyncLogWriter != null) {
+						asyncLogWriter.submit(() -> {
+							bw.write(taskStore.toString(taskId));
+							bw.newLine();
+						});
+					}
+					else
+						appendToFile(bw, taskStore.toString(taskId));
+				}
 			} catch (IOException e) {
 				e.printStackTrace();
 				System.exit(1);
@@ -892,296 +1004,59 @@ class VmLoadLogItem {
 	}
 }
 
-class ApDelayLogItem {
-	private double time;
-	private double apUploadDelays[];
-	double[] apDownloadDelays;
-	
-	ApDelayLogItem(double _time, double[] _apUploadDelays, double[] _apDownloadDelays){
-		time = _time;
-		apUploadDelays = _apUploadDelays;
-		apDownloadDelays = _apDownloadDelays;
-	}
-	
-	public String getUploadStat() {
-		String result = Double.toString(time);
-		for(int i=0; i<apUploadDelays.length; i++)
-			result += SimSettings.DELIMITER + apUploadDelays[i];
-		
-		return result;
-	}
-
-	public String getDownloadStat() {
-		String result = Double.toString(time);
-		for(int i=0; i<apDownloadDelays.length; i++)
-			result += SimSettings.DELIMITER + apDownloadDelays[i];
-		
-		return result;
-	}
-}
-
-class LogItem {
-	private SimLogger.TASK_STATUS status;
-	private SimLogger.NETWORK_ERRORS networkError;
-	private int deviceId;
-	private int datacenterId;
-	private int hostId;
-	private int vmId;
-	private int vmType;
-	private int taskType;
-	private int taskLenght;
-	private int taskInputType;
-	private int taskOutputSize;
-	private double taskStartTime;
-	private double taskEndTime;
-	private double lanUploadDelay;
-	private double manUploadDelay;
-	private double wanUploadDelay;
-	private double gsmUploadDelay;
-	private double lanDownloadDelay;
-	private double manDownloadDelay;
-	private double wanDownloadDelay;
-	private double gsmDownloadDelay;
-	private double bwCost;
-	private double cpuCost;
-	private double QoE;
-	private double orchestratorOverhead;
-	private boolean isInWarmUpPeriod;
-
-	LogItem(int _deviceId, int _taskType, int _taskLenght, int _taskInputType, int _taskOutputSize) {
-		deviceId = _deviceId;
-		taskType = _taskType;
-		taskLenght = _taskLenght;
-		taskInputType = _taskInputType;
-		taskOutputSize = _taskOutputSize;
-		networkError = NETWORK_ERRORS.NONE;
-		status = SimLogger.TASK_STATUS.CREATED;
-		taskEndTime = 0;
-	}
-	
-	public void taskStarted(double time) {
-		taskStartTime = time;
-		status = SimLogger.TASK_STATUS.UPLOADING;
-		
-		if (time < SimSettings.getInstance().getWarmUpPeriod())
-			isInWarmUpPeriod = true;
-		else
-			isInWarmUpPeriod = false;
-	}
-	
-	public void setUploadDelay(double delay, NETWORK_DELAY_TYPES delayType) {
-		if(delayType == NETWORK_DELAY_TYPES.WLAN_DELAY)
-			lanUploadDelay = delay;
-		else if(delayType == NETWORK_DELAY_TYPES.MAN_DELAY)
-			manUploadDelay = delay;
-		else if(delayType == NETWORK_DELAY_TYPES.WAN_DELAY)
-			wanUploadDelay = delay;
-		else if(delayType == NETWORK_DELAY_TYPES.GSM_DELAY)
-			gsmUploadDelay = delay;
-	}
-	
-	public void setDownloadDelay(double delay, NETWORK_DELAY_TYPES delayType) {
-		if(delayType == NETWORK_DELAY_TYPES.WLAN_DELAY)
-			lanDownloadDelay = delay;
-		else if(delayType == NETWORK_DELAY_TYPES.MAN_DELAY)
-			manDownloadDelay = delay;
-		else if(delayType == NETWORK_DELAY_TYPES.WAN_DELAY)
-			wanDownloadDelay = delay;
-		else if(delayType == NETWORK_DELAY_TYPES.GSM_DELAY)
-			gsmDownloadDelay = delay;
-	}
-	
-	public void taskAssigned(int _datacenterId, int _hostId, int _vmId, int _vmType) {
-		status = SimLogger.TASK_STATUS.PROCESSING;
-		datacenterId = _datacenterId;
-		hostId = _hostId;
-		vmId = _vmId;
-		vmType = _vmType;
-	}
-
-	public void taskExecuted() {
-		status = SimLogger.TASK_STATUS.DOWNLOADING;
-	}
-
-	public void taskEnded(double time) {
-		taskEndTime = time;
-		status = SimLogger.TASK_STATUS.COMLETED;
-	}
-
-	public void taskRejectedDueToVMCapacity(double time, int _vmType) {
-		vmType = _vmType;
-		taskEndTime = time;
-		status = SimLogger.TASK_STATUS.REJECTED_DUE_TO_VM_CAPACITY;
-	}
-	
-	public void taskRejectedDueToWlanCoverage(double time, int _vmType) {
-		vmType = _vmType;
-		taskEndTime = time;
-		status = SimLogger.TASK_STATUS.REJECTED_DUE_TO_WLAN_COVERAGE;
-	}
-
-	public void taskRejectedDueToBandwidth(double time, int _vmType, NETWORK_DELAY_TYPES delayType) {
-		vmType = _vmType;
-		taskEndTime = time;
-		status = SimLogger.TASK_STATUS.REJECTED_DUE_TO_BANDWIDTH;
-		
-		if(delayType == NETWORK_DELAY_TYPES.WLAN_DELAY)
-			networkError = NETWORK_ERRORS.LAN_ERROR;
-		else if(delayType == NETWORK_DELAY_TYPES.MAN_DELAY)
-			networkError = NETWORK_ERRORS.MAN_ERROR;
-		else if(delayType == NETWORK_DELAY_TYPES.WAN_DELAY)
-			networkError = NETWORK_ERRORS.WAN_ERROR;
-		else if(delayType == NETWORK_DELAY_TYPES.GSM_DELAY)
-			networkError = NETWORK_ERRORS.GSM_ERROR;
-	}
-
-	public void taskFailedDueToBandwidth(double time, NETWORK_DELAY_TYPES delayType) {
-		taskEndTime = time;
-		status = SimLogger.TASK_STATUS.UNFINISHED_DUE_TO_BANDWIDTH;
-		
-		if(delayType == NETWORK_DELAY_TYPES.WLAN_DELAY)
-			networkError = NETWORK_ERRORS.LAN_ERROR;
-		else if(delayType == NETWORK_DELAY_TYPES.MAN_DELAY)
-			networkError = NETWORK_ERRORS.MAN_ERROR;
-		else if(delayType == NETWORK_DELAY_TYPES.WAN_DELAY)
-			networkError = NETWORK_ERRORS.WAN_ERROR;
-		else if(delayType == NETWORK_DELAY_TYPES.GSM_DELAY)
-			networkError = NETWORK_ERRORS.GSM_ERROR;
-	}
-
-	public void taskFailedDueToMobility(double time) {
-		taskEndTime = time;
-		status = SimLogger.TASK_STATUS.UNFINISHED_DUE_TO_MOBILITY;
-	}
-
-	public void setCost(double _bwCost, double _cpuCos) {
-		bwCost = _bwCost;
-		cpuCost = _cpuCos;
-	}
-	
-	public void setQoE(double qoe){
-		QoE = qoe;
-	}
-	
-	public void setOrchestratorOverhead(double overhead){
-		orchestratorOverhead = overhead;
-	}
-
-	public boolean isInWarmUpPeriod() {
-		return isInWarmUpPeriod;
-	}
-
-	public double getCost() {
-		return bwCost + cpuCost;
-	}
+/*
+ * keeps the AP delay logs in primitive arrays growing by doubling,
+ * instead of keeping a log item with its own arrays for each log
+ */
+class ApDelayLog {
+	private double[] times = new double[64];
+	private double[] apUploadDelays = new double[256];
+	private double[] apDownloadDelays = new double[256];
+
+	//delays of log i are in [offsets[i], offsets[i+1])
+	private int[] offsets = new int[65];
+	private int size;
+
+	void add(double time, double[] _apUploadDelays, double[] _apDownloadDelays) {
+		int offset = offsets[size];
+		int numOfDelays = _apUploadDelays.length;
+		if(size + 1 == times.length) {
+			times = Arrays.copyOf(times, times.length * 2);
+			offsets = Arrays.copyOf(offsets, times.length + 1);
+		}
+		if(offset + numOfDelays > apUploadDelays.length) {
+			int capacity = Math.max(apUploadDelays.length * 2, offset + numOfDelays);
+			apUploadDelays = Arrays.copyOf(apUploadDelays, capacity);
+			apDownloadDelays = Arrays.copyOf(apDownloadDelays, capacity);
+		}
 
-	public double getQoE() {
-		return QoE;
+		times[size] = time;
+		System.arraycopy(_apUploadDelays, 0, apUploadDelays, offset, numOfDelays);
+		System.arraycopy(_apDownloadDelays, 0, apDownloadDelays, offset, numOfDelays);
+		offsets[++size] = offset + numOfDelays;
 	}
 
-	public double getOrchestratorOverhead() {
-		return orchestratorOverhead;
-	}
-	
-	public double getNetworkUploadDelay(NETWORK_DELAY_TYPES delayType) {
-		double result = 0;
-		if(delayType == NETWORK_DELAY_TYPES.WLAN_DELAY)
-			result = lanUploadDelay;
-		else if(delayType == NETWORK_DELAY_TYPES.MAN_DELAY)
-			result = manUploadDelay;
-		else if(delayType == NETWORK_DELAY_TYPES.WAN_DELAY)
-			result = wanUploadDelay;
-		else if(delayType == NETWORK_DELAY_TYPES.GSM_DELAY)
-			result = gsmUploadDelay;
-		
-		return result;
+	int size() {
+		return size;
 	}
 
-	public double getNetworkDownloadDelay(NETWORK_DELAY_TYPES delayType) {
-		double result = 0;
-		if(delayType == NETWORK_DELAY_TYPES.WLAN_DELAY)
-			result = lanDownloadDelay;
-		else if(delayType == NETWORK_DELAY_TYPES.MAN_DELAY)
-			result = manDownloadDelay;
-		else if(delayType == NETWORK_DELAY_TYPES.WAN_DELAY)
-			result = wanDownloadDelay;
-		else if(delayType == NETWORK_DELAY_TYPES.GSM_DELAY)
-			result = gsmDownloadDelay;
-		
-		return result;
-	}
-	
-	public double getNetworkDelay(NETWORK_DELAY_TYPES delayType){
-		double result = 0;
-		if(delayType == NETWORK_DELAY_TYPES.WLAN_DELAY)
-			result = lanDownloadDelay + lanUploadDelay;
-		else if(delayType == NETWORK_DELAY_TYPES.MAN_DELAY)
-			result = manDownloadDelay + manUploadDelay;
-		else if(delayType == NETWORK_DELAY_TYPES.WAN_DELAY)
-			result = wanDownloadDelay + wanUploadDelay;
-		else if(delayType == NETWORK_DELAY_TYPES.GSM_DELAY)
-			result = gsmDownloadDelay + gsmUploadDelay;
-		
-		return result;
-	}
-	
-	public double getNetworkDelay(){
-		return  lanUploadDelay +
-				manUploadDelay +
-				wanUploadDelay +
-				gsmUploadDelay +
-				lanDownloadDelay +
-				manDownloadDelay +
-				wanDownloadDelay +
-				gsmDownloadDelay;
-	}
-	
-	public double getServiceTime() {
-		return taskEndTime - taskStartTime;
+	void clear() {
+		size = 0;
 	}
 
-	public SimLogger.TASK_STATUS getStatus() {
-		return status;
+	String getUploadStat(int index) {
+		return getStat(index, apUploadDelays);
 	}
 
-	public SimLogger.NETWORK_ERRORS getNetworkError() {
-		return networkError;
-	}
-	
-	public int getVmType() {
-		return vmType;
+	String getDownloadStat(int index) {
+		return getStat(index, apDownloadDelays);
 	}
 
-	public int getTaskType() {
-		return taskType;
-	}
+	private String getStat(int index, double[] delays) {
+		StringBuilder result = new StringBuilder(Double.toString(times[index]));
+		for(int i=offsets[index]; i<offsets[index+1]; i++)
+			result.append(SimSettings.DELIMITER).append(delays[i]);
 
-	public String toString(int taskId) {
-		String result = taskId + SimSettings.DELIMITER + deviceId + SimSettings.DELIMITER + datacenterId + SimSettings.DELIMITER + hostId
-				+ SimSettings.DELIMITER + vmId + SimSettings.DELIMITER + vmType + SimSettings.DELIMITER + taskType
-				+ SimSettings.DELIMITER + taskLenght + SimSettings.DELIMITER + taskInputType + SimSettings.DELIMITER
-				+ taskOutputSize + SimSettings.DELIMITER + taskStartTime + SimSettings.DELIMITER + taskEndTime
-				+ SimSettings.DELIMITER;
-
-		if (status == SimLogger.TASK_STATUS.COMLETED){
-			result += getNetworkDelay() + SimSettings.DELIMITER;
-			result += getNetworkDelay(NETWORK_DELAY_TYPES.WLAN_DELAY) + SimSettings.DELIMITER;
-			result += getNetworkDelay(NETWORK_DELAY_TYPES.MAN_DELAY) + SimSettings.DELIMITER;
-			result += getNetworkDelay(NETWORK_DELAY_TYPES.WAN_DELAY) + SimSettings.DELIMITER;
-			result += getNetworkDelay(NETWORK_DELAY_TYPES.GSM_DELAY);
-		}
-		else if (status == SimLogger.TASK_STATUS.REJECTED_DUE_TO_VM_CAPACITY)
-			result += "1"; // failure reason 1
-		else if (status == SimLogger.TASK_STATUS.REJECTED_DUE_TO_BANDWIDTH)
-			result += "2"; // failure reason 2
-		else if (status == SimLogger.TASK_STATUS.UNFINISHED_DUE_TO_BANDWIDTH)
-			result += "3"; // failure reason 3
-		else if (status == SimLogger.TASK_STATUS.UNFINISHED_DUE_TO_MOBILITY)
-			result += "4"; // failure reason 4
-        else if (status == SimLogger.TASK_STATUS.REJECTED_DUE_TO_WLAN_COVERAGE)
-            result += "5"; // failure reason 5
-		else
-			result += "0"; // default failure reason
-		return result;
+		return result.toString();
 	}
 }
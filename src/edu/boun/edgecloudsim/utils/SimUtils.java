@@ -16,26 +16,39 @@ import java.util.concurrent.TimeUnit;
 
 public class SimUtils {
 
-	public static final Random RNG = new Random(System.currentTimeMillis());
+	//shared stream, it is reseeded by RandomStreams at the beginning of each run
+	public static final Random RNG = new RandomStream(System.currentTimeMillis());
 
 	public static int getRandomNumber(int start, int end) {
+		return getRandomNumber(RNG, start, end);
+	}
+
+	public static double getRandomDoubleNumber(double start, double end) {
+		return getRandomDoubleNumber(RNG, start, end);
+	}
+
+	public static long getRandomLongNumber(long start, long end) {
+		return getRandomLongNumber(RNG, start, end);
+	}
+
+	public static int getRandomNumber(Random rng, int start, int end) {
 		//return pd.sample();
 		long range = (long)end - (long)start + 1;
-		long fraction = (long)(range * RNG.nextDouble());
+		long fraction = (long)(range * rng.nextDouble());
 		return (int)(fraction + start);
 	}
 
-	public static double getRandomDoubleNumber(double start, double end) {
+	public static double getRandomDoubleNumber(Random rng, double start, double end) {
 		//return pd.sample();
 		double range = end - start;
-		double fraction = (range * RNG.nextDouble());
+		double fraction = (range * rng.nextDouble());
 		return (fraction + start); 
 	}
 
-	public static long getRandomLongNumber(long start, long end) {
+	public static long getRandomLongNumber(Random rng, long start, long end) {
 		//return pd.sample();
 		long range = (long)end - (long)start + 1;
-		long fraction = (long)(range * RNG.nextDouble());
+		long fraction = (long)(range * rng.nextDouble());
 		return (fraction + start); 
 	}
 
@@ -0,0 +1,387 @@
+/*
+ * Title:        EdgeCloudSim - Task Log Store
+ *
+ * Description:
+ * TaskLogStore keeps the state of the tasks which are not recorded
+ * by SimLogger yet. Instead of creating an object for each task, the
+ * fields of the tasks are kept in primitive arrays indexed by the task
+ * id (struct of arrays), so updating the state of a task does not
+ * allocate any memory.
+ *
+ * The arrays are split into fixed size pages which are allocated on
+ * demand. Since the pages are never moved, the fields of a recorded
+ * task can safely be read by the background writer thread of
+ * SimLogger while new pages are allocated by the simulation thread.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.utils;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.core.SimSettings.NETWORK_DELAY_TYPES;
+import edu.boun.edgecloudsim.utils.SimLogger.NETWORK_ERRORS;
+import edu.boun.edgecloudsim.utils.SimLogger.TASK_STATUS;
+
+public class TaskLogStore {
+	private static final int PAGE_BITS = 12;
+	private static final int PAGE_SIZE = 1 << PAGE_BITS;
+	private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+	private static final TASK_STATUS[] STATUS_VALUES = TASK_STATUS.values();
+	private static final NETWORK_ERRORS[] NETWORK_ERROR_VALUES = NETWORK_ERRORS.values();
+	private static final int NUM_OF_DELAY_TYPES = NETWORK_DELAY_TYPES.values().length;
+
+	/*
+	 * fields of PAGE_SIZE consecutive tasks
+	 */
+	private static final class Page {
+		final boolean[] active = new boolean[PAGE_SIZE];
+		final boolean[] inWarmUpPeriod = new boolean[PAGE_SIZE];
+		final byte[] status = new byte[PAGE_SIZE];
+		final byte[] networkError = new byte[PAGE_SIZE];
+		final int[] deviceId = new int[PAGE_SIZE];
+		final int[] datacenterId = new int[PAGE_SIZE];
+		final int[] hostId = new int[PAGE_SIZE];
+		final int[] vmId = new int[PAGE_SIZE];
+		final int[] vmType = new int[PAGE_SIZE];
+		final int[] taskType = new int[PAGE_SIZE];
+		final int[] taskLenght = new int[PAGE_SIZE];
+		final int[] taskInputType = new int[PAGE_SIZE];
+		final int[] taskOutputSize = new int[PAGE_SIZE];
+		final double[] taskStartTime = new double[PAGE_SIZE];
+		final double[] taskEndTime = new double[PAGE_SIZE];
+		final double[][] uploadDelay = new double[NUM_OF_DELAY_TYPES][PAGE_SIZE];
+		final double[][] downloadDelay = new double[NUM_OF_DELAY_TYPES][PAGE_SIZE];
+		final double[] cost = new double[PAGE_SIZE];
+		final double[] QoE = new double[PAGE_SIZE];
+		final double[] orchestratorOverhead = new double[PAGE_SIZE];
+	}
+
+	//volatile, so that the writer thread always sees a completely filled page table
+	private volatile Page[] pages;
+	private int maxTaskId;
+	private int numOfActiveTasks;
+
+	public TaskLogStore() {
+		pages = new Page[16];
+		maxTaskId = -1;
+		numOfActiveTasks = 0;
+	}
+
+	/*
+	 * adds a new task, the previous state of the task is discarded if it exists
+	 */
+	public void add(int taskId, int deviceId, int taskType, int taskLenght, int taskInputType, int taskOutputSize) {
+		int pageIndex = taskId >>> PAGE_BITS;
+		if(pageIndex >= pages.length)
+			pages = Arrays.copyOf(pages, Math.max(2 * pages.length, pageIndex + 1));
+		if(pages[pageIndex] == null)
+			pages[pageIndex] = new Page();
+
+		Page page = pages[pageIndex];
+		int i = taskId & PAGE_MASK;
+
+		if(!page.active[i])
+			numOfActiveTasks++;
+		if(taskId > maxTaskId)
+			maxTaskId = taskId;
+
+		page.active[i] = true;
+		page.inWarmUpPeriod[i] = false;
+		page.status[i] = (byte)TASK_STATUS.CREATED.ordinal();
+		page.networkError[i] = (byte)NETWORK_ERRORS.NONE.ordinal();
+		page.deviceId[i] = deviceId;
+		page.datacenterId[i] = 0;
+		page.hostId[i] = 0;
+		page.vmId[i] = 0;
+		page.vmType[i] = 0;
+		page.taskType[i] = taskType;
+		page.taskLenght[i] = taskLenght;
+		page.taskInputType[i] = taskInputType;
+		page.taskOutputSize[i] = taskOutputSize;
+		page.taskStartTime[i] = 0;
+		page.taskEndTime[i] = 0;
+		for(int j=0; j<NUM_OF_DELAY_TYPES; j++){
+			page.uploadDelay[j][i] = 0;
+			page.downloadDelay[j][i] = 0;
+		}
+		page.cost[i] = 0;
+		page.QoE[i] = 0;
+		page.orchestratorOverhead[i] = 0;
+	}
+
+	/*
+	 * marks the task as recorded, its fields can still be read
+	 * until the same task id is added again
+	 */
+	public void remove(int taskId) {
+		Page page = getPage(taskId);
+		int i = taskId & PAGE_MASK;
+		if(page.active[i]){
+			page.active[i] = false;
+			numOfActiveTasks--;
+		}
+	}
+
+	public boolean contains(int taskId) {
+		int pageIndex = taskId >>> PAGE_BITS;
+		Page[] table = pages;
+		return taskId >= 0 && pageIndex < table.length && table[pageIndex] != null &&
+				table[pageIndex].active[taskId & PAGE_MASK];
+	}
+
+	public void clear() {
+		pages = new Page[16];
+		maxTaskId = -1;
+		numOfActiveTasks = 0;
+	}
+
+	/*
+	 * returns the highest task id added so far, -1 if the store is empty
+	 */
+	public int getMaxTaskId() {
+		return maxTaskId;
+	}
+
+	public int getNumOfActiveTasks() {
+		return numOfActiveTasks;
+	}
+
+	public void taskStarted(int taskId, double time) {
+		Page page = getPage(taskId);
+		int i = taskId & PAGE_MASK;
+		page.taskStartTime[i] = time;
+		page.status[i] = (byte)TASK_STATUS.UPLOADING.ordinal();
+		page.inWarmUpPeriod[i] = time < SimSettings.getInstance().getWarmUpPeriod();
+	}
+
+	public void setUploadDelay(int taskId, double delay, NETWORK_DELAY_TYPES delayType) {
+		getPage(taskId).uploadDelay[delayType.ordinal()][taskId & PAGE_MASK] = delay;
+	}
+
+	public void setDownloadDelay(int taskId, double delay, NETWORK_DELAY_TYPES delayType) {
+		getPage(taskId).downloadDelay[delayType.ordinal()][taskId & PAGE_MASK] = delay;
+	}
+
+	public void taskAssigned(int taskId, int datacenterId, int hostId, int vmId, int vmType) {
+		Page page = getPage(taskId);
+		int i = taskId & PAGE_MASK;
+		page.status[i] = (byte)TASK_STATUS.PROCESSING.ordinal();
+		page.datacenterId[i] = datacenterId;
+		page.hostId[i] = hostId;
+		page.vmId[i] = vmId;
+		page.vmType[i] = vmType;
+	}
+
+	public void taskExecuted(int taskId) {
+		getPage(taskId).status[taskId & PAGE_MASK] = (byte)TASK_STATUS.DOWNLOADING.ordinal();
+	}
+
+	public void taskEnded(int taskId, double time) {
+		setEndStatus(taskId, time, TASK_STATUS.COMLETED);
+	}
+
+	public void taskRejectedDueToVMCapacity(int taskId, double time, int vmType) {
+		getPage(taskId).vmType[taskId & PAGE_MASK] = vmType;
+		setEndStatus(taskId, time, TASK_STATUS.REJECTED_DUE_TO_VM_CAPACITY);
+	}
+
+	public void taskRejectedDueToWlanCoverage(int taskId, double time, int vmType) {
+		getPage(taskId).vmType[taskId & PAGE_MASK] = vmType;
+		setEndStatus(taskId, time, TASK_STATUS.REJECTED_DUE_TO_WLAN_COVERAGE);
+	}
+
+	public void taskRejectedDueToBandwidth(int taskId, double time, int vmType, NETWORK_DELAY_TYPES delayType) {
+		getPage(taskId).vmType[taskId & PAGE_MASK] = vmType;
+		setEndStatus(taskId, time, TASK_STATUS.REJECTED_DUE_TO_BANDWIDTH);
+		setNetworkError(taskId, delayType);
+	}
+
+	public void taskFailedDueToBandwidth(int taskId, double time, NETWORK_DELAY_TYPES delayType) {
+		setEndStatus(taskId, time, TASK_STATUS.UNFINISHED_DUE_TO_BANDWIDTH);
+		setNetworkError(taskId, delayType);
+	}
+
+	public void taskFailedDueToMobility(int taskId, double time) {
+		setEndStatus(taskId, time, TASK_STATUS.UNFINISHED_DUE_TO_MOBILITY);
+	}
+
+	public void setCost(int taskId, double bwCost, double cpuCost) {
+		getPage(taskId).cost[taskId & PAGE_MASK] = bwCost + cpuCost;
+	}
+
+	public void setQoE(int taskId, double QoE) {
+		getPage(taskId).QoE[taskId & PAGE_MASK] = QoE;
+	}
+
+	public void setOrchestratorOverhead(int taskId, double overhead) {
+		getPage(taskId).orchestratorOverhead[taskId & PAGE_MASK] = overhead;
+	}
+
+	public boolean isInWarmUpPeriod(int taskId) {
+		return getPage(taskId).inWarmUpPeriod[taskId & PAGE_MASK];
+	}
+
+	public double getCost(int taskId) {
+		return getPage(taskId).cost[taskId & PAGE_MASK];
+	}
+
+	public double getQoE(int taskId) {
+		return getPage(taskId).QoE[taskId & PAGE_MASK];
+	}
+
+	public double getOrchestratorOverhead(int taskId) {
+		return getPage(taskId).orchestratorOverhead[taskId & PAGE_MASK];
+	}
+
+	public double getNetworkUploadDelay(int taskId, NETWORK_DELAY_TYPES delayType) {
+		return getPage(taskId).uploadDelay[delayType.ordinal()][taskId & PAGE_MASK];
+	}
+
+	public double getNetworkDownloadDelay(int taskId, NETWORK_DELAY_TYPES delayType) {
+		return getPage(taskId).downloadDelay[delayType.ordinal()][taskId & PAGE_MASK];
+	}
+
+	public double getNetworkDelay(int taskId, NETWORK_DELAY_TYPES delayType) {
+		Page page = getPage(taskId);
+		int i = taskId & PAGE_MASK;
+		return page.downloadDelay[delayType.ordinal()][i] + page.uploadDelay[delayType.ordinal()][i];
+	}
+
+	/*
+	 * returns the sum of all upload and download delays
+	 */
+	public double getNetworkDelay(int taskId) {
+		Page page = getPage(taskId);
+		int i = taskId & PAGE_MASK;
+		double result = 0;
+		for(int j=0; j<NUM_OF_DELAY_TYPES; j++)
+			result += page.uploadDelay[j][i];
+		for(int j=0; j<NUM_OF_DELAY_TYPES; j++)
+			result += page.downloadDelay[j][i];
+		return result;
+	}
+
+	public double getServiceTime(int taskId) {
+		Page page = getPage(taskId);
+		int i = taskId & PAGE_MASK;
+		return page.taskEndTime[i] - page.taskStartTime[i];
+	}
+
+	public TASK_STATUS getStatus(int taskId) {
+		return STATUS_VALUES[getPage(taskId).status[taskId & PAGE_MASK]];
+	}
+
+	public NETWORK_ERRORS getNetworkError(int taskId) {
+		return NETWORK_ERROR_VALUES[getPage(taskId).networkError[taskId & PAGE_MASK]];
+	}
+
+	public int getVmType(int taskId) {
+		return getPage(taskId).vmType[taskId & PAGE_MASK];
+	}
+
+	public int getTaskType(int taskId) {
+		return getPage(taskId).taskType[taskId & PAGE_MASK];
+	}
+
+	/*
+	 * returns the task result in the format of the deep log files
+	 */
+	public String toString(int taskId) {
+		Page page = getPage(taskId);
+		int i = taskId & PAGE_MASK;
+
+		StringBuilder result = new StringBuilder();
+		result.append(taskId).append(SimSettings.DELIMITER)
+			.append(page.deviceId[i]).append(SimSettings.DELIMITER)
+			.append(page.datacenterId[i]).append(SimSettings.DELIMITER)
+			.append(page.hostId[i]).append(SimSettings.DELIMITER)
+			.append(page.vmId[i]).append(SimSettings.DELIMITER)
+			.append(page.vmType[i]).append(SimSettings.DELIMITER)
+			.append(page.taskType[i]).append(SimSettings.DELIMITER)
+			.append(page.taskLenght[i]).append(SimSettings.DELIMITER)
+			.append(page.taskInputType[i]).append(SimSettings.DELIMITER)
+			.append(page.taskOutputSize[i]).append(SimSettings.DELIMITER)
+			.append(page.taskStartTime[i]).append(SimSettings.DELIMITER)
+			.append(page.taskEndTime[i]).append(SimSettings.DELIMITER);
+
+		if (getStatus(taskId) == TASK_STATUS.COMLETED){
+			result.append(getNetworkDelay(taskId)).append(SimSettings.DELIMITER);
+			result.append(getNetworkDelay(taskId, NETWORK_DELAY_TYPES.WLAN_DELAY)).append(SimSettings.DELIMITER);
+			result.append(getNetworkDelay(taskId, NETWORK_DELAY_TYPES.MAN_DELAY)).append(SimSettings.DELIMITER);
+			result.append(getNetworkDelay(taskId, NETWORK_DELAY_TYPES.WAN_DELAY)).append(SimSettings.DELIMITER);
+			result.append(getNetworkDelay(taskId, NETWORK_DELAY_TYPES.GSM_DELAY));
+		}
+		else
+			result.append(getFailureReason(taskId));
+
+		return result.toString();
+	}
+
+	public void writeTo(BinaryTaskLogWriter writer, int taskId) throws IOException {
+		Page page = getPage(taskId);
+		int i = taskId & PAGE_MASK;
+		writer.writeRecord(taskId, page.deviceId[i], page.datacenterId[i], page.hostId[i],
+				page.vmId[i], page.vmType[i], page.taskType[i], page.taskLenght[i],
+				page.taskInputType[i], page.taskOutputSize[i],
+				page.taskStartTime[i], page.taskEndTime[i],
+				getNetworkDelay(taskId),
+				getNetworkDelay(taskId, NETWORK_DELAY_TYPES.WLAN_DELAY),
+				getNetworkDelay(taskId, NETWORK_DELAY_TYPES.MAN_DELAY),
+				getNetworkDelay(taskId, NETWORK_DELAY_TYPES.WAN_DELAY),
+				getNetworkDelay(taskId, NETWORK_DELAY_TYPES.GSM_DELAY),
+				(getStatus(taskId) == TASK_STATUS.COMLETED) ? BinaryTaskLogWriter.COMPLETED : getFailureReason(taskId));
+	}
+
+	private int getFailureReason(int taskId) {
+		TASK_STATUS status = getStatus(taskId);
+		if (status == TASK_STATUS.REJECTED_DUE_TO_VM_CAPACITY)
+			return 1; // failure reason 1
+		else if (status == TASK_STATUS.REJECTED_DUE_TO_BANDWIDTH)
+			return 2; // failure reason 2
+		else if (status == TASK_STATUS.UNFINISHED_DUE_TO_BANDWIDTH)
+			return 3; // failure reason 3
+		else if (status == TASK_STATUS.UNFINISHED_DUE_TO_MOBILITY)
+			return 4; // failure reason 4
+		else if (status == TASK_STATUS.REJECTED_DUE_TO_WLAN_COVERAGE)
+			return 5; // failure reason 5
+		else
+			return 0; // default failure reason
+	}
+
+	private void setEndStatus(int taskId, double time, TASK_STATUS status) {
+		Page page = getPage(taskId);
+		int i = taskId & PAGE_MASK;
+		page.taskEndTime[i] = time;
+		page.status[i] = (byte)status.ordinal();
+	}
+
+	private void setNetworkError(int taskId, NETWORK_DELAY_TYPES delayType) {
+		NETWORK_ERRORS networkError = NETWORK_ERRORS.NONE;
+		if(delayType == NETWORK_DELAY_TYPES.WLAN_DELAY)
+			networkError = NETWORK_ERRORS.LAN_ERROR;
+		else if(delayType == NETWORK_DELAY_TYPES.MAN_DELAY)
+			networkError = NETWORK_ERRORS.MAN_ERROR;
+		else if(delayType == NETWORK_DELAY_TYPES.WAN_DELAY)
+			networkError = NETWORK_ERRORS.WAN_ERROR;
+		else if(delayType == NETWORK_DELAY_TYPES.GSM_DELAY)
+			networkError = NETWORK_ERRORS.GSM_ERROR;
+		else
+			return;
+
+		getPage(taskId).networkError[taskId & PAGE_MASK] = (byte)networkError.ordinal();
+	}
+
+	private Page getPage(int taskId) {
+		Page[] table = pages;
+		int pageIndex = taskId >>> PAGE_BITS;
+		if(pageIndex >= table.length || table[pageIndex] == null)
+			throw new IllegalArgumentException("Task " + taskId + " is not added to the log!");
+		return table[pageIndex];
+	}
+}
@@ -0,0 +1,117 @@
+/*
+ * Title:        EdgeCloudSim - VM Utilization Aggregator
+ *
+ * Description:
+ * VmUtilizationAggregator keeps running sums of the CPU utilization of
+ * the VMs per host and for all hosts of a server manager. The sums are
+ * updated by CloudletSchedulerTimeShared_Custom whenever a cloudlet
+ * starts or stops running on a VM, so that the average utilization can
+ * be provided in constant time instead of visiting all VMs. The
+ * registered listeners are notified about each change as well.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class VmUtilizationAggregator {
+	private double[][] vmUtilization;
+	private double[] hostUtilization;
+	private double totalUtilization;
+	private int numOfVms;
+	private int numOfBusyVms;
+	private List<VmUtilizationListener> listeners;
+
+	public VmUtilizationAggregator(int numOfHosts) {
+		vmUtilization = new double[numOfHosts][0];
+		hostUtilization = new double[numOfHosts];
+		totalUtilization = 0;
+		numOfVms = 0;
+		numOfBusyVms = 0;
+		listeners = new ArrayList<VmUtilizationListener>();
+	}
+
+	/*
+	 * registers a new VM running on the given host
+	 * returns index of the VM on the host
+	 */
+	public int vmCreated(int hostIndex) {
+		int vmIndex = vmUtilization[hostIndex].length;
+		vmUtilization[hostIndex] = Arrays.copyOf(vmUtilization[hostIndex], vmIndex+1);
+		numOfVms++;
+		return vmIndex;
+	}
+
+	/*
+	 * called by the cloudlet scheduler of the VM when its utilization is changed
+	 */
+	public void vmUtilizationChanged(int hostIndex, int vmIndex, double utilization) {
+		double oldUtilization = vmUtilization[hostIndex][vmIndex];
+		vmUtilization[hostIndex][vmIndex] = utilization;
+
+		if(oldUtilization == 0 && utilization != 0)
+			numOfBusyVms++;
+		else if(oldUtilization != 0 && utilization == 0)
+			numOfBusyVms--;
+
+		//number of VMs on a host is small, so host sums are calculated from scratch
+		double sum = 0;
+		for(int i=0; i<vmUtilization[hostIndex].length; i++)
+			sum += vmUtilization[hostIndex][i];
+		hostUtilization[hostIndex] = sum;
+
+		//reset the sum when all VMs are idle to avoid accumulating rounding errors
+		if(numOfBusyVms == 0)
+			totalUtilization = 0;
+		else
+			totalUtilization += utilization - oldUtilization;
+
+		for(int i=0; i<listeners.size(); i++)
+			listeners.get(i).vmUtilizationChanged(hostIndex, vmIndex, utilization);
+	}
+
+	public void addListener(VmUtilizationListener listener) {
+		listeners.add(listener);
+	}
+
+	/*
+	 * returns average utilization of all VMs
+	 */
+	public double getAvgUtilization() {
+		return totalUtilization / (double)numOfVms;
+	}
+
+	/*
+	 * returns average utilization of the VMs running on the given host
+	 */
+	public double getAvgUtilizationOfHost(int hostIndex) {
+		return hostUtilization[hostIndex] / (double)vmUtilization[hostIndex].length;
+	}
+
+	/*
+	 * returns total utilization of the VMs running on the given host
+	 */
+	public double getTotalUtilizationOfHost(int hostIndex) {
+		return hostUtilization[hostIndex];
+	}
+
+	/*
+	 * returns utilization of the VM with the given index on the host
+	 */
+	public double getUtilizationOfVm(int hostIndex, int vmIndex) {
+		return vmUtilization[hostIndex][vmIndex];
+	}
+
+	public int getNumOfHosts() {
+		return vmUtilization.length;
+	}
+
+	public int getNumOfVms(int hostIndex) {
+		return vmUtilization[hostIndex].length;
+	}
+}
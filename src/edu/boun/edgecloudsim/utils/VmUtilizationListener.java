@@ -0,0 +1,20 @@
+/*
+ * Title:        EdgeCloudSim - VM Utilization Listener
+ *
+ * Description:
+ * VmUtilizationListener is notified by VmUtilizationAggregator
+ * whenever the CPU utilization of a VM is changed. It can be used
+ * to keep VM selection structures of the orchestrators up to date.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.utils;
+
+public interface VmUtilizationListener {
+	/*
+	 * called when the utilization of the VM with the given index on the host is changed
+	 */
+	public void vmUtilizationChanged(int hostIndex, int vmIndex, double utilization);
+}